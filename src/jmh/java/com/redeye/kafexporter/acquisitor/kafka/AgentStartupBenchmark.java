@@ -0,0 +1,176 @@
+package com.redeye.kafexporter.acquisitor.kafka;
+
+import java.io.IOException;
+import java.lang.instrument.Instrumentation;
+import java.net.JarURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.bytebuddy.agent.ByteBuddyAgent;
+
+/**
+ * 에이전트 기동 벤치마크<br>
+ * 새 JVM(fork)마다 1회 측정하며, kafka-clients 의 모든 클래스 로딩을 어플리케이션 기동으로 봄<br>
+ * - loadOnly: 에이전트 없이 클래스 로딩 - 기준 값<br>
+ * - start: premain 진입부터 기동 완료까지의 시간 - 변환기 설치 및 수집기 초기화, http exporter 서비스 기동은 제외<br>
+ * - startAndLoad: 에이전트 기동 후 클래스 로딩 - loadOnly 와의 차이가 에이전트가 기동에 더한 시간임<br>
+ * 변환기 수행 시간 합계(TransformMeter, 대상 여부 판단 포함)는 fork 종료시 출력함<br>
+ * 실행: mvn -Pjmh compile exec:exec -Dexec.args="-classpath %classpath org.openjdk.jmh.Main AgentStartupBenchmark"
+ * 
+ * @author jmsohn
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(value = 5, jvmArgsAppend = "-Djdk.attach.allowAttachSelf=true")
+public class AgentStartupBenchmark {
+	
+	
+	/** 로딩 대상 클래스의 패키지 경로 */
+	private static final String KAFKA_PACKAGE_PATH = "org/apache/kafka/";
+	
+	/** 로딩 대상 jar 를 찾기 위한 클래스 리소스 - 클래스를 로딩하지 않도록 리소스로 찾음 */
+	private static final String KAFKA_CLASS_RESOURCE = "org/apache/kafka/clients/consumer/KafkaConsumer.class";
+	
+	
+	/** 로딩할 클래스 명 목록 */
+	private List<String> classNames;
+	
+	/** 에이전트 기동 여부 */
+	private boolean started;
+	
+	
+	/**
+	 * kafka-clients jar 의 클래스 명 목록 생성
+	 */
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		
+		URL url = AgentStartupBenchmark.class.getClassLoader().getResource(KAFKA_CLASS_RESOURCE);
+		if(url == null) {
+			throw new IllegalStateException("kafka-clients is not found in classpath.");
+		}
+		
+		URLConnection conn = url.openConnection();
+		if((conn instanceof JarURLConnection) == false) {
+			throw new IllegalStateException("kafka-clients is not a jar: " + url);
+		}
+		
+		this.classNames = new ArrayList<>();
+		
+		try(JarFile jar = ((JarURLConnection)conn).getJarFile()) {
+			
+			Enumeration<JarEntry> entries = jar.entries();
+			
+			while(entries.hasMoreElements() == true) {
+				
+				String name = entries.nextElement().getName();
+				
+				if(name.startsWith(KAFKA_PACKAGE_PATH) == true && name.endsWith(".class") == true && name.contains("module-info") == false) {
+					this.classNames.add(name.substring(0, name.length() - ".class".length()).replace('/', '.'));
+				}
+			}
+		}
+	}
+	
+	/**
+	 * 변환기 수행 시간 출력 - 에이전트를 기동한 경우
+	 */
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		
+		if(this.started == true) {
+			System.out.println("transform: " + KafkaTransformer.getTransformMeter().toMap());
+		}
+	}
+	
+	/**
+	 * 에이전트 없이 클래스 로딩 - 기준 값
+	 * 
+	 * @return 로딩된 클래스 수
+	 */
+	@Benchmark
+	public int loadOnly() {
+		return this.loadClasses();
+	}
+	
+	/**
+	 * 에이전트 기동 - premain 진입부터 기동 완료까지
+	 */
+	@Benchmark
+	public void start() {
+		this.startAgent();
+	}
+	
+	/**
+	 * 에이전트 기동 후 클래스 로딩
+	 * 
+	 * @return 로딩된 클래스 수
+	 */
+	@Benchmark
+	public int startAndLoad() {
+		
+		this.startAgent();
+		return this.loadClasses();
+	}
+	
+	/**
+	 * 에이전트 기동 - KafExporter.start 와 같은 순서, http exporter 서비스 제외
+	 */
+	private void startAgent() {
+		
+		long startTime = System.nanoTime();
+		
+		Instrumentation inst = ByteBuddyAgent.install();
+		
+		KafkaTransformer.addKafkaTransformer(inst);
+		KafkaAcquisitor.init();
+		
+		KafkaTransformer.markReady(startTime);
+		
+		this.started = true;
+	}
+	
+	/**
+	 * 클래스 로딩 - 초기화는 하지 않으며, 선택 의존 라이브러리가 없어 로딩할 수 없는 클래스는 제외
+	 * 
+	 * @return 로딩된 클래스 수
+	 */
+	private int loadClasses() {
+		
+		ClassLoader loader = AgentStartupBenchmark.class.getClassLoader();
+		int loadedCount = 0;
+		
+		for(String className: this.classNames) {
+			try {
+				Class.forName(className, false, loader);
+				loadedCount++;
+			} catch(Throwable th) {
+				// 로딩 실패 클래스는 제외
+			}
+		}
+		
+		return loadedCount;
+	}
+}
@@ -0,0 +1,136 @@
+package com.redeye.kafexporter.acquisitor.kafka.advice;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.redeye.kafexporter.acquisitor.kafka.ClientRegistry;
+
+/**
+ * 컨슈머 클라이언트 순번 조회 비용 비교 벤치마크<br>
+ * 기존 방식: consumer.toString() 으로 클라이언트 아이디 맵(ConcurrentHashMap) 조회<br>
+ * 변경 방식: KafkaTransformer 가 추가한 순번 필드 읽기(KafkaConsumerConstructorAdvice.getClientOrdinal)<br>
+ * 실행: mvn -Pjmh compile exec:exec<br>
+ * 호출당 할당 메모리(gc.alloc.rate.norm) 비교시 -prof gc 옵션 추가<br>
+ * ex) mvn -Pjmh compile exec:exec -Dexec.args="-classpath %classpath org.openjdk.jmh.Main ClientOrdinalLookupBenchmark -prof gc"
+ * 
+ * @author jmsohn
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClientOrdinalLookupBenchmark {
+	
+	
+	/** 컨슈머 수 - 클라이언트 아이디 맵의 크기 */
+	@Param({"1", "64"})
+	private int consumerCount;
+	
+	/** 컨슈머 객체 목록 */
+	private Object[] consumers;
+	
+	/** 기존 방식의 클라이언트 아이디 맵 - key: 컨슈머 toString 값, value: 클라이언트 순번 */
+	private Map<String, Integer> clientIdMap;
+	
+	/** 다음 조회할 컨슈머 인덱스 */
+	private int index;
+	
+	
+	/**
+	 * 컨슈머 객체 생성 및 클라이언트 순번 설정
+	 */
+	@Setup
+	public void setup() {
+		
+		this.consumers = new Object[this.consumerCount];
+		this.clientIdMap = new ConcurrentHashMap<>();
+		
+		for(int count = 0; count < this.consumerCount; count++) {
+			
+			int clientOrdinal = count + 1;
+			
+			OrdinalConsumer consumer = new OrdinalConsumer();
+			consumer.kafexporter$setClientOrdinal(clientOrdinal);
+			
+			this.consumers[count] = consumer;
+			this.clientIdMap.put(consumer.toString(), clientOrdinal);
+		}
+	}
+	
+	/**
+	 * 기존 방식 - toString 후 맵 조회
+	 * 
+	 * @return 클라이언트 순번
+	 */
+	@Benchmark
+	public int toStringMapLookup() {
+		
+		Integer clientOrdinal = this.clientIdMap.get(this.nextConsumer().toString());
+		return (clientOrdinal == null)?ClientRegistry.NONE:clientOrdinal;
+	}
+	
+	/**
+	 * 변경 방식 - 추가된 순번 필드 읽기
+	 * 
+	 * @return 클라이언트 순번
+	 */
+	@Benchmark
+	public int injectedFieldRead() {
+		return KafkaConsumerConstructorAdvice.getClientOrdinal(this.nextConsumer());
+	}
+	
+	/**
+	 * 다음 조회할 컨슈머 객체 반환 - 컨슈머 목록을 순환함
+	 * 
+	 * @return 컨슈머 객체
+	 */
+	private Object nextConsumer() {
+		
+		Object consumer = this.consumers[this.index];
+		
+		if(++this.index == this.consumers.length) {
+			this.index = 0;
+		}
+		
+		return consumer;
+	}
+	
+	
+	/**
+	 * 순번 필드가 추가된 KafkaConsumer 대체 클래스<br>
+	 * KafkaTransformer 가 KafkaConsumer 에 추가하는 필드/인터페이스와 같은 구조이며,<br>
+	 * KafkaConsumer 와 같이 toString 을 재정의하지 않음(기존 방식의 키는 Object.toString 값)
+	 * 
+	 * @author jmsohn
+	 */
+	public static class OrdinalConsumer implements ClientOrdinalHolder {
+		
+		/** 클라이언트 순번 - KafkaTransformer 가 추가하는 필드 */
+		private int kafexporter$clientOrdinal;
+		
+		@Override
+		public int kafexporter$getClientOrdinal() {
+			return this.kafexporter$clientOrdinal;
+		}
+		
+		@Override
+		public void kafexporter$setClientOrdinal(int clientOrdinal) {
+			this.kafexporter$clientOrdinal = clientOrdinal;
+		}
+	}
+}
@@ -0,0 +1,100 @@
+package com.redeye.kafexporter;
+
+import java.io.File;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+/**
+ * kafka 정보 수집기 동적 연결 실행 클래스<br>
+ * 실행 중인 JVM 에 에이전트 jar 를 연결하여 재기동 없이 수집을 시작하기 위함<br>
+ * 사용법: java -jar KafExporter.jar &lt;pid&gt; [exporter 호스트:포트]<br>
+ * Attach API(com.sun.tools.attach)는 컴파일 의존성 없이 리플렉션으로 호출하며,<br>
+ * Java 8 의 경우 JDK 의 lib/tools.jar 에서 로딩함
+ * 
+ * @author jmsohn
+ */
+public class AgentLauncher {
+	
+	
+	/** Attach API VirtualMachine 클래스 명 */
+	private static final String VIRTUAL_MACHINE_CLASS = "com.sun.tools.attach.VirtualMachine";
+	
+	
+	/**
+	 * 메인 메소드
+	 * 
+	 * @param args 대상 JVM 프로세스 아이디, exporter 호스트:포트(선택)
+	 */
+	public static void main(String[] args) throws Exception {
+		
+		// 입력값 검증
+		if(args.length < 1 || args[0].matches("[0-9]+") == false) {
+			System.err.println("usage: java -jar KafExporter.jar <pid> [host:port]");
+			System.exit(1);
+			return;
+		}
+		
+		String pid = args[0];
+		String agentArgs = (args.length > 1)?args[1]:null;
+		
+		// 에이전트 jar 경로 - 현재 클래스가 포함된 jar
+		File agentJar = new File(AgentLauncher.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+		if(agentJar.isFile() == false) {
+			throw new IllegalStateException("agent jar is not found: " + agentJar);
+		}
+		
+		attach(pid, agentJar.getAbsolutePath(), agentArgs);
+		System.out.println("kafka exporter agent is loaded into " + pid + ".");
+	}
+	
+	/**
+	 * 대상 JVM 에 에이전트 jar 연결
+	 * 
+	 * @param pid 대상 JVM 프로세스 아이디
+	 * @param agentJarPath 에이전트 jar 경로
+	 * @param agentArgs 에이전트 옵션 문자열
+	 */
+	private static void attach(String pid, String agentJarPath, String agentArgs) throws Exception {
+		
+		Class<?> vmClass = loadVirtualMachineClass();
+		
+		Object vm = vmClass.getMethod("attach", String.class).invoke(null, pid);
+		
+		try {
+			
+			Method loadAgent = vmClass.getMethod("loadAgent", String.class, String.class);
+			loadAgent.invoke(vm, agentJarPath, agentArgs);
+			
+		} finally {
+			vmClass.getMethod("detach").invoke(vm);
+		}
+	}
+	
+	/**
+	 * Attach API VirtualMachine 클래스 로딩<br>
+	 * Java 9 이상은 jdk.attach 모듈에 있으며, Java 8 은 JDK 의 lib/tools.jar 에 있음
+	 * 
+	 * @return VirtualMachine 클래스
+	 */
+	private static Class<?> loadVirtualMachineClass() throws Exception {
+		
+		try {
+			return Class.forName(VIRTUAL_MACHINE_CLASS);
+		} catch(ClassNotFoundException cnfex) {
+			// Java 8 - tools.jar 에서 다시 찾음
+		}
+		
+		File javaHome = new File(System.getProperty("java.home"));
+		File toolsJar = new File(javaHome.getParentFile(), "lib" + File.separator + "tools.jar");
+		
+		if(toolsJar.isFile() == false) {
+			throw new IllegalStateException("attach api is not found(JDK is required): " + toolsJar);
+		}
+		
+		@SuppressWarnings("resource")
+		URLClassLoader loader = new URLClassLoader(new URL[] {toolsJar.toURI().toURL()}, AgentLauncher.class.getClassLoader());
+		
+		return Class.forName(VIRTUAL_MACHINE_CLASS, true, loader);
+	}
+}
@@ -4,9 +4,13 @@ import java.lang.instrument.Instrumentation;
 
 import com.redeye.kafexporter.acquisitor.kafka.KafkaAcquisitor;
 import com.redeye.kafexporter.acquisitor.kafka.KafkaTransformer;
+import com.redeye.kafexporter.exporter.http.kafka.AgentAdminController;
+import com.redeye.kafexporter.exporter.http.kafka.AgentOverheadController;
 import com.redeye.kafexporter.exporter.http.kafka.KafkaClientController;
 import com.redeye.kafexporter.exporter.http.kafka.KafkaConfigController;
 import com.redeye.kafexporter.exporter.http.kafka.KafkaMetricsController;
+import com.redeye.kafexporter.exporter.http.kafka.KafkaStatController;
+import com.redeye.kafexporter.util.EnvUtil;
 import com.redeye.kafexporter.util.StringUtil;
 import com.redeye.kafexporter.util.WebUtil;
 import com.redeye.kafexporter.util.http.service.HttpService;
@@ -22,6 +26,9 @@ public class KafExporter {
 	/** http exporter 서비스*/
 	private static HttpService service;
 	
+	/** 에이전트 기동 여부 - premain/agentmain 중복 기동 방지용 */
+	private static boolean started = false;
+	
 	
 	/**
 	 * 메인 메소드
@@ -30,19 +37,67 @@ public class KafExporter {
 	 * @param inst java 인스트루먼트 클래스
 	 */
 	public static void premain(String args, Instrumentation inst) {
+		start(args, inst, false);
+	}
+	
+	/**
+	 * 동적 연결 메인 메소드 - 실행 중인 JVM 에 에이전트를 연결한 경우 호출됨(AgentLauncher 참고)<br>
+	 * 이미 로딩된 Kafka 클래스는 어드바이스 그룹 설치시 재변환되며,<br>
+	 * 이미 생성된 클라이언트는 JMX 에 등록된 클라이언트 아이디로 복구함
+	 * 
+	 * @param args 에이전트 옵션 문자열
+	 * @param inst java 인스트루먼트 클래스
+	 */
+	public static void agentmain(String args, Instrumentation inst) {
+		start(args, inst, true);
+	}
+	
+	/**
+	 * 에이전트 기동
+	 * 
+	 * @param args 에이전트 옵션 문자열 - exporter 호스트:포트
+	 * @param inst java 인스트루먼트 클래스
+	 * @param attached 동적 연결 여부
+	 */
+	private static synchronized void start(String args, Instrumentation inst, boolean attached) {
+		
+		// 기동 시작 시간 - 기동 완료까지의 시간 측정용
+		long startTime = System.nanoTime();
+		
+		// 이미 기동된 경우
+		if(started == true) {
+			System.out.println("kafka exporter agent is already started.");
+			return;
+		}
+		
+		started = true;
 		
 		try {
-
+			
 			// kafka 메소드 변환
 			KafkaTransformer.addKafkaTransformer(inst);
 			
 			// kafka 정보 수집기 초기화
 			KafkaAcquisitor.init();
 			
+			// 이미 생성된 클라이언트 복구
+			if(attached == true) {
+				int count = KafkaAcquisitor.recoverClients();
+				System.out.println("kafka exporter agent is attached(recovered clients: " + count + ").");
+			}
+			
 			// exporter 서비스 기동
 			startHttpExporterService(args);
 			System.out.println("http exporter server(" + service.getHostStr() + ") is started.");
 			
+			// 기동 완료 표시 - 기동 시간 및 클래스 변환 시간 출력
+			KafkaTransformer.markReady(startTime);
+			System.out.printf(
+				"kafka exporter agent is ready(ready time: %.1f ms, transform time: %.1f ms).%n",
+				KafkaTransformer.getTransformMeter().getReadyTime(),
+				KafkaTransformer.getTransformMeter().getTransformTime()
+			);
+			
 		} catch(Exception ex) {
 			ex.printStackTrace();
 		}
@@ -64,7 +119,7 @@ public class KafExporter {
 		// exporter 호스트 및 포트 번호 획득
 		// 없을 경우 기본 설정 값 사용
 		if(StringUtil.isBlank(hostPortArgs) == false) {
-
+			
 			if(hostPortArgs.matches("[0-9]+") == true) {
 				
 				port = Integer.parseInt(hostPortArgs);
@@ -81,7 +136,7 @@ public class KafExporter {
 		// exporter 서버의 스레드 개수 설정
 		int threadCount = Integer
 			.parseInt(
-				getEnv("AGENT_EXPORTER_THREAD_COUNT", "-1")
+				EnvUtil.getEnv("AGENT_EXPORTER_THREAD_COUNT", "-1")
 			);
 		
 		// -----------------------------
@@ -93,26 +148,11 @@ public class KafExporter {
 		service.addController(new KafkaClientController());
 		service.addController(new KafkaConfigController());
 		service.addController(new KafkaMetricsController());
+		service.addController(new KafkaStatController());
+		service.addController(new AgentAdminController());
+		service.addController(new AgentOverheadController());
 		
 		// Http 서버 기동
 		service.start();
 	}
-	
-	/**
-	 * 환경 변수 설정 값 반환
-	 * 
-	 * @param name 환경 변수 명
-	 * @param defaultValue 환경 변수 미설정시 반환할 값
-	 * @return 환경 변수 설정 값
-	 */
-	private static String getEnv(String name, String defaultValue) {
-		
-		String value = System.getenv(name);
-		
-		if(StringUtil.isBlank(value) == true) {
-			return defaultValue;
-		} else {
-			return value;
-		}
-	}
 }
@@ -0,0 +1,227 @@
+package com.redeye.kafexporter.acquisitor.kafka;
+
+import java.security.ProtectionDomain;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import lombok.Getter;
+import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.DynamicType;
+import net.bytebuddy.matcher.ElementMatcher;
+import net.bytebuddy.utility.JavaModule;
+
+/**
+ * 실행 중 활성화/비활성화 가능한 어드바이스 그룹 클래스<br>
+ * 그룹은 대상 타입과 변환 목록만 가지며, 실제 변환은 모든 그룹이 공유하는 하나의 변환기(AdviceTransformer)가 수행함<br>
+ * 대상 타입은 클래스 명으로 지정(타입 명 사전 필터 대상)하거나, 이름을 알 수 없는 경우 타입 매처로 지정함<br>
+ * 재변환은 필드/메소드/인터페이스를 추가할 수 없으므로, 그룹의 변환은 기존 메소드에 어드바이스를 인라인하는 것으로 한정함
+ * 
+ * @author jmsohn
+ */
+public class AdviceGroup {
+	
+	
+	/** 그룹 명 */
+	@Getter
+	private final String name;
+	
+	/** 대상 클래스 명 목록 - 클래스 명으로 지정된 대상 */
+	private final Set<String> typeNameSet = new HashSet<>();
+	
+	/** 변환 대상 목록 */
+	private final List<Target> targetList = new ArrayList<>();
+	
+	/** 타입 매처로 지정된 대상 존재 여부 - 대상 여부를 클래스 명만으로 판단할 수 없음 */
+	@Getter
+	private boolean scanning = false;
+	
+	/** 활성화 여부 - 변환기가 클래스 로딩/재변환시 참조함 */
+	private volatile boolean enabled = true;
+	
+	
+	/**
+	 * 생성자
+	 * 
+	 * @param name 그룹 명
+	 */
+	public AdviceGroup(String name) {
+		
+		// 입력값 검증
+		if(name == null) {
+			throw new IllegalArgumentException("'name' is null.");
+		}
+		
+		this.name = name;
+	}
+	
+	/**
+	 * 클래스 명으로 변환 대상 추가
+	 * 
+	 * @param typeName 대상 클래스 명
+	 * @param transformer 변환 설정
+	 * @return 현재 객체
+	 */
+	public AdviceGroup target(String typeName, AgentBuilder.Transformer transformer) {
+		
+		// 입력값 검증
+		if(typeName == null) {
+			throw new IllegalArgumentException("'typeName' is null.");
+		}
+		
+		if(transformer == null) {
+			throw new IllegalArgumentException("'transformer' is null.");
+		}
+		
+		this.typeNameSet.add(typeName);
+		this.targetList.add(new Target(typeName, null, transformer));
+		
+		return this;
+	}
+	
+	/**
+	 * 타입 매처로 변환 대상 추가<br>
+	 * 클래스 명을 알 수 없는 대상(ex. 사용자 Serializer 구현 클래스)에 사용하며,<br>
+	 * 무시 대상이 아닌 모든 클래스에 대해 매처가 수행되므로 가능한 클래스 명으로 지정함
+	 * 
+	 * @param matcher 대상 타입 매처
+	 * @param transformer 변환 설정
+	 * @return 현재 객체
+	 */
+	public AdviceGroup target(ElementMatcher<? super TypeDescription> matcher, AgentBuilder.Transformer transformer) {
+		
+		// 입력값 검증
+		if(matcher == null) {
+			throw new IllegalArgumentException("'matcher' is null.");
+		}
+		
+		if(transformer == null) {
+			throw new IllegalArgumentException("'transformer' is null.");
+		}
+		
+		this.scanning = true;
+		this.targetList.add(new Target(null, matcher, transformer));
+		
+		return this;
+	}
+	
+	/**
+	 * 클래스 명으로 지정된 대상 클래스 명 목록 반환
+	 * 
+	 * @return 대상 클래스 명 목록
+	 */
+	public Set<String> getTypeNameSet() {
+		return Collections.unmodifiableSet(this.typeNameSet);
+	}
+	
+	/**
+	 * 활성화 여부 반환
+	 * 
+	 * @return 활성화 여부
+	 */
+	public boolean isEnabled() {
+		return this.enabled;
+	}
+	
+	/**
+	 * 활성화 여부 설정 - 이미 로딩된 클래스의 재변환은 AdviceTransformer 에서 수행함
+	 * 
+	 * @param enabled 활성화 여부
+	 */
+	void setEnabled(boolean enabled) {
+		this.enabled = enabled;
+	}
+	
+	/**
+	 * 변환 대상 타입 여부 반환
+	 * 
+	 * @param typeDescription 타입 정보
+	 * @return 변환 대상 타입 여부
+	 */
+	boolean matches(TypeDescription typeDescription) {
+		
+		for(Target target: this.targetList) {
+			if(target.matches(typeDescription) == true) {
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * 대상 타입에 그룹의 변환 적용
+	 * 
+	 * @param builder 타입 빌더
+	 * @param typeDescription 타입 정보
+	 * @param classLoader 클래스 로더
+	 * @param module 모듈
+	 * @param protectionDomain 보호 도메인
+	 * @return 변환이 적용된 타입 빌더
+	 */
+	DynamicType.Builder<?> transform(
+		DynamicType.Builder<?> builder,
+		TypeDescription typeDescription,
+		ClassLoader classLoader,
+		JavaModule module,
+		ProtectionDomain protectionDomain
+	) {
+		
+		for(Target target: this.targetList) {
+			if(target.matches(typeDescription) == true) {
+				builder = target.transformer.transform(builder, typeDescription, classLoader, module, protectionDomain);
+			}
+		}
+		
+		return builder;
+	}
+	
+	
+	/**
+	 * 변환 대상 클래스
+	 * 
+	 * @author jmsohn
+	 */
+	private static class Target {
+		
+		/** 대상 클래스 명 - 타입 매처로 지정된 경우 null */
+		private final String typeName;
+		
+		/** 대상 타입 매처 - 클래스 명으로 지정된 경우 null */
+		private final ElementMatcher<? super TypeDescription> matcher;
+		
+		/** 변환 설정 */
+		private final AgentBuilder.Transformer transformer;
+		
+		/**
+		 * 생성자
+		 * 
+		 * @param typeName 대상 클래스 명
+		 * @param matcher 대상 타입 매처
+		 * @param transformer 변환 설정
+		 */
+		Target(String typeName, ElementMatcher<? super TypeDescription> matcher, AgentBuilder.Transformer transformer) {
+			this.typeName = typeName;
+			this.matcher = matcher;
+			this.transformer = transformer;
+		}
+		
+		/**
+		 * 변환 대상 타입 여부 반환
+		 * 
+		 * @param typeDescription 타입 정보
+		 * @return 변환 대상 타입 여부
+		 */
+		boolean matches(TypeDescription typeDescription) {
+			
+			if(this.typeName != null) {
+				return this.typeName.equals(typeDescription.getName());
+			} else {
+				return this.matcher.matches(typeDescription);
+			}
+		}
+	}
+}
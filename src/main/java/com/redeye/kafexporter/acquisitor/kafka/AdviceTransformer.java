@@ -0,0 +1,294 @@
+package com.redeye.kafexporter.acquisitor.kafka;
+
+import java.lang.instrument.Instrumentation;
+import java.lang.instrument.UnmodifiableClassException;
+import java.security.ProtectionDomain;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.agent.builder.AgentBuilder.RedefinitionStrategy;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.DynamicType;
+import net.bytebuddy.matcher.ElementMatcher;
+import net.bytebuddy.utility.JavaModule;
+
+/**
+ * 어드바이스 그룹 통합 변환기 클래스<br>
+ * 모든 어드바이스 그룹을 하나의 AgentBuilder(ClassFileTransformer)로 설치하여,<br>
+ * JVM 이 로딩하는 클래스마다 수행되는 변환기 호출을 그룹 수와 관계 없이 1회로 줄임<br>
+ * 대상 여부는 클래스 명 사전 필터(HashMap 조회)로 먼저 판단하며, 타입 매처로 지정된 그룹만 타입 정보를 분석함<br>
+ * 그룹 활성화/비활성화시 변환기는 유지하고, 그룹의 대상 클래스만 재변환하여 어드바이스 코드를 추가/제거함
+ * 
+ * @author jmsohn
+ */
+public class AdviceTransformer {
+	
+	
+	/** 어드바이스 그룹 맵 - key: 그룹 명, value: 어드바이스 그룹 */
+	private final Map<String, AdviceGroup> adviceGroupMap = new HashMap<>();
+	
+	/** 클래스 명별 어드바이스 그룹 목록 - 타입 명 사전 필터 */
+	private final Map<String, List<AdviceGroup>> typeNameGroupMap = new HashMap<>();
+	
+	/** 타입 매처로 대상이 지정된 어드바이스 그룹 목록 */
+	private final List<AdviceGroup> scanningGroupList = new ArrayList<>();
+	
+	/** 무시 대상 타입 매처 */
+	private final ElementMatcher<? super TypeDescription> ignoreMatcher;
+	
+	/** Java 인스트루먼트 객체 - 설치 전일 경우 null */
+	private Instrumentation inst;
+	
+	/** 재변환 지원 여부 - 미지원시 비활성화 불가 */
+	private boolean retransformable;
+	
+	
+	/**
+	 * 생성자
+	 * 
+	 * @param ignoreMatcher 무시 대상 타입 매처
+	 */
+	public AdviceTransformer(ElementMatcher<? super TypeDescription> ignoreMatcher) {
+		
+		// 입력값 검증
+		if(ignoreMatcher == null) {
+			throw new IllegalArgumentException("'ignoreMatcher' is null.");
+		}
+		
+		this.ignoreMatcher = ignoreMatcher;
+	}
+	
+	/**
+	 * 어드바이스 그룹 등록 - 설치 전에만 가능
+	 * 
+	 * @param adviceGroup 어드바이스 그룹
+	 * @return 현재 객체
+	 */
+	public synchronized AdviceTransformer addAdviceGroup(AdviceGroup adviceGroup) {
+		
+		// 입력값 검증
+		if(adviceGroup == null) {
+			throw new IllegalArgumentException("'adviceGroup' is null.");
+		}
+		
+		if(this.inst != null) {
+			throw new IllegalStateException("advice transformer is already installed.");
+		}
+		
+		this.adviceGroupMap.put(adviceGroup.getName(), adviceGroup);
+		
+		for(String typeName: adviceGroup.getTypeNameSet()) {
+			this.typeNameGroupMap
+				.computeIfAbsent(typeName, key -> new ArrayList<>())
+				.add(adviceGroup);
+		}
+		
+		if(adviceGroup.isScanning() == true) {
+			this.scanningGroupList.add(adviceGroup);
+		}
+		
+		return this;
+	}
+	
+	/**
+	 * 변환기 설치<br>
+	 * 재변환을 지원할 경우 이미 로딩된 대상 클래스도 변환함
+	 * 
+	 * @param agentBuilder 공통 설정(무시 대상, 타입 풀, 리스너)이 적용된 AgentBuilder
+	 * @param inst Java 인스트루먼트 객체
+	 */
+	public synchronized void install(AgentBuilder agentBuilder, Instrumentation inst) {
+		
+		// 입력값 검증
+		if(agentBuilder == null) {
+			throw new IllegalArgumentException("'agentBuilder' is null.");
+		}
+		
+		if(inst == null) {
+			throw new IllegalArgumentException("'inst' is null.");
+		}
+		
+		if(this.inst != null) {
+			return;
+		}
+		
+		// 재변환을 지원하지 않을 경우 이후 로딩되는 클래스에만 적용되며 비활성화 불가
+		this.retransformable = inst.isRetransformClassesSupported();
+		
+		AgentBuilder builder = agentBuilder.disableClassFormatChanges();
+		
+		if(this.retransformable == true) {
+			builder = builder.with(RedefinitionStrategy.RETRANSFORMATION);
+		}
+		
+		builder
+			.type(this::matches)
+			.transform(this::transform)
+			.installOn(inst);
+		
+		this.inst = inst;
+	}
+	
+	/**
+	 * 어드바이스 그룹별 활성화 여부 반환
+	 * 
+	 * @return 활성화 여부 맵 - key: 그룹 명, value: 활성화 여부
+	 */
+	public synchronized Map<String, Boolean> getAdviceGroupStatus() {
+		
+		Map<String, Boolean> statusMap = new TreeMap<>();
+		
+		for(AdviceGroup adviceGroup: this.adviceGroupMap.values()) {
+			statusMap.put(adviceGroup.getName(), adviceGroup.isEnabled());
+		}
+		
+		return statusMap;
+	}
+	
+	/**
+	 * 어드바이스 그룹 활성화/비활성화<br>
+	 * 이미 로딩된 그룹의 대상 클래스를 재변환하여 어드바이스 코드를 추가/제거함
+	 * 
+	 * @param name 그룹 명
+	 * @param enabled 활성화 여부
+	 */
+	public synchronized void setEnabled(String name, boolean enabled) {
+		
+		// 어드바이스 그룹 획득
+		AdviceGroup adviceGroup = this.adviceGroupMap.get(name);
+		if(adviceGroup == null) {
+			throw new IllegalArgumentException("advice group is not found: " + name);
+		}
+		
+		// 변경 사항이 없는 경우
+		if(adviceGroup.isEnabled() == enabled) {
+			return;
+		}
+		
+		if(enabled == false && this.retransformable == false) {
+			throw new IllegalStateException("retransformation is not supported: " + name);
+		}
+		
+		adviceGroup.setEnabled(enabled);
+		
+		// 설치 전이거나 재변환을 지원하지 않을 경우 이후 로딩되는 클래스에만 적용
+		if(this.inst == null || this.retransformable == false) {
+			return;
+		}
+		
+		// 그룹의 대상 클래스 재변환
+		try {
+			retransform(adviceGroup);
+		} catch(UnmodifiableClassException ucex) {
+			throw new IllegalStateException("retransformation is failed: " + name, ucex);
+		}
+	}
+	
+	/**
+	 * 이미 로딩된 어드바이스 그룹의 대상 클래스 재변환
+	 * 
+	 * @param adviceGroup 어드바이스 그룹
+	 */
+	private void retransform(AdviceGroup adviceGroup) throws UnmodifiableClassException {
+		
+		List<Class<?>> targetList = new ArrayList<>();
+		
+		for(Class<?> loadedClass: this.inst.getAllLoadedClasses()) {
+			
+			// 클래스 명 사전 필터 - 타입 매처 대상이 없는 그룹은 이름만으로 판단
+			if(adviceGroup.getTypeNameSet().contains(loadedClass.getName()) == false && adviceGroup.isScanning() == false) {
+				continue;
+			}
+			
+			if(loadedClass.getClassLoader() == null || this.inst.isModifiableClass(loadedClass) == false) {
+				continue;
+			}
+			
+			TypeDescription typeDescription = TypeDescription.ForLoadedType.of(loadedClass);
+			
+			if(this.ignoreMatcher.matches(typeDescription) == false && adviceGroup.matches(typeDescription) == true) {
+				targetList.add(loadedClass);
+			}
+		}
+		
+		if(targetList.isEmpty() == false) {
+			this.inst.retransformClasses(targetList.toArray(new Class<?>[0]));
+		}
+	}
+	
+	/**
+	 * 변환 대상 타입 여부 반환 - 활성화된 그룹 중 하나라도 대상일 경우 변환 대상임
+	 * 
+	 * @param typeDescription 타입 정보
+	 * @return 변환 대상 타입 여부
+	 */
+	private boolean matches(TypeDescription typeDescription) {
+		
+		// 클래스 명 사전 필터
+		List<AdviceGroup> adviceGroupList = this.typeNameGroupMap.get(typeDescription.getName());
+		
+		if(adviceGroupList != null) {
+			for(AdviceGroup adviceGroup: adviceGroupList) {
+				if(adviceGroup.isEnabled() == true) {
+					return true;
+				}
+			}
+		}
+		
+		// 타입 매처로 지정된 그룹
+		for(AdviceGroup adviceGroup: this.scanningGroupList) {
+			if(adviceGroup.isEnabled() == true && adviceGroup.matches(typeDescription) == true) {
+				return true;
+			}
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * 활성화된 어드바이스 그룹의 변환 적용
+	 * 
+	 * @param builder 타입 빌더
+	 * @param typeDescription 타입 정보
+	 * @param classLoader 클래스 로더
+	 * @param module 모듈
+	 * @param protectionDomain 보호 도메인
+	 * @return 변환이 적용된 타입 빌더
+	 */
+	private DynamicType.Builder<?> transform(
+		DynamicType.Builder<?> builder,
+		TypeDescription typeDescription,
+		ClassLoader classLoader,
+		JavaModule module,
+		ProtectionDomain protectionDomain
+	) {
+		
+		List<AdviceGroup> adviceGroupList = this.typeNameGroupMap.get(typeDescription.getName());
+		
+		if(adviceGroupList != null) {
+			for(AdviceGroup adviceGroup: adviceGroupList) {
+				if(adviceGroup.isEnabled() == true) {
+					builder = adviceGroup.transform(builder, typeDescription, classLoader, module, protectionDomain);
+				}
+			}
+		}
+		
+		// 타입 매처로 지정된 그룹은 대상 타입일 경우에만 적용 - 다른 그룹의 대상 클래스에 적용되지 않도록 함
+		for(AdviceGroup adviceGroup: this.scanningGroupList) {
+			
+			if(adviceGroup.isEnabled() == false || (adviceGroupList != null && adviceGroupList.contains(adviceGroup) == true)) {
+				continue;
+			}
+			
+			if(adviceGroup.matches(typeDescription) == true) {
+				builder = adviceGroup.transform(builder, typeDescription, classLoader, module, protectionDomain);
+			}
+		}
+		
+		return builder;
+	}
+}
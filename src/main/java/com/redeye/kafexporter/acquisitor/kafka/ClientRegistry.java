@@ -0,0 +1,117 @@
+package com.redeye.kafexporter.acquisitor.kafka;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.redeye.kafexporter.util.OrdinalRegistry;
+
+/**
+ * Kafka 클라이언트 순번 등록 클래스<br>
+ * 클라이언트 아이디마다 작은 정수 순번(ordinal)을 부여하여,<br>
+ * 수집 경로에서 문자열 대신 순번으로 클라이언트를 구분하기 위함<br>
+ * 순번은 1 부터 시작하며, 0 은 미등록 클라이언트를 의미함<br>
+ * 종료된 클라이언트의 순번은 등록 해제되며, 재사용 대기 시간이 지난 후 다른 클라이언트에 다시 부여될 수 있음
+ * 
+ * @author jmsohn
+ */
+public class ClientRegistry {
+	
+	
+	/** 미등록 클라이언트 순번 */
+	public static final int NONE = OrdinalRegistry.NONE;
+	
+	
+	/** 순번 재사용 대기 시간 - 단위: ms, 종료된 클라이언트의 통계 데이터가 모든 데몬에서 정리될 때까지의 여유 시간 */
+	public static final long ORDINAL_REUSE_DELAY = 60 * 1000L;
+	
+	
+	/** 클라이언트 아이디 순번 등록 객체 */
+	private static final OrdinalRegistry registry = new OrdinalRegistry(ORDINAL_REUSE_DELAY);
+	
+	/**
+	 * 클라이언트 아이디별 동작 중인 클라이언트 객체 수 - 생성자 어드바이스로 등록된 클라이언트만 포함<br>
+	 * 같은 아이디의 클라이언트가 여러 개일 경우 마지막 클라이언트가 종료될 때 등록 해제하기 위함
+	 */
+	private static final Map<String, Integer> openCountMap = new ConcurrentHashMap<>();
+	
+	
+	/**
+	 * 클라이언트 아이디 등록 후 순번 반환 - 클라이언트 객체 생성시 호출<br>
+	 * 이미 등록된 클라이언트 아이디일 경우 기존 순번 반환하며, 동작 중인 클라이언트 객체 수를 증가시킴
+	 * 
+	 * @param clientId 클라이언트 아이디
+	 * @return 클라이언트 순번
+	 */
+	public static synchronized int register(String clientId) {
+		
+		// 입력값 검증
+		if(clientId == null) {
+			throw new IllegalArgumentException("'clientId' is null.");
+		}
+		
+		openCountMap.merge(clientId, 1, Integer::sum);
+		return registry.register(clientId);
+	}
+	
+	/**
+	 * 클라이언트 객체 종료 - 동작 중인 클라이언트 객체 수를 감소시킴<br>
+	 * 등록 해제는 종료된 클라이언트의 정보를 정리한 후 unregister 로 수행함
+	 * 
+	 * @param clientId 클라이언트 아이디
+	 * @return 같은 아이디로 동작 중인 클라이언트 객체가 없는지 여부
+	 */
+	public static synchronized boolean release(String clientId) {
+		
+		if(clientId == null) {
+			return false;
+		}
+		
+		return openCountMap.computeIfPresent(clientId, (key, count) -> (count > 1)?count - 1:null) == null;
+	}
+	
+	/**
+	 * 클라이언트 아이디 등록 해제<br>
+	 * release 이후 같은 아이디의 클라이언트가 다시 생성된 경우 해제하지 않음
+	 * 
+	 * @param clientId 클라이언트 아이디
+	 * @return 해제된 클라이언트 순번, 해제하지 않았거나 미등록일 경우 NONE(0)
+	 */
+	public static synchronized int unregister(String clientId) {
+		
+		if(clientId == null || openCountMap.containsKey(clientId) == true) {
+			return NONE;
+		}
+		
+		return registry.unregister(clientId);
+	}
+	
+	/**
+	 * 클라이언트 아이디의 순번 반환, 미등록일 경우 등록 후 반환
+	 * 
+	 * @param clientId 클라이언트 아이디
+	 * @return 클라이언트 순번, 클라이언트 아이디가 null 일 경우 NONE(0)
+	 */
+	public static int getOrRegister(String clientId) {
+		return registry.getOrRegister(clientId);
+	}
+	
+	/**
+	 * 클라이언트 아이디의 순번 반환
+	 * 
+	 * @param clientId 클라이언트 아이디
+	 * @return 클라이언트 순번, 미등록일 경우 NONE(0)
+	 */
+	public static int getOrdinal(String clientId) {
+		return registry.getOrdinal(clientId);
+	}
+	
+	/**
+	 * 순번에 해당하는 클라이언트 아이디 반환
+	 * 
+	 * @param ordinal 클라이언트 순번
+	 * @return 클라이언트 아이디, 미등록일 경우 null
+	 */
+	public static String getClientId(int ordinal) {
+		return registry.getName(ordinal);
+	}
+}
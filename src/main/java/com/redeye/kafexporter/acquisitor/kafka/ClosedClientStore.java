@@ -0,0 +1,110 @@
+package com.redeye.kafexporter.acquisitor.kafka;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import lombok.Getter;
+
+/**
+ * 최근 종료된 클라이언트의 최종 통계 정보 저장소 클래스<br>
+ * 종료된 클라이언트의 정보는 수집 데이터(설정 값, 클라이언트 순번, 통계 데이터)에서 제거되므로,<br>
+ * 종료 시점의 통계 정보를 최근 종료 순으로 최대 개수만큼 보관함<br>
+ * 최대 개수를 넘을 경우 가장 오래 전에 종료된 클라이언트부터 제거됨
+ * 
+ * @author jmsohn
+ */
+public class ClosedClientStore {
+	
+	
+	/** 기본 최대 보관 클라이언트 수 */
+	public static final int DEFAULT_LIMIT = 32;
+	
+	
+	/** 최대 보관 클라이언트 수 - 0 이하일 경우 보관하지 않음 */
+	@Getter
+	private volatile int limit = DEFAULT_LIMIT;
+	
+	/** 종료된 클라이언트 정보 맵 - key: 클라이언트 아이디, 종료 순 */
+	private final LinkedHashMap<String, Map<String, Object>> closedClientMap = new LinkedHashMap<>();
+	
+	
+	/**
+	 * 최대 보관 클라이언트 수 설정
+	 * 
+	 * @param limit 최대 보관 클라이언트 수 - 0 이하일 경우 보관하지 않음
+	 * @return 현재 객체
+	 */
+	public synchronized ClosedClientStore setLimit(int limit) {
+		
+		this.limit = limit;
+		this.trim();
+		
+		return this;
+	}
+	
+	/**
+	 * 종료된 클라이언트 정보 추가<br>
+	 * 같은 아이디의 클라이언트가 이미 있을 경우 대체하며, 가장 최근 종료된 클라이언트가 됨
+	 * 
+	 * @param clientId 클라이언트 아이디
+	 * @param clientType 클라이언트 타입
+	 * @param statMap 종료 시점의 통계 정보
+	 */
+	public synchronized void put(String clientId, KafkaAcquisitor.ClientType clientType, Map<String, Object> statMap) {
+		
+		// 입력값 검증
+		if(clientId == null) {
+			throw new IllegalArgumentException("'clientId' is null.");
+		}
+		
+		if(this.limit <= 0) {
+			return;
+		}
+		
+		Map<String, Object> closedMap = new LinkedHashMap<>();
+		
+		closedMap.put("type", (clientType == null)?null:clientType.name().toLowerCase());
+		closedMap.put("closeTime", System.currentTimeMillis());
+		closedMap.put("stat", statMap);
+		
+		this.closedClientMap.remove(clientId);
+		this.closedClientMap.put(clientId, closedMap);
+		
+		this.trim();
+	}
+	
+	/**
+	 * 최대 보관 클라이언트 수를 넘는 오래된 클라이언트 정보 제거
+	 */
+	private void trim() {
+		
+		Iterator<String> clientIdIter = this.closedClientMap.keySet().iterator();
+		
+		while(this.closedClientMap.size() > Math.max(this.limit, 0) && clientIdIter.hasNext() == true) {
+			clientIdIter.next();
+			clientIdIter.remove();
+		}
+	}
+	
+	/**
+	 * 종료된 클라이언트 정보 반환 - 최근 종료 순
+	 * 
+	 * @return 종료된 클라이언트 정보 맵 - key: 클라이언트 아이디, value: 타입, 종료 시간, 통계 정보
+	 */
+	public synchronized Map<String, Map<String, Object>> toMap() {
+		
+		Map<String, Map<String, Object>> map = new LinkedHashMap<>();
+		
+		List<String> clientIdList = new ArrayList<>(this.closedClientMap.keySet());
+		for(int index = clientIdList.size() - 1; index >= 0; index--) {
+			
+			String clientId = clientIdList.get(index);
+			map.put(clientId, this.closedClientMap.get(clientId));
+		}
+		
+		return map;
+	}
+}
@@ -0,0 +1,293 @@
+package com.redeye.kafexporter.acquisitor.kafka;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 클라이언트 설정 값 저장소 클래스<br>
+ * 클라이언트 타입(프로듀서/컨슈머)별로 기본 설정 값 맵을 하나만 보관하고, 클라이언트별로는 기본 설정과 다른 값만 보관함<br>
+ * 기본 설정 값 맵은 처음 등록된 전체 설정 값으로 정하며, 같은 팩토리에서 생성된 클라이언트는 대부분 client.id 만 다르므로 클라이언트별 데이터가 작아짐<br>
+ * 설정 값은 문자열/기본형 래퍼로 변환하여 저장하므로, 설정 값 객체(클래스, 인터셉터, SSL 설정 등)를 참조하지 않음<br>
+ * - Class: 클래스 명, List: 콤마(,)로 연결한 문자열, Password: 숨김 문자열, 그 외: toString 문자열<br>
+ * - 문자열은 intern 하여 클라이언트간 같은 값을 공유함
+ * 
+ * @author jmsohn
+ */
+public class ConfigStore {
+	
+	
+	/** 기본 설정 값 맵 - 처음 등록된 전체 설정 값, 등록 전일 경우 null */
+	private volatile Map<String, Object> defaultMap;
+	
+	/** 클라이언트별 설정 값 - key: 클라이언트 아이디 */
+	private final Map<String, ClientConfig> clientConfigMap = new ConcurrentHashMap<>();
+	
+	
+	/**
+	 * 클라이언트 설정 값 등록 - 이미 있을 경우 대체함
+	 * 
+	 * @param clientId 클라이언트 아이디
+	 * @param configValueMap 전체 설정 값 맵 - AbstractConfig.values()
+	 */
+	public void put(String clientId, Map<String, ?> configValueMap) {
+		
+		// 입력값 검증
+		if(clientId == null) {
+			throw new IllegalArgumentException("'clientId' is null.");
+		}
+		
+		if(configValueMap == null) {
+			throw new IllegalArgumentException("'configValueMap' is null.");
+		}
+		
+		this.clientConfigMap.put(clientId, new ClientConfig(this.diff(toImmutableMap(configValueMap)), true));
+	}
+	
+	/**
+	 * 설정 값을 알 수 없는 클라이언트 등록 - 이미 있을 경우 등록하지 않음<br>
+	 * 동적 연결시 이미 생성된 클라이언트 복구용으로, 주어진 값 외의 설정 값은 없는 것으로 봄
+	 * 
+	 * @param clientId 클라이언트 아이디
+	 * @param partialValueMap 알고 있는 설정 값 맵
+	 * @return 새로 등록되었는지 여부
+	 */
+	public boolean putPartialIfAbsent(String clientId, Map<String, ?> partialValueMap) {
+		
+		// 입력값 검증
+		if(clientId == null) {
+			throw new IllegalArgumentException("'clientId' is null.");
+		}
+		
+		if(partialValueMap == null) {
+			throw new IllegalArgumentException("'partialValueMap' is null.");
+		}
+		
+		return this.clientConfigMap.putIfAbsent(clientId, new ClientConfig(toImmutableMap(partialValueMap), false)) == null;
+	}
+	
+	/**
+	 * 클라이언트 설정 값 제거 - 클라이언트 종료시, 기본 설정 값 맵은 유지함
+	 * 
+	 * @param clientId 클라이언트 아이디
+	 * @return 제거 여부
+	 */
+	public boolean remove(String clientId) {
+		return clientId != null && this.clientConfigMap.remove(clientId) != null;
+	}
+	
+	/**
+	 * 클라이언트 등록 여부 반환
+	 * 
+	 * @param clientId 클라이언트 아이디
+	 * @return 등록 여부
+	 */
+	public boolean contains(String clientId) {
+		return clientId != null && this.clientConfigMap.containsKey(clientId);
+	}
+	
+	/**
+	 * 등록된 클라이언트 아이디 목록 반환
+	 * 
+	 * @return 클라이언트 아이디 목록
+	 */
+	public Set<String> getClientIdSet() {
+		return Collections.unmodifiableSet(this.clientConfigMap.keySet());
+	}
+	
+	/**
+	 * 클라이언트의 설정 값 반환
+	 * 
+	 * @param clientId 클라이언트 아이디
+	 * @param propName 설정 속성 명
+	 * @return 설정 값, 없을 경우 null
+	 */
+	public Object getValue(String clientId, String propName) {
+		
+		ClientConfig clientConfig = (clientId == null)?null:this.clientConfigMap.get(clientId);
+		if(clientConfig == null) {
+			return null;
+		}
+		
+		if(clientConfig.diffMap.containsKey(propName) == true || clientConfig.inherited == false) {
+			return clientConfig.diffMap.get(propName);
+		}
+		
+		Map<String, Object> curDefaultMap = this.defaultMap;
+		return (curDefaultMap == null)?null:curDefaultMap.get(propName);
+	}
+	
+	/**
+	 * 클라이언트의 전체 설정 값 맵 반환 - 기본 설정 값에 클라이언트 설정 값을 합친 복사본
+	 * 
+	 * @param clientId 클라이언트 아이디
+	 * @return 설정 값 맵(설정 속성 명 순), 없을 경우 null
+	 */
+	public Map<String, Object> get(String clientId) {
+		
+		ClientConfig clientConfig = (clientId == null)?null:this.clientConfigMap.get(clientId);
+		if(clientConfig == null) {
+			return null;
+		}
+		
+		Map<String, Object> configValueMap = new TreeMap<>();
+		
+		Map<String, Object> curDefaultMap = this.defaultMap;
+		if(clientConfig.inherited == true && curDefaultMap != null) {
+			configValueMap.putAll(curDefaultMap);
+		}
+		
+		configValueMap.putAll(clientConfig.diffMap);
+		
+		return configValueMap;
+	}
+	
+	/**
+	 * 전체 클라이언트의 설정 값 맵 반환
+	 * 
+	 * @return 설정 값 맵 - key: 클라이언트 아이디, value: 설정 값 맵
+	 */
+	public Map<String, Map<String, Object>> toMap() {
+		
+		Map<String, Map<String, Object>> map = new LinkedHashMap<>();
+		
+		for(String clientId: this.clientConfigMap.keySet()) {
+			
+			Map<String, Object> configValueMap = this.get(clientId);
+			if(configValueMap != null) {
+				map.put(clientId, configValueMap);
+			}
+		}
+		
+		return map;
+	}
+	
+	/**
+	 * 기본 설정 값과 다른 설정 값만 반환<br>
+	 * 기본 설정 값이 없을 경우 주어진 설정 값을 기본 설정 값으로 정함
+	 * 
+	 * @param configValueMap 변환된 전체 설정 값 맵
+	 * @return 기본 설정 값과 다른 설정 값 맵
+	 */
+	private Map<String, Object> diff(Map<String, Object> configValueMap) {
+		
+		Map<String, Object> curDefaultMap = this.defaultMap;
+		
+		if(curDefaultMap == null) {
+			
+			synchronized(this) {
+				
+				if(this.defaultMap == null) {
+					this.defaultMap = configValueMap;
+				}
+				
+				curDefaultMap = this.defaultMap;
+			}
+		}
+		
+		Map<String, Object> diffMap = new HashMap<>();
+		
+		for(Map.Entry<String, Object> entry: configValueMap.entrySet()) {
+			
+			String propName = entry.getKey();
+			Object value = entry.getValue();
+			
+			if(curDefaultMap.containsKey(propName) == false || Objects.equals(curDefaultMap.get(propName), value) == false) {
+				diffMap.put(propName, value);
+			}
+		}
+		
+		return diffMap.isEmpty()?Collections.emptyMap():Collections.unmodifiableMap(diffMap);
+	}
+	
+	/**
+	 * 설정 값 맵을 문자열/기본형 래퍼 값의 읽기 전용 맵으로 변환
+	 * 
+	 * @param configValueMap 설정 값 맵
+	 * @return 변환된 설정 값 맵
+	 */
+	private static Map<String, Object> toImmutableMap(Map<String, ?> configValueMap) {
+		
+		Map<String, Object> immutableMap = new HashMap<>();
+		
+		for(Map.Entry<String, ?> entry: configValueMap.entrySet()) {
+			
+			if(entry.getKey() != null) {
+				immutableMap.put(entry.getKey().intern(), toImmutableValue(entry.getValue()));
+			}
+		}
+		
+		return Collections.unmodifiableMap(immutableMap);
+	}
+	
+	/**
+	 * 설정 값을 문자열 또는 기본형 래퍼 값으로 변환
+	 * 
+	 * @param value 설정 값
+	 * @return 변환된 값
+	 */
+	private static Object toImmutableValue(Object value) {
+		
+		if(value == null) {
+			return null;
+		}
+		
+		if(value instanceof Number || value instanceof Boolean || value instanceof Character) {
+			return value;
+		}
+		
+		if(value instanceof String) {
+			return ((String)value).intern();
+		}
+		
+		if(value instanceof Class) {
+			return ((Class<?>)value).getName().intern();
+		}
+		
+		if(value instanceof Collection) {
+			
+			StringJoiner joiner = new StringJoiner(",");
+			for(Object element: (Collection<?>)value) {
+				joiner.add(String.valueOf(toImmutableValue(element)));
+			}
+			
+			return joiner.toString().intern();
+		}
+		
+		// Password(toString 시 숨김 문자열), 설정 객체 등
+		return value.toString().intern();
+	}
+	
+	
+	/**
+	 * 클라이언트별 설정 값 클래스
+	 * 
+	 * @author jmsohn
+	 */
+	private static class ClientConfig {
+		
+		/** 기본 설정 값과 다른 설정 값 맵 - 읽기 전용 */
+		final Map<String, Object> diffMap;
+		
+		/** 기본 설정 값 상속 여부 - 설정 값을 알 수 없는 클라이언트일 경우 false */
+		final boolean inherited;
+		
+		/**
+		 * 생성자
+		 * 
+		 * @param diffMap 기본 설정 값과 다른 설정 값 맵
+		 * @param inherited 기본 설정 값 상속 여부
+		 */
+		ClientConfig(Map<String, Object> diffMap, boolean inherited) {
+			this.diffMap = diffMap;
+			this.inherited = inherited;
+		}
+	}
+}
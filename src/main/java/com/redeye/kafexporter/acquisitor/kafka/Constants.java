@@ -15,4 +15,22 @@ public class Constants {
 	
 	/** 컨슈머 그룹 아이디 설정 키 값 */
 	public static String CONSUMER_GROUP_ID = "group.id";
+	
+	/** poll 당 최대 레코드 수 설정 키 값 */
+	public static String MAX_POLL_RECORDS = "max.poll.records";
+	
+	/** fetch 당 최대 바이트 수 설정 키 값 */
+	public static String FETCH_MAX_BYTES = "fetch.max.bytes";
+	
+	/** poll 호출 간 최대 간격 설정 키 값 */
+	public static String MAX_POLL_INTERVAL_MS = "max.poll.interval.ms";
+	
+	/** poll 호출 간 최대 간격 기본 값 - 단위: ms */
+	public static long DEFAULT_MAX_POLL_INTERVAL_MS = 300000L;
+	
+	/** 프로듀서 배치 크기 설정 키 값 */
+	public static String BATCH_SIZE = "batch.size";
+	
+	/** 프로듀서 배치 대기 시간 설정 키 값 */
+	public static String LINGER_MS = "linger.ms";
 }
@@ -1,12 +1,27 @@
 package com.redeye.kafexporter.acquisitor.kafka;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.TreeSet;
 
+import javax.management.ObjectName;
+
+import com.redeye.kafexporter.acquisitor.kafka.stat.BatchStatDaemon;
+import com.redeye.kafexporter.acquisitor.kafka.stat.CommitStatDaemon;
+import com.redeye.kafexporter.acquisitor.kafka.stat.OverheadMeter;
+import com.redeye.kafexporter.acquisitor.kafka.stat.PartitionStatDaemon;
+import com.redeye.kafexporter.acquisitor.kafka.stat.PollIntervalWatchdog;
+import com.redeye.kafexporter.acquisitor.kafka.stat.RebalanceStatDaemon;
+import com.redeye.kafexporter.acquisitor.kafka.stat.RecordLatencyStatDaemon;
+import com.redeye.kafexporter.acquisitor.kafka.stat.RingStatDaemon;
+import com.redeye.kafexporter.acquisitor.kafka.stat.SendStatDaemon;
+import com.redeye.kafexporter.acquisitor.kafka.stat.SerdeStatDaemon;
+import com.redeye.kafexporter.acquisitor.kafka.stat.StreamsTaskStatDaemon;
 import com.redeye.kafexporter.acquisitor.kafka.stat.TimeStatDaemon;
+import com.redeye.kafexporter.util.stat.Parameter;
 import com.redeye.kafexporter.util.StringUtil;
 import com.redeye.kafexporter.util.jmx.JMXService;
 
@@ -16,8 +31,8 @@ import com.redeye.kafexporter.util.jmx.JMXService;
  * @author jmsohn
  */
 public class KafkaAcquisitor {
-
-
+	
+	
 	/**
 	 * kafka 클라이언트 타입
 	 * 
@@ -29,13 +44,17 @@ public class KafkaAcquisitor {
 		CONSUMER;
 	}
 	
-
-	/** 프로듀스 설정 값 맵 (key: 클라이언트 아이디, value: 설정 값 맵) */
-	static final Map<String, Map<String, Object>> producerConfigMap = new ConcurrentHashMap<>();
-
-	/** 컨슈머 설정 값 맵 (key: 클라이언트 아이디, value: 설정 값 맵) */
-	static final Map<String, Map<String, Object>> consumerConfigMap = new ConcurrentHashMap<>();
-
+	
+	/** 클래스 변환 부하 정보 명 - 에이전트 자체 부하 정보의 항목 명 */
+	private static final String TRANSFORM_OVERHEAD_NAME = "transform";
+	
+	
+	/** 프로듀서 설정 값 저장소 */
+	static final ConfigStore producerConfigStore = new ConfigStore();
+	
+	/** 컨슈머 설정 값 저장소 */
+	static final ConfigStore consumerConfigStore = new ConfigStore();
+	
 	
 	/** 폴링 시간 통계 데몬 */
 	final static TimeStatDaemon poolTimeStatDaemon = new TimeStatDaemon();
@@ -45,7 +64,49 @@ public class KafkaAcquisitor {
 	
 	/** 비동기 시간 통계 데몬 */
 	final static TimeStatDaemon commitAsyncTimeStatDaemon = new TimeStatDaemon();
-
+	
+	/** 스프링 레코드 리스너 시간 통계 데몬 */
+	final static TimeStatDaemon recordListenerTimeStatDaemon = new TimeStatDaemon();
+	
+	/** 스프링 배치 리스너 시간 통계 데몬 */
+	final static TimeStatDaemon batchListenerTimeStatDaemon = new TimeStatDaemon();
+	
+	/** Kafka Streams 스트림 스레드 루프 시간 통계 데몬 */
+	final static TimeStatDaemon streamThreadTimeStatDaemon = new TimeStatDaemon();
+	
+	/** Kafka Streams 커밋 시간 통계 데몬 */
+	final static TimeStatDaemon streamsCommitTimeStatDaemon = new TimeStatDaemon();
+	
+	/** Kafka Streams 태스크 수행 통계 데몬 */
+	final static StreamsTaskStatDaemon streamsTaskStatDaemon = new StreamsTaskStatDaemon();
+	
+	/** 비동기 커밋 완료 통계 데몬 */
+	final static CommitStatDaemon commitStatDaemon = new CommitStatDaemon();
+	
+	/** 프로듀서 전송 통계 데몬 */
+	final static SendStatDaemon sendStatDaemon = new SendStatDaemon();
+	
+	/** 프로듀서 배치 통계 데몬 */
+	final static BatchStatDaemon batchStatDaemon = new BatchStatDaemon();
+	
+	/** Serializer/Deserializer 통계 데몬 */
+	final static SerdeStatDaemon serdeStatDaemon = new SerdeStatDaemon();
+	
+	/** 컨슈머 리밸런스 통계 데몬 */
+	final static RebalanceStatDaemon rebalanceStatDaemon = new RebalanceStatDaemon();
+	
+	/** 컨슈머 파티션 통계 데몬 */
+	final static PartitionStatDaemon partitionStatDaemon = new PartitionStatDaemon();
+	
+	/** 컨슈머 레코드 종단간 지연 시간 통계 데몬 */
+	final static RecordLatencyStatDaemon recordLatencyStatDaemon = new RecordLatencyStatDaemon();
+	
+	/** 컨슈머 poll 간격 감시 객체 */
+	final static PollIntervalWatchdog pollIntervalWatchdog = new PollIntervalWatchdog(poolTimeStatDaemon, KafkaAcquisitor::getMaxPollInterval);
+	
+	/** 최근 종료된 클라이언트의 최종 통계 정보 저장소 */
+	final static ClosedClientStore closedClientStore = new ClosedClientStore();
+	
 	
 	/** Kafka JMX 데이터 수집 객체 */
 	private static final JMXService svc = new JMXService();
@@ -60,8 +121,168 @@ public class KafkaAcquisitor {
 		poolTimeStatDaemon.start();
 		commitSyncTimeStatDaemon.start();
 		commitAsyncTimeStatDaemon.start();
+		recordListenerTimeStatDaemon.start();
+		batchListenerTimeStatDaemon.start();
+		streamThreadTimeStatDaemon.start();
+		streamsCommitTimeStatDaemon.start();
+		streamsTaskStatDaemon.start();
+		commitStatDaemon.start();
+		sendStatDaemon.start();
+		batchStatDaemon.start();
+		serdeStatDaemon.start();
+		rebalanceStatDaemon.start();
+		partitionStatDaemon.start();
+		recordLatencyStatDaemon.start();
+		pollIntervalWatchdog.start();
 	}
-
+	
+	/**
+	 * JMX 에 등록된 Kafka 클라이언트 아이디로 클라이언트 정보 복구<br>
+	 * 동적 연결(agentmain)시 이미 생성된 클라이언트는 생성자 어드바이스가 수행되지 않았으므로,<br>
+	 * 클라이언트 아이디를 등록하고 설정 값 맵에는 클라이언트 아이디만 추가함
+	 * 
+	 * @return 복구된 클라이언트 수
+	 */
+	public static int recoverClients() throws Exception {
+		
+		int count = 0;
+		
+		count += recoverClients("kafka.consumer:type=consumer-metrics,client-id=*", consumerConfigStore);
+		count += recoverClients("kafka.producer:type=producer-metrics,client-id=*", producerConfigStore);
+		
+		return count;
+	}
+	
+	/**
+	 * JMX ObjectName 패턴에 해당하는 클라이언트 아이디 등록
+	 * 
+	 * @param query JMX ObjectName 패턴
+	 * @param configStore 설정 값 저장소
+	 * @return 새로 등록된 클라이언트 수
+	 */
+	private static int recoverClients(String query, ConfigStore configStore) throws Exception {
+		
+		int count = 0;
+		
+		for(String objectNameStr: KafkaAcquisitor.svc.findObjectName(query)) {
+			
+			String clientId = new ObjectName(objectNameStr).getKeyProperty("client-id");
+			if(StringUtil.isBlank(clientId) == true) {
+				continue;
+			}
+			
+			// 특수 문자가 있는 경우 따옴표로 감싸져 있음
+			if(clientId.startsWith("\"") == true) {
+				clientId = ObjectName.unquote(clientId);
+			}
+			
+			ClientRegistry.getOrRegister(clientId);
+			
+			// 생성 시점의 설정 값은 알 수 없으므로 클라이언트 아이디만 등록
+			Map<String, Object> configValueMap = new HashMap<>();
+			configValueMap.put(Constants.CLIENT_ID, clientId);
+			
+			if(configStore.putPartialIfAbsent(clientId, configValueMap) == true) {
+				count++;
+			}
+		}
+		
+		return count;
+	}
+	
+	/**
+	 * 컨슈머 종료 처리 - KafkaConsumer.close 어드바이스에서 호출됨
+	 * 
+	 * @param clientId 클라이언트 아이디
+	 */
+	static void closeConsumer(String clientId) {
+		closeClient(clientId, ClientType.CONSUMER);
+	}
+	
+	/**
+	 * 프로듀서 종료 처리 - KafkaProducer.close 어드바이스에서 호출됨
+	 * 
+	 * @param clientId 클라이언트 아이디
+	 */
+	static void closeProducer(String clientId) {
+		closeClient(clientId, ClientType.PRODUCER);
+	}
+	
+	/**
+	 * 클라이언트 종료 처리<br>
+	 * 같은 아이디로 동작 중인 클라이언트가 없을 경우, 종료 시점의 통계 정보를 최근 종료 클라이언트 저장소에 보관한 후<br>
+	 * 설정 값, 클라이언트 순번 및 모든 통계 데몬의 통계 데이터를 제거함<br>
+	 * 보관되는 통계 정보는 마지막 링 버퍼 수집 시점까지의 정보이며, 통계 데이터는 각 데몬 스레드에서 제거됨
+	 * 
+	 * @param clientId 클라이언트 아이디
+	 * @param clientType 클라이언트 타입
+	 */
+	private static void closeClient(String clientId, ClientType clientType) {
+		
+		// 같은 아이디로 동작 중인 클라이언트가 남아 있는 경우
+		if(ClientRegistry.release(clientId) == false) {
+			return;
+		}
+		
+		ConfigStore configStore = (clientType == ClientType.CONSUMER)?consumerConfigStore:producerConfigStore;
+		
+		// 이미 종료 처리된 경우(중복 close 호출)
+		int registeredOrdinal = ClientRegistry.getOrdinal(clientId);
+		if(registeredOrdinal == ClientRegistry.NONE && configStore.contains(clientId) == false) {
+			return;
+		}
+		
+		// 종료 시점의 통계 정보 보관
+		Map<String, Object> statMap = (clientType == ClientType.CONSUMER)?getConsumerTimeStat(clientId):getProducerSendStat(clientId);
+		closedClientStore.put(clientId, clientType, statMap);
+		
+		// 클라이언트 순번 등록 해제 - 그 사이 같은 아이디의 클라이언트가 생성된 경우 유지
+		int clientOrdinal = ClientRegistry.unregister(clientId);
+		if(clientOrdinal == ClientRegistry.NONE && registeredOrdinal != ClientRegistry.NONE) {
+			return;
+		}
+		
+		// 설정 값 제거
+		configStore.remove(clientId);
+		
+		if(clientOrdinal == ClientRegistry.NONE) {
+			return;
+		}
+		
+		// 통계 데이터 제거
+		RingStatDaemon[] statDaemons = {
+			poolTimeStatDaemon,
+			commitSyncTimeStatDaemon,
+			commitAsyncTimeStatDaemon,
+			recordListenerTimeStatDaemon,
+			batchListenerTimeStatDaemon,
+			streamThreadTimeStatDaemon,
+			streamsCommitTimeStatDaemon,
+			streamsTaskStatDaemon,
+			commitStatDaemon,
+			sendStatDaemon,
+			batchStatDaemon,
+			rebalanceStatDaemon,
+			partitionStatDaemon,
+			recordLatencyStatDaemon
+		};
+		
+		for(RingStatDaemon statDaemon: statDaemons) {
+			statDaemon.removeClient(clientOrdinal);
+		}
+		
+		pollIntervalWatchdog.removeClient(clientOrdinal);
+	}
+	
+	/**
+	 * 최근 종료된 클라이언트의 최종 통계 정보 반환 - 최근 종료 순
+	 * 
+	 * @return 종료된 클라이언트 정보 - key: 클라이언트 아이디, value: 타입(type), 종료 시간(closeTime), 통계 정보(stat)
+	 */
+	public static Map<String, Map<String, Object>> getClosedClientStat() {
+		return closedClientStore.toMap();
+	}
+	
 	/**
 	 * 클라이언트 아이디의 타입을 반환
 	 * 
@@ -71,18 +292,12 @@ public class KafkaAcquisitor {
 	public static ClientType getClientType(String clientId) {
 		
 		// 프로듀서 클라이언트 아이디일 경우
-		if(
-			KafkaAcquisitor.producerConfigMap != null
-			&& KafkaAcquisitor.producerConfigMap.containsKey(clientId) == true
-		) {
+		if(KafkaAcquisitor.producerConfigStore.contains(clientId) == true) {
 			return ClientType.PRODUCER;
 		}
 		
 		// 컨슈머 클라이언트 아이디일 경우
-		if(
-			KafkaAcquisitor.consumerConfigMap != null
-			&& KafkaAcquisitor.consumerConfigMap.containsKey(clientId) == true
-		) {
+		if(KafkaAcquisitor.consumerConfigStore.contains(clientId) == true) {
 			return ClientType.CONSUMER;
 		}
 		
@@ -96,7 +311,7 @@ public class KafkaAcquisitor {
 	 * @return
 	 */
 	public static Map<String, Map<String, Object>> getProducerConfigMap() {
-		return producerConfigMap;
+		return producerConfigStore.toMap();
 	}
 	
 	/**
@@ -105,7 +320,7 @@ public class KafkaAcquisitor {
 	 * @return
 	 */
 	public static Map<String, Map<String, Object>> getConsumerConfigMap() {
-		return consumerConfigMap;
+		return consumerConfigStore.toMap();
 	}
 	
 	/**
@@ -113,7 +328,7 @@ public class KafkaAcquisitor {
 	 * @return
 	 */
 	public static Set<String> getProducerClientIdSet() {
-		return getProducerConfigMap().keySet();
+		return producerConfigStore.getClientIdSet();
 	}
 	
 	/**
@@ -122,7 +337,7 @@ public class KafkaAcquisitor {
 	 * @return
 	 */
 	public static Set<String> getConsumerClientIdSet() {
-		return getConsumerConfigMap().keySet();
+		return consumerConfigStore.getClientIdSet();
 	}
 	
 	/**
@@ -133,12 +348,14 @@ public class KafkaAcquisitor {
 	 */
 	public static Map<String, Object> getConfigMap(String clientId) {
 		
-		if(producerConfigMap != null && producerConfigMap.containsKey(clientId) == true) {
-			return producerConfigMap.get(clientId);
+		Map<String, Object> configValueMap = producerConfigStore.get(clientId);
+		if(configValueMap != null) {
+			return configValueMap;
 		}
 		
-		if(consumerConfigMap != null && consumerConfigMap.containsKey(clientId) == true) {
-			return consumerConfigMap.get(clientId);
+		configValueMap = consumerConfigStore.get(clientId);
+		if(configValueMap != null) {
+			return configValueMap;
 		}
 		
 		return Map.of();
@@ -157,9 +374,13 @@ public class KafkaAcquisitor {
 			return null;
 		}
 		
-		return getConfigMap(clientId).get(propName);
+		if(producerConfigStore.contains(clientId) == true) {
+			return producerConfigStore.getValue(clientId, propName);
+		}
+		
+		return consumerConfigStore.getValue(clientId, propName);
 	}
-
+	
 	/**
 	 * 설정 속성 값 문자열 반환<br>
 	 * toString 한 결과
@@ -179,6 +400,335 @@ public class KafkaAcquisitor {
 		}
 	}
 	
+	/**
+	 * 컨슈머 시간 통계 정보 반환
+	 * 
+	 * @return 컨슈머 시간 통계 정보 - key: 클라이언트 아이디, value: 시간 통계 정보
+	 */
+	public static Map<String, Map<String, Object>> getConsumerTimeStat() {
+		
+		// 통계 데이터가 있는 클라이언트 아이디 목록
+		Set<String> clientIdSet = new TreeSet<>();
+		
+		clientIdSet.addAll(poolTimeStatDaemon.getClientIdSet());
+		clientIdSet.addAll(commitSyncTimeStatDaemon.getClientIdSet());
+		clientIdSet.addAll(commitAsyncTimeStatDaemon.getClientIdSet());
+		clientIdSet.addAll(commitStatDaemon.getClientIdSet());
+		clientIdSet.addAll(rebalanceStatDaemon.getClientIdSet());
+		clientIdSet.addAll(partitionStatDaemon.getClientIdSet());
+		clientIdSet.addAll(recordLatencyStatDaemon.getClientIdSet());
+		clientIdSet.addAll(recordListenerTimeStatDaemon.getClientIdSet());
+		clientIdSet.addAll(batchListenerTimeStatDaemon.getClientIdSet());
+		clientIdSet.addAll(streamThreadTimeStatDaemon.getClientIdSet());
+		clientIdSet.addAll(streamsCommitTimeStatDaemon.getClientIdSet());
+		clientIdSet.addAll(streamsTaskStatDaemon.getClientIdSet());
+		
+		// 클라이언트별 시간 통계 정보 생성
+		Map<String, Map<String, Object>> timeStatMap = new LinkedHashMap<>();
+		
+		for(String clientId: clientIdSet) {
+			timeStatMap.put(clientId, getConsumerTimeStat(clientId));
+		}
+		
+		return timeStatMap;
+	}
+	
+	/**
+	 * 컨슈머 클라이언트의 시간 통계 정보 반환<br>
+	 * poll 통계의 interval 은 전체 루프 시간, duration 은 poll 대기 시간,<br>
+	 * gap 은 poll 사이의 어플리케이션 처리 시간임 - 단위: ms<br>
+	 * commitSync 의 duration 은 커밋 대기 시간이며, commitAsync 통계에는 커밋 완료 지연 시간(completion)이 추가됨<br>
+	 * poll 통계에는 레코드 수/크기 통계, 처리량 및 설정 대비 채움 비율이 추가됨<br>
+	 * rebalance 통계는 리밸런스 시간, 빈도 및 리밸런스 리스너 수행 시간이며,<br>
+	 * partition 통계는 토픽 파티션별 수신 레코드 수, 수신 간격 및 처리 시간이고,<br>
+	 * endToEndLatency 통계는 토픽별 레코드 타임스탬프부터 poll 반환까지의 지연 시간이고,<br>
+	 * pollWatchdog 는 마지막 poll 이후 경과 시간의 max.poll.interval.ms 대비 비율 및 경고 상태이며,<br>
+	 * listener 통계는 스프링 리스너(레코드/배치)의 처리 시간, 호출당 레코드 수 및 예외 발생 수이고,<br>
+	 * streams 통계는 Kafka Streams 앱의 메인 컨슈머일 경우 스트림 스레드 루프/커밋 시간 및 태스크별 처리/펑추에이트 시간임
+	 * 
+	 * @param clientId 클라이언트 아이디
+	 * @return 시간 통계 정보 - key: 메소드 명, value: 통계 종류별 통계 정보
+	 */
+	public static Map<String, Object> getConsumerTimeStat(String clientId) {
+		
+		Map<String, Object> timeStatMap = new LinkedHashMap<>();
+		
+		timeStatMap.put("poll", getPollStat(clientId));
+		timeStatMap.put("commitSync", commitSyncTimeStatDaemon.getStat(clientId));
+		timeStatMap.put("commitAsync", getCommitAsyncStat(clientId));
+		timeStatMap.put("rebalance", rebalanceStatDaemon.getStat(clientId));
+		timeStatMap.put("partition", partitionStatDaemon.getStat(clientId));
+		timeStatMap.put("endToEndLatency", recordLatencyStatDaemon.getStat(clientId));
+		timeStatMap.put("pollWatchdog", pollIntervalWatchdog.getStat(clientId));
+		timeStatMap.put("listener", getListenerStat(clientId));
+		timeStatMap.put("streams", getStreamsStat(clientId));
+		
+		return timeStatMap;
+	}
+	
+	/**
+	 * 프로듀서 클라이언트별 전송 통계 정보 반환
+	 * 
+	 * @return 전송 통계 정보 - key: 클라이언트 아이디, value: 전송 통계 정보
+	 */
+	public static Map<String, Map<String, Object>> getProducerSendStat() {
+		
+		Map<String, Map<String, Object>> sendStatMap = new LinkedHashMap<>();
+		
+		Set<String> clientIdSet = new TreeSet<>(sendStatDaemon.getClientIdSet());
+		clientIdSet.addAll(batchStatDaemon.getClientIdSet());
+		
+		for(String clientId: clientIdSet) {
+			sendStatMap.put(clientId, getProducerSendStat(clientId));
+		}
+		
+		return sendStatMap;
+	}
+	
+	/**
+	 * 프로듀서 클라이언트의 전송 통계 정보 반환<br>
+	 * 지연 시간은 send 호출부터 브로커 응답까지의 시간임 - 단위: ms<br>
+	 * 배치 통계(batch)는 batch.size, linger.ms 설정 대비 비율을 포함함
+	 * 
+	 * @param clientId 클라이언트 아이디
+	 * @return 전송 통계 정보 - total: 전체 통계, topic: 토픽별 통계, batch: 배치 통계
+	 */
+	public static Map<String, Object> getProducerSendStat(String clientId) {
+		
+		Map<String, Object> sendStatMap = new LinkedHashMap<>(sendStatDaemon.getStat(clientId));
+		
+		// 설정 값
+		double batchSize = -1;
+		double lingerMs = -1;
+		
+		if(producerConfigStore.contains(clientId) == true) {
+			batchSize = toDouble(producerConfigStore.getValue(clientId, Constants.BATCH_SIZE));
+			lingerMs = toDouble(producerConfigStore.getValue(clientId, Constants.LINGER_MS));
+		}
+		
+		Map<String, Object> batchStatMap = batchStatDaemon.getStat(clientId, batchSize, lingerMs);
+		if(batchStatMap.isEmpty() == false) {
+			sendStatMap.put("batch", batchStatMap);
+		}
+		
+		return sendStatMap;
+	}
+	
+	/**
+	 * 컨슈머 클라이언트별 poll 간격 감시 정보 반환<br>
+	 * 마지막 poll 이후 경과 시간이 max.poll.interval.ms 의 경고 비율을 넘은 컨슈머만 포함함
+	 * 
+	 * @return poll 간격 감시 정보 - key: 클라이언트 아이디, value: 감시 정보
+	 */
+	public static Map<String, Map<String, Object>> getPollWatchdogWarning() {
+		
+		Map<String, Map<String, Object>> warningMap = new LinkedHashMap<>();
+		
+		for(String clientId: new TreeSet<>(pollIntervalWatchdog.getWarningClientIdSet())) {
+			warningMap.put(clientId, pollIntervalWatchdog.getStat(clientId));
+		}
+		
+		return warningMap;
+	}
+	
+	/**
+	 * Serializer/Deserializer 구현 클래스별 수행 통계 정보 반환<br>
+	 * 수행 시간 단위: us, 페이로드 크기 단위: byte
+	 * 
+	 * @return 수행 통계 정보 - serializer: Serializer 클래스별 통계, deserializer: Deserializer 클래스별 통계
+	 */
+	public static Map<String, Object> getSerdeStat() {
+		return serdeStatDaemon.getStat();
+	}
+	
+	/**
+	 * 어드바이스별 에이전트 자체 부하 정보 반환<br>
+	 * transform 항목은 클래스 변환 부하(변환기 수행 시간) 및 기동 완료까지의 시간임
+	 * 
+	 * @return 부하 정보 - key: 어드바이스 명, value: 부하 정보
+	 */
+	public static Map<String, Map<String, Object>> getAgentOverhead() {
+		
+		Map<String, Map<String, Object>> overheadMap = OverheadMeter.getOverhead();
+		
+		// 클래스 변환 부하 및 기동 시간
+		overheadMap.put(TRANSFORM_OVERHEAD_NAME, KafkaTransformer.getTransformMeter().toMap());
+		
+		return overheadMap;
+	}
+	
+	/**
+	 * 어드바이스의 에이전트 자체 부하 정보 반환<br>
+	 * 수행 시간은 ns, 할당 메모리는 byte 단위의 호출당 평균 값이며,<br>
+	 * overheadPercent 는 대상 메소드 수행 시간 대비 어드바이스 수행 시간의 비율임
+	 * 
+	 * @param adviceName 어드바이스 명
+	 * @return 부하 정보, 없을 경우 빈 맵
+	 */
+	public static Map<String, Object> getAgentOverhead(String adviceName) {
+		
+		Map<String, Object> overheadMap = getAgentOverhead().get(adviceName);
+		return (overheadMap == null)?new HashMap<>():overheadMap;
+	}
+	
+	/**
+	 * 컨슈머 클라이언트의 poll 통계 정보 반환<br>
+	 * 채움 비율은 poll 당 평균 레코드 수/바이트 수를 max.poll.records/fetch.max.bytes 설정 값으로 나눈 값임
+	 * 
+	 * @param clientId 클라이언트 아이디
+	 * @return poll 통계 정보
+	 */
+	private static Map<String, Object> getPollStat(String clientId) {
+		
+		Map<String, Object> pollStatMap = new LinkedHashMap<>(poolTimeStatDaemon.getStat(clientId));
+		
+		// 처리량
+		Map<String, Object> throughputMap = poolTimeStatDaemon.getThroughput(clientId);
+		if(throughputMap.isEmpty() == true) {
+			return pollStatMap;
+		}
+		
+		// 설정 대비 채움 비율 - 처리량 조회 이후 클라이언트가 종료 제거된 경우 통계가 null 이므로 해당 항목은 생략
+		if(consumerConfigStore.contains(clientId) == true) {
+			
+			double maxPollRecords = toDouble(consumerConfigStore.getValue(clientId, Constants.MAX_POLL_RECORDS));
+			Parameter countStat = poolTimeStatDaemon.getStat(clientId, TimeStatDaemon.StatType.RECORD_COUNT);
+			if(maxPollRecords > 0 && countStat != null) {
+				throughputMap.put("maxPollRecordsFillRatio", countStat.getMean() / maxPollRecords);
+			}
+			
+			double fetchMaxBytes = toDouble(consumerConfigStore.getValue(clientId, Constants.FETCH_MAX_BYTES));
+			Parameter bytesStat = poolTimeStatDaemon.getStat(clientId, TimeStatDaemon.StatType.RECORD_BYTES);
+			if(fetchMaxBytes > 0 && bytesStat != null && bytesStat.getCount() > 0) {
+				throughputMap.put("fetchMaxBytesFillRatio", bytesStat.getMean() / fetchMaxBytes);
+			}
+		}
+		
+		pollStatMap.put("throughput", throughputMap);
+		
+		return pollStatMap;
+	}
+	
+	/**
+	 * 컨슈머 클라이언트의 commitAsync 통계 정보 반환<br>
+	 * 호출 시간 통계에 커밋 완료 지연 시간 및 실패 수(completion)를 추가함
+	 * 
+	 * @param clientId 클라이언트 아이디
+	 * @return commitAsync 통계 정보
+	 */
+	private static Map<String, Object> getCommitAsyncStat(String clientId) {
+		
+		Map<String, Object> commitAsyncStatMap = new LinkedHashMap<>(commitAsyncTimeStatDaemon.getStat(clientId));
+		
+		Map<String, Object> completionMap = commitStatDaemon.getStat(clientId);
+		if(completionMap.isEmpty() == false) {
+			commitAsyncStatMap.put("completion", completionMap);
+		}
+		
+		return commitAsyncStatMap;
+	}
+	
+	/**
+	 * 컨슈머 클라이언트의 스프링 리스너 호출 통계 정보 반환<br>
+	 * 리스너 호출 시간 통계에 예외 발생 수(errorCount)를 추가함
+	 * 
+	 * @param clientId 클라이언트 아이디
+	 * @return 리스너 호출 통계 정보 - record: 레코드 리스너 통계, batch: 배치 리스너 통계, 호출이 없을 경우 빈 맵
+	 */
+	private static Map<String, Object> getListenerStat(String clientId) {
+		
+		Map<String, Object> listenerStatMap = new LinkedHashMap<>();
+		
+		putListenerStat(listenerStatMap, "record", recordListenerTimeStatDaemon, clientId);
+		putListenerStat(listenerStatMap, "batch", batchListenerTimeStatDaemon, clientId);
+		
+		return listenerStatMap;
+	}
+	
+	/**
+	 * 리스너 시간 통계 데몬의 통계 정보를 맵에 추가 - 통계 정보가 없을 경우 추가하지 않음
+	 * 
+	 * @param listenerStatMap 리스너 호출 통계 정보 맵
+	 * @param name 리스너 종류 명
+	 * @param timeStatDaemon 리스너 시간 통계 데몬
+	 * @param clientId 클라이언트 아이디
+	 */
+	private static void putListenerStat(Map<String, Object> listenerStatMap, String name, TimeStatDaemon timeStatDaemon, String clientId) {
+		
+		Map<String, Object> statMap = new LinkedHashMap<>(timeStatDaemon.getStat(clientId));
+		if(statMap.isEmpty() == true) {
+			return;
+		}
+		
+		statMap.put("errorCount", timeStatDaemon.getErrorCount(clientId));
+		listenerStatMap.put(name, statMap);
+	}
+	
+	/**
+	 * 컨슈머 클라이언트의 max.poll.interval.ms 설정 값 반환
+	 * 
+	 * @param clientId 클라이언트 아이디
+	 * @return max.poll.interval.ms 설정 값 - 단위: ms, 설정 값이 수집되지 않았을 경우 Kafka 기본 값
+	 */
+	private static long getMaxPollInterval(String clientId) {
+		
+		double maxPollInterval = toDouble(consumerConfigStore.getValue(clientId, Constants.MAX_POLL_INTERVAL_MS));
+		return (maxPollInterval > 0)?(long)maxPollInterval:Constants.DEFAULT_MAX_POLL_INTERVAL_MS;
+	}
+	
+	/**
+	 * 컨슈머 클라이언트(Kafka Streams 메인 컨슈머)의 Kafka Streams 통계 정보 반환<br>
+	 * runOnce 의 interval 은 스트림 스레드 루프 간격, duration 은 루프 수행 시간(ms)이며,<br>
+	 * commit 은 실제로 커밋한 경우의 커밋 시간(ms), task 는 태스크별 레코드 처리/펑추에이트 시간(us)임
+	 * 
+	 * @param clientId 클라이언트 아이디
+	 * @return Kafka Streams 통계 정보 - runOnce, commit, task, 통계 정보가 없을 경우 빈 맵
+	 */
+	private static Map<String, Object> getStreamsStat(String clientId) {
+		
+		Map<String, Object> streamsStatMap = new LinkedHashMap<>();
+		
+		Map<String, Map<String, Object>> runOnceStatMap = streamThreadTimeStatDaemon.getStat(clientId);
+		if(runOnceStatMap.isEmpty() == false) {
+			streamsStatMap.put("runOnce", runOnceStatMap);
+		}
+		
+		Map<String, Map<String, Object>> commitStatMap = streamsCommitTimeStatDaemon.getStat(clientId);
+		if(commitStatMap.isEmpty() == false) {
+			streamsStatMap.put("commit", commitStatMap);
+		}
+		
+		Map<String, Object> taskStatMap = streamsTaskStatDaemon.getStat(clientId);
+		if(taskStatMap.isEmpty() == false) {
+			streamsStatMap.put("task", taskStatMap);
+		}
+		
+		return streamsStatMap;
+	}
+	
+	/**
+	 * 설정 값을 double 로 변환
+	 * 
+	 * @param value 설정 값
+	 * @return 변환된 값, 변환할 수 없을 경우 -1
+	 */
+	private static double toDouble(Object value) {
+		
+		if(value instanceof Number) {
+			return ((Number)value).doubleValue();
+		}
+		
+		if(value == null) {
+			return -1;
+		}
+		
+		try {
+			return Double.parseDouble(value.toString());
+		} catch(NumberFormatException nfex) {
+			return -1;
+		}
+	}
+	
 	/**
 	 * 시스템 JMX 성능 정보 수집
 	 * 
@@ -1,16 +1,54 @@
 package com.redeye.kafexporter.acquisitor.kafka;
 
 import java.lang.instrument.Instrumentation;
+import java.time.Duration;
+import java.util.Map;
 
+import com.redeye.kafexporter.acquisitor.kafka.advice.ClientOrdinalHolder;
 import com.redeye.kafexporter.acquisitor.kafka.advice.ConsumerConfigAdvice;
+import com.redeye.kafexporter.acquisitor.kafka.advice.ConsumerJoinCompleteAdvice;
+import com.redeye.kafexporter.acquisitor.kafka.advice.ConsumerJoinPrepareAdvice;
+import com.redeye.kafexporter.acquisitor.kafka.advice.ConsumerRebalanceAdvice;
+import com.redeye.kafexporter.acquisitor.kafka.advice.ConsumerRebalanceListenerAdvice;
+import com.redeye.kafexporter.acquisitor.kafka.advice.ConsumerRecordsReader;
+import com.redeye.kafexporter.acquisitor.kafka.advice.DeserializerAdvice;
+import com.redeye.kafexporter.acquisitor.kafka.advice.KafkaConsumerCloseAdvice;
 import com.redeye.kafexporter.acquisitor.kafka.advice.KafkaConsumerCommitAsyncAdvice;
+import com.redeye.kafexporter.acquisitor.kafka.advice.KafkaConsumerCommitCallbackAdvice;
 import com.redeye.kafexporter.acquisitor.kafka.advice.KafkaConsumerCommitSyncAdvice;
 import com.redeye.kafexporter.acquisitor.kafka.advice.KafkaConsumerConstructorAdvice;
 import com.redeye.kafexporter.acquisitor.kafka.advice.KafkaConsumerPollAdvice;
+import com.redeye.kafexporter.acquisitor.kafka.advice.KafkaProducerCloseAdvice;
+import com.redeye.kafexporter.acquisitor.kafka.advice.KafkaProducerConstructorAdvice;
+import com.redeye.kafexporter.acquisitor.kafka.advice.KafkaProducerSendAdvice;
 import com.redeye.kafexporter.acquisitor.kafka.advice.ProducerConfigAdvice;
+import com.redeye.kafexporter.acquisitor.kafka.advice.RecordAccumulatorDrainAdvice;
+import com.redeye.kafexporter.acquisitor.kafka.advice.SerdeAdvice;
+import com.redeye.kafexporter.acquisitor.kafka.advice.SerializerAdvice;
+import com.redeye.kafexporter.acquisitor.kafka.advice.SpringBatchListenerAdvice;
+import com.redeye.kafexporter.acquisitor.kafka.advice.SpringListenerAdvice;
+import com.redeye.kafexporter.acquisitor.kafka.advice.SpringRecordListenerAdvice;
+import com.redeye.kafexporter.acquisitor.kafka.advice.StreamTaskProcessAdvice;
+import com.redeye.kafexporter.acquisitor.kafka.advice.StreamTaskPunctuateAdvice;
+import com.redeye.kafexporter.acquisitor.kafka.advice.StreamThreadCommitAdvice;
+import com.redeye.kafexporter.acquisitor.kafka.advice.StreamThreadRunOnceAdvice;
+import com.redeye.kafexporter.acquisitor.kafka.advice.StreamsAdvice;
+import com.redeye.kafexporter.acquisitor.kafka.stat.OverheadMeter;
+import com.redeye.kafexporter.acquisitor.kafka.stat.PollIntervalWatchdog;
+import com.redeye.kafexporter.acquisitor.kafka.stat.RingStatDaemon;
+import com.redeye.kafexporter.acquisitor.kafka.stat.TimeStatDaemon;
+import com.redeye.kafexporter.acquisitor.kafka.stat.TransformMeter;
+import com.redeye.kafexporter.util.EnvUtil;
+import com.redeye.kafexporter.util.ring.OverflowPolicy;
+import com.redeye.kafexporter.util.stat.Sampler;
 
 import net.bytebuddy.agent.builder.AgentBuilder;
 import net.bytebuddy.asm.Advice;
+import net.bytebuddy.description.modifier.SyntheticState;
+import net.bytebuddy.description.modifier.Visibility;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.implementation.FieldAccessor;
+import net.bytebuddy.matcher.ElementMatcher;
 import net.bytebuddy.matcher.ElementMatchers;
 
 /**
@@ -20,98 +58,727 @@ import net.bytebuddy.matcher.ElementMatchers;
  */
 public class KafkaTransformer {
 	
+	
+	/** 기본 초당 목표 수집 건수 - RATE 샘플링 방식 */
+	private static final long DEFAULT_SAMPLING_TARGET_RATE = 1000;
+	
+	
+	/** 기본 변환 무시 대상 패키지 - Kafka 클래스 및 Serializer 구현 클래스가 없는 JDK/프레임워크/라이브러리 */
+	private static final String[] IGNORE_PREFIXES = {
+		"java.", "javax.", "jakarta.", "jdk.", "sun.", "com.sun.",
+		"net.bytebuddy.", "com.redeye.kafexporter.",
+		"org.springframework.", "org.apache.catalina.", "org.apache.tomcat.", "org.apache.coyote.",
+		"org.apache.logging.", "org.apache.commons.", "org.hibernate.", "org.eclipse.jetty.", "org.jboss.",
+		"io.netty.", "io.micrometer.", "io.undertow.", "reactor.",
+		"ch.qos.logback.", "org.slf4j.", "org.aspectj.", "org.yaml.",
+		"com.fasterxml.jackson.", "com.zaxxer.hikari.", "kotlin.", "scala."
+	};
+	
+	/** 기본 변환 무시 대상 클래스 명 일부 - 런타임 생성 클래스(람다, 프록시) */
+	private static final String[] IGNORE_NAME_PARTS = {
+		"$$Lambda", "$$EnhancerBySpringCGLIB$$", "$$SpringCGLIB$$", "$HibernateProxy$"
+	};
+	
+	
+	/** 어드바이스 그룹 변환기 - 설치 전일 경우 null */
+	private static AdviceTransformer adviceTransformer;
+	
+	/** 클래스 변환 부하 및 기동 시간 측정 객체 */
+	private static final TransformMeter transformMeter = new TransformMeter();
+	
+	
 	/**
 	 * 메소드 인터셉터 등록 - 바이트 코드 변환
 	 * 
 	 * @param inst Java 인스트루먼트 객체
 	 */
 	public static void addKafkaTransformer(Instrumentation inst) {
-
+		
 		// 입력값 검증
 		if(inst == null) {
 			throw new IllegalArgumentException("'inst' is null.");
 		}
 		
-		// --- Kafka ProducerConfig 메소드 훅킹 설정
+		// --- 통계 데몬 설정
 		
-		// Kafka ProducerConfig 생성자 호출 어드바이스 설정
-		ProducerConfigAdvice.init(KafkaAcquisitor.producerConfigMap);
-			
-		new AgentBuilder.Default()
-			.type(ElementMatchers.named("org.apache.kafka.clients.producer.ProducerConfig"))
-			.transform(
-				(builder, typeDescription, classLoader, module, protectedDomain) -> {
-					return builder
-						.constructor(ElementMatchers.any())
-						.intercept(Advice.to(ProducerConfigAdvice.class));
-				}
-			)
-        	.installOn(inst);
+		// 시간 데이터 수집 방식 설정 - 스레드별 링 버퍼
+		setCapture(
+			KafkaAcquisitor.sendStatDaemon,
+			KafkaAcquisitor.batchStatDaemon,
+			KafkaAcquisitor.serdeStatDaemon,
+			KafkaAcquisitor.rebalanceStatDaemon,
+			KafkaAcquisitor.partitionStatDaemon,
+			KafkaAcquisitor.recordLatencyStatDaemon,
+			KafkaAcquisitor.commitStatDaemon,
+			KafkaAcquisitor.poolTimeStatDaemon,
+			KafkaAcquisitor.commitSyncTimeStatDaemon,
+			KafkaAcquisitor.commitAsyncTimeStatDaemon,
+			KafkaAcquisitor.recordListenerTimeStatDaemon,
+			KafkaAcquisitor.batchListenerTimeStatDaemon,
+			KafkaAcquisitor.streamThreadTimeStatDaemon,
+			KafkaAcquisitor.streamsCommitTimeStatDaemon,
+			KafkaAcquisitor.streamsTaskStatDaemon
+		);
 		
-		// --- Kafka ConsumerConfig 메소드 훅킹 설정
+		// 어드바이스별 샘플링 설정
+		setSampling("POLL", KafkaAcquisitor.poolTimeStatDaemon.getSampler());
+		setSampling("COMMIT_SYNC", KafkaAcquisitor.commitSyncTimeStatDaemon.getSampler());
+		setSampling("COMMIT_ASYNC", KafkaAcquisitor.commitAsyncTimeStatDaemon.getSampler());
+		setSampling("SERDE", KafkaAcquisitor.serdeStatDaemon.getSampler());
+		setSampling("LISTENER", KafkaAcquisitor.recordListenerTimeStatDaemon.getSampler());
+		setSampling("LISTENER", KafkaAcquisitor.batchListenerTimeStatDaemon.getSampler());
+		setSampling("STREAMS", KafkaAcquisitor.streamThreadTimeStatDaemon.getSampler());
+		setSampling("STREAMS", KafkaAcquisitor.streamsCommitTimeStatDaemon.getSampler());
+		setSampling("STREAMS_TASK", KafkaAcquisitor.streamsTaskStatDaemon.getSampler());
 		
-		// Kafka ConsumerConfig 생성자 호출 어드바이스 설정
-		ConsumerConfigAdvice.init(KafkaAcquisitor.consumerConfigMap);
+		// poll 레코드 크기 샘플링 설정
+		setRecordSizeSampling();
+		setRecordLatencySampling();
 		
-		new AgentBuilder.Default()
-			.type(ElementMatchers.named("org.apache.kafka.clients.consumer.ConsumerConfig"))
-			.transform(
-				(builder, typeDescription, classLoader, module, protectedDomain) -> {
-					return builder
-						.constructor(ElementMatchers.any())
-						.intercept(Advice.to(ConsumerConfigAdvice.class));
-				}
-			)
-			.installOn(inst);
+		// 컨슈머 poll 간격 감시 설정
+		KafkaAcquisitor.pollIntervalWatchdog.setWatch(
+			EnvUtil.getEnvDouble("AGENT_POLL_WATCHDOG_RATIO", PollIntervalWatchdog.DEFAULT_WARN_RATIO),
+			EnvUtil.getEnvLong("AGENT_POLL_WATCHDOG_INTERVAL", PollIntervalWatchdog.DEFAULT_CHECK_INTERVAL)
+		);
 		
-		// --- KafkaConsumer 메소드 훅킹 설정
+		// 최근 종료된 클라이언트 최대 보관 수 설정 - 0 이하일 경우 보관 안함
+		KafkaAcquisitor.closedClientStore.setLimit(
+			EnvUtil.getEnvInt("AGENT_CLOSED_CLIENT_LIMIT", ClosedClientStore.DEFAULT_LIMIT)
+		);
+		
+		// 어드바이스 부하 측정 샘플링 비율 설정 - 0 이하일 경우 측정 안함
+		OverheadMeter.sampleRate = EnvUtil.getEnvInt("AGENT_OVERHEAD_SAMPLE_RATE", OverheadMeter.DEFAULT_SAMPLE_RATE);
 		
 		// 초기화
-		KafkaConsumerPollAdvice.init(KafkaAcquisitor.poolTimeStatDaemon);
+		ProducerConfigAdvice.init(KafkaAcquisitor.producerConfigStore);
+		ConsumerConfigAdvice.init(KafkaAcquisitor.consumerConfigStore);
+		KafkaConsumerCloseAdvice.init(KafkaAcquisitor::closeConsumer);
+		KafkaProducerCloseAdvice.init(KafkaAcquisitor::closeProducer);
+		KafkaProducerSendAdvice.init(KafkaAcquisitor.sendStatDaemon);
+		RecordAccumulatorDrainAdvice.init(KafkaAcquisitor.batchStatDaemon);
+		SerdeAdvice.init(KafkaAcquisitor.serdeStatDaemon);
+		SpringListenerAdvice.init(KafkaAcquisitor.recordListenerTimeStatDaemon, KafkaAcquisitor.batchListenerTimeStatDaemon);
+		KafkaConsumerPollAdvice.init(KafkaAcquisitor.poolTimeStatDaemon, KafkaAcquisitor.partitionStatDaemon, KafkaAcquisitor.recordLatencyStatDaemon);
 		KafkaConsumerCommitSyncAdvice.init(KafkaAcquisitor.commitSyncTimeStatDaemon);
 		KafkaConsumerCommitAsyncAdvice.init(KafkaAcquisitor.commitAsyncTimeStatDaemon);
-
-		// KafkaConsumer의 생성자 호출 어드바이스 설정
+		KafkaConsumerCommitCallbackAdvice.init(KafkaAcquisitor.commitStatDaemon);
+		ConsumerRebalanceAdvice.init(KafkaAcquisitor.rebalanceStatDaemon);
+		StreamsAdvice.init(KafkaAcquisitor.streamThreadTimeStatDaemon, KafkaAcquisitor.streamsCommitTimeStatDaemon, KafkaAcquisitor.streamsTaskStatDaemon);
+		
+		// --- 변환기 공통 설정
+		
+		// 무시 대상 - 부트스트랩 클래스 로더의 클래스 및 Kafka 와 무관한 패키지의 클래스
+		// 클래스 명만으로 판단하므로, 무시된 클래스는 클래스 파일을 분석하지 않음
+		ElementMatcher.Junction<TypeDescription> ignoreMatcher = createIgnoreMatcher();
+		
+		// 타입 풀 캐시 - 두 변환기가 공유하며, 상위 타입 탐색시 클래스 파일을 다시 읽지 않도록 함
+		TypePoolCacheStrategy poolStrategy = new TypePoolCacheStrategy();
+		
+		// 리스너 - 변환 부하 측정 및 오류 출력
+		AgentBuilder.Listener listener = new AgentBuilder.Listener.Compound(
+			transformMeter,
+			AgentBuilder.Listener.StreamWriting.toSystemError().withErrorsOnly()
+		);
+		
+		// --- KafkaConsumer/KafkaProducer 구조 변환 설정
+		
+		// KafkaConsumer/KafkaProducer의 생성자 호출 어드바이스 설정
+		// 클라이언트 순번 필드 및 접근 인터페이스를 추가하여 클라이언트 객체에서 바로 순번을 읽을 수 있도록 함
+		// 스프링부트의 ExtendedKafkaConsumer 는 KafkaConsumer 의 하위 클래스이므로 필드를 상속 받으며, 생성자 어드바이스만 설정함
+		// 필드/인터페이스 추가는 재변환으로 되돌릴 수 없으므로 재변환을 지원하지 않는 변환기로 등록함
+		// -> 재변환시 JVM 은 이 변환기의 결과를 원본으로 사용하므로, 어드바이스 그룹의 재변환 후에도 필드가 유지됨
+		// -> 어드바이스 그룹의 변환기(재변환 지원)와 하나로 합칠 수 없으므로 별도의 변환기로 등록함
 		new AgentBuilder.Default()
+			.with(poolStrategy)
+			.with(listener)
+			.ignore(ElementMatchers.any(), ElementMatchers.isBootstrapClassLoader())
+			.or(ignoreMatcher)
 			.type(ElementMatchers.named("org.apache.kafka.clients.consumer.KafkaConsumer"))
 			.transform(
-				(builder, typeDescription, classLoader, module, protectionDomain) -> { 
+				(builder, typeDescription, classLoader, module, protectionDomain) -> {
 					return builder
+						.defineField(ClientOrdinalHolder.FIELD_NAME, int.class, Visibility.PRIVATE, SyntheticState.SYNTHETIC)
+						.implement(ClientOrdinalHolder.class)
+						.intercept(FieldAccessor.ofField(ClientOrdinalHolder.FIELD_NAME))
 						.constructor(ElementMatchers.any())
-						.intercept(Advice.to(KafkaConsumerConstructorAdvice.class))
-						.visit(
-							Advice
-								.to(KafkaConsumerPollAdvice.class)
-								.on(
-									ElementMatchers
-										.named("poll")
-										.and(ElementMatchers.takesArguments(1))
-								)
-						)
-						.visit(
-							Advice
-								.to(KafkaConsumerCommitAsyncAdvice.class)
-								.on(ElementMatchers.named("commitAsync"))
-						)
-						.visit(
-							Advice
-								.to(KafkaConsumerCommitSyncAdvice.class)
-								.on(ElementMatchers.named("commitSync"))
-						);
+						.intercept(Advice.to(KafkaConsumerConstructorAdvice.class));
 				}
 			)
-			.installOn(inst);
-		
-		// 스프링부트의 KafkaConsumer의 생성자 호출 어드바이스 설정
-		new AgentBuilder.Default()
 			.type(ElementMatchers.named("org.springframework.kafka.core.DefaultKafkaConsumerFactory$ExtendedKafkaConsumer"))
 			.transform(
-				(builder, typeDescription, classLoader, module, protectionDomain) -> { 
+				(builder, typeDescription, classLoader, module, protectionDomain) -> {
 					return builder
 						.constructor(ElementMatchers.any())
 						.intercept(Advice.to(KafkaConsumerConstructorAdvice.class));
 				}
 			)
+			.type(ElementMatchers.named("org.apache.kafka.clients.producer.KafkaProducer"))
+			.transform(
+				(builder, typeDescription, classLoader, module, protectionDomain) -> {
+					return builder
+						.defineField(ClientOrdinalHolder.FIELD_NAME, int.class, Visibility.PRIVATE, SyntheticState.SYNTHETIC)
+						.implement(ClientOrdinalHolder.class)
+						.intercept(FieldAccessor.ofField(ClientOrdinalHolder.FIELD_NAME))
+						.constructor(ElementMatchers.any())
+						.intercept(Advice.to(KafkaProducerConstructorAdvice.class));
+				}
+			)
 			.installOn(inst);
+		
+		// --- 어드바이스 그룹 설정 - 실행 중 활성화/비활성화 가능
+		// 모든 그룹을 하나의 변환기로 설치하며, 대상 여부는 클래스 명 사전 필터로 먼저 판단함(AdviceTransformer 참고)
+		
+		adviceTransformer = new AdviceTransformer(ignoreMatcher);
+		
+		// Kafka ProducerConfig/ConsumerConfig 생성자 호출 어드바이스 설정
+		// 비활성화시 이후 생성되는 클라이언트의 설정 정보가 수집되지 않음(클라이언트 순번은 생성자 어드바이스에서 부여함)
+		addAdviceGroup(
+			new AdviceGroup("config")
+				.target(
+					"org.apache.kafka.clients.producer.ProducerConfig",
+					(builder, typeDescription, classLoader, module, protectionDomain) -> {
+						return builder
+							.visit(
+								Advice
+									.to(ProducerConfigAdvice.class)
+									.on(ElementMatchers.isConstructor())
+							);
+					}
+				)
+				.target(
+					"org.apache.kafka.clients.consumer.ConsumerConfig",
+					(builder, typeDescription, classLoader, module, protectionDomain) -> {
+						return builder
+							.visit(
+								Advice
+									.to(ConsumerConfigAdvice.class)
+									.on(ElementMatchers.isConstructor())
+							);
+					}
+				)
+		);
+		
+		// KafkaConsumer/KafkaProducer의 close 호출 어드바이스 설정
+		// Kafka 3.7 이상의 KafkaConsumer.close() 는 close(Duration) 을 거치지 않고 위임 객체를 바로 호출하므로 close()/close(Duration) 을 모두 변환하며,
+		// close() 가 close(Duration) 을 호출하는 경우(KafkaProducer, 3.6 이하의 KafkaConsumer)는 가장 바깥 호출만 처리함(CallDepth)
+		// 종료된 클라이언트의 설정 값, 클라이언트 순번 및 통계 데이터를 제거하며, 비활성화시 종료된 클라이언트 정보가 계속 남음
+		addAdviceGroup(
+			new AdviceGroup("close")
+				.target(
+					"org.apache.kafka.clients.consumer.KafkaConsumer",
+					(builder, typeDescription, classLoader, module, protectionDomain) -> {
+						return builder
+							.visit(
+								Advice
+									.to(KafkaConsumerCloseAdvice.class)
+									.on(
+										ElementMatchers
+											.named("close")
+											.and(
+												ElementMatchers
+													.takesArguments(0)
+													.or(ElementMatchers.takesArguments(Duration.class))
+											)
+									)
+							);
+					}
+				)
+				.target(
+					"org.apache.kafka.clients.producer.KafkaProducer",
+					(builder, typeDescription, classLoader, module, protectionDomain) -> {
+						return builder
+							.visit(
+								Advice
+									.to(KafkaProducerCloseAdvice.class)
+									.on(
+										ElementMatchers
+											.named("close")
+											.and(
+												ElementMatchers
+													.takesArguments(0)
+													.or(ElementMatchers.takesArguments(Duration.class))
+											)
+									)
+							);
+					}
+				)
+		);
+		
+		// KafkaProducer의 send 호출 어드바이스 설정
+		// send(ProducerRecord) 는 send(ProducerRecord, null) 을 호출하므로 인자가 2개인 메소드만 변환함
+		addAdviceGroup(
+			new AdviceGroup("send")
+				.target(
+					"org.apache.kafka.clients.producer.KafkaProducer",
+					(builder, typeDescription, classLoader, module, protectionDomain) -> {
+						return builder
+							.visit(
+								Advice
+									.to(KafkaProducerSendAdvice.class)
+									.on(
+										ElementMatchers
+											.named("send")
+											.and(ElementMatchers.takesArguments(2))
+									)
+							);
+					}
+				)
+		);
+		
+		// RecordAccumulator의 drain 호출 어드바이스 설정
+		// append/ready 는 send 마다 호출되므로, Sender 가 꺼낸 배치의 정보만 수집함
+		addAdviceGroup(
+			new AdviceGroup("batch")
+				.target(
+					"org.apache.kafka.clients.producer.internals.RecordAccumulator",
+					(builder, typeDescription, classLoader, module, protectionDomain) -> {
+						return builder
+							.visit(
+								Advice
+									.to(RecordAccumulatorDrainAdvice.class)
+									.on(
+										ElementMatchers
+											.named("drain")
+											.and(ElementMatchers.takesArguments(4))
+									)
+							);
+					}
+				)
+		);
+		
+		// Serializer/Deserializer 구현 클래스의 serialize/deserialize 호출 어드바이스 설정
+		// 인터페이스의 default 메소드는 변환하지 않으며, 브릿지 메소드는 실제 메소드를 호출하므로 제외함
+		addAdviceGroup(
+			new AdviceGroup("serde")
+				.target(
+					ElementMatchers.not(ElementMatchers.<TypeDescription>nameContains("$$Lambda"))
+						.and(ElementMatchers.not(ElementMatchers.isInterface()))
+						.and(
+							ElementMatchers.hasSuperType(ElementMatchers.named("org.apache.kafka.common.serialization.Serializer"))
+								.or(ElementMatchers.hasSuperType(ElementMatchers.named("org.apache.kafka.common.serialization.Deserializer")))
+						),
+					(builder, typeDescription, classLoader, module, protectionDomain) -> {
+						return builder
+							.visit(
+								Advice
+									.to(SerializerAdvice.class)
+									.on(
+										ElementMatchers
+											.named("serialize")
+											.and(ElementMatchers.takesArgument(0, String.class))
+											.and(ElementMatchers.returns(byte[].class))
+											.and(ElementMatchers.not(ElementMatchers.isBridge()))
+											.and(ElementMatchers.not(ElementMatchers.isAbstract()))
+									)
+							)
+							.visit(
+								Advice
+									.to(DeserializerAdvice.class)
+									.on(
+										ElementMatchers
+											.named("deserialize")
+											.and(ElementMatchers.takesArgument(0, String.class))
+											.and(ElementMatchers.takesArguments(2).or(ElementMatchers.takesArguments(3)))
+											.and(ElementMatchers.not(ElementMatchers.isBridge()))
+											.and(ElementMatchers.not(ElementMatchers.isAbstract()))
+									)
+							);
+					}
+				)
+		);
+		
+		// 스프링 Kafka 리스너 컨테이너의 리스너 호출 어드바이스 설정
+		// 레코드 리스너는 doInvokeOnMessage, 배치 리스너는 doInvokeBatchOnMessage 에서 리스너를 호출함
+		addAdviceGroup(
+			new AdviceGroup("listener")
+				.target(
+					"org.springframework.kafka.listener.KafkaMessageListenerContainer$ListenerConsumer",
+					(builder, typeDescription, classLoader, module, protectionDomain) -> {
+						return builder
+							.visit(
+								Advice
+									.to(SpringRecordListenerAdvice.class)
+									.on(
+										ElementMatchers
+											.named("doInvokeOnMessage")
+											.and(ElementMatchers.takesArguments(1))
+									)
+							)
+							.visit(
+								Advice
+									.to(SpringBatchListenerAdvice.class)
+									.on(
+										ElementMatchers
+											.named("doInvokeBatchOnMessage")
+											.and(ElementMatchers.takesArguments(2))
+									)
+							);
+					}
+				)
+		);
+		
+		// KafkaConsumer의 poll 호출 어드바이스 설정
+		addAdviceGroup(
+			new AdviceGroup("poll")
+				.target(
+					"org.apache.kafka.clients.consumer.KafkaConsumer",
+					(builder, typeDescription, classLoader, module, protectionDomain) -> {
+						return builder
+							.visit(
+								Advice
+									.to(KafkaConsumerPollAdvice.class)
+									.on(
+										ElementMatchers
+											.named("poll")
+											.and(ElementMatchers.takesArguments(1))
+									)
+							);
+					}
+				)
+		);
+		
+		// KafkaConsumer의 commitSync/commitAsync 호출 어드바이스 설정
+		// Kafka 3.6 이하는 인자가 적은 메소드가 인자가 2개인 메소드를 호출하지만, 3.7 이상의 KafkaConsumer 는
+		// 모든 오버로드 메소드가 위임 객체를 바로 호출하므로 모든 오버로드 메소드를 변환하고, 중첩 호출은 가장 바깥 호출만 수집함(CallDepth)
+		// 커밋 완료 시간 측정용 콜백 래퍼는 모든 commitAsync 가 최종적으로 호출하는 commitAsync(Map, OffsetCommitCallback) 에서 설정함
+		// -> 3.6 이하: KafkaConsumer, 3.7 이상: 위임 객체(LegacyKafkaConsumer/AsyncKafkaConsumer)
+		addAdviceGroup(
+			new AdviceGroup("commit")
+				.target(
+					"org.apache.kafka.clients.consumer.KafkaConsumer",
+					(builder, typeDescription, classLoader, module, protectionDomain) -> {
+						return builder
+							.visit(
+								Advice
+									.to(KafkaConsumerCommitAsyncAdvice.class)
+									.on(ElementMatchers.named("commitAsync"))
+							)
+							.visit(
+								Advice
+									.to(KafkaConsumerCommitCallbackAdvice.class)
+									.on(
+										ElementMatchers
+											.named("commitAsync")
+											.and(ElementMatchers.takesArguments(2))
+									)
+							)
+							.visit(
+								Advice
+									.to(KafkaConsumerCommitSyncAdvice.class)
+									.on(ElementMatchers.named("commitSync"))
+							);
+					}
+				)
+				.target(
+					"org.apache.kafka.clients.consumer.internals.LegacyKafkaConsumer",
+					(builder, typeDescription, classLoader, module, protectionDomain) -> {
+						return builder
+							.visit(
+								Advice
+									.to(KafkaConsumerCommitCallbackAdvice.class)
+									.on(
+										ElementMatchers
+											.named("commitAsync")
+											.and(ElementMatchers.takesArguments(2))
+									)
+							);
+					}
+				)
+				.target(
+					"org.apache.kafka.clients.consumer.internals.AsyncKafkaConsumer",
+					(builder, typeDescription, classLoader, module, protectionDomain) -> {
+						return builder
+							.visit(
+								Advice
+									.to(KafkaConsumerCommitCallbackAdvice.class)
+									.on(
+										ElementMatchers
+											.named("commitAsync")
+											.and(ElementMatchers.takesArguments(2))
+									)
+							);
+					}
+				)
+		);
+		
+		// ConsumerCoordinator의 리밸런스 시작/종료 및 리밸런스 리스너 호출 어드바이스 설정
+		addAdviceGroup(
+			new AdviceGroup("rebalance")
+				.target(
+					"org.apache.kafka.clients.consumer.internals.ConsumerCoordinator",
+					(builder, typeDescription, classLoader, module, protectionDomain) -> {
+						return builder
+							.visit(
+								Advice
+									.to(ConsumerJoinPrepareAdvice.class)
+									.on(ElementMatchers.named("onJoinPrepare"))
+							)
+							.visit(
+								Advice
+									.to(ConsumerJoinCompleteAdvice.class)
+									.on(ElementMatchers.named("onJoinComplete"))
+							)
+							.visit(
+								Advice
+									.to(ConsumerRebalanceListenerAdvice.class)
+									.on(
+										ElementMatchers
+											.named("invokePartitionsRevoked")
+											.or(ElementMatchers.named("invokePartitionsAssigned"))
+											.or(ElementMatchers.named("invokePartitionsLost"))
+									)
+							);
+					}
+				)
+		);
+		
+		// Kafka Streams 의 스트림 스레드 루프/커밋 및 태스크 레코드 처리/펑추에이트 어드바이스 설정
+		// 메인 컨슈머의 poll 은 KafkaConsumer 의 poll 어드바이스에서 수집되므로, poll 이후의 처리 시간을 수집함
+		addAdviceGroup(
+			new AdviceGroup("streams")
+				.target(
+					"org.apache.kafka.streams.processor.internals.StreamThread",
+					(builder, typeDescription, classLoader, module, protectionDomain) -> {
+						return builder
+							.visit(
+								Advice
+									.to(StreamThreadRunOnceAdvice.class)
+									.on(
+										ElementMatchers
+											.named("runOnce")
+											.and(ElementMatchers.takesArguments(0))
+									)
+							)
+							.visit(
+								Advice
+									.to(StreamThreadCommitAdvice.class)
+									.on(
+										ElementMatchers
+											.named("maybeCommit")
+											.and(ElementMatchers.takesArguments(0))
+											.and(ElementMatchers.returns(int.class))
+									)
+							);
+					}
+				)
+				.target(
+					"org.apache.kafka.streams.processor.internals.StreamTask",
+					(builder, typeDescription, classLoader, module, protectionDomain) -> {
+						return builder
+							.visit(
+								Advice
+									.to(StreamTaskProcessAdvice.class)
+									.on(
+										ElementMatchers
+											.named("process")
+											.and(ElementMatchers.takesArguments(long.class))
+											.and(ElementMatchers.returns(boolean.class))
+									)
+							)
+							.visit(
+								Advice
+									.to(StreamTaskPunctuateAdvice.class)
+									.on(
+										ElementMatchers
+											.named("punctuate")
+											.and(ElementMatchers.takesArguments(4))
+									)
+							);
+					}
+				)
+		);
+		
+		// 어드바이스 그룹 변환기 설치 - 이미 로딩된 대상 클래스는 재변환됨
+		adviceTransformer.install(
+			new AgentBuilder.Default()
+				.with(poolStrategy)
+				.with(listener)
+				.ignore(ElementMatchers.any(), ElementMatchers.isBootstrapClassLoader())
+				.or(ignoreMatcher),
+			inst
+		);
+	}
+	
+	/**
+	 * 어드바이스 그룹 등록
+	 * 
+	 * @param adviceGroup 등록할 어드바이스 그룹
+	 */
+	private static void addAdviceGroup(AdviceGroup adviceGroup) {
+		adviceTransformer.addAdviceGroup(adviceGroup);
+	}
+	
+	/**
+	 * 변환 무시 대상 타입 매처 생성<br>
+	 * 기본 무시 대상(IGNORE_PREFIXES, IGNORE_NAME_PARTS)에 환경 변수 설정을 추가함<br>
+	 * AGENT_TRANSFORM_IGNORE: 추가 무시 대상 패키지 목록 - 콤마(,)로 구분, ex) com.mycompany.web.,com.mycompany.batch.<br>
+	 * Spring Kafka(org.springframework.kafka.)는 리스너 컨테이너 및 Serializer 구현 클래스가 있으므로 무시하지 않음
+	 * 
+	 * @return 무시 대상 타입 매처
+	 */
+	private static ElementMatcher.Junction<TypeDescription> createIgnoreMatcher() {
+		
+		ElementMatcher.Junction<TypeDescription> ignoreMatcher = ElementMatchers.none();
+		
+		for(String prefix: IGNORE_PREFIXES) {
+			ignoreMatcher = ignoreMatcher.or(ElementMatchers.nameStartsWith(prefix));
+		}
+		
+		for(String prefix: EnvUtil.getEnv("AGENT_TRANSFORM_IGNORE", "").split(",")) {
+			if(prefix.trim().isEmpty() == false) {
+				ignoreMatcher = ignoreMatcher.or(ElementMatchers.nameStartsWith(prefix.trim()));
+			}
+		}
+		
+		ignoreMatcher = ignoreMatcher.and(ElementMatchers.not(ElementMatchers.nameStartsWith("org.springframework.kafka.")));
+		
+		for(String namePart: IGNORE_NAME_PARTS) {
+			ignoreMatcher = ignoreMatcher.or(ElementMatchers.nameContains(namePart));
+		}
+		
+		return ignoreMatcher;
+	}
+	
+	/**
+	 * 에이전트 기동 완료 표시 - exporter 서비스 기동 후 호출
+	 * 
+	 * @param startTime 에이전트 기동 시작 시간 - System.nanoTime
+	 */
+	public static void markReady(long startTime) {
+		
+		transformMeter.markStart(startTime);
+		transformMeter.markReady(System.nanoTime());
+	}
+	
+	/**
+	 * 클래스 변환 부하 및 기동 시간 정보 반환
+	 * 
+	 * @return 클래스 변환 부하 및 기동 시간 정보
+	 */
+	public static TransformMeter getTransformMeter() {
+		return transformMeter;
+	}
+	
+	/**
+	 * 어드바이스 그룹별 활성화 여부 반환
+	 * 
+	 * @return 활성화 여부 맵 - key: 그룹 명, value: 활성화 여부
+	 */
+	public static Map<String, Boolean> getAdviceGroupStatus() {
+		return adviceTransformer.getAdviceGroupStatus();
+	}
+	
+	/**
+	 * 어드바이스 그룹 활성화/비활성화<br>
+	 * 비활성화시 이미 로딩된 클래스를 재변환하여 어드바이스 코드를 제거함
+	 * 
+	 * @param name 그룹 명
+	 * @param enabled 활성화 여부
+	 */
+	public static void setAdviceGroupEnabled(String name, boolean enabled) {
+		adviceTransformer.setEnabled(name, enabled);
+	}
+	
+	/**
+	 * 환경 변수 설정에 따라 통계 데몬의 데이터 수집 방식 설정<br>
+	 * AGENT_RING_CAPACITY: 스레드별 링 버퍼 크기<br>
+	 * AGENT_RING_OVERFLOW_POLICY: 링 버퍼 초과시 처리 정책(DROP_NEWEST, DROP_OLDEST)<br>
+	 * AGENT_RING_DRAIN_INTERVAL: 링 버퍼 수집 주기 - 단위: ms
+	 * 
+	 * @param statDaemons 설정할 통계 데몬 목록
+	 */
+	private static void setCapture(RingStatDaemon... statDaemons) {
+		
+		int ringCapacity = EnvUtil.getEnvInt("AGENT_RING_CAPACITY", RingStatDaemon.DEFAULT_RING_CAPACITY);
+		OverflowPolicy overflowPolicy = EnvUtil.getEnvEnum("AGENT_RING_OVERFLOW_POLICY", OverflowPolicy.class, OverflowPolicy.DROP_NEWEST);
+		long drainInterval = EnvUtil.getEnvLong("AGENT_RING_DRAIN_INTERVAL", RingStatDaemon.DEFAULT_DRAIN_INTERVAL);
+		
+		for(RingStatDaemon statDaemon: statDaemons) {
+			statDaemon.setCapture(ringCapacity, overflowPolicy, drainInterval);
+		}
+	}
+	
+	/**
+	 * 환경 변수 설정에 따라 통계 데몬의 호출 샘플링 설정<br>
+	 * 어드바이스별 설정(AGENT_{name}_SAMPLING_*)이 없을 경우 공통 설정(AGENT_SAMPLING_*)을 사용함<br>
+	 * AGENT_SAMPLING_MODE: 샘플링 방식(ALL, RATIO, RATE)<br>
+	 * AGENT_SAMPLING_RATIO: 1/N 수집시 N - RATIO 방식<br>
+	 * AGENT_SAMPLING_TARGET_RATE: 초당 목표 수집 건수 - RATE 방식<br>
+	 * 설정 값이 잘못된 경우(RATIO 방식의 비율이 1 ~ Sampler.MAX_RATIO 밖이거나, RATE 방식의 목표 건수가 0 이하 등)<br>
+	 * 에이전트 기동이 중단되지 않도록 예외를 발생시키지 않고, 오류를 출력한 후 전체 수집(ALL)으로 설정함
+	 * 
+	 * @param name 어드바이스 명 - ex) POLL
+	 * @param sampler 설정할 통계 데몬의 샘플링 객체
+	 */
+	private static void setSampling(String name, Sampler sampler) {
+		
+		String prefix = "AGENT_" + name + "_SAMPLING_";
+		
+		Sampler.Mode mode;
+		int ratio;
+		long targetRate;
+		
+		try {
+			
+			mode = EnvUtil.getEnvEnum(
+				prefix + "MODE", Sampler.Mode.class,
+				EnvUtil.getEnvEnum("AGENT_SAMPLING_MODE", Sampler.Mode.class, Sampler.Mode.ALL)
+			);
+			
+			ratio = EnvUtil.getEnvInt(
+				prefix + "RATIO",
+				EnvUtil.getEnvInt("AGENT_SAMPLING_RATIO", 1)
+			);
+			
+			targetRate = EnvUtil.getEnvLong(
+				prefix + "TARGET_RATE",
+				EnvUtil.getEnvLong("AGENT_SAMPLING_TARGET_RATE", DEFAULT_SAMPLING_TARGET_RATE)
+			);
+			
+		} catch(IllegalArgumentException iaex) {
+			
+			// 숫자 형식 오류 또는 없는 샘플링 방식
+			System.out.println("invalid " + name + " sampling setting(" + iaex.getMessage() + "), sampling mode is set to ALL.");
+			sampler.setMode(Sampler.Mode.ALL, 1, DEFAULT_SAMPLING_TARGET_RATE);
+			
+			return;
+		}
+		
+		// 설정 값 검증
+		if(
+			(mode == Sampler.Mode.RATIO && (ratio < 1 || ratio > Sampler.MAX_RATIO))
+			|| (mode == Sampler.Mode.RATE && targetRate <= 0)
+		) {
+			
+			System.out.println(
+				"invalid " + name + " sampling setting(mode: " + mode + ", ratio: " + ratio + ", target rate: " + targetRate + "), "
+				+ "sampling mode is set to ALL."
+			);
+			sampler.setMode(Sampler.Mode.ALL, 1, DEFAULT_SAMPLING_TARGET_RATE);
+			
+			return;
+		}
+		
+		sampler.setMode(mode, ratio, targetRate);
+	}
+	
+	/**
+	 * 환경 변수 설정에 따라 poll 레코드 크기 샘플링 설정<br>
+	 * AGENT_RECORD_SIZE_SAMPLE_RATE: 레코드 크기 샘플링 비율(1/N poll), 0 이하일 경우 샘플링 안함<br>
+	 * AGENT_RECORD_SIZE_SAMPLE_MAX: 샘플링시 크기를 읽을 최대 레코드 수
+	 */
+	private static void setRecordSizeSampling() {
+		ConsumerRecordsReader.sizeSampleRate = EnvUtil.getEnvInt("AGENT_RECORD_SIZE_SAMPLE_RATE", ConsumerRecordsReader.sizeSampleRate);
+		ConsumerRecordsReader.sizeSampleMax = EnvUtil.getEnvInt("AGENT_RECORD_SIZE_SAMPLE_MAX", ConsumerRecordsReader.sizeSampleMax);
+	}
+	
+	/**
+	 * 환경 변수 설정에 따라 레코드 종단간 지연 시간 샘플링 설정<br>
+	 * AGENT_RECORD_LATENCY_SAMPLE_RATE: 지연 시간 샘플링 비율(1/N poll), 0 이하일 경우 샘플링 안함<br>
+	 * AGENT_RECORD_LATENCY_SAMPLE_MAX: 샘플링시 지연 시간을 읽을 최대 레코드 수
+	 */
+	private static void setRecordLatencySampling() {
+		ConsumerRecordsReader.latencySampleRate = EnvUtil.getEnvInt("AGENT_RECORD_LATENCY_SAMPLE_RATE", ConsumerRecordsReader.latencySampleRate);
+		ConsumerRecordsReader.latencySampleMax = EnvUtil.getEnvInt("AGENT_RECORD_LATENCY_SAMPLE_MAX", ConsumerRecordsReader.latencySampleMax);
 	}
 }
@@ -0,0 +1,179 @@
+package com.redeye.kafexporter.acquisitor.kafka;
+
+import java.util.Arrays;
+
+/**
+ * Kafka 토픽 파티션 순번 등록 클래스<br>
+ * 토픽 순번과 파티션 번호의 쌍마다 작은 정수 순번(ordinal)을 부여하여,<br>
+ * 수집 경로에서 TopicPartition 객체나 문자열 대신 순번으로 파티션을 구분하기 위함<br>
+ * 조회는 토픽 순번/파티션 번호를 인덱스로 하는 배열을 사용하므로 락 및 객체 생성 없이 동작함<br>
+ * 순번은 1 부터 시작하며, 0 은 미등록 파티션을 의미함
+ * 
+ * @author jmsohn
+ */
+public class PartitionRegistry {
+	
+	
+	/** 미등록 파티션 순번 */
+	public static final int NONE = 0;
+	
+	
+	/** 파티션 순번 테이블 - index: [토픽 순번][파티션 번호], value: 파티션 순번 */
+	private static volatile int[][] ordinalTable = new int[16][];
+	
+	/** 순번별 토픽 순번 배열 - index: 파티션 순번 */
+	private static volatile int[] topicOrdinals = new int[64];
+	
+	/** 순번별 파티션 번호 배열 - index: 파티션 순번 */
+	private static volatile int[] partitions = new int[64];
+	
+	/** 다음에 부여할 순번 */
+	private static int nextOrdinal = 1;
+	
+	
+	/**
+	 * 토픽 파티션의 순번 반환, 미등록일 경우 등록 후 반환
+	 * 
+	 * @param topicOrdinal 토픽 순번
+	 * @param partition 파티션 번호
+	 * @return 파티션 순번, 토픽 순번이 미등록이거나 파티션 번호가 음수일 경우 NONE(0)
+	 */
+	public static int getOrRegister(int topicOrdinal, int partition) {
+		
+		int ordinal = getOrdinal(topicOrdinal, partition);
+		
+		if(ordinal == NONE && topicOrdinal != TopicRegistry.NONE && partition >= 0) {
+			ordinal = register(topicOrdinal, partition);
+		}
+		
+		return ordinal;
+	}
+	
+	/**
+	 * 토픽 파티션의 순번 반환
+	 * 
+	 * @param topicOrdinal 토픽 순번
+	 * @param partition 파티션 번호
+	 * @return 파티션 순번, 미등록일 경우 NONE(0)
+	 */
+	public static int getOrdinal(int topicOrdinal, int partition) {
+		
+		int[][] curTable = ordinalTable;
+		
+		if(topicOrdinal <= TopicRegistry.NONE || topicOrdinal >= curTable.length || partition < 0) {
+			return NONE;
+		}
+		
+		int[] partitionOrdinals = curTable[topicOrdinal];
+		
+		if(partitionOrdinals == null || partition >= partitionOrdinals.length) {
+			return NONE;
+		}
+		
+		return partitionOrdinals[partition];
+	}
+	
+	/**
+	 * 토픽 파티션 등록 후 순번 반환<br>
+	 * 테이블은 복사 후 교체하므로 조회 중인 스레드에 영향 없음
+	 * 
+	 * @param topicOrdinal 토픽 순번
+	 * @param partition 파티션 번호
+	 * @return 파티션 순번
+	 */
+	private static synchronized int register(int topicOrdinal, int partition) {
+		
+		// 이미 등록된 경우 기존 순번 반환
+		int ordinal = getOrdinal(topicOrdinal, partition);
+		if(ordinal != NONE) {
+			return ordinal;
+		}
+		
+		// 파티션 순번 테이블 확장
+		int[][] curTable = ordinalTable;
+		if(topicOrdinal >= curTable.length) {
+			curTable = Arrays.copyOf(curTable, Math.max(curTable.length * 2, topicOrdinal + 1));
+		} else {
+			curTable = curTable.clone();
+		}
+		
+		int[] partitionOrdinals = curTable[topicOrdinal];
+		if(partitionOrdinals == null) {
+			partitionOrdinals = new int[Math.max(16, partition + 1)];
+		} else {
+			partitionOrdinals = Arrays.copyOf(partitionOrdinals, Math.max(partitionOrdinals.length, partition + 1));
+		}
+		
+		// 순번 부여
+		int newOrdinal = nextOrdinal++;
+		
+		int[] curTopicOrdinals = topicOrdinals;
+		int[] curPartitions = partitions;
+		if(newOrdinal >= curTopicOrdinals.length) {
+			curTopicOrdinals = Arrays.copyOf(curTopicOrdinals, curTopicOrdinals.length * 2);
+			curPartitions = Arrays.copyOf(curPartitions, curPartitions.length * 2);
+		}
+		
+		curTopicOrdinals[newOrdinal] = topicOrdinal;
+		curPartitions[newOrdinal] = partition;
+		topicOrdinals = curTopicOrdinals;
+		partitions = curPartitions;
+		
+		partitionOrdinals[partition] = newOrdinal;
+		curTable[topicOrdinal] = partitionOrdinals;
+		ordinalTable = curTable;
+		
+		return newOrdinal;
+	}
+	
+	/**
+	 * 순번에 해당하는 토픽 명 반환
+	 * 
+	 * @param ordinal 파티션 순번
+	 * @return 토픽 명, 미등록일 경우 null
+	 */
+	public static String getTopic(int ordinal) {
+		
+		int[] curTopicOrdinals = topicOrdinals;
+		
+		if(ordinal <= NONE || ordinal >= curTopicOrdinals.length) {
+			return null;
+		}
+		
+		return TopicRegistry.getTopic(curTopicOrdinals[ordinal]);
+	}
+	
+	/**
+	 * 순번에 해당하는 파티션 번호 반환
+	 * 
+	 * @param ordinal 파티션 순번
+	 * @return 파티션 번호, 미등록일 경우 -1
+	 */
+	public static int getPartition(int ordinal) {
+		
+		int[] curPartitions = partitions;
+		
+		if(ordinal <= NONE || ordinal >= curPartitions.length || getTopic(ordinal) == null) {
+			return -1;
+		}
+		
+		return curPartitions[ordinal];
+	}
+	
+	/**
+	 * 순번에 해당하는 파티션 명 반환 - 토픽 명-파티션 번호
+	 * 
+	 * @param ordinal 파티션 순번
+	 * @return 파티션 명, 미등록일 경우 null
+	 */
+	public static String getName(int ordinal) {
+		
+		String topic = getTopic(ordinal);
+		
+		if(topic == null) {
+			return null;
+		}
+		
+		return topic + "-" + getPartition(ordinal);
+	}
+}
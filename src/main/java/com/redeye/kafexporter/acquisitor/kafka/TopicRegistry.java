@@ -0,0 +1,53 @@
+package com.redeye.kafexporter.acquisitor.kafka;
+
+import com.redeye.kafexporter.util.OrdinalRegistry;
+
+/**
+ * Kafka 토픽 순번 등록 클래스<br>
+ * 토픽마다 작은 정수 순번(ordinal)을 부여하여,<br>
+ * 수집 경로에서 문자열 대신 순번으로 토픽을 구분하기 위함<br>
+ * 순번은 1 부터 시작하며, 0 은 미등록 토픽을 의미함
+ * 
+ * @author jmsohn
+ */
+public class TopicRegistry {
+	
+	
+	/** 미등록 토픽 순번 */
+	public static final int NONE = OrdinalRegistry.NONE;
+	
+	
+	/** 토픽 순번 등록 객체 */
+	private static final OrdinalRegistry registry = new OrdinalRegistry();
+	
+	
+	/**
+	 * 토픽의 순번 반환, 미등록일 경우 등록 후 반환
+	 * 
+	 * @param topic 토픽 명
+	 * @return 토픽 순번, 토픽 명이 null 일 경우 NONE(0)
+	 */
+	public static int getOrRegister(String topic) {
+		return registry.getOrRegister(topic);
+	}
+	
+	/**
+	 * 토픽의 순번 반환
+	 * 
+	 * @param topic 토픽 명
+	 * @return 토픽 순번, 미등록일 경우 NONE(0)
+	 */
+	public static int getOrdinal(String topic) {
+		return registry.getOrdinal(topic);
+	}
+	
+	/**
+	 * 순번에 해당하는 토픽 명 반환
+	 * 
+	 * @param ordinal 토픽 순번
+	 * @return 토픽 명, 미등록일 경우 null
+	 */
+	public static String getTopic(int ordinal) {
+		return registry.getName(ordinal);
+	}
+}
@@ -0,0 +1,171 @@
+package com.redeye.kafexporter.acquisitor.kafka;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.pool.TypePool;
+
+/**
+ * 클래스 로더별 타입 풀 캐시 전략 클래스<br>
+ * 변환기가 타입 정보를 분석할 때(ex. Serializer 구현 여부 확인을 위한 상위 타입 탐색) 클래스 파일을 매번 다시 읽지 않도록,<br>
+ * 클래스 로더별로 분석된 타입 정보를 캐시하여 변환기들이 공유함<br>
+ * 클래스 로더는 약한 참조로, 캐시 항목은 소프트 참조로 보관하므로 클래스 로더 해제나 메모리 부족시 캐시가 정리됨<br>
+ * 클래스 로딩마다 조회되므로 전역 잠금 없는 ConcurrentHashMap 에 클래스 로더의 약한 참조 키로 보관하며,<br>
+ * 해제된 클래스 로더의 캐시는 새 클래스 로더의 캐시 생성시 정리함
+ * 
+ * @author jmsohn
+ */
+public class TypePoolCacheStrategy extends AgentBuilder.PoolStrategy.WithTypePoolCache {
+	
+	
+	/** 부트스트랩 클래스 로더의 캐시 */
+	private final TypePool.CacheProvider bootstrapCacheProvider = new TypePool.CacheProvider.Simple.UsingSoftReference();
+	
+	/** 클래스 로더별 캐시 - key: 클래스 로더 키(LoaderKey 약한 참조, 조회시 LookupKey) */
+	private final ConcurrentMap<Object, TypePool.CacheProvider> cacheProviderMap = new ConcurrentHashMap<>();
+	
+	/** 해제된 클래스 로더의 키 큐 */
+	private final ReferenceQueue<ClassLoader> staleKeyQueue = new ReferenceQueue<>();
+	
+	
+	/**
+	 * 생성자 - 타입 정보는 필요한 부분만 분석함(FAST 모드)
+	 */
+	public TypePoolCacheStrategy() {
+		super(TypePool.Default.ReaderMode.FAST);
+	}
+	
+	/**
+	 * 클래스 로더의 캐시 반환, 없을 경우 생성
+	 * 
+	 * @param classLoader 클래스 로더 - 부트스트랩 클래스 로더일 경우 null
+	 * @return 캐시
+	 */
+	@Override
+	protected TypePool.CacheProvider locate(ClassLoader classLoader) {
+		
+		if(classLoader == null) {
+			return this.bootstrapCacheProvider;
+		}
+		
+		// 이미 생성된 캐시 조회 - 잠금 없음
+		TypePool.CacheProvider cacheProvider = this.cacheProviderMap.get(new LookupKey(classLoader));
+		if(cacheProvider != null) {
+			return cacheProvider;
+		}
+		
+		// 해제된 클래스 로더의 캐시 정리 후 생성
+		this.expungeStaleEntries();
+		
+		return this.cacheProviderMap.computeIfAbsent(
+			new LoaderKey(classLoader, this.staleKeyQueue),
+			key -> new TypePool.CacheProvider.Simple.UsingSoftReference()
+		);
+	}
+	
+	/**
+	 * 해제된 클래스 로더의 캐시 제거
+	 */
+	private void expungeStaleEntries() {
+		
+		Reference<? extends ClassLoader> staleKey;
+		
+		while((staleKey = this.staleKeyQueue.poll()) != null) {
+			this.cacheProviderMap.remove(staleKey);
+		}
+	}
+	
+	
+	/**
+	 * 캐시 맵의 클래스 로더 키 클래스 - 클래스 로더를 약한 참조로 보관하며, 클래스 로더 객체 단위(identity)로 비교함
+	 * 
+	 * @author jmsohn
+	 */
+	private static final class LoaderKey extends WeakReference<ClassLoader> {
+		
+		/** 클래스 로더의 해시 값 - 클래스 로더 해제 후에도 유지 */
+		private final int hash;
+		
+		/**
+		 * 생성자
+		 * 
+		 * @param classLoader 클래스 로더
+		 * @param queue 해제된 클래스 로더의 키 큐
+		 */
+		LoaderKey(ClassLoader classLoader, ReferenceQueue<ClassLoader> queue) {
+			super(classLoader, queue);
+			this.hash = System.identityHashCode(classLoader);
+		}
+		
+		@Override
+		public int hashCode() {
+			return this.hash;
+		}
+		
+		@Override
+		public boolean equals(Object obj) {
+			
+			if(obj == this) {
+				return true;
+			}
+			
+			ClassLoader classLoader = this.get();
+			if(classLoader == null) {
+				return false;
+			}
+			
+			if(obj instanceof LoaderKey) {
+				return ((LoaderKey)obj).get() == classLoader;
+			}
+			
+			if(obj instanceof LookupKey) {
+				return ((LookupKey)obj).classLoader == classLoader;
+			}
+			
+			return false;
+		}
+	}
+	
+	/**
+	 * 캐시 맵의 조회용 클래스 로더 키 클래스 - 조회시에만 사용하므로 강한 참조로 보관함
+	 * 
+	 * @author jmsohn
+	 */
+	private static final class LookupKey {
+		
+		/** 클래스 로더 */
+		private final ClassLoader classLoader;
+		
+		/**
+		 * 생성자
+		 * 
+		 * @param classLoader 클래스 로더
+		 */
+		LookupKey(ClassLoader classLoader) {
+			this.classLoader = classLoader;
+		}
+		
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(this.classLoader);
+		}
+		
+		@Override
+		public boolean equals(Object obj) {
+			
+			if(obj instanceof LookupKey) {
+				return ((LookupKey)obj).classLoader == this.classLoader;
+			}
+			
+			if(obj instanceof LoaderKey) {
+				return ((LoaderKey)obj).get() == this.classLoader;
+			}
+			
+			return false;
+		}
+	}
+}
@@ -0,0 +1,43 @@
+package com.redeye.kafexporter.acquisitor.kafka.advice;
+
+/**
+ * 어드바이스 중첩 호출 깊이 클래스<br>
+ * 같은 어드바이스가 적용된 메소드가 다른 오버로드 메소드를 호출하는 경우(ex. Kafka 3.6 이하의 commitSync() -> commitSync(Map, Duration)),<br>
+ * 스레드별 호출 깊이로 가장 바깥 호출만 수집하여 중복 수집을 막음<br>
+ * 진입시 enter, 종료시(예외 발생 포함) exit 를 반드시 쌍으로 호출해야 함
+ * 
+ * @author jmsohn
+ */
+public class CallDepth {
+	
+	
+	/** 호출 깊이 - 스레드별, [0]: 호출 깊이 */
+	private final ThreadLocal<int[]> depth = ThreadLocal.withInitial(() -> new int[1]);
+	
+	
+	/**
+	 * 메소드 진입 - 호출 깊이 증가
+	 * 
+	 * @return 가장 바깥 호출 여부
+	 */
+	public boolean enter() {
+		return this.depth.get()[0]++ == 0;
+	}
+	
+	/**
+	 * 메소드 종료 - 호출 깊이 감소
+	 * 
+	 * @return 가장 바깥 호출 여부
+	 */
+	public boolean exit() {
+		
+		int[] curDepth = this.depth.get();
+		
+		// 진입 없이 종료된 경우(ex. 메소드 수행 중 어드바이스 재변환) 가장 바깥 호출로 처리
+		if(curDepth[0] <= 0) {
+			return true;
+		}
+		
+		return --curDepth[0] == 0;
+	}
+}
@@ -0,0 +1,28 @@
+package com.redeye.kafexporter.acquisitor.kafka.advice;
+
+/**
+ * 클라이언트 순번 보관 인터페이스<br>
+ * KafkaTransformer 에서 Kafka 클라이언트 클래스에 필드와 함께 추가하며,<br>
+ * 클라이언트 객체에서 문자열 변환이나 맵 조회 없이 클라이언트 순번을 얻기 위함
+ * 
+ * @author jmsohn
+ */
+public interface ClientOrdinalHolder {
+	
+	/** 클라이언트 클래스에 추가되는 클라이언트 순번 필드 명 */
+	String FIELD_NAME = "kafexporter$clientOrdinal";
+	
+	/**
+	 * 클라이언트 순번 반환
+	 * 
+	 * @return 클라이언트 순번, 미등록일 경우 ClientRegistry.NONE
+	 */
+	int kafexporter$getClientOrdinal();
+	
+	/**
+	 * 클라이언트 순번 설정
+	 * 
+	 * @param clientOrdinal 클라이언트 순번
+	 */
+	void kafexporter$setClientOrdinal(int clientOrdinal);
+}
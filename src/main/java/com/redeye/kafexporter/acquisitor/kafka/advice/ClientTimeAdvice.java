@@ -1,56 +1,266 @@
 package com.redeye.kafexporter.acquisitor.kafka.advice;
 
-import java.util.concurrent.BlockingQueue;
-
-import com.redeye.kafexporter.acquisitor.kafka.model.ClientTimeDTO;
+import com.redeye.kafexporter.acquisitor.kafka.ClientRegistry;
+import com.redeye.kafexporter.acquisitor.kafka.PartitionRegistry;
+import com.redeye.kafexporter.acquisitor.kafka.TopicRegistry;
+import com.redeye.kafexporter.acquisitor.kafka.stat.OverheadMeter;
+import com.redeye.kafexporter.acquisitor.kafka.stat.PartitionStatDaemon;
+import com.redeye.kafexporter.acquisitor.kafka.stat.RecordLatencyStatDaemon;
 import com.redeye.kafexporter.acquisitor.kafka.stat.TimeStatDaemon;
+import com.redeye.kafexporter.util.stat.Sampler;
 
 /**
- * kafka 클라이언트의 시간 처리 관련 어드바이스 상위(공통) 클래스
+ * kafka 클라이언트의 시간 처리 관련 어드바이스 상위(공통) 클래스<br>
+ * 시간 데이터는 통계 데몬의 샘플링 방식에 따라 수집 여부를 결정하며,<br>
+ * 어드바이스 처리 자체의 부하는 부하 측정 객체로 측정함
  * 
  * @author jmsohn
  */
 public class ClientTimeAdvice {
 	
+	// 아래의 메소드는 public 이어야 함 - 어드바이스 코드가 Kafka 클래스에 인라인되어 호출됨
+	
+	/**
+	 * 호출 진입 표시 - 샘플링과 관계 없이 모든 호출에서 표시하며, 객체 생성 없음
+	 * 
+	 * @param timeStatDaemon 시간 통계 데몬
+	 * @param consumer 클라이언트 객체
+	 */
+	public static void markEnter(TimeStatDaemon timeStatDaemon, Object consumer) {
+		
+		if(consumer == null || timeStatDaemon == null) {
+			return;
+		}
+		
+		int clientOrdinal = KafkaConsumerConstructorAdvice.getClientOrdinal(consumer);
+		if(clientOrdinal != ClientRegistry.NONE) {
+			timeStatDaemon.markEnter(clientOrdinal);
+		}
+	}
+	
+	/**
+	 * 호출 종료 표시 - 예외로 종료되어 시간 데이터를 전송하지 않는 호출용, 객체 생성 없음<br>
+	 * 진입 표시가 남아 poll 간격 감시에서 경과 시간이 0 으로 보이지 않도록 종료 시간을 표시함
+	 * 
+	 * @param timeStatDaemon 시간 통계 데몬
+	 * @param consumer 클라이언트 객체
+	 */
+	public static void markExit(TimeStatDaemon timeStatDaemon, Object consumer) {
+		
+		if(consumer == null || timeStatDaemon == null) {
+			return;
+		}
+		
+		int clientOrdinal = KafkaConsumerConstructorAdvice.getClientOrdinal(consumer);
+		if(clientOrdinal != ClientRegistry.NONE) {
+			timeStatDaemon.markExit(clientOrdinal, System.nanoTime());
+		}
+	}
 	
-	/** 시간 데이터 전송용 큐 */
-	public static BlockingQueue<ClientTimeDTO> queue;
+	/**
+	 * 진입 시간과 현재 시간(종료 시간)을 처리자에게 전송<br>
+	 * long 레코드로 전송하므로 객체 생성 없음
+	 * 
+	 * @param timeStatDaemon 시간 통계 데몬
+	 * @param overheadMeter 어드바이스 부하 측정 객체
+	 * @param consumer 클라이언트 객체
+	 * @param enterTime 진입 시간 - System.nanoTime
+	 */
+	public static void sendEnterExitTime(TimeStatDaemon timeStatDaemon, OverheadMeter overheadMeter, Object consumer, long enterTime) {
+		
+		// 종료 시간
+		long exitTime = System.nanoTime();
+		long token = overheadMeter.start();
+		
+		sendEnterExitTime(timeStatDaemon, consumer, enterTime, exitTime);
+		
+		overheadMeter.stop(token, exitTime - enterTime);
+	}
 	
+	/**
+	 * 진입 시간, 현재 시간(종료 시간) 및 반환된 레코드 정보를 처리자에게 전송<br>
+	 * 레코드 크기, 레코드 지연 시간 및 파티션별 레코드 수는 샘플링된 경우에만 읽으며, 그 외에는 객체 생성 없음
+	 * 
+	 * @param timeStatDaemon 시간 통계 데몬
+	 * @param partitionStatDaemon 파티션 통계 데몬 - null 일 경우 파티션별 수집 안함
+	 * @param recordLatencyStatDaemon 레코드 지연 시간 통계 데몬 - null 일 경우 지연 시간 수집 안함
+	 * @param overheadMeter 어드바이스 부하 측정 객체
+	 * @param consumer 클라이언트 객체
+	 * @param enterTime 진입 시간 - System.nanoTime
+	 * @param records 반환된 ConsumerRecords 객체
+	 */
+	public static void sendRecordsTime(TimeStatDaemon timeStatDaemon, PartitionStatDaemon partitionStatDaemon, RecordLatencyStatDaemon recordLatencyStatDaemon, OverheadMeter overheadMeter, Object consumer, long enterTime, Object records) {
+		
+		// 종료 시간
+		long exitTime = System.nanoTime();
+		long token = overheadMeter.start();
+		
+		sendRecordsTime(timeStatDaemon, partitionStatDaemon, recordLatencyStatDaemon, consumer, enterTime, exitTime, records);
+		
+		overheadMeter.stop(token, exitTime - enterTime);
+	}
 	
 	/**
-	 * 초기화
-	 *
-	 * @param queue
+	 * 진입 시간과 종료 시간을 처리자에게 전송
+	 * 
+	 * @param timeStatDaemon 시간 통계 데몬
+	 * @param consumer 클라이언트 객체
+	 * @param enterTime 진입 시간 - System.nanoTime
+	 * @param exitTime 종료 시간 - System.nanoTime
 	 */
-	public static void init(TimeStatDaemon timeStatDaemon) {
-		ClientTimeAdvice.queue = timeStatDaemon.getQueue();
+	private static void sendEnterExitTime(TimeStatDaemon timeStatDaemon, Object consumer, long enterTime, long exitTime) {
+		
+		// 입력 값 및 통계 데몬 검사
+		if(consumer == null || timeStatDaemon == null) {
+			return;
+		}
+		
+		// 클라이언트 순번 획득
+		int clientOrdinal = KafkaConsumerConstructorAdvice.getClientOrdinal(consumer);
+		if(clientOrdinal == ClientRegistry.NONE) {
+			return;
+		}
+		
+		// 샘플링
+		int sample = timeStatDaemon.getSampler().sample(clientOrdinal);
+		if(sample == Sampler.SKIP) {
+			return;
+		}
+		
+		// 통계 데몬에 데이터 전송
+		timeStatDaemon.send(clientOrdinal, sample, enterTime, exitTime);
 	}
 	
 	/**
-	 * 현재 시간을 처리자에게 전송
+	 * 진입 시간, 종료 시간 및 반환된 레코드 정보를 처리자에게 전송
 	 * 
+	 * @param timeStatDaemon 시간 통계 데몬
+	 * @param partitionStatDaemon 파티션 통계 데몬 - null 일 경우 파티션별 수집 안함
+	 * @param recordLatencyStatDaemon 레코드 지연 시간 통계 데몬 - null 일 경우 지연 시간 수집 안함
 	 * @param consumer 클라이언트 객체
+	 * @param enterTime 진입 시간 - System.nanoTime
+	 * @param exitTime 종료 시간 - System.nanoTime
+	 * @param records 반환된 ConsumerRecords 객체
+	 */
+	private static void sendRecordsTime(TimeStatDaemon timeStatDaemon, PartitionStatDaemon partitionStatDaemon, RecordLatencyStatDaemon recordLatencyStatDaemon, Object consumer, long enterTime, long exitTime, Object records) {
+		
+		// 입력 값 및 통계 데몬 검사
+		if(consumer == null || timeStatDaemon == null) {
+			return;
+		}
+		
+		// 클라이언트 순번 획득
+		int clientOrdinal = KafkaConsumerConstructorAdvice.getClientOrdinal(consumer);
+		if(clientOrdinal == ClientRegistry.NONE) {
+			return;
+		}
+		
+		// 종료 시간 표시 - poll 간격 감시용, 샘플링과 관계 없이 표시함
+		timeStatDaemon.markExit(clientOrdinal, exitTime);
+		
+		// 레코드 지연 시간 - poll 시간과 별도로 샘플링함
+		if(recordLatencyStatDaemon != null && ConsumerRecordsReader.isLatencySampled() == true) {
+			sendRecordLatency(recordLatencyStatDaemon, clientOrdinal, records);
+		}
+		
+		// 샘플링
+		int sample = timeStatDaemon.getSampler().sample(clientOrdinal);
+		if(sample == Sampler.SKIP) {
+			return;
+		}
+		
+		// 레코드 수 및 샘플링된 레코드 평균 크기
+		int recordCount = ConsumerRecordsReader.count(records);
+		int recordSize = -1;
+		
+		if(recordCount > 0 && ConsumerRecordsReader.isSizeSampled() == true) {
+			recordSize = ConsumerRecordsReader.averageSerializedSize(records);
+		}
+		
+		// 통계 데몬에 데이터 전송
+		timeStatDaemon.send(clientOrdinal, sample, enterTime, exitTime, recordCount, recordSize);
+		
+		// 파티션별 레코드 수 전송
+		if(partitionStatDaemon != null) {
+			sendPartitions(partitionStatDaemon, clientOrdinal, Sampler.isContiguous(sample), enterTime, exitTime, records, recordCount);
+		}
+	}
+	
+	/**
+	 * 레코드 지연 시간(현재 시간 - 레코드 타임스탬프)을 레코드 지연 시간 통계 데몬에 전송<br>
+	 * 레코드 전체에 고르게 분포하도록 일정 간격으로 최대 latencySampleMax 개의 레코드만 읽으며,<br>
+	 * 레코드 순회를 위한 Iterator 외에는 객체 생성 없음
+	 * 
+	 * @param recordLatencyStatDaemon 레코드 지연 시간 통계 데몬
+	 * @param clientOrdinal 클라이언트 순번
+	 * @param records 반환된 ConsumerRecords 객체
 	 */
-	protected static void sendCurTime(Object consumer) {
+	private static void sendRecordLatency(RecordLatencyStatDaemon recordLatencyStatDaemon, int clientOrdinal, Object records) {
+		
+		int recordCount = ConsumerRecordsReader.count(records);
+		int max = ConsumerRecordsReader.latencySampleMax;
 		
-		// 입력 값 및 큐 검사
-		if(consumer == null || queue == null) {
+		if(recordCount <= 0 || max <= 0 || records instanceof Iterable == false) {
 			return;
 		}
 		
-		try {
+		// 레코드를 읽을 간격
+		int stride = Math.max(1, recordCount / max);
+		long now = System.currentTimeMillis();
+		
+		int index = 0;
+		int sampleCount = 0;
+		
+		for(Object record: (Iterable<?>)records) {
 			
-			// 클라이언트 아이디 획득
-			String clientId = KafkaConsumerConstructorAdvice.getClientId(consumer);
-			if(clientId == null) {
-				return;
+			if(index++ % stride != 0) {
+				continue;
 			}
-
-			// 큐에 데이터 전송
-			queue.put(new ClientTimeDTO(clientId, System.currentTimeMillis()));
 			
-		} catch(Exception ex) {
-			ex.printStackTrace();
+			// 타임스탬프가 없는 레코드(NO_TIMESTAMP_TYPE)는 -1 로 반환됨
+			long timestamp = ConsumerRecordsReader.timestamp(record);
+			
+			if(timestamp >= 0) {
+				int topicOrdinal = TopicRegistry.getOrRegister(ConsumerRecordsReader.topic(record));
+				recordLatencyStatDaemon.send(clientOrdinal, topicOrdinal, now - timestamp);
+			}
+			
+			if(++sampleCount >= max) {
+				break;
+			}
+		}
+	}
+	
+	/**
+	 * poll 진입 시간 및 파티션별 레코드 수를 파티션 통계 데몬에 전송<br>
+	 * 토픽 파티션은 순번으로 변환하여 전송함
+	 * 
+	 * @param partitionStatDaemon 파티션 통계 데몬
+	 * @param clientOrdinal 클라이언트 순번
+	 * @param contiguous 이전 poll 과 연속된 호출 여부
+	 * @param enterTime 진입 시간 - System.nanoTime
+	 * @param exitTime 종료 시간 - System.nanoTime
+	 * @param records 반환된 ConsumerRecords 객체
+	 * @param recordCount 전체 레코드 수
+	 */
+	private static void sendPartitions(PartitionStatDaemon partitionStatDaemon, int clientOrdinal, boolean contiguous, long enterTime, long exitTime, Object records, int recordCount) {
+		
+		// 이전 poll 에서 수신한 파티션의 처리 시간 계산용 진입 시간 전송
+		partitionStatDaemon.sendEnter(clientOrdinal, contiguous, enterTime);
+		
+		// 레코드가 없을 경우 파티션 목록을 읽지 않음
+		if(recordCount <= 0) {
+			return;
+		}
+		
+		for(Object topicPartition: ConsumerRecordsReader.partitions(records)) {
+			
+			int topicOrdinal = TopicRegistry.getOrRegister(ConsumerRecordsReader.topic(topicPartition));
+			int partitionOrdinal = PartitionRegistry.getOrRegister(topicOrdinal, ConsumerRecordsReader.partition(topicPartition));
+			
+			if(partitionOrdinal != PartitionRegistry.NONE) {
+				partitionStatDaemon.sendDelivery(clientOrdinal, partitionOrdinal, exitTime, ConsumerRecordsReader.count(records, topicPartition));
+			}
 		}
 	}
 }
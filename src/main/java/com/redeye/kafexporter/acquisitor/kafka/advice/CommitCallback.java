@@ -0,0 +1,310 @@
+package com.redeye.kafexporter.acquisitor.kafka.advice;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+import com.redeye.kafexporter.acquisitor.kafka.ClientRegistry;
+import com.redeye.kafexporter.acquisitor.kafka.stat.CommitStatDaemon;
+import com.redeye.kafexporter.acquisitor.kafka.stat.OverheadMeter;
+
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.dynamic.loading.ClassLoadingStrategy;
+import net.bytebuddy.implementation.MethodCall;
+import net.bytebuddy.matcher.ElementMatchers;
+
+/**
+ * KafkaConsumer.commitAsync 콜백 래퍼 상위 클래스<br>
+ * 에이전트는 Kafka 라이브러리에 의존하지 않으므로, OffsetCommitCallback 인터페이스를 구현한 하위 클래스를<br>
+ * Kafka 클래스로더별로 한번 생성하여 사용함 - onComplete 호출시 complete 메소드를 호출함<br>
+ * commitAsync 호출부터 콜백 호출까지의 시간을 커밋 완료 지연 시간으로 통계 데몬에 전송한 후, 사용자 콜백을 호출함<br>
+ * 사용자 콜백이 없을 경우 Kafka 의 기본 콜백(실패 로그 출력)을 찾아 호출함
+ * 
+ * @author jmsohn
+ */
+public abstract class CommitCallback {
+	
+	
+	/** Kafka 커밋 콜백 인터페이스 명 */
+	private static final String CALLBACK_CLASS_NAME = "org.apache.kafka.clients.consumer.OffsetCommitCallback";
+	
+	/** 콜백 메소드 명 */
+	private static final String ON_COMPLETE = "onComplete";
+	
+	/** 컨슈머의 coordinator 필드 명 */
+	private static final String COORDINATOR_FIELD = "coordinator";
+	
+	/** coordinator 의 기본 커밋 콜백 필드 명 */
+	private static final String DEFAULT_CALLBACK_FIELD = "defaultOffsetCommitCallback";
+	
+	/** 객체 반환 메소드 타입 - (Object)Object */
+	private static final MethodType OBJECT_GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+	
+	/** 콜백 메소드 타입 - (Object, Object, Exception)void */
+	private static final MethodType ON_COMPLETE_TYPE = MethodType.methodType(void.class, Object.class, Object.class, Exception.class);
+	
+	/** 래퍼 생성자 메소드 타입 - ()CommitCallback */
+	private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(CommitCallback.class);
+	
+	/** 콜백 처리 부하 측정 객체 */
+	private static final OverheadMeter overheadMeter = OverheadMeter.of("commitCallback");
+	
+	/** 컨슈머 클래스별 래퍼 생성 정보 캐시 */
+	private static final ClassValue<CallbackFactory> FACTORY = new ClassValue<CallbackFactory>() {
+		@Override
+		protected CallbackFactory computeValue(Class<?> type) {
+			return CallbackFactory.create(type);
+		}
+	};
+	
+	/** 컨슈머 클래스별 coordinator 필드 읽기 메소드 핸들 캐시 */
+	private static final ClassValue<MethodHandle> COORDINATOR = new ClassValue<MethodHandle>() {
+		@Override
+		protected MethodHandle computeValue(Class<?> type) {
+			return findFieldGetter(type, COORDINATOR_FIELD);
+		}
+	};
+	
+	/** coordinator 클래스별 기본 커밋 콜백 필드 읽기 메소드 핸들 캐시 */
+	private static final ClassValue<MethodHandle> DEFAULT_CALLBACK = new ClassValue<MethodHandle>() {
+		@Override
+		protected MethodHandle computeValue(Class<?> type) {
+			return findFieldGetter(type, DEFAULT_CALLBACK_FIELD);
+		}
+	};
+	
+	
+	/** 커밋 통계 데몬 */
+	private CommitStatDaemon commitStatDaemon;
+	
+	/** 사용자(또는 기본) 콜백 객체 */
+	private Object delegate;
+	
+	/** 사용자 콜백 호출 메소드 핸들 */
+	private MethodHandle onComplete;
+	
+	/** 클라이언트 순번 */
+	private int clientOrdinal;
+	
+	/** 커밋 요청 시간 - System.nanoTime */
+	private long commitTime;
+	
+	
+	/**
+	 * 사용자 콜백을 커밋 완료 시간 측정용 래퍼로 감싸서 반환<br>
+	 * 래퍼를 생성할 수 없거나, 사용자 콜백이 없는데 기본 콜백을 찾을 수 없는 경우 사용자 콜백을 그대로 반환함<br>
+	 * 컨슈머 객체는 KafkaConsumer 또는 위임 객체(Kafka 3.7 이상)이며, 위임 객체의 클라이언트 순번은 KafkaConsumer 생성시 연결됨
+	 * 
+	 * @param commitStatDaemon 커밋 통계 데몬
+	 * @param consumer 컨슈머 객체 또는 위임 객체
+	 * @param callback 사용자 콜백 객체 - 없을 경우 null
+	 * @return 래퍼 콜백 객체
+	 */
+	public static Object wrap(CommitStatDaemon commitStatDaemon, Object consumer, Object callback) {
+		
+		// 입력 값 및 통계 데몬 검사 - 이미 감싼 콜백일 경우(Kafka 3.7 이상의 KafkaConsumer -> 위임 객체 호출) 그대로 반환
+		if(commitStatDaemon == null || consumer == null || callback instanceof CommitCallback) {
+			return callback;
+		}
+		
+		try {
+			
+			// 클라이언트 순번 획득
+			int clientOrdinal = KafkaConsumerConstructorAdvice.getClientOrdinal(consumer);
+			if(clientOrdinal == ClientRegistry.NONE) {
+				return callback;
+			}
+			
+			// 사용자 콜백이 없을 경우 Kafka 기본 콜백 사용 - 래퍼로 대체되면 기본 콜백이 호출되지 않기 때문
+			Object delegate = callback;
+			if(delegate == null) {
+				
+				delegate = readField(DEFAULT_CALLBACK, readField(COORDINATOR, consumer));
+				if(delegate == null) {
+					return callback;
+				}
+			}
+			
+			// 래퍼 생성
+			CallbackFactory factory = FACTORY.get(consumer.getClass());
+			if(factory == null) {
+				return callback;
+			}
+			
+			CommitCallback commitCallback = (CommitCallback)factory.constructor.invokeExact();
+			
+			commitCallback.commitStatDaemon = commitStatDaemon;
+			commitCallback.delegate = delegate;
+			commitCallback.onComplete = factory.onComplete;
+			commitCallback.clientOrdinal = clientOrdinal;
+			commitCallback.commitTime = System.nanoTime();
+			
+			return commitCallback;
+			
+		} catch(Throwable th) {
+			return callback;
+		}
+	}
+	
+	/**
+	 * 커밋 완료시 호출 - 생성된 하위 클래스의 onComplete 에서 호출됨
+	 * 
+	 * @param offsets 커밋된 오프셋 맵
+	 * @param exception 커밋 실패시 예외, 성공시 null
+	 */
+	public void complete(Object offsets, Exception exception) {
+		
+		// 커밋 완료 지연 시간 전송
+		long completeTime = System.nanoTime();
+		long token = overheadMeter.start();
+		
+		this.commitStatDaemon.send(
+			this.clientOrdinal,
+			this.commitTime,
+			completeTime,
+			exception != null
+		);
+		
+		overheadMeter.stop(token);
+		
+		// 사용자 콜백 호출
+		try {
+			this.onComplete.invokeExact(this.delegate, offsets, exception);
+		} catch(RuntimeException | Error ex) {
+			throw ex;
+		} catch(Throwable th) {
+			throw new RuntimeException(th);
+		}
+	}
+	
+	/**
+	 * 메소드 핸들 캐시로 객체의 필드 값을 읽어 반환
+	 * 
+	 * @param getter 메소드 핸들 캐시
+	 * @param obj 대상 객체
+	 * @return 필드 값, 객체가 null 이거나 읽을 수 없을 경우 null
+	 */
+	private static Object readField(ClassValue<MethodHandle> getter, Object obj) throws Throwable {
+		
+		if(obj == null) {
+			return null;
+		}
+		
+		MethodHandle handle = getter.get(obj.getClass());
+		if(handle == null) {
+			return null;
+		}
+		
+		return (Object)handle.invokeExact(obj);
+	}
+	
+	/**
+	 * 클래스 및 상위 클래스에서 필드를 찾아 읽기 메소드 핸들 반환
+	 * 
+	 * @param type 대상 클래스
+	 * @param fieldName 필드 명
+	 * @return 필드 읽기 메소드 핸들 - (Object)Object, 없을 경우 null
+	 */
+	private static MethodHandle findFieldGetter(Class<?> type, String fieldName) {
+		
+		for(Class<?> cur = type; cur != null; cur = cur.getSuperclass()) {
+			
+			try {
+				
+				Field field = cur.getDeclaredField(fieldName);
+				field.setAccessible(true);
+				
+				return MethodHandles.lookup().unreflectGetter(field).asType(OBJECT_GETTER_TYPE);
+				
+			} catch(NoSuchFieldException nsfex) {
+				// 상위 클래스에서 다시 찾음
+			} catch(Exception ex) {
+				return null;
+			}
+		}
+		
+		return null;
+	}
+	
+	
+	/**
+	 * 컨슈머 클래스로더별 래퍼 생성 정보 클래스
+	 * 
+	 * @author jmsohn
+	 */
+	private static class CallbackFactory {
+		
+		/** 래퍼 생성자 메소드 핸들 - ()CommitCallback */
+		final MethodHandle constructor;
+		
+		/** 사용자 콜백 호출 메소드 핸들 - (Object, Object, Exception)void */
+		final MethodHandle onComplete;
+		
+		/**
+		 * 생성자
+		 * 
+		 * @param constructor 래퍼 생성자 메소드 핸들
+		 * @param onComplete 사용자 콜백 호출 메소드 핸들
+		 */
+		CallbackFactory(MethodHandle constructor, MethodHandle onComplete) {
+			this.constructor = constructor;
+			this.onComplete = onComplete;
+		}
+		
+		/**
+		 * 컨슈머 클래스로더의 OffsetCommitCallback 인터페이스를 구현한 래퍼 클래스 생성
+		 * 
+		 * @param consumerType 컨슈머 클래스
+		 * @return 래퍼 생성 정보, 생성할 수 없을 경우 null
+		 */
+		static CallbackFactory create(Class<?> consumerType) {
+			
+			try {
+				
+				// OffsetCommitCallback 인터페이스 및 콜백 메소드
+				Class<?> callbackType = Class.forName(CALLBACK_CLASS_NAME, false, consumerType.getClassLoader());
+				
+				Method onCompleteMethod = null;
+				for(Method method: callbackType.getMethods()) {
+					if(method.getName().equals(ON_COMPLETE) == true && method.getParameterCount() == 2) {
+						onCompleteMethod = method;
+						break;
+					}
+				}
+				
+				if(onCompleteMethod == null) {
+					return null;
+				}
+				
+				// 래퍼 클래스 생성 - onComplete 호출시 complete 호출
+				Class<?> wrapperType = new ByteBuddy()
+					.subclass(CommitCallback.class)
+					.implement(callbackType)
+					.method(ElementMatchers.is(onCompleteMethod))
+					.intercept(
+						MethodCall
+							.invoke(CommitCallback.class.getMethod("complete", Object.class, Exception.class))
+							.withAllArguments()
+					)
+					.make()
+					.load(callbackType.getClassLoader(), ClassLoadingStrategy.Default.WRAPPER)
+					.getLoaded();
+				
+				return new CallbackFactory(
+					MethodHandles.publicLookup()
+						.findConstructor(wrapperType, MethodType.methodType(void.class))
+						.asType(CONSTRUCTOR_TYPE),
+					MethodHandles.publicLookup()
+						.unreflect(onCompleteMethod)
+						.asType(ON_COMPLETE_TYPE)
+				);
+				
+			} catch(Exception ex) {
+				ex.printStackTrace();
+				return null;
+			}
+		}
+	}
+}
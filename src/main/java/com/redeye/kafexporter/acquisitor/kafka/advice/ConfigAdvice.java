@@ -0,0 +1,70 @@
+package com.redeye.kafexporter.acquisitor.kafka.advice;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Map;
+
+import com.redeye.kafexporter.acquisitor.kafka.ConfigStore;
+import com.redeye.kafexporter.acquisitor.kafka.Constants;
+
+/**
+ * ProducerConfig/ConsumerConfig 생성자 어드바이스 상위(공통) 클래스<br>
+ * 설정 객체의 values() 는 클래스별로 캐시한 메소드 핸들로 호출하여, 생성시마다 리플렉션으로 메소드를 찾지 않음<br>
+ * 설정 값은 설정 값 저장소에 기본 설정과 다른 값만 저장됨(ConfigStore 참고)
+ * 
+ * @author jmsohn
+ */
+public class ConfigAdvice {
+	
+	// 아래의 멤버 변수 및 메소드는 public 이어야 함 - 어드바이스 코드가 Kafka 클래스에 인라인되어 호출됨
+	
+	/** AbstractConfig.values() 메소드 핸들 - 클래스별 캐시, 없을 경우 null */
+	public static final ClassValue<MethodHandle> VALUES = new ClassValue<MethodHandle>() {
+		
+		@Override
+		protected MethodHandle computeValue(Class<?> type) {
+			
+			try {
+				return MethodHandles.publicLookup()
+					.findVirtual(type, "values", MethodType.methodType(Map.class))
+					.asType(MethodType.methodType(Map.class, Object.class));
+			} catch(Exception ex) {
+				return null;
+			}
+		}
+	};
+	
+	
+	/**
+	 * 설정 객체의 설정 값을 설정 값 저장소에 저장
+	 * 
+	 * @param configStore 설정 값 저장소
+	 * @param config Kafka ProducerConfig/ConsumerConfig 객체
+	 * @return 클라이언트 아이디, 설정 값을 읽을 수 없을 경우 null
+	 */
+	public static String storeConfig(ConfigStore configStore, Object config) throws Throwable {
+		
+		// 설정 값을 가져옴
+		MethodHandle valuesHandle = VALUES.get(config.getClass());
+		if(valuesHandle == null) {
+			return null;
+		}
+		
+		Map<?, ?> configValueMap = (Map<?, ?>)valuesHandle.invokeExact(config);
+		
+		// 클라이언트 아이디 획득
+		if(configValueMap == null || configValueMap.get(Constants.CLIENT_ID) == null) {
+			return null;
+		}
+		
+		String clientId = configValueMap.get(Constants.CLIENT_ID).toString();
+		
+		// 설정 값 저장소에 추가
+		@SuppressWarnings("unchecked")
+		Map<String, ?> typedConfigValueMap = (Map<String, ?>)configValueMap;
+		configStore.put(clientId, typedConfigValueMap);
+		
+		return clientId;
+	}
+}
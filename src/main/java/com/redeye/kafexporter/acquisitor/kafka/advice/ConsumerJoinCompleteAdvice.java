@@ -0,0 +1,30 @@
+package com.redeye.kafexporter.acquisitor.kafka.advice;
+
+import com.redeye.kafexporter.acquisitor.kafka.stat.RebalanceStatDaemon;
+
+import net.bytebuddy.asm.Advice;
+
+/**
+ * ConsumerCoordinator onJoinComplete 어드바이스 클래스<br>
+ * 리밸런스 종료 시간을 수집하며, 예외 발생시 실패한 리밸런스로 처리함
+ * 
+ * @author jmsohn
+ */
+public class ConsumerJoinCompleteAdvice extends ConsumerRebalanceAdvice {
+	
+	/**
+	 * ConsumerCoordinator.onJoinComplete 종료시
+	 * 
+	 * @param coordinator coordinator 객체
+	 * @param thrown 발생한 예외, 정상 종료시 null
+	 */
+	@Advice.OnMethodExit(onThrowable = Throwable.class)
+	public static void onExit(
+		@Advice.This Object coordinator,
+		@Advice.Thrown Throwable thrown
+	) {
+		
+		long curTime = System.nanoTime();
+		sendEvent(coordinator, RebalanceStatDaemon.Event.COMPLETE, curTime, curTime, thrown != null);
+	}
+}
@@ -0,0 +1,26 @@
+package com.redeye.kafexporter.acquisitor.kafka.advice;
+
+import com.redeye.kafexporter.acquisitor.kafka.stat.RebalanceStatDaemon;
+
+import net.bytebuddy.asm.Advice;
+
+/**
+ * ConsumerCoordinator onJoinPrepare 어드바이스 클래스<br>
+ * 리밸런스 시작 시간을 수집함
+ * 
+ * @author jmsohn
+ */
+public class ConsumerJoinPrepareAdvice extends ConsumerRebalanceAdvice {
+	
+	/**
+	 * ConsumerCoordinator.onJoinPrepare 진입시
+	 * 
+	 * @param coordinator coordinator 객체
+	 */
+	@Advice.OnMethodEnter
+	public static void onEnter(@Advice.This Object coordinator) {
+		
+		long curTime = System.nanoTime();
+		sendEvent(coordinator, RebalanceStatDaemon.Event.PREPARE, curTime, curTime, false);
+	}
+}
@@ -0,0 +1,145 @@
+package com.redeye.kafexporter.acquisitor.kafka.advice;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import com.redeye.kafexporter.acquisitor.kafka.ClientRegistry;
+import com.redeye.kafexporter.acquisitor.kafka.stat.OverheadMeter;
+import com.redeye.kafexporter.acquisitor.kafka.stat.RebalanceStatDaemon;
+
+/**
+ * 컨슈머 리밸런스(ConsumerCoordinator) 관련 어드바이스 상위(공통) 클래스<br>
+ * ConsumerCoordinator 에는 클라이언트 아이디가 없으므로,<br>
+ * 컨슈머 생성시 컨슈머의 coordinator 객체와 클라이언트 순번을 연결해 두고 사용함<br>
+ * 리밸런스는 드물게 발생하므로 샘플링 없이 모두 수집함
+ * 
+ * @author jmsohn
+ */
+public class ConsumerRebalanceAdvice {
+	
+	// 아래의 멤버 변수 및 메소드는 public 이어야 함 - 어드바이스 코드가 Kafka 클래스에 인라인되어 호출됨
+	
+	/** 리밸런스 통계 데몬 */
+	public static RebalanceStatDaemon rebalanceStatDaemon;
+	
+	/** 어드바이스 부하 측정 객체 */
+	public static final OverheadMeter overheadMeter = OverheadMeter.of("rebalance");
+	
+	
+	/** 컨슈머 객체의 coordinator 필드 읽기 핸들 - 클래스별 캐시 */
+	private static final ClassValue<MethodHandle> COORDINATOR = new FieldGetter("coordinator", MethodType.methodType(Object.class, Object.class));
+	
+	/** 컨슈머 구현 위임 객체 필드 읽기 핸들 - Kafka 3.7 이상, 클래스별 캐시 */
+	private static final ClassValue<MethodHandle> DELEGATE = new FieldGetter("delegate", MethodType.methodType(Object.class, Object.class));
+	
+	/**
+	 * coordinator 객체별 클라이언트 순번 맵<br>
+	 * ConsumerCoordinator 는 equals/hashCode 를 재정의하지 않으므로 객체 단위로 구분되며,<br>
+	 * 컨슈머가 해제되면 함께 제거됨
+	 */
+	private static final Map<Object, Integer> coordinatorMap = Collections.synchronizedMap(new WeakHashMap<>());
+	
+	
+	/**
+	 * 초기화
+	 * 
+	 * @param rebalanceStatDaemon 리밸런스 통계 데몬
+	 */
+	public static void init(RebalanceStatDaemon rebalanceStatDaemon) {
+		ConsumerRebalanceAdvice.rebalanceStatDaemon = rebalanceStatDaemon;
+	}
+	
+	/**
+	 * 컨슈머 객체의 coordinator 객체에 클라이언트 순번을 연결<br>
+	 * 컨슈머 생성시 한번 호출되며, group.id 가 없어 coordinator 가 없는 경우 무시함
+	 * 
+	 * @param consumer 컨슈머 객체
+	 * @param clientOrdinal 클라이언트 순번
+	 */
+	public static void bind(Object consumer, int clientOrdinal) {
+		
+		try {
+			
+			Object coordinator = readField(COORDINATOR, consumer);
+			
+			// Kafka 3.7 이상에서는 위임 객체에 coordinator 가 있음
+			if(coordinator == null) {
+				coordinator = readField(COORDINATOR, readField(DELEGATE, consumer));
+			}
+			
+			if(coordinator != null) {
+				coordinatorMap.put(coordinator, clientOrdinal);
+			}
+			
+		} catch(Exception ex) {
+			ex.printStackTrace();
+		}
+	}
+	
+	/**
+	 * 객체의 필드 값 반환 - 상위 클래스의 필드 포함
+	 * 
+	 * @param getter 필드 읽기 핸들 캐시
+	 * @param obj 대상 객체
+	 * @return 필드 값, 객체가 null 이거나 필드가 없을 경우 null
+	 */
+	private static Object readField(ClassValue<MethodHandle> getter, Object obj) {
+		
+		if(obj == null) {
+			return null;
+		}
+		
+		MethodHandle handle = getter.get(obj.getClass());
+		if(handle == null) {
+			return null;
+		}
+		
+		try {
+			return (Object)handle.invokeExact(obj);
+		} catch(Throwable th) {
+			return null;
+		}
+	}
+	
+	/**
+	 * coordinator 객체의 클라이언트 순번 반환
+	 * 
+	 * @param coordinator coordinator 객체
+	 * @return 클라이언트 순번, 미등록일 경우 ClientRegistry.NONE
+	 */
+	public static int getClientOrdinal(Object coordinator) {
+		
+		Integer clientOrdinal = coordinatorMap.get(coordinator);
+		return (clientOrdinal == null)?ClientRegistry.NONE:clientOrdinal;
+	}
+	
+	/**
+	 * 리밸런스 이벤트를 처리자에게 전송
+	 * 
+	 * @param coordinator coordinator 객체
+	 * @param event 이벤트 종류
+	 * @param startTime 시작 시간 - System.nanoTime
+	 * @param endTime 종료 시간 - System.nanoTime
+	 * @param error 실패 여부
+	 */
+	public static void sendEvent(Object coordinator, RebalanceStatDaemon.Event event, long startTime, long endTime, boolean error) {
+		
+		long token = overheadMeter.start();
+		
+		try {
+			
+			int clientOrdinal = getClientOrdinal(coordinator);
+			if(clientOrdinal != ClientRegistry.NONE) {
+				rebalanceStatDaemon.send(clientOrdinal, event, startTime, endTime, error);
+			}
+			
+		} catch(Exception ex) {
+			ex.printStackTrace();
+		} finally {
+			overheadMeter.stop(token);
+		}
+	}
+}
@@ -0,0 +1,61 @@
+package com.redeye.kafexporter.acquisitor.kafka.advice;
+
+import com.redeye.kafexporter.acquisitor.kafka.stat.RebalanceStatDaemon;
+
+import net.bytebuddy.asm.Advice;
+import net.bytebuddy.implementation.bytecode.assign.Assigner;
+
+/**
+ * ConsumerCoordinator 리밸런스 리스너 호출(invokePartitionsRevoked/Assigned/Lost) 어드바이스 클래스<br>
+ * 사용자 ConsumerRebalanceListener 콜백의 수행 시간을 수집함<br>
+ * 리스너에서 발생한 예외는 Kafka 에서 잡아 반환하므로, 반환 값이 있을 경우 예외 발생으로 처리함
+ * 
+ * @author jmsohn
+ */
+public class ConsumerRebalanceListenerAdvice extends ConsumerRebalanceAdvice {
+	
+	/**
+	 * 리스너 호출 진입시
+	 * 
+	 * @return 진입 시간 - System.nanoTime
+	 */
+	@Advice.OnMethodEnter
+	public static long onEnter() {
+		return System.nanoTime();
+	}
+	
+	/**
+	 * 리스너 호출 종료시
+	 * 
+	 * @param coordinator coordinator 객체
+	 * @param enterTime 진입 시간 - System.nanoTime
+	 * @param methodName 호출 메소드 명
+	 * @param exception 리스너에서 발생한 예외
+	 */
+	@Advice.OnMethodExit
+	public static void onExit(
+		@Advice.This Object coordinator,
+		@Advice.Enter long enterTime,
+		@Advice.Origin("#m") String methodName,
+		@Advice.Return(typing = Assigner.Typing.DYNAMIC) Object exception
+	) {
+		sendEvent(coordinator, getListenerEvent(methodName), enterTime, System.nanoTime(), exception != null);
+	}
+	
+	/**
+	 * 리스너 호출 메소드 명에 해당하는 이벤트 종류 반환
+	 * 
+	 * @param methodName 호출 메소드 명
+	 * @return 이벤트 종류
+	 */
+	public static RebalanceStatDaemon.Event getListenerEvent(String methodName) {
+		
+		if("invokePartitionsRevoked".equals(methodName) == true) {
+			return RebalanceStatDaemon.Event.REVOKED;
+		} else if("invokePartitionsAssigned".equals(methodName) == true) {
+			return RebalanceStatDaemon.Event.ASSIGNED;
+		} else {
+			return RebalanceStatDaemon.Event.LOST;
+		}
+	}
+}
@@ -0,0 +1,422 @@
+package com.redeye.kafexporter.acquisitor.kafka.advice;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * ConsumerRecords 읽기 클래스<br>
+ * 에이전트는 Kafka 라이브러리에 의존하지 않으므로, 클래스별로 캐시된 MethodHandle 로 호출함<br>
+ * 어드바이스 코드에서 호출되므로 객체 생성 없이 동작해야 함(크기 샘플링 및 파티션 목록 조회 제외)
+ * 
+ * @author jmsohn
+ */
+public class ConsumerRecordsReader {
+	
+	// 아래의 멤버 변수 및 메소드는 public 이어야 함 - 어드바이스 코드가 Kafka 클래스에 인라인되어 호출됨
+	
+	/** 레코드 크기 샘플링 비율 - 1/N 의 poll 에 대해 레코드 크기를 샘플링함 */
+	public static volatile int sizeSampleRate = 16;
+	
+	/** 샘플링시 크기를 읽을 최대 레코드 수 */
+	public static volatile int sizeSampleMax = 32;
+	
+	/** 레코드 지연 시간(현재 시간 - 레코드 타임스탬프) 샘플링 비율 - 1/N 의 poll 에 대해 샘플링함 */
+	public static volatile int latencySampleRate = 16;
+	
+	/** 샘플링시 지연 시간을 읽을 최대 레코드 수 */
+	public static volatile int latencySampleMax = 8;
+	
+	
+	/** int 반환 메소드 타입 - (Object)int */
+	private static final MethodType INT_GETTER_TYPE = MethodType.methodType(int.class, Object.class);
+	
+	/** long 반환 메소드 타입 - (Object)long */
+	private static final MethodType LONG_GETTER_TYPE = MethodType.methodType(long.class, Object.class);
+	
+	/** Object 반환 메소드 타입 - (Object)Object */
+	private static final MethodType OBJECT_GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+	
+	/** records(TopicPartition) 메소드 타입 - (Object, Object)Object */
+	private static final MethodType RECORDS_OF_TYPE = MethodType.methodType(Object.class, Object.class, Object.class);
+	
+	/** TopicPartition 클래스 명 */
+	private static final String TOPIC_PARTITION_CLASS = "org.apache.kafka.common.TopicPartition";
+	
+	/** ConsumerRecords.count() 메소드 핸들 - 클래스별 캐시 */
+	private static final ClassValue<MethodHandle> COUNT = new IntGetter("count");
+	
+	/** ConsumerRecord.serializedKeySize() 메소드 핸들 - 클래스별 캐시 */
+	private static final ClassValue<MethodHandle> KEY_SIZE = new IntGetter("serializedKeySize");
+	
+	/** ConsumerRecord.serializedValueSize() 메소드 핸들 - 클래스별 캐시 */
+	private static final ClassValue<MethodHandle> VALUE_SIZE = new IntGetter("serializedValueSize");
+	
+	/** ConsumerRecord.timestamp() 메소드 핸들 - 클래스별 캐시 */
+	private static final ClassValue<MethodHandle> TIMESTAMP = new LongGetter("timestamp");
+	
+	/** TopicPartition.partition() 메소드 핸들 - 클래스별 캐시 */
+	private static final ClassValue<MethodHandle> PARTITION = new IntGetter("partition");
+	
+	/** ConsumerRecords.partitions() 메소드 핸들 - 클래스별 캐시 */
+	private static final ClassValue<MethodHandle> PARTITIONS = new ObjectGetter("partitions", Set.class);
+	
+	/** TopicPartition.topic(), ConsumerRecord.topic() 메소드 핸들 - 클래스별 캐시 */
+	private static final ClassValue<MethodHandle> TOPIC = new ObjectGetter("topic", String.class);
+	
+	/** ConsumerRecords.records(TopicPartition) 메소드 핸들 - 클래스별 캐시 */
+	private static final ClassValue<MethodHandle> RECORDS_OF = new RecordsOfGetter();
+	
+	
+	/**
+	 * 레코드 수 반환
+	 * 
+	 * @param records ConsumerRecords 객체
+	 * @return 레코드 수, 읽을 수 없을 경우 -1
+	 */
+	public static int count(Object records) {
+		return invokeInt(COUNT, records);
+	}
+	
+	/**
+	 * 레코드가 있는 토픽 파티션(TopicPartition) 목록 반환
+	 * 
+	 * @param records ConsumerRecords 객체
+	 * @return 토픽 파티션 목록, 읽을 수 없을 경우 빈 목록
+	 */
+	public static Set<?> partitions(Object records) {
+		
+		Object partitions = invokeObject(PARTITIONS, records);
+		return (partitions instanceof Set)?(Set<?>)partitions:Set.of();
+	}
+	
+	/**
+	 * 토픽 파티션의 레코드 수 반환
+	 * 
+	 * @param records ConsumerRecords 객체
+	 * @param topicPartition TopicPartition 객체
+	 * @return 레코드 수, 읽을 수 없을 경우 -1
+	 */
+	public static int count(Object records, Object topicPartition) {
+		
+		if(records == null || topicPartition == null) {
+			return -1;
+		}
+		
+		MethodHandle handle = RECORDS_OF.get(records.getClass());
+		if(handle == null) {
+			return -1;
+		}
+		
+		try {
+			
+			Object partitionRecords = (Object)handle.invokeExact(records, topicPartition);
+			return (partitionRecords instanceof List)?((List<?>)partitionRecords).size():-1;
+			
+		} catch(Throwable th) {
+			return -1;
+		}
+	}
+	
+	/**
+	 * 토픽 파티션 또는 레코드의 토픽 명 반환
+	 * 
+	 * @param topicPartitionOrRecord TopicPartition 또는 ConsumerRecord 객체
+	 * @return 토픽 명, 읽을 수 없을 경우 null
+	 */
+	public static String topic(Object topicPartitionOrRecord) {
+		
+		Object topic = invokeObject(TOPIC, topicPartitionOrRecord);
+		return (topic instanceof String)?(String)topic:null;
+	}
+	
+	/**
+	 * 토픽 파티션의 파티션 번호 반환
+	 * 
+	 * @param topicPartition TopicPartition 객체
+	 * @return 파티션 번호, 읽을 수 없을 경우 -1
+	 */
+	public static int partition(Object topicPartition) {
+		return invokeInt(PARTITION, topicPartition);
+	}
+	
+	/**
+	 * 레코드의 타임스탬프 반환 - CreateTime 또는 LogAppendTime
+	 * 
+	 * @param record ConsumerRecord 객체
+	 * @return 타임스탬프 - 단위: ms, 없거나 읽을 수 없을 경우 -1
+	 */
+	public static long timestamp(Object record) {
+		
+		if(record == null) {
+			return -1;
+		}
+		
+		MethodHandle handle = TIMESTAMP.get(record.getClass());
+		if(handle == null) {
+			return -1;
+		}
+		
+		try {
+			return (long)handle.invokeExact(record);
+		} catch(Throwable th) {
+			return -1;
+		}
+	}
+	
+	/**
+	 * 레코드 지연 시간을 샘플링할지 여부 반환
+	 * 
+	 * @return 샘플링 여부
+	 */
+	public static boolean isLatencySampled() {
+		
+		int rate = latencySampleRate;
+		return rate > 0 && (rate == 1 || ThreadLocalRandom.current().nextInt(rate) == 0);
+	}
+	
+	/**
+	 * 레코드 크기를 샘플링할지 여부 반환
+	 * 
+	 * @return 샘플링 여부
+	 */
+	public static boolean isSizeSampled() {
+		
+		int rate = sizeSampleRate;
+		return rate > 0 && (rate == 1 || ThreadLocalRandom.current().nextInt(rate) == 0);
+	}
+	
+	/**
+	 * 레코드의 평균 직렬화 크기(key + value) 반환<br>
+	 * 최대 sizeSampleMax 개의 레코드만 읽음
+	 * 
+	 * @param records ConsumerRecords 객체
+	 * @return 평균 직렬화 크기 - 단위: byte, 읽을 수 없을 경우 -1
+	 */
+	public static int averageSerializedSize(Object records) {
+		
+		if(records instanceof Iterable == false) {
+			return -1;
+		}
+		
+		int max = sizeSampleMax;
+		long totalSize = 0;
+		int sampleCount = 0;
+		
+		for(Object record: (Iterable<?>)records) {
+			
+			int keySize = invokeInt(KEY_SIZE, record);
+			int valueSize = invokeInt(VALUE_SIZE, record);
+			
+			// 크기 메소드가 없는 경우
+			if(keySize == -1 && valueSize == -1) {
+				return -1;
+			}
+			
+			// null key/value 는 -1 로 반환되므로 0 으로 처리
+			totalSize += Math.max(keySize, 0) + Math.max(valueSize, 0);
+			sampleCount++;
+			
+			if(sampleCount >= max) {
+				break;
+			}
+		}
+		
+		if(sampleCount == 0) {
+			return -1;
+		}
+		
+		return (int)Math.min(totalSize / sampleCount, Integer.MAX_VALUE);
+	}
+	
+	/**
+	 * 객체의 int 반환 메소드 호출
+	 * 
+	 * @param getter 메소드 핸들 캐시
+	 * @param obj 대상 객체
+	 * @return 메소드 반환 값, 호출할 수 없을 경우 -1
+	 */
+	private static int invokeInt(ClassValue<MethodHandle> getter, Object obj) {
+		
+		if(obj == null) {
+			return -1;
+		}
+		
+		MethodHandle handle = getter.get(obj.getClass());
+		if(handle == null) {
+			return -1;
+		}
+		
+		try {
+			return (int)handle.invokeExact(obj);
+		} catch(Throwable th) {
+			return -1;
+		}
+	}
+	
+	
+	/**
+	 * 객체의 Object 반환 메소드 호출
+	 * 
+	 * @param getter 메소드 핸들 캐시
+	 * @param obj 대상 객체
+	 * @return 메소드 반환 값, 호출할 수 없을 경우 null
+	 */
+	private static Object invokeObject(ClassValue<MethodHandle> getter, Object obj) {
+		
+		if(obj == null) {
+			return null;
+		}
+		
+		MethodHandle handle = getter.get(obj.getClass());
+		if(handle == null) {
+			return null;
+		}
+		
+		try {
+			return (Object)handle.invokeExact(obj);
+		} catch(Throwable th) {
+			return null;
+		}
+	}
+	
+	
+	/**
+	 * int 반환 메소드 핸들 캐시 클래스
+	 * 
+	 * @author jmsohn
+	 */
+	static class IntGetter extends ClassValue<MethodHandle> {
+		
+		/** 메소드 명 */
+		private final String methodName;
+		
+		/**
+		 * 생성자
+		 * 
+		 * @param methodName 메소드 명
+		 */
+		IntGetter(String methodName) {
+			this.methodName = methodName;
+		}
+		
+		@Override
+		protected MethodHandle computeValue(Class<?> type) {
+			
+			try {
+				
+				return MethodHandles
+					.publicLookup()
+					.findVirtual(type, this.methodName, MethodType.methodType(int.class))
+					.asType(INT_GETTER_TYPE);
+				
+			} catch(Exception ex) {
+				return null;
+			}
+		}
+	}
+	
+	/**
+	 * long 반환 메소드 핸들 캐시 클래스
+	 * 
+	 * @author jmsohn
+	 */
+	private static class LongGetter extends ClassValue<MethodHandle> {
+		
+		/** 메소드 명 */
+		private final String methodName;
+		
+		/**
+		 * 생성자
+		 * 
+		 * @param methodName 메소드 명
+		 */
+		LongGetter(String methodName) {
+			this.methodName = methodName;
+		}
+		
+		@Override
+		protected MethodHandle computeValue(Class<?> type) {
+			
+			try {
+				
+				return MethodHandles
+					.publicLookup()
+					.findVirtual(type, this.methodName, MethodType.methodType(long.class))
+					.asType(LONG_GETTER_TYPE);
+				
+			} catch(Exception ex) {
+				return null;
+			}
+		}
+	}
+	
+	/**
+	 * Object 반환 메소드 핸들 캐시 클래스
+	 * 
+	 * @author jmsohn
+	 */
+	private static class ObjectGetter extends ClassValue<MethodHandle> {
+		
+		/** 메소드 명 */
+		private final String methodName;
+		
+		/** 메소드 반환 타입 */
+		private final Class<?> returnType;
+		
+		/**
+		 * 생성자
+		 * 
+		 * @param methodName 메소드 명
+		 * @param returnType 메소드 반환 타입
+		 */
+		ObjectGetter(String methodName, Class<?> returnType) {
+			this.methodName = methodName;
+			this.returnType = returnType;
+		}
+		
+		@Override
+		protected MethodHandle computeValue(Class<?> type) {
+			
+			try {
+				
+				return MethodHandles
+					.publicLookup()
+					.findVirtual(type, this.methodName, MethodType.methodType(this.returnType))
+					.asType(OBJECT_GETTER_TYPE);
+				
+			} catch(Exception ex) {
+				return null;
+			}
+		}
+	}
+	
+	/**
+	 * ConsumerRecords.records(TopicPartition) 메소드 핸들 캐시 클래스<br>
+	 * 파라미터 타입(TopicPartition)은 ConsumerRecords 클래스의 클래스로더에서 찾음
+	 * 
+	 * @author jmsohn
+	 */
+	private static class RecordsOfGetter extends ClassValue<MethodHandle> {
+		
+		@Override
+		protected MethodHandle computeValue(Class<?> type) {
+			
+			try {
+				
+				Class<?> topicPartitionType = Class.forName(TOPIC_PARTITION_CLASS, false, type.getClassLoader());
+				
+				return MethodHandles
+					.publicLookup()
+					.findVirtual(type, "records", MethodType.methodType(List.class, topicPartitionType))
+					.asType(RECORDS_OF_TYPE);
+				
+			} catch(Exception ex) {
+				return null;
+			}
+		}
+	}
+}
@@ -0,0 +1,87 @@
+package com.redeye.kafexporter.acquisitor.kafka.advice;
+
+import com.redeye.kafexporter.util.stat.Sampler;
+
+import net.bytebuddy.asm.Advice;
+
+/**
+ * Deserializer deserialize 어드바이스 클래스<br>
+ * 역직렬화 수행 시간 및 입력 데이터 크기를 토픽 및 구현 클래스별로 수집함<br>
+ * deserialize(topic, data) 및 deserialize(topic, headers, data) 모두 변환되며,<br>
+ * ByteBuffer 입력은 역직렬화 중 위치가 바뀔 수 있으므로 진입시 크기를 읽음
+ * 
+ * @author jmsohn
+ */
+public class DeserializerAdvice extends SerdeAdvice {
+	
+	/**
+	 * Deserializer.deserialize 진입시
+	 * 
+	 * @param deserializer Deserializer 객체
+	 * @param arg1 두번째 인자 - 데이터 또는 헤더
+	 * @param arg2 세번째 인자 - 데이터, 인자가 2개인 메소드는 null
+	 * @param sample 샘플링 결과(로컬 변수)
+	 * @param prev 이전에 수행 중이던 객체(로컬 변수)
+	 * @param payloadSize 입력 데이터 크기(로컬 변수)
+	 * @return 진입 시간 - 수집하지 않을 경우 0
+	 */
+	@Advice.OnMethodEnter
+	public static long onEnter(
+		@Advice.This Object deserializer,
+		@Advice.Argument(1) Object arg1,
+		@Advice.Argument(value = 2, optional = true) Object arg2,
+		@Advice.Local("sample") int sample,
+		@Advice.Local("prev") Object prev,
+		@Advice.Local("payloadSize") int payloadSize
+	) {
+		
+		// 같은 객체의 중첩 호출은 샘플링 여부와 관계 없이 수집하지 않음 - 샘플링 전에 검사
+		prev = enter(deserializer);
+		
+		if(prev == deserializer) {
+			sample = Sampler.SKIP;
+			return 0;
+		}
+		
+		sample = sample();
+		
+		if(sample == Sampler.SKIP) {
+			return 0;
+		}
+		
+		payloadSize = payloadSize((arg2 != null)?arg2:arg1);
+		
+		return System.nanoTime();
+	}
+	
+	/**
+	 * Deserializer.deserialize 종료시
+	 * 
+	 * @param deserializer Deserializer 객체
+	 * @param topic 토픽 명
+	 * @param thrown 발생한 예외, 정상 종료시 null
+	 * @param enterTime 진입 시간
+	 * @param sample 샘플링 결과(로컬 변수)
+	 * @param prev 이전에 수행 중이던 객체(로컬 변수)
+	 * @param payloadSize 입력 데이터 크기(로컬 변수)
+	 */
+	@Advice.OnMethodExit(onThrowable = Throwable.class)
+	public static void onExit(
+		@Advice.This Object deserializer,
+		@Advice.Argument(0) String topic,
+		@Advice.Thrown Throwable thrown,
+		@Advice.Enter long enterTime,
+		@Advice.Local("sample") int sample,
+		@Advice.Local("prev") Object prev,
+		@Advice.Local("payloadSize") int payloadSize
+	) {
+		
+		if(sample == Sampler.SKIP) {
+			leave(prev);
+			return;
+		}
+		
+		long elapsed = System.nanoTime() - enterTime;
+		exit(true, deserializer, prev, topic, sample, elapsed, payloadSize, thrown != null);
+	}
+}
@@ -0,0 +1,55 @@
+package com.redeye.kafexporter.acquisitor.kafka.advice;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+
+/**
+ * 필드 읽기 메소드 핸들 캐시 클래스<br>
+ * 클래스 및 상위 클래스에서 필드를 찾으며, private/패키지 접근 필드도 읽을 수 있도록 접근 권한을 설정함<br>
+ * 필드를 찾을 수 없을 경우 null 을 캐시함
+ * 
+ * @author jmsohn
+ */
+class FieldGetter extends ClassValue<MethodHandle> {
+	
+	/** 필드 명 */
+	private final String fieldName;
+	
+	/** 메소드 핸들 타입 */
+	private final MethodType getterType;
+	
+	/**
+	 * 생성자
+	 * 
+	 * @param fieldName 필드 명
+	 * @param getterType 메소드 핸들 타입
+	 */
+	FieldGetter(String fieldName, MethodType getterType) {
+		this.fieldName = fieldName;
+		this.getterType = getterType;
+	}
+	
+	@Override
+	protected MethodHandle computeValue(Class<?> type) {
+		
+		for(Class<?> cur = type; cur != null; cur = cur.getSuperclass()) {
+			
+			try {
+				
+				Field field = cur.getDeclaredField(this.fieldName);
+				field.setAccessible(true);
+				
+				return MethodHandles.lookup().unreflectGetter(field).asType(this.getterType);
+				
+			} catch(NoSuchFieldException nsfex) {
+				// 상위 클래스에서 다시 찾음
+			} catch(Exception ex) {
+				return null;
+			}
+		}
+		
+		return null;
+	}
+}
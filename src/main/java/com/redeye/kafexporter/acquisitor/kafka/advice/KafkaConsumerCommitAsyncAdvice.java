@@ -1,21 +1,68 @@
 package com.redeye.kafexporter.acquisitor.kafka.advice;
 
+import com.redeye.kafexporter.acquisitor.kafka.stat.OverheadMeter;
+import com.redeye.kafexporter.acquisitor.kafka.stat.TimeStatDaemon;
+
 import net.bytebuddy.asm.Advice;
 
 /**
- * KafkaConsumer commitAsync 어드바이스 클래스
+ * KafkaConsumer commitAsync 어드바이스 클래스<br>
+ * 진입/종료 시간으로 commitAsync 호출 시간을 수집함<br>
+ * 모든 오버로드 메소드에 적용되며, 오버로드 메소드간 중첩 호출(Kafka 3.6 이하)은 가장 바깥 호출만 수집함<br>
+ * 브로커의 커밋 완료까지의 시간은 KafkaConsumerCommitCallbackAdvice 에서 수집함
  * 
  * @author jmsohn
  */
 public class KafkaConsumerCommitAsyncAdvice extends ClientTimeAdvice {
 	
+	// 아래의 멤버 변수는 public 이어야 함 - SpringBoot 클래스로더에서 문제가 생김
+	
+	/** 비동기 커밋 시간 통계 데몬 */
+	public static TimeStatDaemon timeStatDaemon;
+	
+	/** 어드바이스 부하 측정 객체 */
+	public static final OverheadMeter overheadMeter = OverheadMeter.of("commitAsync");
+	
+	/** 중첩 호출 깊이 */
+	public static final CallDepth callDepth = new CallDepth();
+	
+	
 	/**
+	 * 초기화
 	 * 
+	 * @param timeStatDaemon 비동기 커밋 시간 통계 데몬
+	 */
+	public static void init(TimeStatDaemon timeStatDaemon) {
+		KafkaConsumerCommitAsyncAdvice.timeStatDaemon = timeStatDaemon;
+	}
+	
+	/**
+	 * KafkaConsumer.commitAsync 진입시
+	 * 
+	 * @return 진입 시간 - System.nanoTime
+	 */
+	@Advice.OnMethodEnter
+	public static long onEnter() {
+		
+		callDepth.enter();
+		
+		return System.nanoTime();
+	}
+	
+	/**
+	 * KafkaConsumer.commitAsync 종료시
 	 * 
-	 * @param consumer
+	 * @param consumer 컨슈머 객체
+	 * @param enterTime 진입 시간 - System.nanoTime
 	 */
-	@Advice.OnMethodExit
-	public static void onExit(@Advice.This Object consumer) {
-		sendCurTime(consumer);
+	@Advice.OnMethodExit(onThrowable = Throwable.class)
+	public static void onExit(
+		@Advice.This Object consumer,
+		@Advice.Enter long enterTime
+	) {
+		
+		if(callDepth.exit() == true) {
+			sendEnterExitTime(timeStatDaemon, overheadMeter, consumer, enterTime);
+		}
 	}
 }
@@ -0,0 +1,58 @@
+package com.redeye.kafexporter.acquisitor.kafka.advice;
+
+import com.redeye.kafexporter.acquisitor.kafka.stat.CommitStatDaemon;
+import com.redeye.kafexporter.acquisitor.kafka.stat.OverheadMeter;
+
+import net.bytebuddy.asm.Advice;
+import net.bytebuddy.implementation.bytecode.assign.Assigner;
+
+/**
+ * commitAsync(Map, OffsetCommitCallback) 커밋 콜백 어드바이스 클래스<br>
+ * OffsetCommitCallback 을 래퍼로 감싸서 브로커의 커밋 완료까지의 시간 및 실패 수를 수집함<br>
+ * 다른 commitAsync 오버로드 메소드는 모두 이 메소드를 호출하므로 이 메소드에만 적용함<br>
+ * - Kafka 3.6 이하: KafkaConsumer 의 메소드<br>
+ * - Kafka 3.7 이상: KafkaConsumer 는 위임 객체(LegacyKafkaConsumer/AsyncKafkaConsumer)를 바로 호출하므로 위임 객체의 메소드<br>
+ * 두 메소드가 모두 호출되는 경우(3.7 이상에서 인자가 2개인 메소드 호출) 이미 감싼 콜백은 다시 감싸지 않음
+ * 
+ * @author jmsohn
+ */
+public class KafkaConsumerCommitCallbackAdvice {
+	
+	// 아래의 멤버 변수는 public 이어야 함 - SpringBoot 클래스로더에서 문제가 생김
+	
+	/** 비동기 커밋 완료 통계 데몬 */
+	public static CommitStatDaemon commitStatDaemon;
+	
+	/** 어드바이스 부하 측정 객체 */
+	public static final OverheadMeter overheadMeter = OverheadMeter.of("commitAsyncWrap");
+	
+	
+	/**
+	 * 초기화
+	 * 
+	 * @param commitStatDaemon 비동기 커밋 완료 통계 데몬
+	 */
+	public static void init(CommitStatDaemon commitStatDaemon) {
+		KafkaConsumerCommitCallbackAdvice.commitStatDaemon = commitStatDaemon;
+	}
+	
+	/**
+	 * commitAsync(Map, OffsetCommitCallback) 진입시<br>
+	 * 커밋 콜백을 완료 시간 측정용 래퍼로 교체함
+	 * 
+	 * @param consumer 컨슈머 객체 또는 위임 객체
+	 * @param callback 커밋 콜백 객체 - 래퍼로 교체됨
+	 */
+	@Advice.OnMethodEnter
+	public static void onEnter(
+		@Advice.This Object consumer,
+		@Advice.Argument(value = 1, readOnly = false, typing = Assigner.Typing.DYNAMIC) Object callback
+	) {
+		
+		long token = overheadMeter.start();
+		
+		callback = CommitCallback.wrap(commitStatDaemon, consumer, callback);
+		
+		overheadMeter.stop(token);
+	}
+}
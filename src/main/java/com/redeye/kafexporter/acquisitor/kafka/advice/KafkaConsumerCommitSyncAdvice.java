@@ -1,21 +1,68 @@
 package com.redeye.kafexporter.acquisitor.kafka.advice;
 
+import com.redeye.kafexporter.acquisitor.kafka.stat.OverheadMeter;
+import com.redeye.kafexporter.acquisitor.kafka.stat.TimeStatDaemon;
+
 import net.bytebuddy.asm.Advice;
 
 /**
- * KafkaConsumer commitAsync 어드바이스 클래스
+ * KafkaConsumer commitSync 어드바이스 클래스<br>
+ * 진입/종료 시간으로 commitSync 에서 대기한 시간을 수집함<br>
+ * 모든 오버로드 메소드에 적용되며, 오버로드 메소드간 중첩 호출(Kafka 3.6 이하)은 가장 바깥 호출만 수집함
  * 
  * @author jmsohn
  */
 public class KafkaConsumerCommitSyncAdvice extends ClientTimeAdvice {
 	
+	// 아래의 멤버 변수는 public 이어야 함 - SpringBoot 클래스로더에서 문제가 생김
+	
+	/** 동기 커밋 시간 통계 데몬 */
+	public static TimeStatDaemon timeStatDaemon;
+	
+	/** 어드바이스 부하 측정 객체 */
+	public static final OverheadMeter overheadMeter = OverheadMeter.of("commitSync");
+	
+	/** 중첩 호출 깊이 */
+	public static final CallDepth callDepth = new CallDepth();
+	
+	
 	/**
+	 * 초기화
 	 * 
+	 * @param timeStatDaemon 동기 커밋 시간 통계 데몬
+	 */
+	public static void init(TimeStatDaemon timeStatDaemon) {
+		KafkaConsumerCommitSyncAdvice.timeStatDaemon = timeStatDaemon;
+	}
+	
+	/**
+	 * KafkaConsumer.commitSync 진입시
+	 * 
+	 * @return 진입 시간 - System.nanoTime
+	 */
+	@Advice.OnMethodEnter
+	public static long onEnter() {
+		
+		callDepth.enter();
+		
+		return System.nanoTime();
+	}
+	
+	/**
+	 * KafkaConsumer.commitSync 종료시<br>
+	 * 커밋 실패(예외 발생)시에도 대기한 시간을 수집함
 	 * 
-	 * @param consumer
+	 * @param consumer 컨슈머 객체
+	 * @param enterTime 진입 시간 - System.nanoTime
 	 */
-	@Advice.OnMethodExit
-	public static void onExit(@Advice.This Object consumer) {
-		sendCurTime(consumer);
+	@Advice.OnMethodExit(onThrowable = Throwable.class)
+	public static void onExit(
+		@Advice.This Object consumer,
+		@Advice.Enter long enterTime
+	) {
+		
+		if(callDepth.exit() == true) {
+			sendEnterExitTime(timeStatDaemon, overheadMeter, consumer, enterTime);
+		}
 	}
 }
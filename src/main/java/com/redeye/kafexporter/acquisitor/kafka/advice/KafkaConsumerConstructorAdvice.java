@@ -1,24 +1,48 @@
 package com.redeye.kafexporter.acquisitor.kafka.advice;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.util.Collections;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.WeakHashMap;
 
+import com.redeye.kafexporter.acquisitor.kafka.ClientRegistry;
 import com.redeye.kafexporter.acquisitor.kafka.Constants;
+import com.redeye.kafexporter.acquisitor.kafka.stat.OverheadMeter;
 
 import net.bytebuddy.asm.Advice;
 
 /**
- * Kafka 컨슈머 생성자 어드바이스 클래스
+ * Kafka 컨슈머 생성자 어드바이스 클래스<br>
+ * 클라이언트 아이디는 생성된 컨슈머 객체의 clientId 필드(Kafka 3.7 이상은 위임 객체의 필드)에서 직접 읽으므로,<br>
+ * 자동 생성된 클라이언트 아이디, 생성자 중첩 호출, 스프링 팩토리를 통한 생성에서도 컨슈머 객체와 아이디가 정확히 대응됨<br>
+ * 동적 연결(agentmain) 이전에 KafkaConsumer 가 로딩된 경우 재변환으로 순번 필드를 추가할 수 없으므로,<br>
+ * 컨슈머 객체의 clientId 필드로 한번 순번을 구하여 컨슈머 객체별 맵에 보관하여 사용함
  * 
  * @author jmsohn
  */
 public class KafkaConsumerConstructorAdvice {
-
 	
-	/** Key: 프로듀서/컨슈머 toString 값, Value: 클라이언트 아이디 값 */
-	public static Map<String, String> clientIdMap = new ConcurrentHashMap<>();
+	// 아래의 멤버 변수는 public 이어야 함 - 어드바이스 코드가 Kafka 클래스에 인라인되어 호출됨
+	
+	/** 어드바이스 부하 측정 객체 */
+	public static final OverheadMeter overheadMeter = OverheadMeter.of("consumerConstructor");
+	
+	
+	/** KafkaConsumer.clientId 필드 읽기 핸들 - 클래스별 캐시 */
+	private static final ClassValue<MethodHandle> CLIENT_ID = new FieldGetter("clientId", MethodType.methodType(Object.class, Object.class));
+	
+	/** KafkaConsumer.delegate 필드 읽기 핸들 - Kafka 3.7 이상, 클래스별 캐시 */
+	private static final ClassValue<MethodHandle> DELEGATE = new FieldGetter("delegate", MethodType.methodType(Object.class, Object.class));
+	
+	/**
+	 * 순번 필드가 없는 컨슈머 객체별 클라이언트 순번 맵 - 동적 연결 이전에 KafkaConsumer 가 로딩된 경우 및 위임 객체(Kafka 3.7 이상)<br>
+	 * KafkaConsumer 는 equals/hashCode 를 재정의하지 않으므로 객체 단위로 구분되며,<br>
+	 * 컨슈머가 해제되면 함께 제거됨
+	 */
+	private static final Map<Object, Integer> attachedConsumerMap = Collections.synchronizedMap(new WeakHashMap<>());
+	
 	
-
 	/**
 	 * KafkaConsumer 생성자 호출 후
 	 * 
@@ -27,33 +51,204 @@ public class KafkaConsumerConstructorAdvice {
 	@Advice.OnMethodExit
 	public static void onConstructorExit(@Advice.This Object consumer) {
 		
+		long token = overheadMeter.start();
+		
+		register(consumer);
+		
+		overheadMeter.stop(token);
+	}
+	
+	/**
+	 * 컨슈머 객체에 클라이언트 순번 부여<br>
+	 * 생성자가 다른 생성자를 호출하거나 하위 클래스(ExtendedKafkaConsumer)의 생성자인 경우 여러 번 호출되므로,<br>
+	 * 이미 순번이 부여된 컨슈머 객체는 다시 등록하지 않음
+	 * 
+	 * @param consumer 컨슈머 객체
+	 */
+	public static void register(Object consumer) {
+		
 		// 입력 값 검증
 		if(consumer == null) {
 			return;
 		}
 		
-		// 클라이
-		String clientId = ConsumerConfigAdvice.getClientId();
+		// 이미 순번이 부여된 경우
+		if(consumer instanceof ClientOrdinalHolder && ((ClientOrdinalHolder)consumer).kafexporter$getClientOrdinal() != ClientRegistry.NONE) {
+			return;
+		}
+		
+		// 클라이언트 아이디 획득 - Kafka 3.7 이상에서는 위임 객체에 clientId 가 있음
+		Object delegate = readField(DELEGATE, consumer);
+		
+		String clientId = readClientId(consumer);
+		if(clientId == null) {
+			clientId = readClientId(delegate);
+		}
+		
 		if(clientId == null || clientId.equals(Constants.DEFAULT_CLIENT_ID) == true) {
 			return;
 		}
-
-		// 클라이언트 아이디 맵에 저장
-		clientIdMap.put(consumer.toString(), clientId);
+		
+		// 클라이언트 순번 부여 후 컨슈머 객체에 추가된 필드에 저장
+		int clientOrdinal = ClientRegistry.register(clientId);
+		
+		if(consumer instanceof ClientOrdinalHolder) {
+			((ClientOrdinalHolder)consumer).kafexporter$setClientOrdinal(clientOrdinal);
+		}
+		
+		// 위임 객체에 적용된 어드바이스(commitAsync 콜백)를 위해 위임 객체에 클라이언트 순번 연결
+		bindDelegate(delegate, clientOrdinal);
+		
+		// 리밸런스 수집을 위해 coordinator 객체에 클라이언트 순번 연결
+		ConsumerRebalanceAdvice.bind(consumer, clientOrdinal);
 	}
 	
 	/**
-	 * 컨슈머 객체에 해당하는 클라이언트 아이디 반환
+	 * 컨슈머 객체에 해당하는 클라이언트 순번 반환<br>
+	 * 컨슈머 객체에 추가된 필드를 읽으므로 객체 생성 및 맵 조회 없음<br>
+	 * 순번 필드가 없는 컨슈머(동적 연결 이전에 로딩된 경우)는 컨슈머 객체별 맵에서 조회함
 	 * 
 	 * @param consumer 컨슈머 객체
-	 * @return 클라이언트 아이디
+	 * @return 클라이언트 순번, 미등록일 경우 ClientRegistry.NONE
 	 */
-	public static String getClientId(Object consumer) {
+	public static int getClientOrdinal(Object consumer) {
+		
+		if(consumer instanceof ClientOrdinalHolder) {
+			return ((ClientOrdinalHolder)consumer).kafexporter$getClientOrdinal();
+		}
 		
 		if(consumer == null) {
+			return ClientRegistry.NONE;
+		}
+		
+		return getAttachedClientOrdinal(consumer);
+	}
+	
+	/**
+	 * 종료된 컨슈머 객체의 클라이언트 순번 해제<br>
+	 * 이후 컨슈머 객체로 수집되는 데이터는 미등록 클라이언트로 처리되며, 중복 종료시 다시 해제되지 않음
+	 * 
+	 * @param consumer 컨슈머 객체
+	 * @return 해제 전 클라이언트 아이디, 미등록이거나 이미 해제된 경우 null
+	 */
+	public static String release(Object consumer) {
+		
+		int clientOrdinal = getClientOrdinal(consumer);
+		if(clientOrdinal == ClientRegistry.NONE) {
+			return null;
+		}
+		
+		String clientId = ClientRegistry.getClientId(clientOrdinal);
+		
+		if(consumer instanceof ClientOrdinalHolder) {
+			((ClientOrdinalHolder)consumer).kafexporter$setClientOrdinal(ClientRegistry.NONE);
+		} else {
+			attachedConsumerMap.put(consumer, ClientRegistry.NONE);
+		}
+		
+		bindDelegate(readField(DELEGATE, consumer), ClientRegistry.NONE);
+		
+		return clientId;
+	}
+	
+	/**
+	 * 순번 필드가 없는 컨슈머 객체의 클라이언트 순번 반환<br>
+	 * 처음 호출시 clientId 필드에서 클라이언트 아이디를 읽어 순번을 등록하며, 찾지 못한 경우도 캐시함
+	 * 
+	 * @param consumer 컨슈머 객체
+	 * @return 클라이언트 순번, 찾을 수 없을 경우 ClientRegistry.NONE
+	 */
+	private static int getAttachedClientOrdinal(Object consumer) {
+		
+		Integer clientOrdinal = attachedConsumerMap.get(consumer);
+		if(clientOrdinal != null) {
+			return clientOrdinal;
+		}
+		
+		// 클라이언트 아이디 획득 - Kafka 3.7 이상에서는 위임 객체에 clientId 가 있음
+		Object delegate = readField(DELEGATE, consumer);
+		
+		String clientId = readClientId(consumer);
+		if(clientId == null) {
+			clientId = readClientId(delegate);
+		}
+		
+		if(clientId == null || clientId.equals(Constants.DEFAULT_CLIENT_ID) == true) {
+			clientOrdinal = ClientRegistry.NONE;
+		} else {
+			
+			clientOrdinal = ClientRegistry.getOrRegister(clientId);
+			
+			// 리밸런스 수집을 위해 coordinator 객체에 클라이언트 순번 연결
+			ConsumerRebalanceAdvice.bind(consumer, clientOrdinal);
+			
+			// 위임 객체에 적용된 어드바이스(commitAsync 콜백)를 위해 위임 객체에 클라이언트 순번 연결
+			bindDelegate(delegate, clientOrdinal);
+		}
+		
+		attachedConsumerMap.put(consumer, clientOrdinal);
+		
+		return clientOrdinal;
+	}
+	
+	/**
+	 * 위임 객체(Kafka 3.7 이상의 LegacyKafkaConsumer/AsyncKafkaConsumer)에 클라이언트 순번 연결<br>
+	 * 위임 객체에는 순번 필드가 없으므로 컨슈머 객체별 맵에 보관함
+	 * 
+	 * @param delegate 위임 객체 - Kafka 3.6 이하일 경우 null
+	 * @param clientOrdinal 클라이언트 순번
+	 */
+	private static void bindDelegate(Object delegate, int clientOrdinal) {
+		
+		if(delegate != null) {
+			attachedConsumerMap.put(delegate, clientOrdinal);
+		}
+	}
+	
+	/**
+	 * 컨슈머 객체의 clientId 필드 값 반환
+	 * 
+	 * @param consumer 컨슈머 객체
+	 * @return 클라이언트 아이디, 읽을 수 없을 경우 null
+	 */
+	private static String readClientId(Object consumer) {
+		
+		Object clientId = readField(CLIENT_ID, consumer);
+		return (clientId instanceof String)?(String)clientId:null;
+	}
+	
+	/**
+	 * 객체의 필드 값 반환
+	 * 
+	 * @param getter 필드 읽기 핸들 캐시
+	 * @param obj 대상 객체
+	 * @return 필드 값, 객체가 null 이거나 필드가 없을 경우 null
+	 */
+	private static Object readField(ClassValue<MethodHandle> getter, Object obj) {
+		
+		if(obj == null) {
 			return null;
 		}
 		
-		return clientIdMap.get(consumer.toString());
+		MethodHandle handle = getter.get(obj.getClass());
+		if(handle == null) {
+			return null;
+		}
+		
+		try {
+			return (Object)handle.invokeExact(obj);
+		} catch(Throwable th) {
+			return null;
+		}
+	}
+	
+	/**
+	 * 컨슈머 객체에 해당하는 클라이언트 아이디 반환
+	 * 
+	 * @param consumer 컨슈머 객체
+	 * @return 클라이언트 아이디
+	 */
+	public static String getClientId(Object consumer) {
+		return ClientRegistry.getClientId(getClientOrdinal(consumer));
 	}
 }
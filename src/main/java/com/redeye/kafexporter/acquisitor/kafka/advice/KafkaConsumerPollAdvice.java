@@ -1,5 +1,10 @@
 package com.redeye.kafexporter.acquisitor.kafka.advice;
 
+import com.redeye.kafexporter.acquisitor.kafka.stat.OverheadMeter;
+import com.redeye.kafexporter.acquisitor.kafka.stat.PartitionStatDaemon;
+import com.redeye.kafexporter.acquisitor.kafka.stat.RecordLatencyStatDaemon;
+import com.redeye.kafexporter.acquisitor.kafka.stat.TimeStatDaemon;
+
 import net.bytebuddy.asm.Advice;
 
 /**
@@ -8,14 +13,70 @@ import net.bytebuddy.asm.Advice;
  * @author jmsohn
  */
 public class KafkaConsumerPollAdvice extends ClientTimeAdvice {
-
+	
+	// 아래의 멤버 변수는 public 이어야 함 - SpringBoot 클래스로더에서 문제가 생김
+	
+	/** 폴링 시간 통계 데몬 */
+	public static TimeStatDaemon timeStatDaemon;
+	
+	/** 파티션 통계 데몬 */
+	public static PartitionStatDaemon partitionStatDaemon;
+	
+	/** 레코드 지연 시간 통계 데몬 */
+	public static RecordLatencyStatDaemon recordLatencyStatDaemon;
+	
+	/** 어드바이스 부하 측정 객체 */
+	public static final OverheadMeter overheadMeter = OverheadMeter.of("poll");
+	
+	
+	/**
+	 * 초기화
+	 * 
+	 * @param timeStatDaemon 폴링 시간 통계 데몬
+	 * @param partitionStatDaemon 파티션 통계 데몬
+	 * @param recordLatencyStatDaemon 레코드 지연 시간 통계 데몬
+	 */
+	public static void init(TimeStatDaemon timeStatDaemon, PartitionStatDaemon partitionStatDaemon, RecordLatencyStatDaemon recordLatencyStatDaemon) {
+		KafkaConsumerPollAdvice.timeStatDaemon = timeStatDaemon;
+		KafkaConsumerPollAdvice.partitionStatDaemon = partitionStatDaemon;
+		KafkaConsumerPollAdvice.recordLatencyStatDaemon = recordLatencyStatDaemon;
+	}
+	
+	/**
+	 * KafkaConsumer.poll 진입시<br>
+	 * poll 간격 감시를 위해 poll 호출 중임을 표시함
+	 * 
+	 * @param consumer 컨슈머 객체
+	 * @return 진입 시간 - System.nanoTime
+	 */
+	@Advice.OnMethodEnter
+	public static long onEnter(@Advice.This Object consumer) {
+		markEnter(timeStatDaemon, consumer);
+		return System.nanoTime();
+	}
+	
 	/**
-	 * KafkaConsumer.poll 진입 전
-	 *
+	 * KafkaConsumer.poll 종료시<br>
+	 * 예외 발생시(WakeupException 등)에도 poll 호출 중 표시를 해제하며, 시간 데이터는 수집하지 않음
+	 * 
 	 * @param consumer 컨슈머 객체
+	 * @param enterTime 진입 시간 - System.nanoTime
+	 * @param records poll 결과 - ConsumerRecords 객체, 예외 발생시 null
+	 * @param thrown 발생한 예외, 정상 종료시 null
 	 */
-	@Advice.OnMethodExit
-	public static void onExit(@Advice.This Object consumer) {
-		sendCurTime(consumer);
+	@Advice.OnMethodExit(onThrowable = Throwable.class)
+	public static void onExit(
+		@Advice.This Object consumer,
+		@Advice.Enter long enterTime,
+		@Advice.Return Object records,
+		@Advice.Thrown Throwable thrown
+	) {
+		
+		if(thrown != null) {
+			markExit(timeStatDaemon, consumer);
+			return;
+		}
+		
+		sendRecordsTime(timeStatDaemon, partitionStatDaemon, recordLatencyStatDaemon, overheadMeter, consumer, enterTime, records);
 	}
 }
@@ -0,0 +1,80 @@
+package com.redeye.kafexporter.acquisitor.kafka.advice;
+
+import java.util.function.Consumer;
+
+import com.redeye.kafexporter.acquisitor.kafka.stat.OverheadMeter;
+
+import net.bytebuddy.asm.Advice;
+
+/**
+ * KafkaProducer close 어드바이스 클래스<br>
+ * 프로듀서 종료시 프로듀서 객체의 클라이언트 순번을 해제하고, 클라이언트 종료 처리기를 호출하여 수집 데이터를 정리함<br>
+ * 종료 중 예외가 발생한 경우는 처리하지 않음
+ * 
+ * @author jmsohn
+ */
+public class KafkaProducerCloseAdvice {
+	
+	// 아래의 멤버 변수는 public 이어야 함 - SpringBoot 클래스로더에서 문제가 생김
+	
+	/** 클라이언트 종료 처리기 - 인자: 클라이언트 아이디 */
+	public static Consumer<String> closeHandler;
+	
+	/** 어드바이스 부하 측정 객체 */
+	public static final OverheadMeter overheadMeter = OverheadMeter.of("producerClose");
+	
+	/** 중첩 호출 깊이 - close() 가 close(Duration) 을 호출하는 경우 가장 바깥 호출만 처리 */
+	public static final CallDepth callDepth = new CallDepth();
+	
+	
+	/**
+	 * 초기화
+	 * 
+	 * @param closeHandler 클라이언트 종료 처리기
+	 */
+	public static void init(Consumer<String> closeHandler) {
+		KafkaProducerCloseAdvice.closeHandler = closeHandler;
+	}
+	
+	/**
+	 * KafkaProducer.close 진입시
+	 */
+	@Advice.OnMethodEnter
+	public static void onEnter() {
+		callDepth.enter();
+	}
+	
+	/**
+	 * KafkaProducer.close 종료시
+	 * 
+	 * @param producer 프로듀서 객체
+	 * @param thrown 발생한 예외, 없을 경우 null
+	 */
+	@Advice.OnMethodExit(onThrowable = Throwable.class)
+	public static void onExit(
+		@Advice.This Object producer,
+		@Advice.Thrown Throwable thrown
+	) {
+		
+		if(callDepth.exit() == false || thrown != null || closeHandler == null) {
+			return;
+		}
+		
+		long token = overheadMeter.start();
+		
+		try {
+			
+			// 클라이언트 순번 해제 - 이미 종료된 프로듀서일 경우 null
+			String clientId = KafkaProducerConstructorAdvice.release(producer);
+			
+			if(clientId != null) {
+				closeHandler.accept(clientId);
+			}
+			
+		} catch(Throwable th) {
+			th.printStackTrace();
+		} finally {
+			overheadMeter.stop(token);
+		}
+	}
+}
@@ -0,0 +1,219 @@
+package com.redeye.kafexporter.acquisitor.kafka.advice;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import com.redeye.kafexporter.acquisitor.kafka.ClientRegistry;
+import com.redeye.kafexporter.acquisitor.kafka.stat.OverheadMeter;
+
+import net.bytebuddy.asm.Advice;
+
+/**
+ * Kafka 프로듀서 생성자 어드바이스 클래스<br>
+ * 생성된 프로듀서 객체의 clientId 필드로 클라이언트 순번을 부여하여 프로듀서 객체에 추가된 필드에 저장하므로,<br>
+ * send/close 등 프로듀서 어드바이스에서 문자열 변환이나 맵 조회 없이 클라이언트를 구분함<br>
+ * 프로듀서의 RecordAccumulator 객체에도 클라이언트 순번을 연결하여, drain 수집시 로그 접두어를 읽지 않도록 함<br>
+ * 동적 연결(agentmain) 이전에 KafkaProducer 가 로딩된 경우 재변환으로 순번 필드를 추가할 수 없으므로,<br>
+ * 프로듀서 객체의 clientId 필드로 한번 순번을 구하여 프로듀서 객체별 맵에 보관하여 사용함
+ * 
+ * @author jmsohn
+ */
+public class KafkaProducerConstructorAdvice {
+	
+	// 아래의 멤버 변수는 public 이어야 함 - 어드바이스 코드가 Kafka 클래스에 인라인되어 호출됨
+	
+	/** 어드바이스 부하 측정 객체 */
+	public static final OverheadMeter overheadMeter = OverheadMeter.of("producerConstructor");
+	
+	
+	/** KafkaProducer.clientId 필드 읽기 핸들 - 클래스별 캐시 */
+	private static final ClassValue<MethodHandle> CLIENT_ID = new FieldGetter("clientId", MethodType.methodType(Object.class, Object.class));
+	
+	/** KafkaProducer.accumulator 필드 읽기 핸들 - 클래스별 캐시 */
+	private static final ClassValue<MethodHandle> ACCUMULATOR = new FieldGetter("accumulator", MethodType.methodType(Object.class, Object.class));
+	
+	/**
+	 * 순번 필드가 없는 프로듀서 객체별 클라이언트 순번 맵 - 동적 연결 이전에 KafkaProducer 가 로딩된 경우<br>
+	 * KafkaProducer 는 equals/hashCode 를 재정의하지 않으므로 객체 단위로 구분되며,<br>
+	 * 프로듀서가 해제되면 함께 제거됨
+	 */
+	private static final Map<Object, Integer> attachedProducerMap = Collections.synchronizedMap(new WeakHashMap<>());
+	
+	
+	/**
+	 * KafkaProducer 생성자 호출 후
+	 * 
+	 * @param producer 프로듀서 객체
+	 */
+	@Advice.OnMethodExit
+	public static void onConstructorExit(@Advice.This Object producer) {
+		
+		long token = overheadMeter.start();
+		
+		register(producer);
+		
+		overheadMeter.stop(token);
+	}
+	
+	/**
+	 * 프로듀서 객체에 클라이언트 순번 부여<br>
+	 * 생성자가 다른 생성자를 호출하는 경우 여러 번 호출되므로, 이미 순번이 부여된 프로듀서 객체는 다시 등록하지 않음
+	 * 
+	 * @param producer 프로듀서 객체
+	 */
+	public static void register(Object producer) {
+		
+		// 입력 값 검증
+		if(producer == null) {
+			return;
+		}
+		
+		// 이미 순번이 부여된 경우
+		if(producer instanceof ClientOrdinalHolder && ((ClientOrdinalHolder)producer).kafexporter$getClientOrdinal() != ClientRegistry.NONE) {
+			return;
+		}
+		
+		// 클라이언트 아이디 획득 - 프로듀서는 client.id 가 없을 경우 자동 생성된 아이디를 가짐
+		String clientId = readClientId(producer);
+		if(clientId == null) {
+			return;
+		}
+		
+		// 클라이언트 순번 부여 후 프로듀서 객체에 추가된 필드에 저장
+		int clientOrdinal = ClientRegistry.register(clientId);
+		
+		if(producer instanceof ClientOrdinalHolder) {
+			((ClientOrdinalHolder)producer).kafexporter$setClientOrdinal(clientOrdinal);
+		}
+		
+		// 배치 수집을 위해 RecordAccumulator 객체에 클라이언트 순번 연결
+		ProducerBatchReader.bind(readField(ACCUMULATOR, producer), clientOrdinal);
+	}
+	
+	/**
+	 * 프로듀서 객체에 해당하는 클라이언트 순번 반환<br>
+	 * 프로듀서 객체에 추가된 필드를 읽으므로 객체 생성 및 맵 조회 없음<br>
+	 * 순번 필드가 없는 프로듀서(동적 연결 이전에 로딩된 경우)는 프로듀서 객체별 맵에서 조회함
+	 * 
+	 * @param producer 프로듀서 객체
+	 * @return 클라이언트 순번, 미등록일 경우 ClientRegistry.NONE
+	 */
+	public static int getClientOrdinal(Object producer) {
+		
+		if(producer instanceof ClientOrdinalHolder) {
+			return ((ClientOrdinalHolder)producer).kafexporter$getClientOrdinal();
+		}
+		
+		if(producer == null) {
+			return ClientRegistry.NONE;
+		}
+		
+		return getAttachedClientOrdinal(producer);
+	}
+	
+	/**
+	 * 종료된 프로듀서 객체의 클라이언트 순번 해제<br>
+	 * 이후 프로듀서 객체로 수집되는 데이터는 미등록 클라이언트로 처리되며, 중복 종료시 다시 해제되지 않음
+	 * 
+	 * @param producer 프로듀서 객체
+	 * @return 해제 전 클라이언트 아이디, 미등록이거나 이미 해제된 경우 null
+	 */
+	public static String release(Object producer) {
+		
+		int clientOrdinal = getClientOrdinal(producer);
+		if(clientOrdinal == ClientRegistry.NONE) {
+			return null;
+		}
+		
+		String clientId = ClientRegistry.getClientId(clientOrdinal);
+		
+		if(producer instanceof ClientOrdinalHolder) {
+			((ClientOrdinalHolder)producer).kafexporter$setClientOrdinal(ClientRegistry.NONE);
+		} else {
+			attachedProducerMap.put(producer, ClientRegistry.NONE);
+		}
+		
+		return clientId;
+	}
+	
+	/**
+	 * 순번 필드가 없는 프로듀서 객체의 클라이언트 순번 반환<br>
+	 * 처음 호출시 clientId 필드에서 클라이언트 아이디를 읽어 순번을 등록하며, 찾지 못한 경우도 캐시함
+	 * 
+	 * @param producer 프로듀서 객체
+	 * @return 클라이언트 순번, 찾을 수 없을 경우 ClientRegistry.NONE
+	 */
+	private static int getAttachedClientOrdinal(Object producer) {
+		
+		Integer clientOrdinal = attachedProducerMap.get(producer);
+		if(clientOrdinal != null) {
+			return clientOrdinal;
+		}
+		
+		String clientId = readClientId(producer);
+		
+		if(clientId == null) {
+			clientOrdinal = ClientRegistry.NONE;
+		} else {
+			
+			clientOrdinal = ClientRegistry.getOrRegister(clientId);
+			
+			// 배치 수집을 위해 RecordAccumulator 객체에 클라이언트 순번 연결
+			ProducerBatchReader.bind(readField(ACCUMULATOR, producer), clientOrdinal);
+		}
+		
+		attachedProducerMap.put(producer, clientOrdinal);
+		
+		return clientOrdinal;
+	}
+	
+	/**
+	 * 프로듀서 객체의 clientId 필드 값 반환
+	 * 
+	 * @param producer 프로듀서 객체
+	 * @return 클라이언트 아이디, 읽을 수 없을 경우 null
+	 */
+	private static String readClientId(Object producer) {
+		
+		Object clientId = readField(CLIENT_ID, producer);
+		return (clientId instanceof String)?(String)clientId:null;
+	}
+	
+	/**
+	 * 객체의 필드 값 반환
+	 * 
+	 * @param getter 필드 읽기 핸들 캐시
+	 * @param obj 대상 객체
+	 * @return 필드 값, 객체가 null 이거나 필드가 없을 경우 null
+	 */
+	private static Object readField(ClassValue<MethodHandle> getter, Object obj) {
+		
+		if(obj == null) {
+			return null;
+		}
+		
+		MethodHandle handle = getter.get(obj.getClass());
+		if(handle == null) {
+			return null;
+		}
+		
+		try {
+			return (Object)handle.invokeExact(obj);
+		} catch(Throwable th) {
+			return null;
+		}
+	}
+	
+	/**
+	 * 프로듀서 객체에 해당하는 클라이언트 아이디 반환
+	 * 
+	 * @param producer 프로듀서 객체
+	 * @return 클라이언트 아이디
+	 */
+	public static String getClientId(Object producer) {
+		return ClientRegistry.getClientId(getClientOrdinal(producer));
+	}
+}
@@ -0,0 +1,54 @@
+package com.redeye.kafexporter.acquisitor.kafka.advice;
+
+import com.redeye.kafexporter.acquisitor.kafka.stat.OverheadMeter;
+import com.redeye.kafexporter.acquisitor.kafka.stat.SendStatDaemon;
+
+import net.bytebuddy.asm.Advice;
+import net.bytebuddy.implementation.bytecode.assign.Assigner;
+
+/**
+ * KafkaProducer send 어드바이스 클래스<br>
+ * 사용자 콜백을 SendCallback 래퍼로 교체하여 send 호출부터 브로커 응답까지의 지연 시간을 측정함
+ * 
+ * @author jmsohn
+ */
+public class KafkaProducerSendAdvice {
+	
+	// 아래의 멤버 변수는 public 이어야 함 - SpringBoot 클래스로더에서 문제가 생김
+	
+	/** 전송 통계 데몬 */
+	public static SendStatDaemon sendStatDaemon;
+	
+	/** 어드바이스 부하 측정 객체 */
+	public static final OverheadMeter overheadMeter = OverheadMeter.of("send");
+	
+	
+	/**
+	 * 초기화
+	 * 
+	 * @param sendStatDaemon 전송 통계 데몬
+	 */
+	public static void init(SendStatDaemon sendStatDaemon) {
+		KafkaProducerSendAdvice.sendStatDaemon = sendStatDaemon;
+	}
+	
+	/**
+	 * KafkaProducer.send(ProducerRecord, Callback) 진입시
+	 * 
+	 * @param producer 프로듀서 객체
+	 * @param record 전송할 ProducerRecord 객체
+	 * @param callback 사용자 콜백 객체 - 래퍼 콜백으로 교체됨
+	 */
+	@Advice.OnMethodEnter
+	public static void onEnter(
+		@Advice.This Object producer,
+		@Advice.Argument(0) Object record,
+		@Advice.Argument(value = 1, readOnly = false, typing = Assigner.Typing.DYNAMIC) Object callback
+	) {
+		long token = overheadMeter.start();
+		
+		callback = SendCallback.wrap(sendStatDaemon, producer, record, callback);
+		
+		overheadMeter.stop(token);
+	}
+}
@@ -0,0 +1,278 @@
+package com.redeye.kafexporter.acquisitor.kafka.advice;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import com.redeye.kafexporter.acquisitor.kafka.ClientRegistry;
+
+/**
+ * ProducerBatch 및 RecordAccumulator 읽기 클래스<br>
+ * 에이전트는 Kafka 라이브러리에 의존하지 않으므로, 클래스별로 캐시된 MethodHandle 로 읽음<br>
+ * ProducerBatch 의 생성 시간/레코드 수/토픽 파티션은 패키지 접근 필드이므로 필드 읽기 핸들을 사용함
+ * 
+ * @author jmsohn
+ */
+public class ProducerBatchReader {
+	
+	
+	/** int 반환 메소드 타입 - (Object)int */
+	private static final MethodType INT_GETTER_TYPE = MethodType.methodType(int.class, Object.class);
+	
+	/** long 반환 메소드 타입 - (Object)long */
+	private static final MethodType LONG_GETTER_TYPE = MethodType.methodType(long.class, Object.class);
+	
+	/** 객체 반환 메소드 타입 - (Object)Object */
+	private static final MethodType OBJECT_GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+	
+	/** 로그 접두어의 클라이언트 아이디 시작 문자열 - ex) [Producer clientId=producer-1] */
+	private static final String CLIENT_ID_PREFIX = "clientId=";
+	
+	/** ProducerBatch.createdMs 필드 읽기 핸들 - 클래스별 캐시 */
+	private static final ClassValue<MethodHandle> CREATED_MS = new FieldGetter("createdMs", LONG_GETTER_TYPE);
+	
+	/** ProducerBatch.recordCount 필드 읽기 핸들 - 클래스별 캐시 */
+	private static final ClassValue<MethodHandle> RECORD_COUNT = new FieldGetter("recordCount", INT_GETTER_TYPE);
+	
+	/** ProducerBatch.topicPartition 필드 읽기 핸들 - 클래스별 캐시 */
+	private static final ClassValue<MethodHandle> TOPIC_PARTITION = new FieldGetter("topicPartition", OBJECT_GETTER_TYPE);
+	
+	/** RecordAccumulator.logContext 필드 읽기 핸들 - 클래스별 캐시 */
+	private static final ClassValue<MethodHandle> LOG_CONTEXT = new FieldGetter("logContext", OBJECT_GETTER_TYPE);
+	
+	/** ProducerBatch.estimatedSizeInBytes() 메소드 핸들 - 클래스별 캐시 */
+	private static final ClassValue<MethodHandle> SIZE_IN_BYTES = new ClassValue<MethodHandle>() {
+		@Override
+		protected MethodHandle computeValue(Class<?> type) {
+			
+			try {
+				
+				return MethodHandles
+					.publicLookup()
+					.findVirtual(type, "estimatedSizeInBytes", MethodType.methodType(int.class))
+					.asType(INT_GETTER_TYPE);
+				
+			} catch(Exception ex) {
+				return null;
+			}
+		}
+	};
+	
+	/** ProducerBatch.inRetry() 메소드 핸들 - 클래스별 캐시 */
+	private static final ClassValue<MethodHandle> IN_RETRY = new ClassValue<MethodHandle>() {
+		@Override
+		protected MethodHandle computeValue(Class<?> type) {
+			
+			try {
+				
+				return MethodHandles
+					.publicLookup()
+					.findVirtual(type, "inRetry", MethodType.methodType(boolean.class))
+					.asType(MethodType.methodType(boolean.class, Object.class));
+				
+			} catch(Exception ex) {
+				return null;
+			}
+		}
+	};
+	
+	/**
+	 * RecordAccumulator 객체별 클라이언트 순번 맵<br>
+	 * RecordAccumulator 는 equals/hashCode 를 재정의하지 않으므로 객체 단위로 구분되며,<br>
+	 * 프로듀서가 해제되면 함께 제거됨
+	 */
+	private static final Map<Object, Integer> accumulatorMap = Collections.synchronizedMap(new WeakHashMap<>());
+	
+	
+	/**
+	 * RecordAccumulator 객체에 클라이언트 순번을 연결<br>
+	 * 프로듀서 생성시 한번 호출되며, 이후 drain 수집시 로그 접두어를 읽지 않고 순번을 얻음
+	 * 
+	 * @param accumulator RecordAccumulator 객체
+	 * @param clientOrdinal 클라이언트 순번
+	 */
+	public static void bind(Object accumulator, int clientOrdinal) {
+		
+		if(accumulator != null) {
+			accumulatorMap.put(accumulator, clientOrdinal);
+		}
+	}
+	
+	/**
+	 * RecordAccumulator 객체의 클라이언트 순번 반환<br>
+	 * 프로듀서 생성시 연결되지 않은 경우(ex. 생성자 어드바이스 적용 전에 생성된 프로듀서),<br>
+	 * RecordAccumulator 에는 클라이언트 아이디 필드가 없으므로 처음 호출시 로그 접두어(LogContext.logPrefix)에서 클라이언트 아이디를 읽어 캐시함
+	 * 
+	 * @param accumulator RecordAccumulator 객체
+	 * @return 클라이언트 순번, 찾을 수 없을 경우 ClientRegistry.NONE
+	 */
+	public static int getClientOrdinal(Object accumulator) {
+		
+		if(accumulator == null) {
+			return ClientRegistry.NONE;
+		}
+		
+		Integer clientOrdinal = accumulatorMap.get(accumulator);
+		
+		if(clientOrdinal == null) {
+			clientOrdinal = ClientRegistry.getOrRegister(readClientId(accumulator));
+			accumulatorMap.put(accumulator, clientOrdinal);
+		}
+		
+		return clientOrdinal;
+	}
+	
+	/**
+	 * RecordAccumulator 의 로그 접두어에서 클라이언트 아이디를 읽어 반환
+	 * 
+	 * @param accumulator RecordAccumulator 객체
+	 * @return 클라이언트 아이디, 읽을 수 없을 경우 null
+	 */
+	private static String readClientId(Object accumulator) {
+		
+		try {
+			
+			Object logContext = invokeObject(LOG_CONTEXT, accumulator);
+			if(logContext == null) {
+				return null;
+			}
+			
+			String logPrefix = (String)logContext.getClass().getMethod("logPrefix").invoke(logContext);
+			if(logPrefix == null) {
+				return null;
+			}
+			
+			int start = logPrefix.indexOf(CLIENT_ID_PREFIX);
+			if(start < 0) {
+				return null;
+			}
+			
+			start += CLIENT_ID_PREFIX.length();
+			
+			int end = start;
+			while(end < logPrefix.length() && logPrefix.charAt(end) != ',' && logPrefix.charAt(end) != ']') {
+				end++;
+			}
+			
+			return logPrefix.substring(start, end);
+			
+		} catch(Exception ex) {
+			return null;
+		}
+	}
+	
+	/**
+	 * 배치 생성 시간 반환
+	 * 
+	 * @param batch ProducerBatch 객체
+	 * @return 배치 생성 시간 - 단위: ms, 읽을 수 없을 경우 -1
+	 */
+	public static long createdMs(Object batch) {
+		
+		MethodHandle handle = CREATED_MS.get(batch.getClass());
+		if(handle == null) {
+			return -1;
+		}
+		
+		try {
+			return (long)handle.invokeExact(batch);
+		} catch(Throwable th) {
+			return -1;
+		}
+	}
+	
+	/**
+	 * 재전송 배치 여부 반환
+	 * 
+	 * @param batch ProducerBatch 객체
+	 * @return 재전송 배치 여부, 읽을 수 없을 경우 false
+	 */
+	public static boolean inRetry(Object batch) {
+		
+		MethodHandle handle = IN_RETRY.get(batch.getClass());
+		if(handle == null) {
+			return false;
+		}
+		
+		try {
+			return (boolean)handle.invokeExact(batch);
+		} catch(Throwable th) {
+			return false;
+		}
+	}
+	
+	/**
+	 * 배치의 레코드 수 반환
+	 * 
+	 * @param batch ProducerBatch 객체
+	 * @return 레코드 수, 읽을 수 없을 경우 -1
+	 */
+	public static int recordCount(Object batch) {
+		return invokeInt(RECORD_COUNT, batch);
+	}
+	
+	/**
+	 * 배치의 예상 크기 반환
+	 * 
+	 * @param batch ProducerBatch 객체
+	 * @return 예상 크기 - 단위: byte, 읽을 수 없을 경우 -1
+	 */
+	public static int sizeInBytes(Object batch) {
+		return invokeInt(SIZE_IN_BYTES, batch);
+	}
+	
+	/**
+	 * 배치의 토픽 명 반환
+	 * 
+	 * @param batch ProducerBatch 객체
+	 * @return 토픽 명, 읽을 수 없을 경우 null
+	 */
+	public static String topic(Object batch) {
+		return ConsumerRecordsReader.topic(invokeObject(TOPIC_PARTITION, batch));
+	}
+	
+	/**
+	 * 객체의 int 반환 핸들 호출
+	 * 
+	 * @param getter 메소드 핸들 캐시
+	 * @param obj 대상 객체
+	 * @return 반환 값, 호출할 수 없을 경우 -1
+	 */
+	private static int invokeInt(ClassValue<MethodHandle> getter, Object obj) {
+		
+		MethodHandle handle = getter.get(obj.getClass());
+		if(handle == null) {
+			return -1;
+		}
+		
+		try {
+			return (int)handle.invokeExact(obj);
+		} catch(Throwable th) {
+			return -1;
+		}
+	}
+	
+	/**
+	 * 객체의 Object 반환 핸들 호출
+	 * 
+	 * @param getter 메소드 핸들 캐시
+	 * @param obj 대상 객체
+	 * @return 반환 값, 호출할 수 없을 경우 null
+	 */
+	private static Object invokeObject(ClassValue<MethodHandle> getter, Object obj) {
+		
+		MethodHandle handle = getter.get(obj.getClass());
+		if(handle == null) {
+			return null;
+		}
+		
+		try {
+			return (Object)handle.invokeExact(obj);
+		} catch(Throwable th) {
+			return null;
+		}
+	}
+}
@@ -0,0 +1,118 @@
+package com.redeye.kafexporter.acquisitor.kafka.advice;
+
+import java.util.Collection;
+import java.util.Map;
+
+import com.redeye.kafexporter.acquisitor.kafka.ClientRegistry;
+import com.redeye.kafexporter.acquisitor.kafka.TopicRegistry;
+import com.redeye.kafexporter.acquisitor.kafka.stat.BatchStatDaemon;
+import com.redeye.kafexporter.acquisitor.kafka.stat.OverheadMeter;
+
+import net.bytebuddy.asm.Advice;
+import net.bytebuddy.implementation.bytecode.assign.Assigner;
+
+/**
+ * RecordAccumulator drain 어드바이스 클래스<br>
+ * Sender 스레드가 전송하기 위해 꺼낸 배치의 크기, 레코드 수 및 생성부터 꺼낼 때까지의 대기 시간(linger)을 수집함<br>
+ * 재전송 배치는 대기 시간에 재시도 대기가 포함되므로 제외함
+ * 
+ * @author jmsohn
+ */
+public class RecordAccumulatorDrainAdvice {
+	
+	// 아래의 멤버 변수 및 메소드는 public 이어야 함 - 어드바이스 코드가 Kafka 클래스에 인라인되어 호출됨
+	
+	/** 배치 통계 데몬 */
+	public static BatchStatDaemon batchStatDaemon;
+	
+	/** 어드바이스 부하 측정 객체 */
+	public static final OverheadMeter overheadMeter = OverheadMeter.of("drain");
+	
+	
+	/**
+	 * 초기화
+	 * 
+	 * @param batchStatDaemon 배치 통계 데몬
+	 */
+	public static void init(BatchStatDaemon batchStatDaemon) {
+		RecordAccumulatorDrainAdvice.batchStatDaemon = batchStatDaemon;
+	}
+	
+	/**
+	 * RecordAccumulator.drain 종료시
+	 * 
+	 * @param accumulator RecordAccumulator 객체
+	 * @param now drain 시간 - 단위: ms
+	 * @param batches 노드별 배치 목록 맵
+	 */
+	@Advice.OnMethodExit
+	public static void onExit(
+		@Advice.This Object accumulator,
+		@Advice.Argument(3) long now,
+		@Advice.Return(typing = Assigner.Typing.DYNAMIC) Object batches
+	) {
+		
+		long token = overheadMeter.start();
+		
+		sendBatches(accumulator, now, batches);
+		
+		overheadMeter.stop(token);
+	}
+	
+	/**
+	 * 배치 정보를 처리자에게 전송
+	 * 
+	 * @param accumulator RecordAccumulator 객체
+	 * @param now drain 시간 - 단위: ms
+	 * @param batches 노드별 배치 목록 맵
+	 */
+	public static void sendBatches(Object accumulator, long now, Object batches) {
+		
+		// 입력 값 및 통계 데몬 검사
+		if(batchStatDaemon == null || batches instanceof Map == false || ((Map<?, ?>)batches).isEmpty() == true) {
+			return;
+		}
+		
+		try {
+			
+			// 클라이언트 순번 획득
+			int clientOrdinal = ProducerBatchReader.getClientOrdinal(accumulator);
+			if(clientOrdinal == ClientRegistry.NONE) {
+				return;
+			}
+			
+			for(Object nodeBatches: ((Map<?, ?>)batches).values()) {
+				
+				if(nodeBatches instanceof Collection == false) {
+					continue;
+				}
+				
+				for(Object batch: (Collection<?>)nodeBatches) {
+					
+					// 재전송 배치 제외
+					if(ProducerBatchReader.inRetry(batch) == true) {
+						continue;
+					}
+					
+					int recordCount = ProducerBatchReader.recordCount(batch);
+					long createdMs = ProducerBatchReader.createdMs(batch);
+					
+					if(recordCount < 0 || createdMs < 0) {
+						continue;
+					}
+					
+					batchStatDaemon.send(
+						clientOrdinal,
+						TopicRegistry.getOrRegister(ProducerBatchReader.topic(batch)),
+						recordCount,
+						ProducerBatchReader.sizeInBytes(batch),
+						now - createdMs
+					);
+				}
+			}
+			
+		} catch(Exception ex) {
+			ex.printStackTrace();
+		}
+	}
+}
@@ -0,0 +1,275 @@
+package com.redeye.kafexporter.acquisitor.kafka.advice;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+
+import com.redeye.kafexporter.acquisitor.kafka.ClientRegistry;
+import com.redeye.kafexporter.acquisitor.kafka.TopicRegistry;
+import com.redeye.kafexporter.acquisitor.kafka.stat.OverheadMeter;
+import com.redeye.kafexporter.acquisitor.kafka.stat.SendStatDaemon;
+
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.dynamic.loading.ClassLoadingStrategy;
+import net.bytebuddy.implementation.MethodCall;
+import net.bytebuddy.matcher.ElementMatchers;
+
+/**
+ * KafkaProducer.send 콜백 래퍼 상위 클래스<br>
+ * 에이전트는 Kafka 라이브러리에 의존하지 않으므로, Callback 인터페이스를 구현한 하위 클래스를<br>
+ * Kafka 클래스로더별로 한번 생성하여 사용함 - onCompletion 호출시 complete 메소드를 호출함<br>
+ * send 호출부터 콜백 호출까지의 시간을 전송 지연 시간으로 통계 데몬에 전송한 후, 사용자 콜백을 호출함
+ * 
+ * @author jmsohn
+ */
+public abstract class SendCallback {
+	
+	
+	/** Kafka 콜백 인터페이스 명 */
+	private static final String CALLBACK_CLASS_NAME = "org.apache.kafka.clients.producer.Callback";
+	
+	/** 콜백 메소드 명 */
+	private static final String ON_COMPLETION = "onCompletion";
+	
+	/** 객체 반환 메소드 타입 - (Object)Object */
+	private static final MethodType OBJECT_GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+	
+	/** 콜백 메소드 타입 - (Object, Object, Exception)void */
+	private static final MethodType ON_COMPLETION_TYPE = MethodType.methodType(void.class, Object.class, Object.class, Exception.class);
+	
+	/** 래퍼 생성자 메소드 타입 - ()SendCallback */
+	private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(SendCallback.class);
+	
+	/** 콜백 처리 부하 측정 객체 */
+	private static final OverheadMeter overheadMeter = OverheadMeter.of("sendCallback");
+	
+	/** 프로듀서 클래스별 래퍼 생성 정보 캐시 */
+	private static final ClassValue<CallbackFactory> FACTORY = new ClassValue<CallbackFactory>() {
+		@Override
+		protected CallbackFactory computeValue(Class<?> type) {
+			return CallbackFactory.create(type);
+		}
+	};
+	
+	/** ProducerRecord 클래스별 topic() 메소드 핸들 캐시 */
+	private static final ClassValue<MethodHandle> TOPIC = new ClassValue<MethodHandle>() {
+		@Override
+		protected MethodHandle computeValue(Class<?> type) {
+			
+			try {
+				
+				return MethodHandles
+					.publicLookup()
+					.findVirtual(type, "topic", MethodType.methodType(String.class))
+					.asType(OBJECT_GETTER_TYPE);
+				
+			} catch(Exception ex) {
+				return null;
+			}
+		}
+	};
+	
+	
+	/** 전송 통계 데몬 */
+	private SendStatDaemon sendStatDaemon;
+	
+	/** 사용자 콜백 객체 - 없을 경우 null */
+	private Object delegate;
+	
+	/** 사용자 콜백 호출 메소드 핸들 */
+	private MethodHandle onCompletion;
+	
+	/** 클라이언트 순번 */
+	private int clientOrdinal;
+	
+	/** 토픽 순번 */
+	private int topicOrdinal;
+	
+	/** 전송 시간 - System.nanoTime */
+	private long sendTime;
+	
+	
+	/**
+	 * 사용자 콜백을 전송 시간 측정용 래퍼로 감싸서 반환<br>
+	 * 래퍼를 생성할 수 없을 경우 사용자 콜백을 그대로 반환함
+	 * 
+	 * @param sendStatDaemon 전송 통계 데몬
+	 * @param producer 프로듀서 객체
+	 * @param record 전송할 ProducerRecord 객체
+	 * @param callback 사용자 콜백 객체 - 없을 경우 null
+	 * @return 래퍼 콜백 객체
+	 */
+	public static Object wrap(SendStatDaemon sendStatDaemon, Object producer, Object record, Object callback) {
+		
+		// 입력 값 및 통계 데몬 검사
+		if(sendStatDaemon == null || producer == null || record == null) {
+			return callback;
+		}
+		
+		try {
+			
+			// 클라이언트 순번 획득 - 생성자 어드바이스에서 프로듀서 객체에 저장된 순번
+			int clientOrdinal = KafkaProducerConstructorAdvice.getClientOrdinal(producer);
+			if(clientOrdinal == ClientRegistry.NONE) {
+				return callback;
+			}
+			
+			// 토픽 순번 획득
+			int topicOrdinal = TopicRegistry.getOrRegister(readString(TOPIC, record));
+			
+			// 래퍼 생성
+			CallbackFactory factory = FACTORY.get(producer.getClass());
+			if(factory == null) {
+				return callback;
+			}
+			
+			SendCallback sendCallback = (SendCallback)factory.constructor.invokeExact();
+			
+			sendCallback.sendStatDaemon = sendStatDaemon;
+			sendCallback.delegate = callback;
+			sendCallback.onCompletion = factory.onCompletion;
+			sendCallback.clientOrdinal = clientOrdinal;
+			sendCallback.topicOrdinal = topicOrdinal;
+			sendCallback.sendTime = System.nanoTime();
+			
+			return sendCallback;
+			
+		} catch(Throwable th) {
+			return callback;
+		}
+	}
+	
+	/**
+	 * 전송 완료시 호출 - 생성된 하위 클래스의 onCompletion 에서 호출됨
+	 * 
+	 * @param metadata RecordMetadata 객체
+	 * @param exception 전송 실패시 예외, 성공시 null
+	 */
+	public void complete(Object metadata, Exception exception) {
+		
+		// 전송 지연 시간 전송
+		long ackTime = System.nanoTime();
+		long token = overheadMeter.start();
+		
+		this.sendStatDaemon.send(
+			this.clientOrdinal,
+			this.topicOrdinal,
+			this.sendTime,
+			ackTime,
+			exception != null
+		);
+		
+		overheadMeter.stop(token);
+		
+		// 사용자 콜백 호출
+		if(this.delegate == null) {
+			return;
+		}
+		
+		try {
+			this.onCompletion.invokeExact(this.delegate, metadata, exception);
+		} catch(RuntimeException | Error ex) {
+			throw ex;
+		} catch(Throwable th) {
+			throw new RuntimeException(th);
+		}
+	}
+	
+	/**
+	 * 메소드 핸들 캐시로 객체의 문자열 값을 읽어 반환
+	 * 
+	 * @param getter 메소드 핸들 캐시
+	 * @param obj 대상 객체
+	 * @return 문자열 값, 읽을 수 없을 경우 null
+	 */
+	private static String readString(ClassValue<MethodHandle> getter, Object obj) throws Throwable {
+		
+		MethodHandle handle = getter.get(obj.getClass());
+		if(handle == null) {
+			return null;
+		}
+		
+		Object value = (Object)handle.invokeExact(obj);
+		return (value == null)?null:value.toString();
+	}
+	
+	/**
+	 * 프로듀서 클래스로더별 래퍼 생성 정보 클래스
+	 * 
+	 * @author jmsohn
+	 */
+	private static class CallbackFactory {
+		
+		/** 래퍼 생성자 메소드 핸들 - ()SendCallback */
+		final MethodHandle constructor;
+		
+		/** 사용자 콜백 호출 메소드 핸들 - (Object, Object, Exception)void */
+		final MethodHandle onCompletion;
+		
+		/**
+		 * 생성자
+		 * 
+		 * @param constructor 래퍼 생성자 메소드 핸들
+		 * @param onCompletion 사용자 콜백 호출 메소드 핸들
+		 */
+		CallbackFactory(MethodHandle constructor, MethodHandle onCompletion) {
+			this.constructor = constructor;
+			this.onCompletion = onCompletion;
+		}
+		
+		/**
+		 * 프로듀서 클래스로더의 Callback 인터페이스를 구현한 래퍼 클래스 생성
+		 * 
+		 * @param producerType 프로듀서 클래스
+		 * @return 래퍼 생성 정보, 생성할 수 없을 경우 null
+		 */
+		static CallbackFactory create(Class<?> producerType) {
+			
+			try {
+				
+				// Callback 인터페이스 및 콜백 메소드
+				Class<?> callbackType = Class.forName(CALLBACK_CLASS_NAME, false, producerType.getClassLoader());
+				
+				Method onCompletionMethod = null;
+				for(Method method: callbackType.getMethods()) {
+					if(method.getName().equals(ON_COMPLETION) == true && method.getParameterCount() == 2) {
+						onCompletionMethod = method;
+						break;
+					}
+				}
+				
+				if(onCompletionMethod == null) {
+					return null;
+				}
+				
+				// 래퍼 클래스 생성 - onCompletion 호출시 complete 호출
+				Class<?> wrapperType = new ByteBuddy()
+					.subclass(SendCallback.class)
+					.implement(callbackType)
+					.method(ElementMatchers.is(onCompletionMethod))
+					.intercept(
+						MethodCall
+							.invoke(SendCallback.class.getMethod("complete", Object.class, Exception.class))
+							.withAllArguments()
+					)
+					.make()
+					.load(callbackType.getClassLoader(), ClassLoadingStrategy.Default.WRAPPER)
+					.getLoaded();
+				
+				return new CallbackFactory(
+					MethodHandles.publicLookup()
+						.findConstructor(wrapperType, MethodType.methodType(void.class))
+						.asType(CONSTRUCTOR_TYPE),
+					MethodHandles.publicLookup()
+						.unreflect(onCompletionMethod)
+						.asType(ON_COMPLETION_TYPE)
+				);
+				
+			} catch(Exception ex) {
+				ex.printStackTrace();
+				return null;
+			}
+		}
+	}
+}
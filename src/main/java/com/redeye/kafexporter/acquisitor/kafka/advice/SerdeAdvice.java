@@ -0,0 +1,140 @@
+package com.redeye.kafexporter.acquisitor.kafka.advice;
+
+import java.nio.ByteBuffer;
+
+import com.redeye.kafexporter.acquisitor.kafka.TopicRegistry;
+import com.redeye.kafexporter.acquisitor.kafka.stat.OverheadMeter;
+import com.redeye.kafexporter.acquisitor.kafka.stat.SerdeStatDaemon;
+import com.redeye.kafexporter.util.stat.Sampler;
+
+/**
+ * Serializer/Deserializer 어드바이스 상위(공통) 클래스<br>
+ * 레코드마다 호출되므로 샘플링된 호출만 시간을 측정함<br>
+ * serialize(topic, headers, data) 가 같은 객체의 serialize(topic, data) 를 호출하는 경우 등<br>
+ * 같은 객체의 중첩 호출은 바깥 호출의 샘플링 여부와 관계 없이 수집하지 않음<br>
+ * (바깥 호출이 샘플링되지 않았을 때 안쪽 호출이 샘플링되어 호출 수가 중복 추정되지 않도록 샘플링 전에 검사함)
+ * 
+ * @author jmsohn
+ */
+public class SerdeAdvice {
+	
+	// 아래의 멤버 변수 및 메소드는 public 이어야 함 - 어드바이스 코드가 Kafka 클래스에 인라인되어 호출됨
+	
+	/** Serializer/Deserializer 통계 데몬 */
+	public static SerdeStatDaemon serdeStatDaemon;
+	
+	/** 어드바이스 부하 측정 객체 */
+	public static final OverheadMeter overheadMeter = OverheadMeter.of("serde");
+	
+	/** 현재 스레드에서 수행 중인 Serializer/Deserializer 객체 - 중첩 호출 검사용, 샘플링 여부와 관계 없이 설정됨 */
+	public static final ThreadLocal<Object[]> activeSerde = ThreadLocal.withInitial(() -> new Object[1]);
+	
+	
+	/**
+	 * 초기화
+	 * 
+	 * @param serdeStatDaemon Serializer/Deserializer 통계 데몬
+	 */
+	public static void init(SerdeStatDaemon serdeStatDaemon) {
+		SerdeAdvice.serdeStatDaemon = serdeStatDaemon;
+	}
+	
+	/**
+	 * 호출의 수집 여부 결정
+	 * 
+	 * @return 샘플링 결과 - 수집하지 않을 경우 Sampler.SKIP
+	 */
+	public static int sample() {
+		
+		if(serdeStatDaemon == null) {
+			return Sampler.SKIP;
+		}
+		
+		// 호출 간격은 계산하지 않으므로 키 없이 샘플링함
+		return serdeStatDaemon.getSampler().sample(-1);
+	}
+	
+	/**
+	 * 호출 시작 - 현재 스레드의 수행 중인 객체로 설정<br>
+	 * 샘플링 전에 모든 호출에서 호출하며, 종료시 leave 또는 exit 로 복원해야 함
+	 * 
+	 * @param serde Serializer/Deserializer 객체
+	 * @return 이전에 수행 중이던 객체, 같은 객체의 중첩 호출일 경우 현재 객체(수집하지 않음)
+	 */
+	public static Object enter(Object serde) {
+		
+		Object[] active = activeSerde.get();
+		Object prev = active[0];
+		
+		if(prev != serde) {
+			active[0] = serde;
+		}
+		
+		return prev;
+	}
+	
+	/**
+	 * 호출 종료 - 수집하지 않는 호출의 수행 중인 객체를 이전 객체로 복원
+	 * 
+	 * @param prev 이전에 수행 중이던 객체
+	 */
+	public static void leave(Object prev) {
+		activeSerde.get()[0] = prev;
+	}
+	
+	/**
+	 * 수집 종료 - 수행 데이터를 통계 데몬에 전송하고, 수행 중인 객체를 이전 객체로 복원
+	 * 
+	 * @param deserialize Deserializer 여부
+	 * @param serde Serializer/Deserializer 객체
+	 * @param prev 이전에 수행 중이던 객체
+	 * @param topic 토픽 명
+	 * @param sample 샘플링 결과
+	 * @param elapsed 수행 시간 - 단위: ns
+	 * @param payloadSize 페이로드 크기 - 단위: byte, 알 수 없을 경우 음수
+	 * @param error 예외 발생 여부
+	 */
+	public static void exit(boolean deserialize, Object serde, Object prev, String topic, int sample, long elapsed, int payloadSize, boolean error) {
+		
+		leave(prev);
+		
+		long token = overheadMeter.start();
+		
+		try {
+			
+			serdeStatDaemon.send(
+				deserialize,
+				serdeStatDaemon.getClassOrdinal(serde.getClass()),
+				TopicRegistry.getOrRegister(topic),
+				sample,
+				elapsed,
+				payloadSize,
+				error
+			);
+			
+		} catch(Exception ex) {
+			ex.printStackTrace();
+		}
+		
+		overheadMeter.stop(token, elapsed);
+	}
+	
+	/**
+	 * 페이로드 크기 반환
+	 * 
+	 * @param data 페이로드 - byte[] 또는 ByteBuffer
+	 * @return 페이로드 크기 - 단위: byte, 알 수 없을 경우 -1
+	 */
+	public static int payloadSize(Object data) {
+		
+		if(data instanceof byte[]) {
+			return ((byte[])data).length;
+		}
+		
+		if(data instanceof ByteBuffer) {
+			return ((ByteBuffer)data).remaining();
+		}
+		
+		return -1;
+	}
+}
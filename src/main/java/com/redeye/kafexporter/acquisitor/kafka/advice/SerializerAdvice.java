@@ -0,0 +1,78 @@
+package com.redeye.kafexporter.acquisitor.kafka.advice;
+
+import com.redeye.kafexporter.util.stat.Sampler;
+
+import net.bytebuddy.asm.Advice;
+import net.bytebuddy.implementation.bytecode.assign.Assigner;
+
+/**
+ * Serializer serialize 어드바이스 클래스<br>
+ * 직렬화 수행 시간 및 직렬화 결과 크기를 토픽 및 구현 클래스별로 수집함
+ * 
+ * @author jmsohn
+ */
+public class SerializerAdvice extends SerdeAdvice {
+	
+	/**
+	 * Serializer.serialize 진입시
+	 * 
+	 * @param serializer Serializer 객체
+	 * @param sample 샘플링 결과(로컬 변수)
+	 * @param prev 이전에 수행 중이던 객체(로컬 변수)
+	 * @return 진입 시간 - 수집하지 않을 경우 0
+	 */
+	@Advice.OnMethodEnter
+	public static long onEnter(
+		@Advice.This Object serializer,
+		@Advice.Local("sample") int sample,
+		@Advice.Local("prev") Object prev
+	) {
+		
+		// 같은 객체의 중첩 호출은 샘플링 여부와 관계 없이 수집하지 않음 - 샘플링 전에 검사
+		prev = enter(serializer);
+		
+		if(prev == serializer) {
+			sample = Sampler.SKIP;
+			return 0;
+		}
+		
+		sample = sample();
+		
+		if(sample == Sampler.SKIP) {
+			return 0;
+		}
+		
+		return System.nanoTime();
+	}
+	
+	/**
+	 * Serializer.serialize 종료시
+	 * 
+	 * @param serializer Serializer 객체
+	 * @param topic 토픽 명
+	 * @param serialized 직렬화 결과
+	 * @param thrown 발생한 예외, 정상 종료시 null
+	 * @param enterTime 진입 시간
+	 * @param sample 샘플링 결과(로컬 변수)
+	 * @param prev 이전에 수행 중이던 객체(로컬 변수)
+	 */
+	@Advice.OnMethodExit(onThrowable = Throwable.class)
+	public static void onExit(
+		@Advice.This Object serializer,
+		@Advice.Argument(0) String topic,
+		@Advice.Return(typing = Assigner.Typing.DYNAMIC) Object serialized,
+		@Advice.Thrown Throwable thrown,
+		@Advice.Enter long enterTime,
+		@Advice.Local("sample") int sample,
+		@Advice.Local("prev") Object prev
+	) {
+		
+		if(sample == Sampler.SKIP) {
+			leave(prev);
+			return;
+		}
+		
+		long elapsed = System.nanoTime() - enterTime;
+		exit(false, serializer, prev, topic, sample, elapsed, payloadSize(serialized), thrown != null);
+	}
+}
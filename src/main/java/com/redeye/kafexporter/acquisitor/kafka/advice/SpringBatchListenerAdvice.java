@@ -0,0 +1,67 @@
+package com.redeye.kafexporter.acquisitor.kafka.advice;
+
+import java.util.List;
+
+import com.redeye.kafexporter.util.stat.Sampler;
+
+import net.bytebuddy.asm.Advice;
+
+/**
+ * Spring Kafka 배치 리스너 호출 어드바이스 클래스<br>
+ * ListenerConsumer.doInvokeBatchOnMessage(ConsumerRecords, List) 의 수행 시간을 리스너 처리 시간으로,<br>
+ * 전달된 레코드 수를 호출당 레코드 수로 수집함
+ * 
+ * @author jmsohn
+ */
+public class SpringBatchListenerAdvice extends SpringListenerAdvice {
+	
+	/**
+	 * ListenerConsumer.doInvokeBatchOnMessage 진입시
+	 * 
+	 * @param listenerConsumer ListenerConsumer 객체
+	 * @param clientOrdinal 클라이언트 순번(로컬 변수)
+	 * @param sample 샘플링 결과(로컬 변수)
+	 * @return 진입 시간 - 수집하지 않을 경우 0
+	 */
+	@Advice.OnMethodEnter
+	public static long onEnter(
+		@Advice.This Object listenerConsumer,
+		@Advice.Local("clientOrdinal") int clientOrdinal,
+		@Advice.Local("sample") int sample
+	) {
+		
+		clientOrdinal = getClientOrdinal(listenerConsumer);
+		sample = sample(batchListenerTimeStatDaemon, clientOrdinal);
+		
+		return (sample == Sampler.SKIP)?0:System.nanoTime();
+	}
+	
+	/**
+	 * ListenerConsumer.doInvokeBatchOnMessage 종료시
+	 * 
+	 * @param records ConsumerRecords 객체
+	 * @param recordList 리스너에 전달된 레코드 목록 - 리스너가 ConsumerRecords 를 받는 경우 null 일 수 있음
+	 * @param thrown 발생한 예외, 정상 종료시 null
+	 * @param enterTime 진입 시간
+	 * @param clientOrdinal 클라이언트 순번(로컬 변수)
+	 * @param sample 샘플링 결과(로컬 변수)
+	 */
+	@Advice.OnMethodExit(onThrowable = Throwable.class)
+	public static void onExit(
+		@Advice.Argument(0) Object records,
+		@Advice.Argument(1) List<?> recordList,
+		@Advice.Thrown Throwable thrown,
+		@Advice.Enter long enterTime,
+		@Advice.Local("clientOrdinal") int clientOrdinal,
+		@Advice.Local("sample") int sample
+	) {
+		
+		int recordCount = 0;
+		
+		if(sample != Sampler.SKIP) {
+			recordCount = (recordList != null)?recordList.size():ConsumerRecordsReader.count(records);
+		}
+		
+		send(batchListenerTimeStatDaemon, clientOrdinal, sample, enterTime, recordCount, thrown != null);
+	}
+}
@@ -0,0 +1,147 @@
+package com.redeye.kafexporter.acquisitor.kafka.advice;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import com.redeye.kafexporter.acquisitor.kafka.ClientRegistry;
+import com.redeye.kafexporter.acquisitor.kafka.stat.OverheadMeter;
+import com.redeye.kafexporter.acquisitor.kafka.stat.TimeStatDaemon;
+import com.redeye.kafexporter.util.stat.Sampler;
+
+/**
+ * Spring Kafka 리스너 호출(KafkaMessageListenerContainer$ListenerConsumer) 어드바이스 상위(공통) 클래스<br>
+ * 리스너 컨테이너마다 하나의 컨슈머를 사용하므로 컨슈머의 클라이언트 아이디로 리스너를 구분하며,<br>
+ * 클라이언트 아이디는 ListenerConsumer 의 clientId 필드에서 한번 읽어 캐시함<br>
+ * 예외 발생 수는 샘플링과 관계 없이 모두 수집함
+ * 
+ * @author jmsohn
+ */
+public class SpringListenerAdvice {
+	
+	// 아래의 멤버 변수 및 메소드는 public 이어야 함 - 어드바이스 코드가 Spring 클래스에 인라인되어 호출됨
+	
+	/** 레코드 리스너 시간 통계 데몬 */
+	public static TimeStatDaemon recordListenerTimeStatDaemon;
+	
+	/** 배치 리스너 시간 통계 데몬 */
+	public static TimeStatDaemon batchListenerTimeStatDaemon;
+	
+	/** 어드바이스 부하 측정 객체 */
+	public static final OverheadMeter overheadMeter = OverheadMeter.of("listener");
+	
+	
+	/** ListenerConsumer.clientId 필드 읽기 핸들 - 클래스별 캐시 */
+	private static final ClassValue<MethodHandle> CLIENT_ID = new FieldGetter("clientId", MethodType.methodType(Object.class, Object.class));
+	
+	/**
+	 * ListenerConsumer 객체별 클라이언트 순번 맵<br>
+	 * ListenerConsumer 는 equals/hashCode 를 재정의하지 않으므로 객체 단위로 구분되며,<br>
+	 * 리스너 컨테이너가 정지되면 함께 제거됨
+	 */
+	private static final Map<Object, Integer> listenerConsumerMap = Collections.synchronizedMap(new WeakHashMap<>());
+	
+	
+	/**
+	 * 초기화
+	 * 
+	 * @param recordListenerTimeStatDaemon 레코드 리스너 시간 통계 데몬
+	 * @param batchListenerTimeStatDaemon 배치 리스너 시간 통계 데몬
+	 */
+	public static void init(TimeStatDaemon recordListenerTimeStatDaemon, TimeStatDaemon batchListenerTimeStatDaemon) {
+		SpringListenerAdvice.recordListenerTimeStatDaemon = recordListenerTimeStatDaemon;
+		SpringListenerAdvice.batchListenerTimeStatDaemon = batchListenerTimeStatDaemon;
+	}
+	
+	/**
+	 * ListenerConsumer 객체의 클라이언트 순번 반환
+	 * 
+	 * @param listenerConsumer ListenerConsumer 객체
+	 * @return 클라이언트 순번, 찾을 수 없을 경우 ClientRegistry.NONE
+	 */
+	public static int getClientOrdinal(Object listenerConsumer) {
+		
+		Integer clientOrdinal = listenerConsumerMap.get(listenerConsumer);
+		
+		if(clientOrdinal == null) {
+			clientOrdinal = ClientRegistry.getOrRegister(readClientId(listenerConsumer));
+			listenerConsumerMap.put(listenerConsumer, clientOrdinal);
+		}
+		
+		return clientOrdinal;
+	}
+	
+	/**
+	 * ListenerConsumer 객체의 클라이언트 아이디 반환
+	 * 
+	 * @param listenerConsumer ListenerConsumer 객체
+	 * @return 클라이언트 아이디, 읽을 수 없을 경우 null
+	 */
+	private static String readClientId(Object listenerConsumer) {
+		
+		MethodHandle handle = CLIENT_ID.get(listenerConsumer.getClass());
+		if(handle == null) {
+			return null;
+		}
+		
+		try {
+			Object clientId = (Object)handle.invokeExact(listenerConsumer);
+			return (clientId instanceof String)?(String)clientId:null;
+		} catch(Throwable th) {
+			return null;
+		}
+	}
+	
+	/**
+	 * 리스너 호출의 수집 여부 결정
+	 * 
+	 * @param timeStatDaemon 시간 통계 데몬
+	 * @param clientOrdinal 클라이언트 순번
+	 * @return 샘플링 결과 - 수집하지 않을 경우 Sampler.SKIP
+	 */
+	public static int sample(TimeStatDaemon timeStatDaemon, int clientOrdinal) {
+		
+		if(timeStatDaemon == null || clientOrdinal == ClientRegistry.NONE) {
+			return Sampler.SKIP;
+		}
+		
+		return timeStatDaemon.getSampler().sample(clientOrdinal);
+	}
+	
+	/**
+	 * 리스너 호출 시간 및 레코드 수를 처리자에게 전송<br>
+	 * 샘플링되지 않은 호출은 예외 발생시 예외 발생 수만 전송함
+	 * 
+	 * @param timeStatDaemon 시간 통계 데몬
+	 * @param clientOrdinal 클라이언트 순번
+	 * @param sample 샘플링 결과
+	 * @param enterTime 진입 시간 - System.nanoTime
+	 * @param recordCount 호출당 레코드 수
+	 * @param error 예외 발생 여부
+	 */
+	public static void send(TimeStatDaemon timeStatDaemon, int clientOrdinal, int sample, long enterTime, int recordCount, boolean error) {
+		
+		if(timeStatDaemon == null || clientOrdinal == ClientRegistry.NONE) {
+			return;
+		}
+		
+		if(sample == Sampler.SKIP) {
+			
+			if(error == true) {
+				timeStatDaemon.sendError(clientOrdinal);
+			}
+			
+			return;
+		}
+		
+		// 종료 시간
+		long exitTime = System.nanoTime();
+		long token = overheadMeter.start();
+		
+		timeStatDaemon.send(clientOrdinal, sample, enterTime, exitTime, recordCount, -1, error);
+		
+		overheadMeter.stop(token, exitTime - enterTime);
+	}
+}
@@ -0,0 +1,54 @@
+package com.redeye.kafexporter.acquisitor.kafka.advice;
+
+import com.redeye.kafexporter.util.stat.Sampler;
+
+import net.bytebuddy.asm.Advice;
+
+/**
+ * Spring Kafka 레코드 리스너 호출 어드바이스 클래스<br>
+ * ListenerConsumer.doInvokeOnMessage(ConsumerRecord) 의 수행 시간을 리스너 처리 시간으로 수집함<br>
+ * 리스너에서 발생한 예외는 에러 핸들러 처리 전에 이 메소드 밖으로 전달되므로 예외 발생 수로 수집됨
+ * 
+ * @author jmsohn
+ */
+public class SpringRecordListenerAdvice extends SpringListenerAdvice {
+	
+	/**
+	 * ListenerConsumer.doInvokeOnMessage 진입시
+	 * 
+	 * @param listenerConsumer ListenerConsumer 객체
+	 * @param clientOrdinal 클라이언트 순번(로컬 변수)
+	 * @param sample 샘플링 결과(로컬 변수)
+	 * @return 진입 시간 - 수집하지 않을 경우 0
+	 */
+	@Advice.OnMethodEnter
+	public static long onEnter(
+		@Advice.This Object listenerConsumer,
+		@Advice.Local("clientOrdinal") int clientOrdinal,
+		@Advice.Local("sample") int sample
+	) {
+		
+		clientOrdinal = getClientOrdinal(listenerConsumer);
+		sample = sample(recordListenerTimeStatDaemon, clientOrdinal);
+		
+		return (sample == Sampler.SKIP)?0:System.nanoTime();
+	}
+	
+	/**
+	 * ListenerConsumer.doInvokeOnMessage 종료시
+	 * 
+	 * @param thrown 발생한 예외, 정상 종료시 null
+	 * @param enterTime 진입 시간
+	 * @param clientOrdinal 클라이언트 순번(로컬 변수)
+	 * @param sample 샘플링 결과(로컬 변수)
+	 */
+	@Advice.OnMethodExit(onThrowable = Throwable.class)
+	public static void onExit(
+		@Advice.Thrown Throwable thrown,
+		@Advice.Enter long enterTime,
+		@Advice.Local("clientOrdinal") int clientOrdinal,
+		@Advice.Local("sample") int sample
+	) {
+		send(recordListenerTimeStatDaemon, clientOrdinal, sample, enterTime, 1, thrown != null);
+	}
+}
@@ -0,0 +1,52 @@
+package com.redeye.kafexporter.acquisitor.kafka.advice;
+
+import com.redeye.kafexporter.acquisitor.kafka.stat.StreamsTaskStatDaemon;
+import com.redeye.kafexporter.util.stat.Sampler;
+
+import net.bytebuddy.asm.Advice;
+
+/**
+ * Kafka Streams 태스크 레코드 처리 어드바이스 클래스<br>
+ * StreamTask.process 는 레코드 한건마다 호출되므로 샘플링하며,<br>
+ * 처리할 레코드가 없어 false 를 반환한 호출은 제외함
+ * 
+ * @author jmsohn
+ */
+public class StreamTaskProcessAdvice extends StreamsAdvice {
+	
+	/**
+	 * StreamTask.process 진입시
+	 * 
+	 * @param sample 샘플링 결과(로컬 변수)
+	 * @return 진입 시간 - 수집하지 않을 경우 0
+	 */
+	@Advice.OnMethodEnter
+	public static long onEnter(
+		@Advice.Local("sample") int sample
+	) {
+		
+		sample = sampleTask();
+		return (sample == Sampler.SKIP)?0:System.nanoTime();
+	}
+	
+	/**
+	 * StreamTask.process 종료시
+	 * 
+	 * @param task 스트림 태스크 객체
+	 * @param enterTime 진입 시간
+	 * @param processed 레코드 처리 여부
+	 * @param sample 샘플링 결과(로컬 변수)
+	 */
+	@Advice.OnMethodExit
+	public static void onExit(
+		@Advice.This Object task,
+		@Advice.Enter long enterTime,
+		@Advice.Return boolean processed,
+		@Advice.Local("sample") int sample
+	) {
+		
+		if(processed == true) {
+			sendTask(task, StreamsTaskStatDaemon.Work.PROCESS, sample, enterTime);
+		}
+	}
+}
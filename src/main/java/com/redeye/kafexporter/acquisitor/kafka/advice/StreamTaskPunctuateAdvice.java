@@ -0,0 +1,41 @@
+package com.redeye.kafexporter.acquisitor.kafka.advice;
+
+import com.redeye.kafexporter.acquisitor.kafka.stat.StreamsTaskStatDaemon;
+
+import net.bytebuddy.asm.Advice;
+
+/**
+ * Kafka Streams 태스크 펑추에이트 어드바이스 클래스<br>
+ * StreamTask.punctuate 는 펑추에이터 호출마다 한번 수행되며 빈도가 낮으므로 샘플링 없이 모두 수집함
+ * 
+ * @author jmsohn
+ */
+public class StreamTaskPunctuateAdvice extends StreamsAdvice {
+	
+	/** 샘플링 없이 수집하는 호출의 샘플링 결과 - 가중치 1 */
+	public static final int NO_SAMPLING = 1;
+	
+	/**
+	 * StreamTask.punctuate 진입시
+	 * 
+	 * @return 진입 시간 - System.nanoTime
+	 */
+	@Advice.OnMethodEnter
+	public static long onEnter() {
+		return System.nanoTime();
+	}
+	
+	/**
+	 * StreamTask.punctuate 종료시
+	 * 
+	 * @param task 스트림 태스크 객체
+	 * @param enterTime 진입 시간
+	 */
+	@Advice.OnMethodExit
+	public static void onExit(
+		@Advice.This Object task,
+		@Advice.Enter long enterTime
+	) {
+		sendTask(task, StreamsTaskStatDaemon.Work.PUNCTUATE, NO_SAMPLING, enterTime);
+	}
+}
@@ -0,0 +1,42 @@
+package com.redeye.kafexporter.acquisitor.kafka.advice;
+
+import net.bytebuddy.asm.Advice;
+
+/**
+ * Kafka Streams 스트림 스레드 커밋 어드바이스 클래스<br>
+ * StreamThread.maybeCommit 에서 실제로 태스크를 커밋한 경우의 수행 시간을 수집함<br>
+ * 커밋 주기(commit.interval.ms)가 되지 않아 커밋하지 않은 호출은 제외함
+ * 
+ * @author jmsohn
+ */
+public class StreamThreadCommitAdvice extends StreamsAdvice {
+	
+	/**
+	 * StreamThread.maybeCommit 진입시
+	 * 
+	 * @return 진입 시간 - System.nanoTime
+	 */
+	@Advice.OnMethodEnter
+	public static long onEnter() {
+		return System.nanoTime();
+	}
+	
+	/**
+	 * StreamThread.maybeCommit 종료시
+	 * 
+	 * @param streamThread 스트림 스레드 객체
+	 * @param enterTime 진입 시간 - System.nanoTime
+	 * @param committed 커밋한 태스크 수
+	 */
+	@Advice.OnMethodExit
+	public static void onExit(
+		@Advice.This Object streamThread,
+		@Advice.Enter long enterTime,
+		@Advice.Return int committed
+	) {
+		
+		if(committed > 0) {
+			sendEnterExitTime(streamsCommitTimeStatDaemon, overheadMeter, getMainConsumer(streamThread), enterTime);
+		}
+	}
+}
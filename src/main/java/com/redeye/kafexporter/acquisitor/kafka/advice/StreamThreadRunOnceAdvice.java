@@ -0,0 +1,36 @@
+package com.redeye.kafexporter.acquisitor.kafka.advice;
+
+import net.bytebuddy.asm.Advice;
+
+/**
+ * Kafka Streams 스트림 스레드 루프 어드바이스 클래스<br>
+ * StreamThread.runOnce 의 수행 시간(poll, 레코드 처리, 펑추에이트, 커밋을 포함한 한번의 루프) 및 루프 간격을 수집함
+ * 
+ * @author jmsohn
+ */
+public class StreamThreadRunOnceAdvice extends StreamsAdvice {
+	
+	/**
+	 * StreamThread.runOnce 진입시
+	 * 
+	 * @return 진입 시간 - System.nanoTime
+	 */
+	@Advice.OnMethodEnter
+	public static long onEnter() {
+		return System.nanoTime();
+	}
+	
+	/**
+	 * StreamThread.runOnce 종료시
+	 * 
+	 * @param streamThread 스트림 스레드 객체
+	 * @param enterTime 진입 시간 - System.nanoTime
+	 */
+	@Advice.OnMethodExit
+	public static void onExit(
+		@Advice.This Object streamThread,
+		@Advice.Enter long enterTime
+	) {
+		sendEnterExitTime(streamThreadTimeStatDaemon, overheadMeter, getMainConsumer(streamThread), enterTime);
+	}
+}
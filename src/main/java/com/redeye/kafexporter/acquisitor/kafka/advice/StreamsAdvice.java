@@ -0,0 +1,167 @@
+package com.redeye.kafexporter.acquisitor.kafka.advice;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+
+import com.redeye.kafexporter.acquisitor.kafka.ClientRegistry;
+import com.redeye.kafexporter.acquisitor.kafka.stat.OverheadMeter;
+import com.redeye.kafexporter.acquisitor.kafka.stat.StreamsTaskStatDaemon;
+import com.redeye.kafexporter.acquisitor.kafka.stat.TimeStatDaemon;
+import com.redeye.kafexporter.util.stat.Sampler;
+
+/**
+ * Kafka Streams(StreamThread, StreamTask) 어드바이스 상위(공통) 클래스<br>
+ * 스트림 스레드마다 하나의 메인 컨슈머를 사용하므로 메인 컨슈머의 클라이언트 순번으로 스레드/태스크를 구분하며,<br>
+ * 컨슈머 poll 통계와 같은 클라이언트 아이디로 통계가 수집됨<br>
+ * 메인 컨슈머는 StreamThread, StreamTask 의 mainConsumer 필드에서 읽음
+ * 
+ * @author jmsohn
+ */
+public class StreamsAdvice extends ClientTimeAdvice {
+	
+	// 아래의 멤버 변수 및 메소드는 public 이어야 함 - 어드바이스 코드가 Kafka Streams 클래스에 인라인되어 호출됨
+	
+	/** 스트림 스레드 루프(runOnce) 시간 통계 데몬 */
+	public static TimeStatDaemon streamThreadTimeStatDaemon;
+	
+	/** 스트림 스레드 커밋 시간 통계 데몬 */
+	public static TimeStatDaemon streamsCommitTimeStatDaemon;
+	
+	/** 스트림 태스크 수행 통계 데몬 */
+	public static StreamsTaskStatDaemon streamsTaskStatDaemon;
+	
+	/** 어드바이스 부하 측정 객체 */
+	public static final OverheadMeter overheadMeter = OverheadMeter.of("streams");
+	
+	
+	/** mainConsumer 필드 읽기 핸들 - 클래스별 캐시 */
+	private static final ClassValue<MethodHandle> MAIN_CONSUMER = new FieldGetter("mainConsumer", MethodType.methodType(Object.class, Object.class));
+	
+	/** AbstractTask.id 필드 읽기 핸들 - 클래스별 캐시 */
+	private static final ClassValue<MethodHandle> TASK_ID = new FieldGetter("id", MethodType.methodType(Object.class, Object.class));
+	
+	/** TaskId.subtopology() 메소드 핸들 - 클래스별 캐시 */
+	private static final ClassValue<MethodHandle> SUBTOPOLOGY = new ConsumerRecordsReader.IntGetter("subtopology");
+	
+	/** TaskId.partition() 메소드 핸들 - 클래스별 캐시 */
+	private static final ClassValue<MethodHandle> PARTITION = new ConsumerRecordsReader.IntGetter("partition");
+	
+	
+	/**
+	 * 초기화
+	 * 
+	 * @param streamThreadTimeStatDaemon 스트림 스레드 루프 시간 통계 데몬
+	 * @param streamsCommitTimeStatDaemon 스트림 스레드 커밋 시간 통계 데몬
+	 * @param streamsTaskStatDaemon 스트림 태스크 수행 통계 데몬
+	 */
+	public static void init(TimeStatDaemon streamThreadTimeStatDaemon, TimeStatDaemon streamsCommitTimeStatDaemon, StreamsTaskStatDaemon streamsTaskStatDaemon) {
+		StreamsAdvice.streamThreadTimeStatDaemon = streamThreadTimeStatDaemon;
+		StreamsAdvice.streamsCommitTimeStatDaemon = streamsCommitTimeStatDaemon;
+		StreamsAdvice.streamsTaskStatDaemon = streamsTaskStatDaemon;
+	}
+	
+	/**
+	 * StreamThread/StreamTask 객체의 메인 컨슈머 반환
+	 * 
+	 * @param streamsObject StreamThread 또는 StreamTask 객체
+	 * @return 메인 컨슈머 객체, 읽을 수 없을 경우 null
+	 */
+	public static Object getMainConsumer(Object streamsObject) {
+		
+		if(streamsObject == null) {
+			return null;
+		}
+		
+		MethodHandle handle = MAIN_CONSUMER.get(streamsObject.getClass());
+		if(handle == null) {
+			return null;
+		}
+		
+		try {
+			return (Object)handle.invokeExact(streamsObject);
+		} catch(Throwable th) {
+			return null;
+		}
+	}
+	
+	/**
+	 * StreamTask 객체의 태스크 키 반환<br>
+	 * TaskId 의 서브 토폴로지 번호와 파티션 번호를 묶은 값이며, 객체 생성 없음
+	 * 
+	 * @param task StreamTask 객체
+	 * @return 태스크 키, 읽을 수 없을 경우 -1
+	 */
+	public static long getTaskKey(Object task) {
+		
+		MethodHandle idHandle = TASK_ID.get(task.getClass());
+		if(idHandle == null) {
+			return -1;
+		}
+		
+		try {
+			
+			Object taskId = (Object)idHandle.invokeExact(task);
+			if(taskId == null) {
+				return -1;
+			}
+			
+			MethodHandle subtopologyHandle = SUBTOPOLOGY.get(taskId.getClass());
+			MethodHandle partitionHandle = PARTITION.get(taskId.getClass());
+			
+			if(subtopologyHandle == null || partitionHandle == null) {
+				return -1;
+			}
+			
+			return StreamsTaskStatDaemon.toTaskKey(
+				(int)subtopologyHandle.invokeExact(taskId),
+				(int)partitionHandle.invokeExact(taskId)
+			);
+			
+		} catch(Throwable th) {
+			return -1;
+		}
+	}
+	
+	/**
+	 * 태스크 작업의 수집 여부 결정
+	 * 
+	 * @return 샘플링 결과 - 수집하지 않을 경우 Sampler.SKIP
+	 */
+	public static int sampleTask() {
+		
+		if(streamsTaskStatDaemon == null) {
+			return Sampler.SKIP;
+		}
+		
+		// 태스크 작업은 호출 간격을 계산하지 않으므로 짝 샘플 없이 샘플링함
+		return streamsTaskStatDaemon.getSampler().sample(-1);
+	}
+	
+	/**
+	 * 태스크 작업 수행 시간을 처리자에게 전송
+	 * 
+	 * @param task StreamTask 객체
+	 * @param work 작업 종류
+	 * @param sample 샘플링 결과
+	 * @param enterTime 진입 시간 - System.nanoTime
+	 */
+	public static void sendTask(Object task, StreamsTaskStatDaemon.Work work, int sample, long enterTime) {
+		
+		if(streamsTaskStatDaemon == null || task == null || sample == Sampler.SKIP) {
+			return;
+		}
+		
+		// 종료 시간
+		long exitTime = System.nanoTime();
+		long token = overheadMeter.start();
+		
+		int clientOrdinal = KafkaConsumerConstructorAdvice.getClientOrdinal(getMainConsumer(task));
+		long taskKey = getTaskKey(task);
+		
+		if(clientOrdinal != ClientRegistry.NONE && taskKey >= 0) {
+			streamsTaskStatDaemon.send(clientOrdinal, work, sample, taskKey, exitTime - enterTime);
+		}
+		
+		overheadMeter.stop(token, exitTime - enterTime);
+	}
+}
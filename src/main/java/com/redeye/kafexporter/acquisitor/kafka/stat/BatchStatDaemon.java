@@ -0,0 +1,297 @@
+package com.redeye.kafexporter.acquisitor.kafka.stat;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import com.redeye.kafexporter.acquisitor.kafka.ClientRegistry;
+import com.redeye.kafexporter.acquisitor.kafka.TopicRegistry;
+import com.redeye.kafexporter.util.stat.Parameter;
+
+/**
+ * 프로듀서 배치 통계 데몬 클래스<br>
+ * 수집 데이터는 (클라이언트 순번/토픽 순번, 레코드 수(상위 32bit)/배치 크기(하위 32bit), 대기 시간) long 레코드로<br>
+ * 스레드별 링 버퍼에 저장되며, 데몬 스레드가 주기적으로 수집하여 클라이언트 및 토픽별 통계 데이터를 생성함(RingStatDaemon 참고)<br>
+ * 배치 통계는 다음과 같음<br>
+ * - records: 배치당 레코드 수<br>
+ * - bytes: 배치의 예상 크기 - 단위: byte<br>
+ * - lingerWait: 배치 생성부터 Sender 가 꺼낼 때까지의 대기 시간 - 단위: ms
+ * 
+ * @author jmsohn
+ */
+public class BatchStatDaemon extends RingStatDaemon {
+	
+	
+	/** 레코드 크기 - 클라이언트 순번/토픽 순번, 레코드 수/배치 크기, 대기 시간 */
+	private static final int RECORD_SIZE = 3;
+	
+	/** 하위 32bit 마스크 */
+	private static final long LOW_MASK = 0xFFFFFFFFL;
+	
+	
+	/** 클라이언트 순번별 통계 데이터 - index: 클라이언트 순번, 데몬 스레드만 변경 */
+	private volatile ClientBatchStat[] clientBatchStats = new ClientBatchStat[16];
+	
+	
+	/**
+	 * 생성자
+	 */
+	public BatchStatDaemon() {
+		super(RECORD_SIZE);
+	}
+	
+	/**
+	 * 배치 데이터를 현재 스레드의 링 버퍼에 저장
+	 * 
+	 * @param clientOrdinal 클라이언트 순번
+	 * @param topicOrdinal 토픽 순번
+	 * @param recordCount 배치의 레코드 수
+	 * @param sizeInBytes 배치의 예상 크기 - 단위: byte, 알 수 없을 경우 음수
+	 * @param waitMs 배치 생성부터 drain 까지의 대기 시간 - 단위: ms
+	 */
+	public void send(int clientOrdinal, int topicOrdinal, int recordCount, int sizeInBytes, long waitMs) {
+		
+		long key = (clientOrdinal & LOW_MASK) | ((topicOrdinal & LOW_MASK) << 32);
+		long size = ((recordCount & LOW_MASK) << 32) | (sizeInBytes & LOW_MASK);
+		
+		this.getRing().offer(key, size, waitMs);
+	}
+	
+	/**
+	 * 배치 레코드로 통계 정보 생성
+	 * 
+	 * @param record 배치 레코드 - 클라이언트 순번/토픽 순번, 레코드 수/배치 크기, 대기 시간
+	 */
+	@Override
+	protected void process(long[] record) {
+		
+		int clientOrdinal = (int)(record[0] & LOW_MASK);
+		int topicOrdinal = (int)(record[0] >>> 32);
+		int recordCount = (int)(record[1] >>> 32);
+		int sizeInBytes = (int)(record[1] & LOW_MASK);
+		long waitMs = record[2];
+		
+		ClientBatchStat clientStat = this.getOrCreateStat(clientOrdinal);
+		
+		clientStat.totalStat.add(recordCount, sizeInBytes, waitMs);
+		clientStat.getOrCreateTopicStat(topicOrdinal).add(recordCount, sizeInBytes, waitMs);
+	}
+	
+	/**
+	 * 클라이언트 순번의 통계 데이터 반환, 없을 경우 생성<br>
+	 * 데몬 스레드에서만 호출됨
+	 * 
+	 * @param clientOrdinal 클라이언트 순번
+	 * @return 통계 데이터
+	 */
+	private ClientBatchStat getOrCreateStat(int clientOrdinal) {
+		
+		ClientBatchStat[] curStats = this.clientBatchStats;
+		
+		if(clientOrdinal >= curStats.length) {
+			curStats = Arrays.copyOf(curStats, Math.max(curStats.length * 2, clientOrdinal + 1));
+			this.clientBatchStats = curStats;
+		}
+		
+		ClientBatchStat batchStat = curStats[clientOrdinal];
+		
+		if(batchStat == null) {
+			batchStat = new ClientBatchStat();
+			curStats[clientOrdinal] = batchStat;
+			this.clientBatchStats = curStats;
+		}
+		
+		return batchStat;
+	}
+	
+	/**
+	 * 종료된 클라이언트의 통계 데이터 제거
+	 * 
+	 * @param clientOrdinal 클라이언트 순번
+	 */
+	@Override
+	protected void evictClient(int clientOrdinal) {
+		
+		ClientBatchStat[] curStats = this.clientBatchStats;
+		
+		if(clientOrdinal < curStats.length) {
+			curStats[clientOrdinal] = null;
+			this.clientBatchStats = curStats;
+		}
+	}
+	
+	/**
+	 * 통계 데이터가 있는 클라이언트 아이디 목록 반환
+	 * 
+	 * @return 클라이언트 아이디 목록
+	 */
+	public Set<String> getClientIdSet() {
+		
+		Set<String> clientIdSet = new HashSet<>();
+		ClientBatchStat[] curStats = this.clientBatchStats;
+		
+		for(int clientOrdinal = 0; clientOrdinal < curStats.length; clientOrdinal++) {
+			
+			String clientId = ClientRegistry.getClientId(clientOrdinal);
+			
+			if(curStats[clientOrdinal] != null && clientId != null) {
+				clientIdSet.add(clientId);
+			}
+		}
+		
+		return clientIdSet;
+	}
+	
+	/**
+	 * 클라이언트 아이디의 배치 통계정보 반환<br>
+	 * 설정 값이 주어진 경우 설정 대비 비율을 함께 반환함<br>
+	 * - batchSizeFillRatio: 평균 배치 크기 / batch.size<br>
+	 * - lingerRatio: 평균 대기 시간 / linger.ms
+	 * 
+	 * @param clientId 클라이언트 아이디
+	 * @param batchSize batch.size 설정 값 - 0 이하일 경우 비율 미계산
+	 * @param lingerMs linger.ms 설정 값 - 0 이하일 경우 비율 미계산
+	 * @return 배치 통계 정보 맵 - total: 전체 통계, topic: 토픽별 통계, 없을 경우 빈 맵
+	 */
+	public Map<String, Object> getStat(String clientId, double batchSize, double lingerMs) {
+		
+		Map<String, Object> statMap = new LinkedHashMap<>();
+		
+		int clientOrdinal = ClientRegistry.getOrdinal(clientId);
+		ClientBatchStat[] curStats = this.clientBatchStats;
+		
+		if(clientOrdinal == ClientRegistry.NONE || clientOrdinal >= curStats.length || curStats[clientOrdinal] == null) {
+			return statMap;
+		}
+		
+		ClientBatchStat clientStat = curStats[clientOrdinal];
+		
+		// 전체 통계
+		statMap.put("total", clientStat.totalStat.toMap(batchSize, lingerMs));
+		
+		// 토픽별 통계
+		Map<String, Object> topicStatMap = new TreeMap<>();
+		BatchStat[] curTopicStats = clientStat.topicStats;
+		
+		for(int topicOrdinal = 0; topicOrdinal < curTopicStats.length; topicOrdinal++) {
+			
+			String topic = TopicRegistry.getTopic(topicOrdinal);
+			
+			if(curTopicStats[topicOrdinal] != null && topic != null) {
+				topicStatMap.put(topic, curTopicStats[topicOrdinal].toMap(batchSize, lingerMs));
+			}
+		}
+		
+		statMap.put("topic", topicStatMap);
+		
+		return statMap;
+	}
+	
+	
+	/**
+	 * 클라이언트별 배치 통계 데이터 클래스
+	 * 
+	 * @author jmsohn
+	 */
+	private static class ClientBatchStat {
+		
+		/** 클라이언트 전체 통계 데이터 */
+		final BatchStat totalStat = new BatchStat();
+		
+		/** 토픽 순번별 통계 데이터 - index: 토픽 순번, 데몬 스레드만 변경 */
+		volatile BatchStat[] topicStats = new BatchStat[16];
+		
+		/**
+		 * 토픽 순번의 통계 데이터 반환, 없을 경우 생성
+		 * 
+		 * @param topicOrdinal 토픽 순번
+		 * @return 통계 데이터
+		 */
+		BatchStat getOrCreateTopicStat(int topicOrdinal) {
+			
+			BatchStat[] curStats = this.topicStats;
+			
+			if(topicOrdinal >= curStats.length) {
+				curStats = Arrays.copyOf(curStats, Math.max(curStats.length * 2, topicOrdinal + 1));
+				this.topicStats = curStats;
+			}
+			
+			BatchStat topicStat = curStats[topicOrdinal];
+			
+			if(topicStat == null) {
+				topicStat = new BatchStat();
+				curStats[topicOrdinal] = topicStat;
+				this.topicStats = curStats;
+			}
+			
+			return topicStat;
+		}
+	}
+	
+	/**
+	 * 배치 통계 데이터 클래스
+	 * 
+	 * @author jmsohn
+	 */
+	private static class BatchStat {
+		
+		/** 배치당 레코드 수 통계 데이터 */
+		final Parameter recordCountStat = new Parameter();
+		
+		/** 배치 크기 통계 데이터 - 단위: byte */
+		final Parameter bytesStat = new Parameter();
+		
+		/** 대기 시간 통계 데이터 - 단위: ms */
+		final Parameter lingerWaitStat = new Parameter();
+		
+		/**
+		 * 배치 데이터 추가
+		 * 
+		 * @param recordCount 배치의 레코드 수
+		 * @param sizeInBytes 배치의 예상 크기 - 음수일 경우 제외
+		 * @param waitMs 대기 시간 - 음수일 경우 제외(시계 보정 등)
+		 */
+		void add(int recordCount, int sizeInBytes, long waitMs) {
+			
+			this.recordCountStat.add(recordCount);
+			
+			if(sizeInBytes >= 0) {
+				this.bytesStat.add(sizeInBytes);
+			}
+			
+			if(waitMs >= 0) {
+				this.lingerWaitStat.add(waitMs);
+			}
+		}
+		
+		/**
+		 * 통계 정보를 맵 형태로 반환
+		 * 
+		 * @param batchSize batch.size 설정 값
+		 * @param lingerMs linger.ms 설정 값
+		 * @return 통계 정보 맵
+		 */
+		Map<String, Object> toMap(double batchSize, double lingerMs) {
+			
+			Map<String, Object> map = new LinkedHashMap<>();
+			
+			map.put("records", this.recordCountStat.toMap());
+			map.put("bytes", this.bytesStat.toMap());
+			map.put("lingerWait", this.lingerWaitStat.toMap());
+			
+			// 설정 대비 비율
+			if(batchSize > 0 && this.bytesStat.getCount() > 0) {
+				map.put("batchSizeFillRatio", this.bytesStat.getMean() / batchSize);
+			}
+			
+			if(lingerMs > 0 && this.lingerWaitStat.getCount() > 0) {
+				map.put("lingerRatio", this.lingerWaitStat.getMean() / lingerMs);
+			}
+			
+			return map;
+		}
+	}
+}
@@ -0,0 +1,164 @@
+package com.redeye.kafexporter.acquisitor.kafka.stat;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import com.redeye.kafexporter.acquisitor.kafka.ClientRegistry;
+
+/**
+ * 컨슈머 비동기 커밋 완료 지연 시간 통계 데몬 클래스<br>
+ * 수집 데이터는 (클라이언트 순번(및 플래그), 커밋 요청 시간, 완료 시간) long 레코드로 스레드별 링 버퍼에 저장되며,<br>
+ * 데몬 스레드가 주기적으로 모든 링 버퍼를 수집하여 클라이언트별 통계 데이터를 생성함(RingStatDaemon 참고)<br>
+ * 지연 시간은 commitAsync 호출부터 OffsetCommitCallback 호출까지의 시간임
+ * 
+ * @author jmsohn
+ */
+public class CommitStatDaemon extends RingStatDaemon {
+	
+	
+	/** 레코드 크기 - 클라이언트 순번(및 플래그), 커밋 요청 시간, 완료 시간 */
+	private static final int RECORD_SIZE = 3;
+	
+	/** 커밋 실패 여부 플래그 - 레코드의 첫번째 값의 최상위 비트에 설정 */
+	private static final long FLAG_ERROR = 1L << 63;
+	
+	/** 하위 32bit 마스크 */
+	private static final long LOW_MASK = 0xFFFFFFFFL;
+	
+	
+	/** 클라이언트 순번별 통계 데이터 - index: 클라이언트 순번, 데몬 스레드만 변경 */
+	private volatile LatencyStat[] clientCommitStats = new LatencyStat[16];
+	
+	
+	/**
+	 * 생성자
+	 */
+	public CommitStatDaemon() {
+		super(RECORD_SIZE);
+	}
+	
+	/**
+	 * 커밋 요청/완료 시간 데이터를 현재 스레드의 링 버퍼에 저장
+	 * 
+	 * @param clientOrdinal 클라이언트 순번
+	 * @param commitTime 커밋 요청 시간 - System.nanoTime
+	 * @param completeTime 완료 시간 - System.nanoTime
+	 * @param error 커밋 실패 여부
+	 */
+	public void send(int clientOrdinal, long commitTime, long completeTime, boolean error) {
+		
+		long key = clientOrdinal & LOW_MASK;
+		
+		if(error == true) {
+			key |= FLAG_ERROR;
+		}
+		
+		this.getRing().offer(key, commitTime, completeTime);
+	}
+	
+	/**
+	 * 커밋 레코드로 통계 정보 생성
+	 * 
+	 * @param record 커밋 레코드 - 클라이언트 순번(및 플래그), 커밋 요청 시간, 완료 시간
+	 */
+	@Override
+	protected void process(long[] record) {
+		
+		int clientOrdinal = (int)(record[0] & LOW_MASK);
+		boolean error = (record[0] & FLAG_ERROR) != 0;
+		long latency = record[2] - record[1];
+		
+		// 스레드간 순서가 어긋나 음수가 된 경우 무시
+		if(latency < 0) {
+			return;
+		}
+		
+		this.getOrCreateStat(clientOrdinal).add(latency, error);
+	}
+	
+	/**
+	 * 클라이언트 순번의 통계 데이터 반환, 없을 경우 생성<br>
+	 * 데몬 스레드에서만 호출됨
+	 * 
+	 * @param clientOrdinal 클라이언트 순번
+	 * @return 통계 데이터
+	 */
+	private LatencyStat getOrCreateStat(int clientOrdinal) {
+		
+		LatencyStat[] curStats = this.clientCommitStats;
+		
+		if(clientOrdinal >= curStats.length) {
+			curStats = Arrays.copyOf(curStats, Math.max(curStats.length * 2, clientOrdinal + 1));
+			this.clientCommitStats = curStats;
+		}
+		
+		LatencyStat commitStat = curStats[clientOrdinal];
+		
+		if(commitStat == null) {
+			commitStat = new LatencyStat();
+			curStats[clientOrdinal] = commitStat;
+			this.clientCommitStats = curStats;
+		}
+		
+		return commitStat;
+	}
+	
+	/**
+	 * 종료된 클라이언트의 통계 데이터 제거
+	 * 
+	 * @param clientOrdinal 클라이언트 순번
+	 */
+	@Override
+	protected void evictClient(int clientOrdinal) {
+		
+		LatencyStat[] curStats = this.clientCommitStats;
+		
+		if(clientOrdinal < curStats.length) {
+			curStats[clientOrdinal] = null;
+			this.clientCommitStats = curStats;
+		}
+	}
+	
+	/**
+	 * 통계 데이터가 있는 클라이언트 아이디 목록 반환
+	 * 
+	 * @return 클라이언트 아이디 목록
+	 */
+	public Set<String> getClientIdSet() {
+		
+		Set<String> clientIdSet = new HashSet<>();
+		LatencyStat[] curStats = this.clientCommitStats;
+		
+		for(int clientOrdinal = 0; clientOrdinal < curStats.length; clientOrdinal++) {
+			
+			String clientId = ClientRegistry.getClientId(clientOrdinal);
+			
+			if(curStats[clientOrdinal] != null && clientId != null) {
+				clientIdSet.add(clientId);
+			}
+		}
+		
+		return clientIdSet;
+	}
+	
+	/**
+	 * 클라이언트 아이디의 커밋 완료 지연 시간 통계정보 반환
+	 * 
+	 * @param clientId 클라이언트 아이디
+	 * @return 통계 정보 맵 - latency: 모수, percentile: 백분위 수, errorCount: 실패 수, 없을 경우 빈 맵
+	 */
+	public Map<String, Object> getStat(String clientId) {
+		
+		int clientOrdinal = ClientRegistry.getOrdinal(clientId);
+		LatencyStat[] curStats = this.clientCommitStats;
+		
+		if(clientOrdinal == ClientRegistry.NONE || clientOrdinal >= curStats.length || curStats[clientOrdinal] == null) {
+			return new LinkedHashMap<>();
+		}
+		
+		return curStats[clientOrdinal].toMap();
+	}
+}
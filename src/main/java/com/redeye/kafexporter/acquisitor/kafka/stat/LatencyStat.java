@@ -0,0 +1,70 @@
+package com.redeye.kafexporter.acquisitor.kafka.stat;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.redeye.kafexporter.util.stat.Histogram;
+import com.redeye.kafexporter.util.stat.Parameter;
+
+/**
+ * 지연 시간 통계 데이터 클래스<br>
+ * 평균 등 모수는 ms 단위, 백분위 수는 us 단위 히스토그램에서 ms 단위로 변환하여 제공하며,<br>
+ * 실패 수를 함께 관리함 - 통계 데몬 스레드에서만 추가함
+ * 
+ * @author jmsohn
+ */
+class LatencyStat {
+	
+	
+	/** ns 를 us 로 변환하기 위한 값 */
+	private static final long NANOS_PER_MICRO = 1000L;
+	
+	/** ns 를 ms 로 변환하기 위한 값 */
+	private static final double NANOS_PER_MILLI = 1000000.0;
+	
+	/** us 를 ms 로 변환하기 위한 값 */
+	private static final double MICROS_PER_MILLI = 1000.0;
+	
+	
+	/** 실패 수 */
+	private volatile long errorCount;
+	
+	/** 지연 시간 통계 데이터 - 단위: ms */
+	private final Parameter latencyStat = new Parameter();
+	
+	/** 지연 시간 히스토그램 - 단위: us */
+	private final Histogram latencyHistogram = new Histogram();
+	
+	
+	/**
+	 * 지연 시간 추가
+	 * 
+	 * @param latency 지연 시간 - 단위: ns
+	 * @param error 실패 여부
+	 */
+	void add(long latency, boolean error) {
+		
+		this.latencyStat.add(latency / NANOS_PER_MILLI);
+		this.latencyHistogram.add(latency / NANOS_PER_MICRO);
+		
+		if(error == true) {
+			this.errorCount++;
+		}
+	}
+	
+	/**
+	 * 통계 정보를 맵 형태로 반환
+	 * 
+	 * @return 통계 정보 맵 - latency: 모수, percentile: 백분위 수, errorCount: 실패 수
+	 */
+	Map<String, Object> toMap() {
+		
+		Map<String, Object> map = new LinkedHashMap<>();
+		
+		map.put("latency", this.latencyStat.toMap());
+		map.put("percentile", this.latencyHistogram.toMap(MICROS_PER_MILLI));
+		map.put("errorCount", this.errorCount);
+		
+		return map;
+	}
+}
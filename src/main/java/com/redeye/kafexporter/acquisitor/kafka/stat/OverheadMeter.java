@@ -0,0 +1,313 @@
+package com.redeye.kafexporter.acquisitor.kafka.stat;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import lombok.Getter;
+
+/**
+ * 어드바이스 자체 부하 측정 클래스<br>
+ * 샘플링된 호출에 대해서만 어드바이스 수행 시간(System.nanoTime)과 할당 메모리(ThreadMXBean)를 측정함<br>
+ * 샘플링되지 않은 호출은 난수 1회 생성 외의 비용이 없음<br>
+ * 할당 메모리는 JDK 14 이상에서 getCurrentThreadAllocatedBytes() 로 조회하며,<br>
+ * JDK 8 ~ 13 의 getThreadAllocatedBytes(스레드 아이디) 는 조회 자체가 JDK 내부에서 메모리를 할당하므로,<br>
+ * 기동시 빈 start/stop 쌍의 할당 메모리(조회 편향)를 측정하여 측정 값에서 차감함<br>
+ * 사용법: long token = meter.start(); ...어드바이스 처리...; meter.stop(token);
+ * 
+ * @author jmsohn
+ */
+public class OverheadMeter {
+	
+	
+	/** 샘플링되지 않은 호출의 토큰 */
+	public static final long NOT_SAMPLED = Long.MIN_VALUE;
+	
+	/** 기본 샘플링 비율 - 1/N 호출 측정 */
+	public static final int DEFAULT_SAMPLE_RATE = 64;
+	
+	/** 샘플링 비율 - 1/N 호출 측정, 0 이하일 경우 측정 안함 */
+	public static volatile int sampleRate = DEFAULT_SAMPLE_RATE;
+	
+	
+	/** 어드바이스 명별 부하 측정 객체 맵 */
+	private static final Map<String, OverheadMeter> meterMap = new ConcurrentHashMap<>();
+	
+	/** 스레드 할당 메모리 조회용 MXBean - 지원하지 않을 경우 null */
+	private static final com.sun.management.ThreadMXBean threadBean = createThreadBean();
+	
+	/** 현재 스레드 할당 메모리 조회 핸들(JDK 14 이상의 getCurrentThreadAllocatedBytes) - 지원하지 않을 경우 null */
+	private static final MethodHandle currentThreadAllocatedBytes = findCurrentThreadAllocatedBytes();
+	
+	/** 할당 메모리 조회 편향 - 측정 대상 없는 start/stop 쌍의 할당 메모리, 단위: byte */
+	private static final long allocationBias = measureAllocationBias();
+	
+	/** 샘플링된 호출의 시작 할당 메모리 - 스레드별 */
+	private static final ThreadLocal<long[]> startBytes = ThreadLocal.withInitial(() -> new long[1]);
+	
+	
+	/** 어드바이스 명 */
+	@Getter
+	private final String name;
+	
+	/** 측정 호출 수 */
+	private final LongAdder sampledCount = new LongAdder();
+	
+	/** 어드바이스 수행 시간 합계 - 단위: ns */
+	private final LongAdder adviceNanos = new LongAdder();
+	
+	/** 어드바이스 할당 메모리 합계 - 단위: byte */
+	private final LongAdder allocatedBytes = new LongAdder();
+	
+	/** 대상 메소드 수행 시간을 알 수 있는 측정 호출 수 */
+	private final LongAdder methodCount = new LongAdder();
+	
+	/** 대상 메소드 수행 시간을 알 수 있는 호출의 어드바이스 수행 시간 합계 - 단위: ns */
+	private final LongAdder methodAdviceNanos = new LongAdder();
+	
+	/** 대상 메소드 수행 시간 합계 - 단위: ns */
+	private final LongAdder methodNanos = new LongAdder();
+	
+	
+	/**
+	 * 생성자
+	 * 
+	 * @param name 어드바이스 명
+	 */
+	private OverheadMeter(String name) {
+		this.name = name;
+	}
+	
+	/**
+	 * 어드바이스 명의 부하 측정 객체 반환, 없을 경우 생성
+	 * 
+	 * @param name 어드바이스 명
+	 * @return 부하 측정 객체
+	 */
+	public static OverheadMeter of(String name) {
+		
+		// 입력값 검증
+		if(name == null) {
+			throw new IllegalArgumentException("'name' is null.");
+		}
+		
+		return meterMap.computeIfAbsent(name, OverheadMeter::new);
+	}
+	
+	/**
+	 * 측정 시작<br>
+	 * 샘플링된 경우에만 시작 할당 메모리를 저장하고 현재 시간을 반환함
+	 * 
+	 * @return 측정 토큰 - 샘플링되지 않은 경우 NOT_SAMPLED
+	 */
+	public long start() {
+		
+		int rate = sampleRate;
+		
+		if(rate <= 0 || (rate > 1 && ThreadLocalRandom.current().nextInt(rate) != 0)) {
+			return NOT_SAMPLED;
+		}
+		
+		startBytes.get()[0] = getAllocatedBytes();
+		return System.nanoTime();
+	}
+	
+	/**
+	 * 측정 종료 - 대상 메소드 수행 시간을 알 수 없는 경우
+	 * 
+	 * @param token 측정 토큰 - start 반환 값
+	 */
+	public void stop(long token) {
+		this.stop(token, -1);
+	}
+	
+	/**
+	 * 측정 종료
+	 * 
+	 * @param token 측정 토큰 - start 반환 값
+	 * @param methodTime 대상 메소드 수행 시간 - 단위: ns, 알 수 없을 경우 음수
+	 */
+	public void stop(long token, long methodTime) {
+		
+		if(token == NOT_SAMPLED) {
+			return;
+		}
+		
+		// 수행 시간 및 할당 메모리 계산 - 할당 메모리 조회 시간은 수행 시간에서 제외, 조회 편향은 할당 메모리에서 차감
+		long elapsed = System.nanoTime() - token;
+		long allocated = getAllocatedBytes() - startBytes.get()[0] - allocationBias;
+		
+		// 측정 값 저장
+		this.sampledCount.increment();
+		this.adviceNanos.add(elapsed);
+		
+		if(allocated > 0) {
+			this.allocatedBytes.add(allocated);
+		}
+		
+		if(methodTime > 0) {
+			this.methodCount.increment();
+			this.methodAdviceNanos.add(elapsed);
+			this.methodNanos.add(methodTime);
+		}
+	}
+	
+	/**
+	 * 측정 정보를 맵 형태로 반환<br>
+	 * JSON 변환용
+	 * 
+	 * @return 측정 정보 맵
+	 */
+	public Map<String, Object> toMap() {
+		
+		Map<String, Object> map = new LinkedHashMap<>();
+		
+		long count = this.sampledCount.sum();
+		
+		map.put("sampleRate", sampleRate);
+		map.put("sampledCalls", count);
+		map.put("adviceNanosPerCall", (count > 0)?(double)this.adviceNanos.sum() / count:Double.NaN);
+		
+		if(threadBean != null) {
+			map.put("allocatedBytesPerCall", (count > 0)?(double)this.allocatedBytes.sum() / count:Double.NaN);
+			map.put("allocationBias", allocationBias);
+		}
+		
+		// 대상 메소드 대비 부하 비율
+		long curMethodCount = this.methodCount.sum();
+		if(curMethodCount > 0) {
+			
+			long curMethodNanos = this.methodNanos.sum();
+			
+			map.put("methodNanosPerCall", (double)curMethodNanos / curMethodCount);
+			map.put("overheadPercent", (curMethodNanos > 0)?this.methodAdviceNanos.sum() * 100.0 / curMethodNanos:Double.NaN);
+		}
+		
+		return map;
+	}
+	
+	/**
+	 * 모든 어드바이스의 측정 정보 반환
+	 * 
+	 * @return 측정 정보 맵 - key: 어드바이스 명, value: 측정 정보 맵
+	 */
+	public static Map<String, Map<String, Object>> getOverhead() {
+		
+		Map<String, Map<String, Object>> overheadMap = new TreeMap<>();
+		
+		for(OverheadMeter meter: meterMap.values()) {
+			overheadMap.put(meter.getName(), meter.toMap());
+		}
+		
+		return overheadMap;
+	}
+	
+	/**
+	 * 현재 스레드의 누적 할당 메모리 반환
+	 * 
+	 * @return 누적 할당 메모리 - 단위: byte, 지원하지 않을 경우 0
+	 */
+	private static long getAllocatedBytes() {
+		
+		if(threadBean == null) {
+			return 0;
+		}
+		
+		// JDK 14 이상 - 조회시 메모리 할당 없음
+		if(currentThreadAllocatedBytes != null) {
+			try {
+				return (long)currentThreadAllocatedBytes.invokeExact(threadBean);
+			} catch(Throwable th) {
+				// 아래의 스레드 아이디 조회로 처리
+			}
+		}
+		
+		// JDK 8 ~ 13 - 조회시 JDK 내부에서 메모리를 할당하므로 allocationBias 만큼 편향됨
+		return threadBean.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+	
+	/**
+	 * 현재 스레드 할당 메모리 조회 핸들 생성<br>
+	 * 빌드 대상이 Java 8 이므로 JDK 14 에 추가된 getCurrentThreadAllocatedBytes() 를 핸들로 호출함
+	 * 
+	 * @return 조회 핸들(com.sun.management.ThreadMXBean)long, 지원하지 않을 경우 null
+	 */
+	private static MethodHandle findCurrentThreadAllocatedBytes() {
+		
+		if(threadBean == null) {
+			return null;
+		}
+		
+		try {
+			
+			return MethodHandles.publicLookup().findVirtual(
+				com.sun.management.ThreadMXBean.class,
+				"getCurrentThreadAllocatedBytes",
+				MethodType.methodType(long.class)
+			);
+			
+		} catch(NoSuchMethodException | IllegalAccessException ex) {
+			return null;
+		}
+	}
+	
+	/**
+	 * 할당 메모리 조회 편향 측정<br>
+	 * 측정 대상 없이 start/stop 의 할당 메모리 조회를 반복하여 최소 차이를 편향으로 사용함<br>
+	 * TLAB 재할당 등 잡음은 차이를 늘리기만 하므로 최소 값을 사용함
+	 * 
+	 * @return 조회 편향 - 단위: byte, 지원하지 않을 경우 0
+	 */
+	private static long measureAllocationBias() {
+		
+		if(threadBean == null) {
+			return 0;
+		}
+		
+		long bias = Long.MAX_VALUE;
+		
+		for(int count = 0; count < 1000; count++) {
+			
+			long start = getAllocatedBytes();
+			long allocated = getAllocatedBytes() - start;
+			
+			bias = Math.min(bias, allocated);
+		}
+		
+		return Math.max(0, bias);
+	}
+	
+	/**
+	 * 스레드 할당 메모리 조회용 MXBean 생성
+	 * 
+	 * @return MXBean, 지원하지 않을 경우 null
+	 */
+	private static com.sun.management.ThreadMXBean createThreadBean() {
+		
+		try {
+			
+			java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+			
+			if(bean instanceof com.sun.management.ThreadMXBean) {
+				
+				com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean)bean;
+				
+				if(sunBean.isThreadAllocatedMemorySupported() == true && sunBean.isThreadAllocatedMemoryEnabled() == true) {
+					return sunBean;
+				}
+			}
+			
+		} catch(Exception ex) {
+			ex.printStackTrace();
+		}
+		
+		return null;
+	}
+}
@@ -0,0 +1,344 @@
+package com.redeye.kafexporter.acquisitor.kafka.stat;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import com.redeye.kafexporter.acquisitor.kafka.ClientRegistry;
+import com.redeye.kafexporter.acquisitor.kafka.PartitionRegistry;
+import com.redeye.kafexporter.util.stat.Parameter;
+
+/**
+ * 컨슈머 파티션별 수신 통계 데몬 클래스<br>
+ * 수집 데이터는 poll 진입 레코드와 파티션별 수신 레코드로 구성되며,<br>
+ * (클라이언트 순번/파티션 순번(및 플래그), 시간, 레코드 수) long 레코드로 스레드별 링 버퍼에 저장됨(RingStatDaemon 참고)<br>
+ * 파티션별 통계는 다음과 같음 - 단위: ms<br>
+ * - records: 레코드가 있는 poll 의 파티션 레코드 수<br>
+ * - deliveryInterval: 레코드가 있는 수신 사이의 시간<br>
+ * - processing: 파티션 레코드를 수신한 poll 종료부터 다음 poll 진입까지의 시간(어플리케이션 처리 시간)<br>
+ * poll 통계 데몬의 샘플링 결과를 따르므로, 샘플링시 deliveryInterval 은 수집된 수신 사이의 시간임
+ * 
+ * @author jmsohn
+ */
+public class PartitionStatDaemon extends RingStatDaemon {
+	
+	
+	/** 레코드 크기 - 클라이언트 순번/파티션 순번(및 플래그), 시간, 레코드 수 */
+	private static final int RECORD_SIZE = 3;
+	
+	/** poll 진입 레코드 플래그 */
+	private static final long FLAG_ENTER = 1L << 63;
+	
+	/** 이전 poll 과 연속된 호출 여부 플래그 - poll 진입 레코드에만 설정 */
+	private static final long FLAG_CONTIGUOUS = 1L << 62;
+	
+	/** 하위 32bit 마스크 */
+	private static final long LOW_MASK = 0xFFFFFFFFL;
+	
+	/** 파티션 순번 마스크 - 상위 32bit 중 플래그를 제외한 30bit */
+	private static final long PARTITION_MASK = 0x3FFFFFFFL;
+	
+	/** ns 를 ms 로 변환하기 위한 값 */
+	private static final double NANOS_PER_MILLI = 1000000.0;
+	
+	
+	/** 클라이언트 순번별 통계 데이터 - index: 클라이언트 순번, 데몬 스레드만 변경 */
+	private volatile ClientPartitionStat[] clientPartitionStats = new ClientPartitionStat[16];
+	
+	
+	/**
+	 * 생성자
+	 */
+	public PartitionStatDaemon() {
+		super(RECORD_SIZE);
+	}
+	
+	/**
+	 * poll 진입 데이터를 현재 스레드의 링 버퍼에 저장
+	 * 
+	 * @param clientOrdinal 클라이언트 순번
+	 * @param contiguous 이전 poll 과 연속된 호출 여부 - Sampler.isContiguous
+	 * @param enterTime 진입 시간 - System.nanoTime
+	 */
+	public void sendEnter(int clientOrdinal, boolean contiguous, long enterTime) {
+		
+		long key = (clientOrdinal & LOW_MASK) | FLAG_ENTER;
+		
+		if(contiguous == true) {
+			key |= FLAG_CONTIGUOUS;
+		}
+		
+		this.getRing().offer(key, enterTime, 0);
+	}
+	
+	/**
+	 * 파티션 수신 데이터를 현재 스레드의 링 버퍼에 저장
+	 * 
+	 * @param clientOrdinal 클라이언트 순번
+	 * @param partitionOrdinal 파티션 순번
+	 * @param exitTime poll 종료 시간 - System.nanoTime
+	 * @param recordCount 파티션 레코드 수
+	 */
+	public void sendDelivery(int clientOrdinal, int partitionOrdinal, long exitTime, int recordCount) {
+		
+		long key = (clientOrdinal & LOW_MASK) | ((partitionOrdinal & PARTITION_MASK) << 32);
+		this.getRing().offer(key, exitTime, recordCount);
+	}
+	
+	/**
+	 * 수신 레코드로 통계 정보 생성<br>
+	 * 하나의 컨슈머의 레코드는 같은 스레드에서 발생하므로 링 버퍼 내에서 순서가 보장됨
+	 * 
+	 * @param record 수신 레코드 - 클라이언트 순번/파티션 순번(및 플래그), 시간, 레코드 수
+	 */
+	@Override
+	protected void process(long[] record) {
+		
+		int clientOrdinal = (int)(record[0] & LOW_MASK);
+		ClientPartitionStat clientStat = this.getOrCreateStat(clientOrdinal);
+		
+		if((record[0] & FLAG_ENTER) != 0) {
+			clientStat.enter(record[1], (record[0] & FLAG_CONTIGUOUS) != 0);
+		} else {
+			int partitionOrdinal = (int)((record[0] >>> 32) & PARTITION_MASK);
+			clientStat.deliver(partitionOrdinal, record[1], (int)record[2]);
+		}
+	}
+	
+	/**
+	 * 클라이언트 순번의 통계 데이터 반환, 없을 경우 생성<br>
+	 * 데몬 스레드에서만 호출됨
+	 * 
+	 * @param clientOrdinal 클라이언트 순번
+	 * @return 통계 데이터
+	 */
+	private ClientPartitionStat getOrCreateStat(int clientOrdinal) {
+		
+		ClientPartitionStat[] curStats = this.clientPartitionStats;
+		
+		if(clientOrdinal >= curStats.length) {
+			curStats = Arrays.copyOf(curStats, Math.max(curStats.length * 2, clientOrdinal + 1));
+			this.clientPartitionStats = curStats;
+		}
+		
+		ClientPartitionStat partitionStat = curStats[clientOrdinal];
+		
+		if(partitionStat == null) {
+			partitionStat = new ClientPartitionStat();
+			curStats[clientOrdinal] = partitionStat;
+			this.clientPartitionStats = curStats;
+		}
+		
+		return partitionStat;
+	}
+	
+	/**
+	 * 종료된 클라이언트의 통계 데이터 제거
+	 * 
+	 * @param clientOrdinal 클라이언트 순번
+	 */
+	@Override
+	protected void evictClient(int clientOrdinal) {
+		
+		ClientPartitionStat[] curStats = this.clientPartitionStats;
+		
+		if(clientOrdinal < curStats.length) {
+			curStats[clientOrdinal] = null;
+			this.clientPartitionStats = curStats;
+		}
+	}
+	
+	/**
+	 * 통계 데이터가 있는 클라이언트 아이디 목록 반환
+	 * 
+	 * @return 클라이언트 아이디 목록
+	 */
+	public Set<String> getClientIdSet() {
+		
+		Set<String> clientIdSet = new HashSet<>();
+		ClientPartitionStat[] curStats = this.clientPartitionStats;
+		
+		for(int clientOrdinal = 0; clientOrdinal < curStats.length; clientOrdinal++) {
+			
+			String clientId = ClientRegistry.getClientId(clientOrdinal);
+			
+			if(curStats[clientOrdinal] != null && clientId != null) {
+				clientIdSet.add(clientId);
+			}
+		}
+		
+		return clientIdSet;
+	}
+	
+	/**
+	 * 클라이언트 아이디의 파티션별 수신 통계정보 반환
+	 * 
+	 * @param clientId 클라이언트 아이디
+	 * @return 파티션별 통계 정보 맵 - key: 토픽 명-파티션 번호, value: 통계 정보, 없을 경우 빈 맵
+	 */
+	public Map<String, Object> getStat(String clientId) {
+		
+		Map<String, Object> statMap = new TreeMap<>();
+		
+		int clientOrdinal = ClientRegistry.getOrdinal(clientId);
+		ClientPartitionStat[] curStats = this.clientPartitionStats;
+		
+		if(clientOrdinal == ClientRegistry.NONE || clientOrdinal >= curStats.length || curStats[clientOrdinal] == null) {
+			return statMap;
+		}
+		
+		PartitionStat[] curPartitionStats = curStats[clientOrdinal].partitionStats;
+		
+		for(int partitionOrdinal = 0; partitionOrdinal < curPartitionStats.length; partitionOrdinal++) {
+			
+			String partitionName = PartitionRegistry.getName(partitionOrdinal);
+			
+			if(curPartitionStats[partitionOrdinal] != null && partitionName != null) {
+				statMap.put(partitionName, curPartitionStats[partitionOrdinal].toMap());
+			}
+		}
+		
+		return statMap;
+	}
+	
+	
+	/**
+	 * 클라이언트별 파티션 수신 통계 데이터 클래스
+	 * 
+	 * @author jmsohn
+	 */
+	private static class ClientPartitionStat {
+		
+		/** 파티션 순번별 통계 데이터 - index: 파티션 순번, 데몬 스레드만 변경 */
+		volatile PartitionStat[] partitionStats = new PartitionStat[64];
+		
+		/** 마지막 poll 에서 레코드를 수신한 파티션 순번 목록 - 처리 시간 계산용 */
+		int[] pendingPartitions = new int[16];
+		
+		/** 마지막 poll 에서 레코드를 수신한 파티션 수 */
+		int pendingCount;
+		
+		/** 마지막 수신 poll 의 종료 시간 */
+		long pendingExitTime;
+		
+		/**
+		 * poll 진입<br>
+		 * 이전 poll 에서 수신한 파티션들의 처리 시간을 계산함
+		 * 
+		 * @param enterTime 진입 시간 - System.nanoTime
+		 * @param contiguous 이전 poll 과 연속된 호출 여부
+		 */
+		void enter(long enterTime, boolean contiguous) {
+			
+			// 연속된 호출이 아닌 경우 이전 poll 이후 다른 poll 이 있었으므로 처리 시간을 계산하지 않음
+			if(contiguous == true) {
+				
+				double processingTime = (enterTime - this.pendingExitTime) / NANOS_PER_MILLI;
+				
+				for(int index = 0; index < this.pendingCount; index++) {
+					
+					PartitionStat partitionStat = this.partitionStats[this.pendingPartitions[index]];
+					
+					if(processingTime >= 0) {
+						partitionStat.processingStat.add(processingTime);
+					}
+				}
+			}
+			
+			this.pendingCount = 0;
+		}
+		
+		/**
+		 * 파티션 레코드 수신
+		 * 
+		 * @param partitionOrdinal 파티션 순번
+		 * @param exitTime poll 종료 시간 - System.nanoTime
+		 * @param recordCount 파티션 레코드 수
+		 */
+		void deliver(int partitionOrdinal, long exitTime, int recordCount) {
+			
+			PartitionStat partitionStat = this.getOrCreateStat(partitionOrdinal);
+			
+			partitionStat.recordCountStat.add(recordCount);
+			
+			if(partitionStat.lastDeliveryTime != 0) {
+				partitionStat.deliveryIntervalStat.add((exitTime - partitionStat.lastDeliveryTime) / NANOS_PER_MILLI);
+			}
+			
+			partitionStat.lastDeliveryTime = exitTime;
+			
+			// 처리 시간 계산을 위해 보관
+			if(this.pendingCount >= this.pendingPartitions.length) {
+				this.pendingPartitions = Arrays.copyOf(this.pendingPartitions, this.pendingPartitions.length * 2);
+			}
+			
+			this.pendingPartitions[this.pendingCount++] = partitionOrdinal;
+			this.pendingExitTime = exitTime;
+		}
+		
+		/**
+		 * 파티션 순번의 통계 데이터 반환, 없을 경우 생성
+		 * 
+		 * @param partitionOrdinal 파티션 순번
+		 * @return 통계 데이터
+		 */
+		PartitionStat getOrCreateStat(int partitionOrdinal) {
+			
+			PartitionStat[] curStats = this.partitionStats;
+			
+			if(partitionOrdinal >= curStats.length) {
+				curStats = Arrays.copyOf(curStats, Math.max(curStats.length * 2, partitionOrdinal + 1));
+				this.partitionStats = curStats;
+			}
+			
+			PartitionStat partitionStat = curStats[partitionOrdinal];
+			
+			if(partitionStat == null) {
+				partitionStat = new PartitionStat();
+				curStats[partitionOrdinal] = partitionStat;
+				this.partitionStats = curStats;
+			}
+			
+			return partitionStat;
+		}
+	}
+	
+	/**
+	 * 파티션별 수신 통계 데이터 클래스
+	 * 
+	 * @author jmsohn
+	 */
+	private static class PartitionStat {
+		
+		/** 마지막 수신 시간 - System.nanoTime */
+		long lastDeliveryTime;
+		
+		/** 수신당 레코드 수 통계 데이터 */
+		final Parameter recordCountStat = new Parameter();
+		
+		/** 수신 간격 통계 데이터 - 단위: ms */
+		final Parameter deliveryIntervalStat = new Parameter();
+		
+		/** 처리 시간 통계 데이터 - 단위: ms */
+		final Parameter processingStat = new Parameter();
+		
+		/**
+		 * 통계 정보를 맵 형태로 반환
+		 * 
+		 * @return 통계 정보 맵
+		 */
+		Map<String, Object> toMap() {
+			
+			Map<String, Object> map = new LinkedHashMap<>();
+			
+			map.put("records", this.recordCountStat.toMap());
+			map.put("deliveryInterval", this.deliveryIntervalStat.toMap());
+			map.put("processing", this.processingStat.toMap());
+			
+			return map;
+		}
+	}
+}
@@ -0,0 +1,354 @@
+package com.redeye.kafexporter.acquisitor.kafka.stat;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.ToLongFunction;
+
+import com.redeye.kafexporter.acquisitor.kafka.ClientRegistry;
+import com.redeye.kafexporter.util.daemon.AbstractDaemon;
+
+import lombok.Getter;
+
+/**
+ * 컨슈머 poll 간격 감시 클래스<br>
+ * 데몬 스레드가 주기적으로 컨슈머별 마지막 poll 종료 이후 경과 시간을 max.poll.interval.ms 설정 값과 비교하여,<br>
+ * 경고 비율(warnRatio)을 넘는 컨슈머를 그룹에서 제외되기 전에 경고 상태로 표시함<br>
+ * poll 종료 시간은 poll 시간 통계 데몬에 샘플링과 관계 없이 표시된 값을 사용함(TimeStatDaemon.markExit 참고)<br>
+ * poll 호출 중인 컨슈머는 어플리케이션 처리 중이 아니므로 경과 시간을 0 으로 봄
+ * 
+ * @author jmsohn
+ */
+public class PollIntervalWatchdog {
+	
+	
+	/** 기본 경고 비율 - max.poll.interval.ms 대비 경과 시간 */
+	public static final double DEFAULT_WARN_RATIO = 0.8;
+	
+	/** 기본 검사 주기 - 단위: ms */
+	public static final long DEFAULT_CHECK_INTERVAL = 1000;
+	
+	/** ns 를 ms 로 변환하기 위한 값 */
+	private static final double NANOS_PER_MILLI = 1000000.0;
+	
+	
+	/** poll 시간 통계 데몬 - 마지막 poll 종료 시간 조회용 */
+	private final TimeStatDaemon pollTimeStatDaemon;
+	
+	/** 클라이언트 아이디별 max.poll.interval.ms 조회 함수 - 단위: ms, 알 수 없을 경우 0 이하 */
+	private final ToLongFunction<String> maxPollIntervalResolver;
+	
+	/** 경고 비율 - max.poll.interval.ms 대비 경과 시간 */
+	@Getter
+	private volatile double warnRatio = DEFAULT_WARN_RATIO;
+	
+	/** 검사 주기 - 단위: ms */
+	@Getter
+	private volatile long checkInterval = DEFAULT_CHECK_INTERVAL;
+	
+	/** 클라이언트 순번별 감시 데이터 - index: 클라이언트 순번, 데몬 스레드만 변경 */
+	private volatile WatchStat[] watchStats = new WatchStat[16];
+	
+	/** 감시 데이터 제거 대상 클라이언트 순번 목록 - 종료된 클라이언트 */
+	private final Queue<Integer> evictQueue = new ConcurrentLinkedQueue<>();
+	
+	/** 감시 데몬 */
+	private AbstractDaemon watchDaemon = null;
+	
+	
+	/**
+	 * 생성자
+	 * 
+	 * @param pollTimeStatDaemon poll 시간 통계 데몬
+	 * @param maxPollIntervalResolver 클라이언트 아이디별 max.poll.interval.ms 조회 함수 - 단위: ms, 알 수 없을 경우 0 이하
+	 */
+	public PollIntervalWatchdog(TimeStatDaemon pollTimeStatDaemon, ToLongFunction<String> maxPollIntervalResolver) {
+		
+		// 입력값 검증
+		if(pollTimeStatDaemon == null) {
+			throw new IllegalArgumentException("'pollTimeStatDaemon' is null.");
+		}
+		
+		if(maxPollIntervalResolver == null) {
+			throw new IllegalArgumentException("'maxPollIntervalResolver' is null.");
+		}
+		
+		this.pollTimeStatDaemon = pollTimeStatDaemon;
+		this.maxPollIntervalResolver = maxPollIntervalResolver;
+	}
+	
+	/**
+	 * 감시 방식 설정
+	 * 
+	 * @param warnRatio 경고 비율 - 0 초과 1 이하
+	 * @param checkInterval 검사 주기 - 단위: ms
+	 * @return 현재 객체
+	 */
+	public PollIntervalWatchdog setWatch(double warnRatio, long checkInterval) {
+		
+		// 입력값 검증
+		if(warnRatio <= 0 || warnRatio > 1) {
+			throw new IllegalArgumentException("'warnRatio' must be in (0, 1]: " + warnRatio);
+		}
+		
+		if(checkInterval <= 0) {
+			throw new IllegalArgumentException("'checkInterval' must be greater than 0: " + checkInterval);
+		}
+		
+		this.warnRatio = warnRatio;
+		this.checkInterval = checkInterval;
+		
+		return this;
+	}
+	
+	/**
+	 * 감시 데몬 기동
+	 * 
+	 * @return 현재 객체
+	 */
+	public synchronized PollIntervalWatchdog start() {
+		
+		if(this.watchDaemon == null) {
+			
+			this.watchDaemon = new AbstractDaemon() {
+				
+				@Override
+				protected void process() throws InterruptedException {
+					check(System.nanoTime());
+					Thread.sleep(checkInterval);
+				}
+			};
+		}
+		
+		this.watchDaemon.run();
+		return this;
+	}
+	
+	/**
+	 * 감시 데몬 중지
+	 * 
+	 * @return 현재 객체
+	 */
+	public synchronized PollIntervalWatchdog stop() {
+		
+		if(this.watchDaemon != null) {
+			this.watchDaemon.stop();
+		}
+		
+		return this;
+	}
+	
+	/**
+	 * 종료된 클라이언트의 감시 데이터 제거 요청 - 다음 검사시 데몬 스레드에서 제거함
+	 * 
+	 * @param clientOrdinal 클라이언트 순번
+	 */
+	public void removeClient(int clientOrdinal) {
+		
+		if(clientOrdinal <= 0) {
+			return;
+		}
+		
+		this.evictQueue.add(clientOrdinal);
+	}
+	
+	/**
+	 * 모든 컨슈머의 마지막 poll 종료 이후 경과 시간 검사 - 데몬 스레드에서만 호출됨
+	 * 
+	 * @param now 현재 시간 - System.nanoTime
+	 */
+	void check(long now) {
+		
+		// 종료된 클라이언트의 감시 데이터 제거
+		Integer evictOrdinal;
+		while((evictOrdinal = this.evictQueue.poll()) != null) {
+			
+			WatchStat[] curStats = this.watchStats;
+			
+			if(evictOrdinal < curStats.length) {
+				curStats[evictOrdinal] = null;
+				this.watchStats = curStats;
+			}
+		}
+		
+		long[] lastExitTimes = this.pollTimeStatDaemon.getLastExitTimes();
+		
+		for(int clientOrdinal = 1; clientOrdinal < lastExitTimes.length; clientOrdinal++) {
+			
+			long lastExitTime = lastExitTimes[clientOrdinal];
+			if(lastExitTime == TimeStatDaemon.NO_CALL) {
+				continue;
+			}
+			
+			String clientId = ClientRegistry.getClientId(clientOrdinal);
+			if(clientId == null) {
+				continue;
+			}
+			
+			WatchStat watchStat = this.getOrCreateStat(clientOrdinal);
+			
+			// max.poll.interval.ms 설정 값 - 설정 값을 알 수 없을 경우 경과 시간만 갱신
+			long maxPollInterval = this.maxPollIntervalResolver.applyAsLong(clientId);
+			watchStat.maxPollInterval = maxPollInterval;
+			
+			// 마지막 poll 종료 이후 경과 시간 - poll 호출 중일 경우 0
+			double elapsed = 0;
+			if(lastExitTime != TimeStatDaemon.IN_CALL) {
+				elapsed = Math.max(0, (now - lastExitTime) / NANOS_PER_MILLI);
+			}
+			
+			watchStat.elapsed = elapsed;
+			
+			if(maxPollInterval <= 0) {
+				watchStat.ratio = -1;
+				watchStat.warning = false;
+				continue;
+			}
+			
+			double ratio = elapsed / maxPollInterval;
+			watchStat.ratio = ratio;
+			watchStat.maxRatio = Math.max(watchStat.maxRatio, ratio);
+			
+			// 경고 상태 전환
+			boolean warning = ratio >= this.warnRatio;
+			
+			if(warning == true && watchStat.warning == false) {
+				watchStat.warningCount++;
+				watchStat.lastWarningTime = System.currentTimeMillis();
+			}
+			
+			// max.poll.interval.ms 초과 - 그룹에서 제외되었을 가능성이 있음
+			boolean exceeded = ratio >= 1;
+			
+			if(exceeded == true && watchStat.exceeded == false) {
+				watchStat.exceededCount++;
+			}
+			
+			watchStat.warning = warning;
+			watchStat.exceeded = exceeded;
+		}
+	}
+	
+	/**
+	 * 클라이언트 순번의 감시 데이터 반환, 없을 경우 생성<br>
+	 * 데몬 스레드에서만 호출됨
+	 * 
+	 * @param clientOrdinal 클라이언트 순번
+	 * @return 감시 데이터
+	 */
+	private WatchStat getOrCreateStat(int clientOrdinal) {
+		
+		WatchStat[] curStats = this.watchStats;
+		
+		if(clientOrdinal >= curStats.length) {
+			curStats = Arrays.copyOf(curStats, Math.max(curStats.length * 2, clientOrdinal + 1));
+			this.watchStats = curStats;
+		}
+		
+		WatchStat watchStat = curStats[clientOrdinal];
+		
+		if(watchStat == null) {
+			watchStat = new WatchStat();
+			curStats[clientOrdinal] = watchStat;
+			this.watchStats = curStats;
+		}
+		
+		return watchStat;
+	}
+	
+	/**
+	 * 현재 경고 상태인 클라이언트 아이디 목록 반환
+	 * 
+	 * @return 경고 상태인 클라이언트 아이디 목록
+	 */
+	public Set<String> getWarningClientIdSet() {
+		
+		Set<String> clientIdSet = new HashSet<>();
+		WatchStat[] curStats = this.watchStats;
+		
+		for(int clientOrdinal = 0; clientOrdinal < curStats.length; clientOrdinal++) {
+			
+			String clientId = ClientRegistry.getClientId(clientOrdinal);
+			
+			if(curStats[clientOrdinal] != null && curStats[clientOrdinal].warning == true && clientId != null) {
+				clientIdSet.add(clientId);
+			}
+		}
+		
+		return clientIdSet;
+	}
+	
+	/**
+	 * 클라이언트 아이디의 감시 정보 반환<br>
+	 * 시간 단위: ms
+	 * 
+	 * @param clientId 클라이언트 아이디
+	 * @return 감시 정보, 없을 경우 빈 맵
+	 */
+	public Map<String, Object> getStat(String clientId) {
+		
+		Map<String, Object> statMap = new LinkedHashMap<>();
+		
+		int clientOrdinal = ClientRegistry.getOrdinal(clientId);
+		WatchStat[] curStats = this.watchStats;
+		
+		if(clientOrdinal == ClientRegistry.NONE || clientOrdinal >= curStats.length || curStats[clientOrdinal] == null) {
+			return statMap;
+		}
+		
+		WatchStat watchStat = curStats[clientOrdinal];
+		
+		statMap.put("maxPollIntervalMs", watchStat.maxPollInterval);
+		statMap.put("sinceLastPoll", watchStat.elapsed);
+		statMap.put("ratio", watchStat.ratio);
+		statMap.put("maxRatio", watchStat.maxRatio);
+		statMap.put("warnRatio", this.warnRatio);
+		statMap.put("warning", watchStat.warning);
+		statMap.put("warningCount", watchStat.warningCount);
+		statMap.put("lastWarningTime", watchStat.lastWarningTime);
+		statMap.put("exceededCount", watchStat.exceededCount);
+		
+		return statMap;
+	}
+	
+	
+	/**
+	 * 컨슈머별 감시 데이터 클래스<br>
+	 * 데몬 스레드만 변경하며, 조회 스레드를 위해 volatile 로 선언함
+	 * 
+	 * @author jmsohn
+	 */
+	private static class WatchStat {
+		
+		/** max.poll.interval.ms 설정 값 - 단위: ms */
+		volatile long maxPollInterval;
+		
+		/** 마지막 poll 종료 이후 경과 시간 - 단위: ms */
+		volatile double elapsed;
+		
+		/** max.poll.interval.ms 대비 경과 시간 비율, 설정 값을 알 수 없을 경우 -1 */
+		volatile double ratio;
+		
+		/** 최대 비율 */
+		volatile double maxRatio;
+		
+		/** 경고 상태 여부 */
+		volatile boolean warning;
+		
+		/** 경고 상태 전환 횟수 */
+		volatile long warningCount;
+		
+		/** 마지막 경고 상태 전환 시간 - epoch ms, 없을 경우 0 */
+		volatile long lastWarningTime;
+		
+		/** max.poll.interval.ms 초과 상태 여부 */
+		volatile boolean exceeded;
+		
+		/** max.poll.interval.ms 초과 횟수 */
+		volatile long exceededCount;
+	}
+}
@@ -0,0 +1,389 @@
+package com.redeye.kafexporter.acquisitor.kafka.stat;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import com.redeye.kafexporter.acquisitor.kafka.ClientRegistry;
+import com.redeye.kafexporter.util.stat.Histogram;
+import com.redeye.kafexporter.util.stat.Parameter;
+
+/**
+ * 컨슈머 리밸런스 통계 데몬 클래스<br>
+ * 수집 데이터는 (클라이언트 순번/이벤트 종류, 시작 시간, 종료 시간) long 레코드로 스레드별 링 버퍼에 저장되며,<br>
+ * 데몬 스레드가 주기적으로 모든 링 버퍼를 수집하여 클라이언트별 통계 데이터를 생성함(RingStatDaemon 참고)<br>
+ * 리밸런스 시간은 onJoinPrepare 진입부터 onJoinComplete 종료까지의 시간이며,<br>
+ * 리스너 시간은 사용자 ConsumerRebalanceListener 콜백(revoked/assigned/lost)의 수행 시간임
+ * 
+ * @author jmsohn
+ */
+public class RebalanceStatDaemon extends RingStatDaemon {
+	
+	
+	/**
+	 * 리밸런스 이벤트 종류
+	 * 
+	 * @author jmsohn
+	 */
+	public enum Event {
+		
+		/** 리밸런스 시작 - onJoinPrepare 진입 */
+		PREPARE,
+		
+		/** 리밸런스 종료 - onJoinComplete 종료 */
+		COMPLETE,
+		
+		/** 파티션 해제 리스너 수행 */
+		REVOKED,
+		
+		/** 파티션 할당 리스너 수행 */
+		ASSIGNED,
+		
+		/** 파티션 유실 리스너 수행 */
+		LOST;
+	}
+	
+	
+	/** 레코드 크기 - 클라이언트 순번/이벤트 종류(및 플래그), 시작 시간, 종료 시간 */
+	private static final int RECORD_SIZE = 3;
+	
+	/** 실패 여부 플래그 - 레코드의 첫번째 값의 최상위 비트에 설정 */
+	private static final long FLAG_ERROR = 1L << 63;
+	
+	/** 하위 32bit 마스크 */
+	private static final long LOW_MASK = 0xFFFFFFFFL;
+	
+	/** 이벤트 종류 마스크 */
+	private static final long EVENT_MASK = 0xFFL;
+	
+	/** 이벤트 종류 목록 - 레코드의 이벤트 순번을 이벤트로 변환하기 위함 */
+	private static final Event[] EVENTS = Event.values();
+	
+	/** ns 를 us 로 변환하기 위한 값 */
+	private static final long NANOS_PER_MICRO = 1000L;
+	
+	/** ns 를 ms 로 변환하기 위한 값 */
+	private static final double NANOS_PER_MILLI = 1000000.0;
+	
+	/** us 를 ms 로 변환하기 위한 값 */
+	private static final double MICROS_PER_MILLI = 1000.0;
+	
+	/** ns 를 분으로 변환하기 위한 값 */
+	private static final double NANOS_PER_MINUTE = 60.0 * 1000000000.0;
+	
+	
+	/** 클라이언트 순번별 통계 데이터 - index: 클라이언트 순번, 데몬 스레드만 변경 */
+	private volatile ClientRebalanceStat[] clientRebalanceStats = new ClientRebalanceStat[16];
+	
+	
+	/**
+	 * 생성자
+	 */
+	public RebalanceStatDaemon() {
+		super(RECORD_SIZE);
+	}
+	
+	/**
+	 * 리밸런스 이벤트 데이터를 현재 스레드의 링 버퍼에 저장
+	 * 
+	 * @param clientOrdinal 클라이언트 순번
+	 * @param event 이벤트 종류
+	 * @param startTime 시작 시간 - System.nanoTime
+	 * @param endTime 종료 시간 - System.nanoTime
+	 * @param error 실패 여부
+	 */
+	public void send(int clientOrdinal, Event event, long startTime, long endTime, boolean error) {
+		
+		long key = (clientOrdinal & LOW_MASK) | ((long)event.ordinal() << 32);
+		
+		if(error == true) {
+			key |= FLAG_ERROR;
+		}
+		
+		this.getRing().offer(key, startTime, endTime);
+	}
+	
+	/**
+	 * 리밸런스 이벤트 레코드로 통계 정보 생성<br>
+	 * 하나의 컨슈머의 이벤트는 같은 스레드에서 발생하므로 링 버퍼 내에서 순서가 보장됨
+	 * 
+	 * @param record 리밸런스 이벤트 레코드 - 클라이언트 순번/이벤트 종류(및 플래그), 시작 시간, 종료 시간
+	 */
+	@Override
+	protected void process(long[] record) {
+		
+		int clientOrdinal = (int)(record[0] & LOW_MASK);
+		int eventOrdinal = (int)((record[0] >>> 32) & EVENT_MASK);
+		boolean error = (record[0] & FLAG_ERROR) != 0;
+		
+		if(eventOrdinal >= EVENTS.length) {
+			return;
+		}
+		
+		ClientRebalanceStat clientStat = this.getOrCreateStat(clientOrdinal);
+		
+		switch(EVENTS[eventOrdinal]) {
+		case PREPARE:
+			clientStat.prepare(record[1]);
+			break;
+		case COMPLETE:
+			clientStat.complete(record[2], error);
+			break;
+		default:
+			clientStat.addListenerTime(eventOrdinal, record[2] - record[1], error);
+			break;
+		}
+	}
+	
+	/**
+	 * 클라이언트 순번의 통계 데이터 반환, 없을 경우 생성<br>
+	 * 데몬 스레드에서만 호출됨
+	 * 
+	 * @param clientOrdinal 클라이언트 순번
+	 * @return 통계 데이터
+	 */
+	private ClientRebalanceStat getOrCreateStat(int clientOrdinal) {
+		
+		ClientRebalanceStat[] curStats = this.clientRebalanceStats;
+		
+		if(clientOrdinal >= curStats.length) {
+			curStats = Arrays.copyOf(curStats, Math.max(curStats.length * 2, clientOrdinal + 1));
+			this.clientRebalanceStats = curStats;
+		}
+		
+		ClientRebalanceStat rebalanceStat = curStats[clientOrdinal];
+		
+		if(rebalanceStat == null) {
+			rebalanceStat = new ClientRebalanceStat();
+			curStats[clientOrdinal] = rebalanceStat;
+			this.clientRebalanceStats = curStats;
+		}
+		
+		return rebalanceStat;
+	}
+	
+	/**
+	 * 종료된 클라이언트의 통계 데이터 제거
+	 * 
+	 * @param clientOrdinal 클라이언트 순번
+	 */
+	@Override
+	protected void evictClient(int clientOrdinal) {
+		
+		ClientRebalanceStat[] curStats = this.clientRebalanceStats;
+		
+		if(clientOrdinal < curStats.length) {
+			curStats[clientOrdinal] = null;
+			this.clientRebalanceStats = curStats;
+		}
+	}
+	
+	/**
+	 * 통계 데이터가 있는 클라이언트 아이디 목록 반환
+	 * 
+	 * @return 클라이언트 아이디 목록
+	 */
+	public Set<String> getClientIdSet() {
+		
+		Set<String> clientIdSet = new HashSet<>();
+		ClientRebalanceStat[] curStats = this.clientRebalanceStats;
+		
+		for(int clientOrdinal = 0; clientOrdinal < curStats.length; clientOrdinal++) {
+			
+			String clientId = ClientRegistry.getClientId(clientOrdinal);
+			
+			if(curStats[clientOrdinal] != null && clientId != null) {
+				clientIdSet.add(clientId);
+			}
+		}
+		
+		return clientIdSet;
+	}
+	
+	/**
+	 * 클라이언트 아이디의 리밸런스 통계정보 반환
+	 * 
+	 * @param clientId 클라이언트 아이디
+	 * @return 리밸런스 통계 정보 맵, 없을 경우 빈 맵
+	 */
+	public Map<String, Object> getStat(String clientId) {
+		
+		int clientOrdinal = ClientRegistry.getOrdinal(clientId);
+		ClientRebalanceStat[] curStats = this.clientRebalanceStats;
+		
+		if(clientOrdinal == ClientRegistry.NONE || clientOrdinal >= curStats.length || curStats[clientOrdinal] == null) {
+			return new LinkedHashMap<>();
+		}
+		
+		return curStats[clientOrdinal].toMap();
+	}
+	
+	
+	/**
+	 * 클라이언트별 리밸런스 통계 데이터 클래스
+	 * 
+	 * @author jmsohn
+	 */
+	private static class ClientRebalanceStat {
+		
+		/** 진행 중인 리밸런스의 시작 시간 - 진행 중이 아닐 경우 0 */
+		long startTime;
+		
+		/** 첫 리밸런스 시작 시간 - 빈도 계산용 */
+		long firstStartTime;
+		
+		/** 마지막 리밸런스 시작 시간 - 간격 계산용 */
+		long lastStartTime;
+		
+		/** 진행 중 여부 */
+		volatile boolean inProgress;
+		
+		/** 정상 완료된 리밸런스 수 */
+		volatile long rebalanceCount;
+		
+		/** 실패한 리밸런스 수 - onJoinComplete 에서 예외 발생 */
+		volatile long failedCount;
+		
+		/** 리밸런스 빈도 - 분당 리밸런스 시작 수 */
+		volatile double ratePerMinute;
+		
+		/** 리밸런스 시간 통계 데이터 - 단위: ms */
+		final Parameter durationStat = new Parameter();
+		
+		/** 리밸런스 시간 히스토그램 - 단위: us */
+		final Histogram durationHistogram = new Histogram();
+		
+		/** 리밸런스 시작 간격 통계 데이터 - 단위: ms */
+		final Parameter intervalStat = new Parameter();
+		
+		/** 리스너 종류별 수행 시간 통계 데이터 - index: 이벤트 순번, 단위: ms */
+		final Parameter[] listenerStats = new Parameter[EVENTS.length];
+		
+		/** 리스너 종류별 예외 수 - index: 이벤트 순번 */
+		final long[] listenerErrorCounts = new long[EVENTS.length];
+		
+		/**
+		 * 리밸런스 시작<br>
+		 * 커밋 대기 등으로 onJoinPrepare 가 재호출되는 경우 처음 시작 시간을 유지함
+		 * 
+		 * @param time 시작 시간 - System.nanoTime
+		 */
+		void prepare(long time) {
+			
+			if(this.inProgress == true) {
+				return;
+			}
+			
+			if(this.firstStartTime == 0) {
+				this.firstStartTime = time;
+			} else {
+				
+				this.intervalStat.add((time - this.lastStartTime) / NANOS_PER_MILLI);
+				
+				long elapsed = time - this.firstStartTime;
+				if(elapsed > 0) {
+					this.ratePerMinute = this.intervalStat.getCount() * NANOS_PER_MINUTE / elapsed;
+				}
+			}
+			
+			this.startTime = time;
+			this.lastStartTime = time;
+			this.inProgress = true;
+		}
+		
+		/**
+		 * 리밸런스 종료
+		 * 
+		 * @param time 종료 시간 - System.nanoTime
+		 * @param error 실패 여부
+		 */
+		void complete(long time, boolean error) {
+			
+			// 시작되지 않은 리밸런스(에이전트 설치 이전 시작 등)는 무시
+			if(this.inProgress == false) {
+				return;
+			}
+			
+			long duration = time - this.startTime;
+			
+			this.inProgress = false;
+			this.startTime = 0;
+			
+			// 실패한 리밸런스도 처리가 중단된 시간이므로 시간 통계에 포함함
+			if(duration >= 0) {
+				this.durationStat.add(duration / NANOS_PER_MILLI);
+				this.durationHistogram.add(duration / NANOS_PER_MICRO);
+			}
+			
+			if(error == true) {
+				this.failedCount++;
+			} else {
+				this.rebalanceCount++;
+			}
+		}
+		
+		/**
+		 * 리스너 수행 시간 추가
+		 * 
+		 * @param eventOrdinal 이벤트 순번
+		 * @param duration 수행 시간 - 단위: ns
+		 * @param error 리스너 예외 발생 여부
+		 */
+		void addListenerTime(int eventOrdinal, long duration, boolean error) {
+			
+			if(this.listenerStats[eventOrdinal] == null) {
+				this.listenerStats[eventOrdinal] = new Parameter();
+			}
+			
+			if(duration >= 0) {
+				this.listenerStats[eventOrdinal].add(duration / NANOS_PER_MILLI);
+			}
+			
+			if(error == true) {
+				this.listenerErrorCounts[eventOrdinal]++;
+			}
+		}
+		
+		/**
+		 * 통계 정보를 맵 형태로 반환
+		 * 
+		 * @return 통계 정보 맵
+		 */
+		Map<String, Object> toMap() {
+			
+			Map<String, Object> map = new LinkedHashMap<>();
+			
+			map.put("rebalanceCount", this.rebalanceCount);
+			map.put("failedCount", this.failedCount);
+			map.put("inProgress", this.inProgress);
+			map.put("ratePerMinute", this.ratePerMinute);
+			map.put("duration", this.durationStat.toMap());
+			map.put("percentile", this.durationHistogram.toMap(MICROS_PER_MILLI));
+			map.put("interval", this.intervalStat.toMap());
+			
+			// 리스너별 수행 시간
+			Map<String, Object> listenerMap = new LinkedHashMap<>();
+			
+			for(int eventOrdinal = 0; eventOrdinal < EVENTS.length; eventOrdinal++) {
+				
+				Parameter listenerStat = this.listenerStats[eventOrdinal];
+				if(listenerStat == null) {
+					continue;
+				}
+				
+				Map<String, Object> listenerStatMap = new LinkedHashMap<>();
+				
+				listenerStatMap.put("time", listenerStat.toMap());
+				listenerStatMap.put("errorCount", this.listenerErrorCounts[eventOrdinal]);
+				
+				listenerMap.put(EVENTS[eventOrdinal].name().toLowerCase(), listenerStatMap);
+			}
+			
+			map.put("listener", listenerMap);
+			
+			return map;
+		}
+	}
+}
@@ -0,0 +1,270 @@
+package com.redeye.kafexporter.acquisitor.kafka.stat;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import com.redeye.kafexporter.acquisitor.kafka.ClientRegistry;
+import com.redeye.kafexporter.acquisitor.kafka.TopicRegistry;
+import com.redeye.kafexporter.util.stat.Histogram;
+import com.redeye.kafexporter.util.stat.Parameter;
+
+/**
+ * 컨슈머 레코드 종단간 지연 시간 통계 데몬 클래스<br>
+ * 지연 시간은 poll 종료 시간(System.currentTimeMillis)에서 레코드 타임스탬프(CreateTime 또는 LogAppendTime)를 뺀 값으로,<br>
+ * 프로듀서 변경 없이 데이터 신선도를 측정하기 위함 - 단위: ms<br>
+ * 수집 데이터는 (클라이언트 순번/토픽 순번, 지연 시간) long 레코드로 스레드별 링 버퍼에 저장됨(RingStatDaemon 참고)<br>
+ * 프로듀서/브로커와 컨슈머의 시계 차이로 음수가 된 경우 통계에서 제외하고 개수만 관리함
+ * 
+ * @author jmsohn
+ */
+public class RecordLatencyStatDaemon extends RingStatDaemon {
+	
+	
+	/** 레코드 크기 - 클라이언트 순번/토픽 순번, 지연 시간 */
+	private static final int RECORD_SIZE = 2;
+	
+	/** 하위 32bit 마스크 */
+	private static final long LOW_MASK = 0xFFFFFFFFL;
+	
+	
+	/** 클라이언트 순번별 통계 데이터 - index: 클라이언트 순번, 데몬 스레드만 변경 */
+	private volatile ClientLatencyStat[] clientLatencyStats = new ClientLatencyStat[16];
+	
+	
+	/**
+	 * 생성자
+	 */
+	public RecordLatencyStatDaemon() {
+		super(RECORD_SIZE);
+	}
+	
+	/**
+	 * 레코드 지연 시간 데이터를 현재 스레드의 링 버퍼에 저장
+	 * 
+	 * @param clientOrdinal 클라이언트 순번
+	 * @param topicOrdinal 토픽 순번
+	 * @param latency 지연 시간 - 단위: ms
+	 */
+	public void send(int clientOrdinal, int topicOrdinal, long latency) {
+		
+		long key = (clientOrdinal & LOW_MASK) | ((topicOrdinal & LOW_MASK) << 32);
+		this.getRing().offer(key, latency);
+	}
+	
+	/**
+	 * 지연 시간 레코드로 통계 정보 생성
+	 * 
+	 * @param record 지연 시간 레코드 - 클라이언트 순번/토픽 순번, 지연 시간
+	 */
+	@Override
+	protected void process(long[] record) {
+		
+		int clientOrdinal = (int)(record[0] & LOW_MASK);
+		int topicOrdinal = (int)(record[0] >>> 32);
+		long latency = record[1];
+		
+		ClientLatencyStat clientStat = this.getOrCreateStat(clientOrdinal);
+		
+		clientStat.totalStat.add(latency);
+		clientStat.getOrCreateTopicStat(topicOrdinal).add(latency);
+	}
+	
+	/**
+	 * 클라이언트 순번의 통계 데이터 반환, 없을 경우 생성<br>
+	 * 데몬 스레드에서만 호출됨
+	 * 
+	 * @param clientOrdinal 클라이언트 순번
+	 * @return 통계 데이터
+	 */
+	private ClientLatencyStat getOrCreateStat(int clientOrdinal) {
+		
+		ClientLatencyStat[] curStats = this.clientLatencyStats;
+		
+		if(clientOrdinal >= curStats.length) {
+			curStats = Arrays.copyOf(curStats, Math.max(curStats.length * 2, clientOrdinal + 1));
+			this.clientLatencyStats = curStats;
+		}
+		
+		ClientLatencyStat latencyStat = curStats[clientOrdinal];
+		
+		if(latencyStat == null) {
+			latencyStat = new ClientLatencyStat();
+			curStats[clientOrdinal] = latencyStat;
+			this.clientLatencyStats = curStats;
+		}
+		
+		return latencyStat;
+	}
+	
+	/**
+	 * 종료된 클라이언트의 통계 데이터 제거
+	 * 
+	 * @param clientOrdinal 클라이언트 순번
+	 */
+	@Override
+	protected void evictClient(int clientOrdinal) {
+		
+		ClientLatencyStat[] curStats = this.clientLatencyStats;
+		
+		if(clientOrdinal < curStats.length) {
+			curStats[clientOrdinal] = null;
+			this.clientLatencyStats = curStats;
+		}
+	}
+	
+	/**
+	 * 통계 데이터가 있는 클라이언트 아이디 목록 반환
+	 * 
+	 * @return 클라이언트 아이디 목록
+	 */
+	public Set<String> getClientIdSet() {
+		
+		Set<String> clientIdSet = new HashSet<>();
+		ClientLatencyStat[] curStats = this.clientLatencyStats;
+		
+		for(int clientOrdinal = 0; clientOrdinal < curStats.length; clientOrdinal++) {
+			
+			String clientId = ClientRegistry.getClientId(clientOrdinal);
+			
+			if(curStats[clientOrdinal] != null && clientId != null) {
+				clientIdSet.add(clientId);
+			}
+		}
+		
+		return clientIdSet;
+	}
+	
+	/**
+	 * 클라이언트 아이디의 레코드 지연 시간 통계정보 반환
+	 * 
+	 * @param clientId 클라이언트 아이디
+	 * @return 지연 시간 통계 정보 맵 - total: 전체 통계, topic: 토픽별 통계, 없을 경우 빈 맵
+	 */
+	public Map<String, Object> getStat(String clientId) {
+		
+		Map<String, Object> statMap = new LinkedHashMap<>();
+		
+		int clientOrdinal = ClientRegistry.getOrdinal(clientId);
+		ClientLatencyStat[] curStats = this.clientLatencyStats;
+		
+		if(clientOrdinal == ClientRegistry.NONE || clientOrdinal >= curStats.length || curStats[clientOrdinal] == null) {
+			return statMap;
+		}
+		
+		ClientLatencyStat clientStat = curStats[clientOrdinal];
+		
+		// 전체 통계
+		statMap.put("total", clientStat.totalStat.toMap());
+		
+		// 토픽별 통계
+		Map<String, Object> topicStatMap = new TreeMap<>();
+		RecordLatencyStat[] curTopicStats = clientStat.topicStats;
+		
+		for(int topicOrdinal = 0; topicOrdinal < curTopicStats.length; topicOrdinal++) {
+			
+			String topic = TopicRegistry.getTopic(topicOrdinal);
+			
+			if(curTopicStats[topicOrdinal] != null && topic != null) {
+				topicStatMap.put(topic, curTopicStats[topicOrdinal].toMap());
+			}
+		}
+		
+		statMap.put("topic", topicStatMap);
+		
+		return statMap;
+	}
+	
+	
+	/**
+	 * 클라이언트별 레코드 지연 시간 통계 데이터 클래스
+	 * 
+	 * @author jmsohn
+	 */
+	private static class ClientLatencyStat {
+		
+		/** 클라이언트 전체 통계 데이터 */
+		final RecordLatencyStat totalStat = new RecordLatencyStat();
+		
+		/** 토픽 순번별 통계 데이터 - index: 토픽 순번, 데몬 스레드만 변경 */
+		volatile RecordLatencyStat[] topicStats = new RecordLatencyStat[16];
+		
+		/**
+		 * 토픽 순번의 통계 데이터 반환, 없을 경우 생성
+		 * 
+		 * @param topicOrdinal 토픽 순번
+		 * @return 통계 데이터
+		 */
+		RecordLatencyStat getOrCreateTopicStat(int topicOrdinal) {
+			
+			RecordLatencyStat[] curStats = this.topicStats;
+			
+			if(topicOrdinal >= curStats.length) {
+				curStats = Arrays.copyOf(curStats, Math.max(curStats.length * 2, topicOrdinal + 1));
+				this.topicStats = curStats;
+			}
+			
+			RecordLatencyStat topicStat = curStats[topicOrdinal];
+			
+			if(topicStat == null) {
+				topicStat = new RecordLatencyStat();
+				curStats[topicOrdinal] = topicStat;
+				this.topicStats = curStats;
+			}
+			
+			return topicStat;
+		}
+	}
+	
+	/**
+	 * 레코드 지연 시간 통계 데이터 클래스
+	 * 
+	 * @author jmsohn
+	 */
+	private static class RecordLatencyStat {
+		
+		/** 시계 차이로 지연 시간이 음수인 레코드 수 */
+		volatile long clockSkewCount;
+		
+		/** 지연 시간 통계 데이터 - 단위: ms */
+		final Parameter latencyStat = new Parameter();
+		
+		/** 지연 시간 히스토그램 - 단위: ms */
+		final Histogram latencyHistogram = new Histogram();
+		
+		/**
+		 * 지연 시간 추가
+		 * 
+		 * @param latency 지연 시간 - 단위: ms
+		 */
+		void add(long latency) {
+			
+			if(latency < 0) {
+				this.clockSkewCount++;
+				return;
+			}
+			
+			this.latencyStat.add(latency);
+			this.latencyHistogram.add(latency);
+		}
+		
+		/**
+		 * 통계 정보를 맵 형태로 반환
+		 * 
+		 * @return 통계 정보 맵 - latency: 모수, percentile: 백분위 수, clockSkewCount: 음수 지연 시간 수
+		 */
+		Map<String, Object> toMap() {
+			
+			Map<String, Object> map = new LinkedHashMap<>();
+			
+			map.put("latency", this.latencyStat.toMap());
+			map.put("percentile", this.latencyHistogram.toMap(1));
+			map.put("clockSkewCount", this.clockSkewCount);
+			
+			return map;
+		}
+	}
+}
@@ -0,0 +1,324 @@
+package com.redeye.kafexporter.acquisitor.kafka.stat;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import com.redeye.kafexporter.util.daemon.AbstractDaemon;
+import com.redeye.kafexporter.util.ring.LongRecordHandler;
+import com.redeye.kafexporter.util.ring.LongRingBuffer;
+import com.redeye.kafexporter.util.ring.OverflowPolicy;
+
+import lombok.Getter;
+
+/**
+ * 링 버퍼 기반 통계 데몬 상위(공통) 클래스<br>
+ * 수집 데이터는 고정 크기의 long 레코드로 스레드별 링 버퍼에 저장되며,<br>
+ * 데몬 스레드가 주기적으로 모든 링 버퍼를 수집하여 하위 클래스의 process 메소드로 전달함<br>
+ * 통계 데이터는 데몬 스레드에서만 변경됨<br>
+ * 종료된 클라이언트의 통계 데이터 제거도 데몬 스레드에서 수행하며, 제거 요청 전에 저장된 레코드를 모두 처리한 후 제거함
+ * 
+ * @author jmsohn
+ */
+public abstract class RingStatDaemon {
+	
+	
+	/** 기본 링 버퍼 크기 */
+	public static final int DEFAULT_RING_CAPACITY = 1024;
+	
+	/** 기본 링 버퍼 수집 주기 - 단위: ms */
+	public static final long DEFAULT_DRAIN_INTERVAL = 100;
+	
+	
+	/** 레코드 당 long 값의 개수 */
+	private final int recordSize;
+	
+	/** 스레드별 링 버퍼 크기 */
+	@Getter
+	private int ringCapacity = DEFAULT_RING_CAPACITY;
+	
+	/** 링 버퍼가 가득 찼을 경우의 처리 정책 */
+	@Getter
+	private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_NEWEST;
+	
+	/** 링 버퍼 수집 주기 - 단위: ms */
+	@Getter
+	private long drainInterval = DEFAULT_DRAIN_INTERVAL;
+	
+	/** 스레드별 링 버퍼 목록 - 링 버퍼 제거와 버려진 데이터 수 조회는 목록으로 동기화함 */
+	private final List<ThreadRing> ringList = new CopyOnWriteArrayList<>();
+	
+	/** 목록에서 제거된 링 버퍼의 버려진 데이터 수 합계 - ringList 로 동기화 */
+	private long removedDropCount = 0;
+	
+	/** 현재 스레드의 링 버퍼 */
+	private final ThreadLocal<LongRingBuffer> threadRing = ThreadLocal.withInitial(this::createRing);
+	
+	/** 링 버퍼 레코드 처리 핸들러 */
+	private final LongRecordHandler recordHandler = this::process;
+	
+	/** 통계 데이터 제거 대상 클라이언트 순번 목록 - 종료된 클라이언트 */
+	private final Queue<Integer> evictQueue = new ConcurrentLinkedQueue<>();
+	
+	/** 통계 생성 데몬 - 링 버퍼에서 데이터를 받아 통계 데이터를 생성하는 데몬 */
+	private AbstractDaemon statDaemon = null;
+	
+	
+	/**
+	 * 생성자
+	 * 
+	 * @param recordSize 레코드 당 long 값의 개수
+	 */
+	protected RingStatDaemon(int recordSize) {
+		this.recordSize = recordSize;
+	}
+	
+	/**
+	 * 링 버퍼 레코드로 통계 정보 생성 - 데몬 스레드에서만 호출됨
+	 * 
+	 * @param record 레코드 - 재사용되는 배열이므로 보관하면 안됨
+	 */
+	protected abstract void process(long[] record);
+	
+	/**
+	 * 링 버퍼 수집 후 호출됨(콜백) - 데몬 스레드에서만 호출됨<br>
+	 * 필요시 Override 하여 사용
+	 */
+	protected void afterDrain() {
+		// Do nothing
+	}
+	
+	/**
+	 * 종료된 클라이언트의 통계 데이터 제거 - 데몬 스레드에서만 호출됨<br>
+	 * 클라이언트별 통계 데이터가 있는 경우 Override 하여 사용
+	 * 
+	 * @param clientOrdinal 클라이언트 순번
+	 */
+	protected void evictClient(int clientOrdinal) {
+		// Do nothing
+	}
+	
+	/**
+	 * 종료된 클라이언트의 통계 데이터 제거 요청<br>
+	 * 데몬 스레드가 요청 전에 저장된 레코드를 처리한 후 제거함
+	 * 
+	 * @param clientOrdinal 클라이언트 순번
+	 */
+	public void removeClient(int clientOrdinal) {
+		
+		if(clientOrdinal <= 0) {
+			return;
+		}
+		
+		this.evictQueue.add(clientOrdinal);
+	}
+	
+	/**
+	 * 데이터 수집 방식 설정<br>
+	 * 통계 생성 데몬 기동 전에 호출해야 함
+	 * 
+	 * @param ringCapacity 스레드별 링 버퍼 크기
+	 * @param overflowPolicy 링 버퍼가 가득 찼을 경우의 처리 정책
+	 * @param drainInterval 링 버퍼 수집 주기 - 단위: ms
+	 * @return 현재 객체
+	 */
+	public synchronized RingStatDaemon setCapture(
+		int ringCapacity,
+		OverflowPolicy overflowPolicy,
+		long drainInterval
+	) {
+		
+		// 입력값 검증
+		if(ringCapacity <= 0) {
+			throw new IllegalArgumentException("'ringCapacity' must be greater than 0: " + ringCapacity);
+		}
+		
+		if(overflowPolicy == null) {
+			throw new IllegalArgumentException("'overflowPolicy' is null.");
+		}
+		
+		if(drainInterval <= 0) {
+			throw new IllegalArgumentException("'drainInterval' must be greater than 0: " + drainInterval);
+		}
+		
+		if(this.statDaemon != null) {
+			throw new IllegalStateException("stat daemon is already started.");
+		}
+		
+		// 수집 방식 설정
+		this.ringCapacity = ringCapacity;
+		this.overflowPolicy = overflowPolicy;
+		this.drainInterval = drainInterval;
+		
+		return this;
+	}
+	
+	/**
+	 * 현재 스레드의 링 버퍼 반환, 없을 경우 생성
+	 * 
+	 * @return 현재 스레드의 링 버퍼
+	 */
+	protected LongRingBuffer getRing() {
+		return this.threadRing.get();
+	}
+	
+	/**
+	 * 현재 스레드의 링 버퍼 생성 및 등록
+	 * 
+	 * @return 생성된 링 버퍼
+	 */
+	private LongRingBuffer createRing() {
+		
+		LongRingBuffer ring = new LongRingBuffer(this.ringCapacity, this.recordSize, this.overflowPolicy);
+		this.ringList.add(new ThreadRing(Thread.currentThread(), ring));
+		
+		return ring;
+	}
+	
+	/**
+	 * 모든 스레드의 링 버퍼에서 데이터를 꺼내 처리한 후, 종료된 클라이언트의 통계 데이터 제거<br>
+	 * 제거 요청을 먼저 꺼내 두므로 요청 전에 저장된 레코드는 제거 전에 처리됨<br>
+	 * 종료된 스레드의 비어 있는 링 버퍼는 목록에서 제거하며, 버려진 데이터 수는 합계에 더해 유지함
+	 */
+	private void drainRings() {
+		
+		// 제거 대상 클라이언트 순번 - 제거 요청이 없을 경우 객체를 생성하지 않음
+		List<Integer> evictList = null;
+		
+		if(this.evictQueue.isEmpty() == false) {
+			
+			evictList = new ArrayList<>();
+			
+			Integer clientOrdinal;
+			while((clientOrdinal = this.evictQueue.poll()) != null) {
+				evictList.add(clientOrdinal);
+			}
+		}
+		
+		for(ThreadRing threadRing: this.ringList) {
+			
+			threadRing.getRing().drain(this.recordHandler);
+			
+			if(threadRing.isOwnerAlive() == false && threadRing.getRing().isEmpty() == true) {
+				
+				// 제거와 합계 추가를 함께 수행하여 조회시 버려진 데이터 수가 감소하거나 중복되지 않도록 함
+				synchronized(this.ringList) {
+					this.removedDropCount += threadRing.getRing().getDropCount();
+					this.ringList.remove(threadRing);
+				}
+			}
+		}
+		
+		// 종료된 클라이언트의 통계 데이터 제거
+		if(evictList != null) {
+			for(int clientOrdinal: evictList) {
+				this.evictClient(clientOrdinal);
+			}
+		}
+	}
+	
+	/**
+	 * 통계 생성 데몬 기동
+	 * 
+	 * @return 현재 객체
+	 */
+	public synchronized RingStatDaemon start() {
+		
+		// 통계 생성 데몬 생성
+		if(this.statDaemon == null) {
+			
+			this.statDaemon = new AbstractDaemon() {
+				
+				@Override
+				protected void process() throws InterruptedException {
+					drainRings();
+					afterDrain();
+					Thread.sleep(drainInterval);
+				}
+				
+				@Override
+				protected void exit() {
+					drainRings();
+				}
+			};
+		}
+		
+		this.statDaemon.run();
+		return this;
+	}
+	
+	/**
+	 * 통계 생성 데몬 중지
+	 * 
+	 * @return 현재 객체
+	 */
+	public synchronized RingStatDaemon stop() {
+		
+		if(this.statDaemon != null) {
+			this.statDaemon.stop();
+		}
+		
+		return this;
+	}
+	
+	/**
+	 * 링 버퍼 초과로 버려진 데이터 수 반환<br>
+	 * 종료된 스레드의 링 버퍼가 제거되어도 감소하지 않음
+	 * 
+	 * @return 버려진 데이터 수
+	 */
+	public long getDropCount() {
+		
+		synchronized(this.ringList) {
+			
+			long dropCount = this.removedDropCount;
+			
+			for(ThreadRing threadRing: this.ringList) {
+				dropCount += threadRing.getRing().getDropCount();
+			}
+			
+			return dropCount;
+		}
+	}
+	
+	
+	/**
+	 * 스레드별 링 버퍼 클래스
+	 * 
+	 * @author jmsohn
+	 */
+	private static class ThreadRing {
+		
+		/** 링 버퍼를 소유한 스레드 - 스레드 종료시 메모리 해제를 위해 약한 참조 사용 */
+		private final WeakReference<Thread> owner;
+		
+		/** 링 버퍼 */
+		@Getter
+		private final LongRingBuffer ring;
+		
+		/**
+		 * 생성자
+		 * 
+		 * @param owner 링 버퍼를 소유한 스레드
+		 * @param ring 링 버퍼
+		 */
+		ThreadRing(Thread owner, LongRingBuffer ring) {
+			this.owner = new WeakReference<>(owner);
+			this.ring = ring;
+		}
+		
+		/**
+		 * 링 버퍼를 소유한 스레드가 동작 중인지 여부 반환
+		 * 
+		 * @return 소유 스레드 동작 여부
+		 */
+		boolean isOwnerAlive() {
+			
+			Thread thread = this.owner.get();
+			return thread != null && thread.isAlive() == true;
+		}
+	}
+}
@@ -0,0 +1,239 @@
+package com.redeye.kafexporter.acquisitor.kafka.stat;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import com.redeye.kafexporter.acquisitor.kafka.ClientRegistry;
+import com.redeye.kafexporter.acquisitor.kafka.TopicRegistry;
+
+/**
+ * 프로듀서 전송 지연 시간 통계 데몬 클래스<br>
+ * 수집 데이터는 (클라이언트 순번/토픽 순번, 전송 시간, 응답 시간) long 레코드로 스레드별 링 버퍼에 저장되며,<br>
+ * 데몬 스레드가 주기적으로 모든 링 버퍼를 수집하여 클라이언트/토픽별 통계 데이터를 생성함(RingStatDaemon 참고)<br>
+ * 지연 시간은 send 호출부터 브로커 응답(콜백 호출)까지의 시간이며,<br>
+ * 평균 등 모수는 ms 단위, 백분위 수는 us 단위 히스토그램에서 ms 단위로 변환하여 제공함
+ * 
+ * @author jmsohn
+ */
+public class SendStatDaemon extends RingStatDaemon {
+	
+	
+	/** 레코드 크기 - 클라이언트 순번/토픽 순번(및 플래그), 전송 시간, 응답 시간 */
+	private static final int RECORD_SIZE = 3;
+	
+	/** 전송 실패 여부 플래그 - 레코드의 첫번째 값의 최상위 비트에 설정 */
+	private static final long FLAG_ERROR = 1L << 63;
+	
+	/** 하위 32bit 마스크 */
+	private static final long LOW_MASK = 0xFFFFFFFFL;
+	
+	/** 토픽 순번 마스크 - 상위 32bit 중 플래그를 제외한 31bit */
+	private static final long TOPIC_MASK = 0x7FFFFFFFL;
+	
+	
+	/** 클라이언트 순번별 통계 데이터 - index: 클라이언트 순번, 데몬 스레드만 변경 */
+	private volatile ClientSendStat[] clientSendStats = new ClientSendStat[16];
+	
+	
+	/**
+	 * 생성자
+	 */
+	public SendStatDaemon() {
+		super(RECORD_SIZE);
+	}
+	
+	/**
+	 * 전송/응답 시간 데이터를 현재 스레드의 링 버퍼에 저장
+	 * 
+	 * @param clientOrdinal 클라이언트 순번
+	 * @param topicOrdinal 토픽 순번
+	 * @param sendTime 전송 시간 - System.nanoTime
+	 * @param ackTime 응답 시간 - System.nanoTime
+	 * @param error 전송 실패 여부
+	 */
+	public void send(int clientOrdinal, int topicOrdinal, long sendTime, long ackTime, boolean error) {
+		
+		long key = (clientOrdinal & LOW_MASK) | ((topicOrdinal & TOPIC_MASK) << 32);
+		
+		if(error == true) {
+			key |= FLAG_ERROR;
+		}
+		
+		this.getRing().offer(key, sendTime, ackTime);
+	}
+	
+	/**
+	 * 전송 레코드로 통계 정보 생성
+	 * 
+	 * @param record 전송 레코드 - 클라이언트 순번/토픽 순번(및 플래그), 전송 시간, 응답 시간
+	 */
+	@Override
+	protected void process(long[] record) {
+		
+		int clientOrdinal = (int)(record[0] & LOW_MASK);
+		int topicOrdinal = (int)((record[0] >>> 32) & TOPIC_MASK);
+		boolean error = (record[0] & FLAG_ERROR) != 0;
+		long latency = record[2] - record[1];
+		
+		// 스레드간 순서가 어긋나 음수가 된 경우 무시
+		if(latency < 0) {
+			return;
+		}
+		
+		// 통계 정보 저장
+		ClientSendStat clientStat = this.getOrCreateStat(clientOrdinal);
+		
+		clientStat.totalStat.add(latency, error);
+		clientStat.getOrCreateTopicStat(topicOrdinal).add(latency, error);
+	}
+	
+	/**
+	 * 클라이언트 순번의 통계 데이터 반환, 없을 경우 생성<br>
+	 * 데몬 스레드에서만 호출됨
+	 * 
+	 * @param clientOrdinal 클라이언트 순번
+	 * @return 통계 데이터
+	 */
+	private ClientSendStat getOrCreateStat(int clientOrdinal) {
+		
+		ClientSendStat[] curStats = this.clientSendStats;
+		
+		if(clientOrdinal >= curStats.length) {
+			curStats = Arrays.copyOf(curStats, Math.max(curStats.length * 2, clientOrdinal + 1));
+			this.clientSendStats = curStats;
+		}
+		
+		ClientSendStat sendStat = curStats[clientOrdinal];
+		
+		if(sendStat == null) {
+			sendStat = new ClientSendStat();
+			curStats[clientOrdinal] = sendStat;
+			this.clientSendStats = curStats;
+		}
+		
+		return sendStat;
+	}
+	
+	/**
+	 * 종료된 클라이언트의 통계 데이터 제거
+	 * 
+	 * @param clientOrdinal 클라이언트 순번
+	 */
+	@Override
+	protected void evictClient(int clientOrdinal) {
+		
+		ClientSendStat[] curStats = this.clientSendStats;
+		
+		if(clientOrdinal < curStats.length) {
+			curStats[clientOrdinal] = null;
+			this.clientSendStats = curStats;
+		}
+	}
+	
+	/**
+	 * 통계 데이터가 있는 클라이언트 아이디 목록 반환
+	 * 
+	 * @return 클라이언트 아이디 목록
+	 */
+	public Set<String> getClientIdSet() {
+		
+		Set<String> clientIdSet = new HashSet<>();
+		ClientSendStat[] curStats = this.clientSendStats;
+		
+		for(int clientOrdinal = 0; clientOrdinal < curStats.length; clientOrdinal++) {
+			
+			String clientId = ClientRegistry.getClientId(clientOrdinal);
+			
+			if(curStats[clientOrdinal] != null && clientId != null) {
+				clientIdSet.add(clientId);
+			}
+		}
+		
+		return clientIdSet;
+	}
+	
+	/**
+	 * 클라이언트 아이디의 전송 통계정보 반환
+	 * 
+	 * @param clientId 클라이언트 아이디
+	 * @return 전송 통계 정보 맵 - total: 전체 통계, topic: 토픽별 통계, 없을 경우 빈 맵
+	 */
+	public Map<String, Object> getStat(String clientId) {
+		
+		Map<String, Object> statMap = new LinkedHashMap<>();
+		
+		int clientOrdinal = ClientRegistry.getOrdinal(clientId);
+		ClientSendStat[] curStats = this.clientSendStats;
+		
+		if(clientOrdinal == ClientRegistry.NONE || clientOrdinal >= curStats.length || curStats[clientOrdinal] == null) {
+			return statMap;
+		}
+		
+		ClientSendStat clientStat = curStats[clientOrdinal];
+		
+		// 전체 통계
+		statMap.put("total", clientStat.totalStat.toMap());
+		
+		// 토픽별 통계
+		Map<String, Object> topicStatMap = new TreeMap<>();
+		LatencyStat[] curTopicStats = clientStat.topicStats;
+		
+		for(int topicOrdinal = 0; topicOrdinal < curTopicStats.length; topicOrdinal++) {
+			
+			String topic = TopicRegistry.getTopic(topicOrdinal);
+			
+			if(curTopicStats[topicOrdinal] != null && topic != null) {
+				topicStatMap.put(topic, curTopicStats[topicOrdinal].toMap());
+			}
+		}
+		
+		statMap.put("topic", topicStatMap);
+		
+		return statMap;
+	}
+	
+	
+	/**
+	 * 클라이언트별 전송 통계 데이터 클래스
+	 * 
+	 * @author jmsohn
+	 */
+	private static class ClientSendStat {
+		
+		/** 클라이언트 전체 통계 데이터 */
+		final LatencyStat totalStat = new LatencyStat();
+		
+		/** 토픽 순번별 통계 데이터 - index: 토픽 순번, 데몬 스레드만 변경 */
+		volatile LatencyStat[] topicStats = new LatencyStat[16];
+		
+		/**
+		 * 토픽 순번의 통계 데이터 반환, 없을 경우 생성
+		 * 
+		 * @param topicOrdinal 토픽 순번
+		 * @return 통계 데이터
+		 */
+		LatencyStat getOrCreateTopicStat(int topicOrdinal) {
+			
+			LatencyStat[] curStats = this.topicStats;
+			
+			if(topicOrdinal >= curStats.length) {
+				curStats = Arrays.copyOf(curStats, Math.max(curStats.length * 2, topicOrdinal + 1));
+				this.topicStats = curStats;
+			}
+			
+			LatencyStat topicStat = curStats[topicOrdinal];
+			
+			if(topicStat == null) {
+				topicStat = new LatencyStat();
+				curStats[topicOrdinal] = topicStat;
+				this.topicStats = curStats;
+			}
+			
+			return topicStat;
+		}
+	}
+}
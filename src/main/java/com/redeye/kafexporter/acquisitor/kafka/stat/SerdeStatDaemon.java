@@ -0,0 +1,362 @@
+package com.redeye.kafexporter.acquisitor.kafka.stat;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.redeye.kafexporter.acquisitor.kafka.TopicRegistry;
+import com.redeye.kafexporter.util.OrdinalRegistry;
+import com.redeye.kafexporter.util.stat.Histogram;
+import com.redeye.kafexporter.util.stat.Parameter;
+import com.redeye.kafexporter.util.stat.Sampler;
+
+import lombok.Getter;
+
+/**
+ * Serializer/Deserializer 수행 통계 데몬 클래스<br>
+ * 수집 데이터는 (클래스 순번/토픽 순번(및 플래그), 수행 시간, 가중치/페이로드 크기) long 레코드로<br>
+ * 스레드별 링 버퍼에 저장되며, 데몬 스레드가 주기적으로 수집하여 클래스 및 토픽별 통계 데이터를 생성함(RingStatDaemon 참고)<br>
+ * 레코드마다 호출되므로 샘플링하여 수집하며, 호출 수는 샘플 가중치로 보정함(Sampler 참고)<br>
+ * Serializer/Deserializer 객체는 클라이언트를 알 수 없으므로 클라이언트 대신 구현 클래스별로 구분함
+ * 
+ * @author jmsohn
+ */
+public class SerdeStatDaemon extends RingStatDaemon {
+	
+	
+	/** 레코드 크기 - 클래스 순번/토픽 순번(및 플래그), 수행 시간, 가중치/페이로드 크기 */
+	private static final int RECORD_SIZE = 3;
+	
+	/** Deserializer 여부 플래그 */
+	private static final long FLAG_DESERIALIZE = 1L << 63;
+	
+	/** 예외 발생 여부 플래그 */
+	private static final long FLAG_ERROR = 1L << 62;
+	
+	/** 하위 32bit 마스크 */
+	private static final long LOW_MASK = 0xFFFFFFFFL;
+	
+	/** 토픽 순번 마스크 - 상위 32bit 중 플래그를 제외한 30bit */
+	private static final long TOPIC_MASK = 0x3FFFFFFFL;
+	
+	/** ns 를 us 로 변환하기 위한 값 */
+	private static final double NANOS_PER_MICRO = 1000.0;
+	
+	
+	/** 호출 샘플링 객체 */
+	@Getter
+	private final Sampler sampler = new Sampler();
+	
+	/** 구현 클래스 명 순번 등록 객체 */
+	private final OrdinalRegistry classRegistry = new OrdinalRegistry();
+	
+	/** 구현 클래스별 순번 캐시 */
+	private final ClassValue<Integer> classOrdinals = new ClassValue<Integer>() {
+		@Override
+		protected Integer computeValue(Class<?> type) {
+			return classRegistry.getOrRegister(type.getName());
+		}
+	};
+	
+	/** Serializer 클래스 순번별 통계 데이터 - index: 클래스 순번, 데몬 스레드만 변경 */
+	private volatile ClassSerdeStat[] serializerStats = new ClassSerdeStat[16];
+	
+	/** Deserializer 클래스 순번별 통계 데이터 - index: 클래스 순번, 데몬 스레드만 변경 */
+	private volatile ClassSerdeStat[] deserializerStats = new ClassSerdeStat[16];
+	
+	
+	/**
+	 * 생성자
+	 */
+	public SerdeStatDaemon() {
+		super(RECORD_SIZE);
+	}
+	
+	/**
+	 * 구현 클래스의 순번 반환 - 미등록일 경우 등록 후 반환
+	 * 
+	 * @param type Serializer/Deserializer 구현 클래스
+	 * @return 클래스 순번
+	 */
+	public int getClassOrdinal(Class<?> type) {
+		return this.classOrdinals.get(type);
+	}
+	
+	/**
+	 * 수행 데이터를 현재 스레드의 링 버퍼에 저장
+	 * 
+	 * @param deserialize Deserializer 여부
+	 * @param classOrdinal 클래스 순번
+	 * @param topicOrdinal 토픽 순번
+	 * @param sample 샘플링 결과 - Sampler.sample 반환 값
+	 * @param elapsed 수행 시간 - 단위: ns
+	 * @param payloadSize 페이로드 크기 - 단위: byte, 알 수 없을 경우 음수
+	 * @param error 예외 발생 여부
+	 */
+	public void send(boolean deserialize, int classOrdinal, int topicOrdinal, int sample, long elapsed, int payloadSize, boolean error) {
+		
+		long key = (classOrdinal & LOW_MASK) | ((topicOrdinal & TOPIC_MASK) << 32);
+		
+		if(deserialize == true) {
+			key |= FLAG_DESERIALIZE;
+		}
+		
+		if(error == true) {
+			key |= FLAG_ERROR;
+		}
+		
+		long size = (((long)Sampler.getWeight(sample)) << 32) | (payloadSize & LOW_MASK);
+		
+		this.getRing().offer(key, elapsed, size);
+	}
+	
+	/**
+	 * 수행 레코드로 통계 정보 생성
+	 * 
+	 * @param record 수행 레코드 - 클래스 순번/토픽 순번(및 플래그), 수행 시간, 가중치/페이로드 크기
+	 */
+	@Override
+	protected void process(long[] record) {
+		
+		int classOrdinal = (int)(record[0] & LOW_MASK);
+		int topicOrdinal = (int)((record[0] >>> 32) & TOPIC_MASK);
+		boolean deserialize = (record[0] & FLAG_DESERIALIZE) != 0;
+		boolean error = (record[0] & FLAG_ERROR) != 0;
+		long elapsed = record[1];
+		int weight = (int)(record[2] >>> 32);
+		int payloadSize = (int)(record[2] & LOW_MASK);
+		
+		if(elapsed < 0) {
+			return;
+		}
+		
+		ClassSerdeStat classStat = this.getOrCreateStat(deserialize, classOrdinal);
+		
+		classStat.totalStat.add(weight, elapsed, payloadSize, error);
+		classStat.getOrCreateTopicStat(topicOrdinal).add(weight, elapsed, payloadSize, error);
+	}
+	
+	/**
+	 * 링 버퍼 수집 후 샘플링 비율 조정
+	 */
+	@Override
+	protected void afterDrain() {
+		this.sampler.adjust();
+	}
+	
+	/**
+	 * 클래스 순번의 통계 데이터 반환, 없을 경우 생성<br>
+	 * 데몬 스레드에서만 호출됨
+	 * 
+	 * @param deserialize Deserializer 여부
+	 * @param classOrdinal 클래스 순번
+	 * @return 통계 데이터
+	 */
+	private ClassSerdeStat getOrCreateStat(boolean deserialize, int classOrdinal) {
+		
+		ClassSerdeStat[] curStats = (deserialize == true)?this.deserializerStats:this.serializerStats;
+		
+		if(classOrdinal >= curStats.length) {
+			curStats = Arrays.copyOf(curStats, Math.max(curStats.length * 2, classOrdinal + 1));
+			this.setStats(deserialize, curStats);
+		}
+		
+		ClassSerdeStat classStat = curStats[classOrdinal];
+		
+		if(classStat == null) {
+			classStat = new ClassSerdeStat();
+			curStats[classOrdinal] = classStat;
+			this.setStats(deserialize, curStats);
+		}
+		
+		return classStat;
+	}
+	
+	/**
+	 * 클래스 순번별 통계 데이터 배열 설정
+	 * 
+	 * @param deserialize Deserializer 여부
+	 * @param stats 통계 데이터 배열
+	 */
+	private void setStats(boolean deserialize, ClassSerdeStat[] stats) {
+		
+		if(deserialize == true) {
+			this.deserializerStats = stats;
+		} else {
+			this.serializerStats = stats;
+		}
+	}
+	
+	/**
+	 * Serializer/Deserializer 통계정보 반환
+	 * 
+	 * @return 통계 정보 맵 - serializer: Serializer 클래스별 통계, deserializer: Deserializer 클래스별 통계, sampling: 샘플링 설정
+	 */
+	public Map<String, Object> getStat() {
+		
+		Map<String, Object> statMap = new LinkedHashMap<>();
+		
+		statMap.put("serializer", this.toMap(this.serializerStats));
+		statMap.put("deserializer", this.toMap(this.deserializerStats));
+		statMap.put("sampling", this.sampler.toMap());
+		
+		return statMap;
+	}
+	
+	/**
+	 * 클래스 순번별 통계 데이터를 맵 형태로 반환
+	 * 
+	 * @param curStats 클래스 순번별 통계 데이터
+	 * @return 통계 정보 맵 - key: 클래스 명, value: 통계 정보(total: 전체 통계, topic: 토픽별 통계)
+	 */
+	private Map<String, Object> toMap(ClassSerdeStat[] curStats) {
+		
+		Map<String, Object> classStatMap = new TreeMap<>();
+		
+		for(int classOrdinal = 0; classOrdinal < curStats.length; classOrdinal++) {
+			
+			String className = this.classRegistry.getName(classOrdinal);
+			ClassSerdeStat classStat = curStats[classOrdinal];
+			
+			if(classStat == null || className == null) {
+				continue;
+			}
+			
+			Map<String, Object> statMap = new LinkedHashMap<>();
+			
+			// 전체 통계
+			statMap.put("total", classStat.totalStat.toMap());
+			
+			// 토픽별 통계
+			Map<String, Object> topicStatMap = new TreeMap<>();
+			SerdeStat[] curTopicStats = classStat.topicStats;
+			
+			for(int topicOrdinal = 0; topicOrdinal < curTopicStats.length; topicOrdinal++) {
+				
+				String topic = TopicRegistry.getTopic(topicOrdinal);
+				
+				if(curTopicStats[topicOrdinal] != null && topic != null) {
+					topicStatMap.put(topic, curTopicStats[topicOrdinal].toMap());
+				}
+			}
+			
+			statMap.put("topic", topicStatMap);
+			
+			classStatMap.put(className, statMap);
+		}
+		
+		return classStatMap;
+	}
+	
+	
+	/**
+	 * 구현 클래스별 통계 데이터 클래스
+	 * 
+	 * @author jmsohn
+	 */
+	private static class ClassSerdeStat {
+		
+		/** 클래스 전체 통계 데이터 */
+		final SerdeStat totalStat = new SerdeStat();
+		
+		/** 토픽 순번별 통계 데이터 - index: 토픽 순번, 데몬 스레드만 변경 */
+		volatile SerdeStat[] topicStats = new SerdeStat[16];
+		
+		/**
+		 * 토픽 순번의 통계 데이터 반환, 없을 경우 생성
+		 * 
+		 * @param topicOrdinal 토픽 순번
+		 * @return 통계 데이터
+		 */
+		SerdeStat getOrCreateTopicStat(int topicOrdinal) {
+			
+			SerdeStat[] curStats = this.topicStats;
+			
+			if(topicOrdinal >= curStats.length) {
+				curStats = Arrays.copyOf(curStats, Math.max(curStats.length * 2, topicOrdinal + 1));
+				this.topicStats = curStats;
+			}
+			
+			SerdeStat topicStat = curStats[topicOrdinal];
+			
+			if(topicStat == null) {
+				topicStat = new SerdeStat();
+				curStats[topicOrdinal] = topicStat;
+				this.topicStats = curStats;
+			}
+			
+			return topicStat;
+		}
+	}
+	
+	/**
+	 * Serializer/Deserializer 수행 통계 데이터 클래스
+	 * 
+	 * @author jmsohn
+	 */
+	private static class SerdeStat {
+		
+		/** 호출 수 - 샘플 가중치로 보정한 값 */
+		volatile long callCount;
+		
+		/** 예외 발생 수 - 샘플링된 호출만 포함 */
+		volatile long errorCount;
+		
+		/** 수행 시간 통계 데이터 - 단위: us */
+		final Parameter timeStat = new Parameter();
+		
+		/** 수행 시간 히스토그램 - 단위: ns */
+		final Histogram timeHistogram = new Histogram();
+		
+		/** 페이로드 크기 통계 데이터 - 단위: byte */
+		final Parameter payloadStat = new Parameter();
+		
+		/** 페이로드 크기 히스토그램 - 단위: byte */
+		final Histogram payloadHistogram = new Histogram();
+		
+		/**
+		 * 수행 데이터 추가
+		 * 
+		 * @param weight 샘플 가중치
+		 * @param elapsed 수행 시간 - 단위: ns
+		 * @param payloadSize 페이로드 크기 - 음수일 경우 제외
+		 * @param error 예외 발생 여부
+		 */
+		void add(int weight, long elapsed, int payloadSize, boolean error) {
+			
+			this.callCount += weight;
+			
+			if(error == true) {
+				this.errorCount++;
+			}
+			
+			this.timeStat.add(elapsed / NANOS_PER_MICRO);
+			this.timeHistogram.add(elapsed);
+			
+			if(payloadSize >= 0) {
+				this.payloadStat.add(payloadSize);
+				this.payloadHistogram.add(payloadSize);
+			}
+		}
+		
+		/**
+		 * 통계 정보를 맵 형태로 반환
+		 * 
+		 * @return 통계 정보 맵 - 수행 시간 단위: us
+		 */
+		Map<String, Object> toMap() {
+			
+			Map<String, Object> map = new LinkedHashMap<>();
+			
+			map.put("callCount", this.callCount);
+			map.put("errorCount", this.errorCount);
+			map.put("time", this.timeStat.toMap());
+			map.put("timePercentile", this.timeHistogram.toMap(NANOS_PER_MICRO));
+			map.put("payload", this.payloadStat.toMap());
+			map.put("payloadPercentile", this.payloadHistogram.toMap(1));
+			
+			return map;
+		}
+	}
+}
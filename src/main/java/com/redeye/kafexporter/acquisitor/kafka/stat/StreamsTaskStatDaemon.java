@@ -0,0 +1,371 @@
+package com.redeye.kafexporter.acquisitor.kafka.stat;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.redeye.kafexporter.acquisitor.kafka.ClientRegistry;
+import com.redeye.kafexporter.util.stat.Histogram;
+import com.redeye.kafexporter.util.stat.Parameter;
+import com.redeye.kafexporter.util.stat.Sampler;
+
+import lombok.Getter;
+
+/**
+ * Kafka Streams 태스크 수행 통계 데몬 클래스<br>
+ * 수집 데이터는 (클라이언트 순번/작업 종류/가중치, 태스크 키, 수행 시간) long 레코드로 스레드별 링 버퍼에 저장됨(RingStatDaemon 참고)<br>
+ * 클라이언트는 스트림 스레드의 메인 컨슈머이며, 태스크 키는 TaskId 의 (subtopology, partition) 을 하나의 long 으로 묶은 값임<br>
+ * 레코드 처리(process)는 레코드마다 호출되므로 샘플링하며, 호출 수는 샘플 가중치로 보정함(Sampler 참고)
+ * 
+ * @author jmsohn
+ */
+public class StreamsTaskStatDaemon extends RingStatDaemon {
+	
+	
+	/**
+	 * 태스크 작업 종류
+	 * 
+	 * @author jmsohn
+	 */
+	public enum Work {
+		
+		/** 레코드 처리 - StreamTask.process */
+		PROCESS("process"),
+		
+		/** 펑추에이터 수행 - StreamTask.punctuate */
+		PUNCTUATE("punctuate");
+		
+		/** 작업 명 */
+		@Getter
+		private final String workName;
+		
+		/**
+		 * 생성자
+		 * 
+		 * @param workName 작업 명
+		 */
+		Work(String workName) {
+			this.workName = workName;
+		}
+	}
+	
+	
+	/** 레코드 크기 - 클라이언트 순번/작업 종류/가중치, 태스크 키, 수행 시간 */
+	private static final int RECORD_SIZE = 3;
+	
+	/** 작업 종류 위치 - 레코드의 첫번째 값의 32~39bit 에 저장 */
+	private static final int WORK_SHIFT = 32;
+	
+	/** 샘플 가중치 위치 - 레코드의 첫번째 값의 상위 24bit 에 저장 */
+	private static final int WEIGHT_SHIFT = 40;
+	
+	/** 하위 32bit 마스크 */
+	private static final long LOW_MASK = 0xFFFFFFFFL;
+	
+	/** 작업 종류 마스크 */
+	private static final long WORK_MASK = 0xFFL;
+	
+	/** 작업 종류 목록 - 레코드의 작업 순번을 작업 종류로 변환하기 위함 */
+	private static final Work[] WORKS = Work.values();
+	
+	/** ns 를 us 로 변환하기 위한 값 */
+	private static final double NANOS_PER_MICRO = 1000.0;
+	
+	
+	/** 클라이언트 순번별 통계 데이터 - index: 클라이언트 순번, 데몬 스레드만 변경 */
+	private volatile ClientTaskStat[] clientTaskStats = new ClientTaskStat[16];
+	
+	/** 레코드 처리 샘플링 객체 */
+	@Getter
+	private final Sampler sampler = new Sampler();
+	
+	
+	/**
+	 * 생성자
+	 */
+	public StreamsTaskStatDaemon() {
+		super(RECORD_SIZE);
+	}
+	
+	/**
+	 * 태스크 키 생성
+	 * 
+	 * @param subtopology 서브 토폴로지 번호
+	 * @param partition 파티션 번호
+	 * @return 태스크 키
+	 */
+	public static long toTaskKey(int subtopology, int partition) {
+		return ((subtopology & LOW_MASK) << 32) | (partition & LOW_MASK);
+	}
+	
+	/**
+	 * 태스크 작업 수행 데이터를 현재 스레드의 링 버퍼에 저장
+	 * 
+	 * @param clientOrdinal 클라이언트 순번
+	 * @param work 작업 종류
+	 * @param sample 샘플링 결과 - Sampler.sample 반환 값
+	 * @param taskKey 태스크 키
+	 * @param elapsed 수행 시간 - 단위: ns
+	 */
+	public void send(int clientOrdinal, Work work, int sample, long taskKey, long elapsed) {
+		
+		long key = (clientOrdinal & LOW_MASK)
+			| ((long)work.ordinal() << WORK_SHIFT)
+			| (((long)Sampler.getWeight(sample)) << WEIGHT_SHIFT);
+		
+		this.getRing().offer(key, taskKey, elapsed);
+	}
+	
+	/**
+	 * 태스크 작업 레코드로 통계 정보 생성
+	 * 
+	 * @param record 태스크 작업 레코드 - 클라이언트 순번/작업 종류/가중치, 태스크 키, 수행 시간
+	 */
+	@Override
+	protected void process(long[] record) {
+		
+		int clientOrdinal = (int)(record[0] & LOW_MASK);
+		Work work = WORKS[(int)((record[0] >>> WORK_SHIFT) & WORK_MASK)];
+		int weight = (int)(record[0] >>> WEIGHT_SHIFT);
+		long taskKey = record[1];
+		long elapsed = record[2];
+		
+		if(elapsed < 0) {
+			return;
+		}
+		
+		ClientTaskStat clientStat = this.getOrCreateStat(clientOrdinal);
+		
+		clientStat.totalStats[work.ordinal()].add(weight, elapsed);
+		clientStat.getOrCreateTaskStats(taskKey)[work.ordinal()].add(weight, elapsed);
+	}
+	
+	/**
+	 * 링 버퍼 수집 후 샘플링 비율 조정
+	 */
+	@Override
+	protected void afterDrain() {
+		this.sampler.adjust();
+	}
+	
+	/**
+	 * 클라이언트 순번의 통계 데이터 반환, 없을 경우 생성<br>
+	 * 데몬 스레드에서만 호출됨
+	 * 
+	 * @param clientOrdinal 클라이언트 순번
+	 * @return 통계 데이터
+	 */
+	private ClientTaskStat getOrCreateStat(int clientOrdinal) {
+		
+		ClientTaskStat[] curStats = this.clientTaskStats;
+		
+		if(clientOrdinal >= curStats.length) {
+			curStats = Arrays.copyOf(curStats, Math.max(curStats.length * 2, clientOrdinal + 1));
+			this.clientTaskStats = curStats;
+		}
+		
+		ClientTaskStat taskStat = curStats[clientOrdinal];
+		
+		if(taskStat == null) {
+			taskStat = new ClientTaskStat();
+			curStats[clientOrdinal] = taskStat;
+			this.clientTaskStats = curStats;
+		}
+		
+		return taskStat;
+	}
+	
+	/**
+	 * 종료된 클라이언트의 통계 데이터 제거
+	 * 
+	 * @param clientOrdinal 클라이언트 순번
+	 */
+	@Override
+	protected void evictClient(int clientOrdinal) {
+		
+		ClientTaskStat[] curStats = this.clientTaskStats;
+		
+		if(clientOrdinal < curStats.length) {
+			curStats[clientOrdinal] = null;
+			this.clientTaskStats = curStats;
+		}
+	}
+	
+	/**
+	 * 통계 데이터가 있는 클라이언트 아이디 목록 반환
+	 * 
+	 * @return 클라이언트 아이디 목록
+	 */
+	public Set<String> getClientIdSet() {
+		
+		Set<String> clientIdSet = new HashSet<>();
+		ClientTaskStat[] curStats = this.clientTaskStats;
+		
+		for(int clientOrdinal = 0; clientOrdinal < curStats.length; clientOrdinal++) {
+			
+			String clientId = ClientRegistry.getClientId(clientOrdinal);
+			
+			if(curStats[clientOrdinal] != null && clientId != null) {
+				clientIdSet.add(clientId);
+			}
+		}
+		
+		return clientIdSet;
+	}
+	
+	/**
+	 * 클라이언트 아이디의 태스크 수행 통계정보 반환<br>
+	 * 태스크는 TaskId 문자열 형식(subtopology_partition)으로 표시함
+	 * 
+	 * @param clientId 클라이언트 아이디
+	 * @return 태스크 수행 통계 정보 맵 - total: 전체 통계, task: 태스크별 통계, 없을 경우 빈 맵
+	 */
+	public Map<String, Object> getStat(String clientId) {
+		
+		Map<String, Object> statMap = new LinkedHashMap<>();
+		
+		int clientOrdinal = ClientRegistry.getOrdinal(clientId);
+		ClientTaskStat[] curStats = this.clientTaskStats;
+		
+		if(clientOrdinal == ClientRegistry.NONE || clientOrdinal >= curStats.length || curStats[clientOrdinal] == null) {
+			return statMap;
+		}
+		
+		ClientTaskStat clientStat = curStats[clientOrdinal];
+		
+		// 전체 통계
+		statMap.put("total", toMap(clientStat.totalStats));
+		
+		// 태스크별 통계 - 키 순서(subtopology, partition)로 정렬
+		Map<Long, Object> sortedTaskStatMap = new TreeMap<>();
+		for(Map.Entry<Long, TaskStat[]> entry: clientStat.taskStatMap.entrySet()) {
+			sortedTaskStatMap.put(entry.getKey(), toMap(entry.getValue()));
+		}
+		
+		Map<String, Object> taskStatMap = new LinkedHashMap<>();
+		for(Map.Entry<Long, Object> entry: sortedTaskStatMap.entrySet()) {
+			
+			long taskKey = entry.getKey();
+			taskStatMap.put((taskKey >>> 32) + "_" + (int)(taskKey & LOW_MASK), entry.getValue());
+		}
+		
+		statMap.put("task", taskStatMap);
+		statMap.put("sampling", this.sampler.toMap());
+		
+		return statMap;
+	}
+	
+	/**
+	 * 작업 종류별 통계 데이터를 맵 형태로 변환 - 수행 기록이 없는 작업은 제외
+	 * 
+	 * @param taskStats 작업 종류별 통계 데이터 - index: 작업 종류 순번
+	 * @return 통계 정보 맵 - key: 작업 명, value: 통계 정보
+	 */
+	private static Map<String, Object> toMap(TaskStat[] taskStats) {
+		
+		Map<String, Object> map = new LinkedHashMap<>();
+		
+		for(Work work: WORKS) {
+			
+			TaskStat taskStat = taskStats[work.ordinal()];
+			
+			if(taskStat.callCount > 0) {
+				map.put(work.getWorkName(), taskStat.toMap());
+			}
+		}
+		
+		return map;
+	}
+	
+	/**
+	 * 작업 종류별 통계 데이터 배열 생성
+	 * 
+	 * @return 작업 종류별 통계 데이터 - index: 작업 종류 순번
+	 */
+	private static TaskStat[] newTaskStats() {
+		
+		TaskStat[] taskStats = new TaskStat[WORKS.length];
+		
+		for(int index = 0; index < taskStats.length; index++) {
+			taskStats[index] = new TaskStat();
+		}
+		
+		return taskStats;
+	}
+	
+	
+	/**
+	 * 클라이언트별 태스크 수행 통계 데이터 클래스
+	 * 
+	 * @author jmsohn
+	 */
+	private static class ClientTaskStat {
+		
+		/** 클라이언트 전체 통계 데이터 - index: 작업 종류 순번 */
+		final TaskStat[] totalStats = newTaskStats();
+		
+		/** 태스크별 통계 데이터 - key: 태스크 키, value: 작업 종류별 통계 데이터, 데몬 스레드만 변경 */
+		final Map<Long, TaskStat[]> taskStatMap = new ConcurrentHashMap<>();
+		
+		/**
+		 * 태스크 키의 통계 데이터 반환, 없을 경우 생성
+		 * 
+		 * @param taskKey 태스크 키
+		 * @return 작업 종류별 통계 데이터
+		 */
+		TaskStat[] getOrCreateTaskStats(long taskKey) {
+			return this.taskStatMap.computeIfAbsent(taskKey, key -> newTaskStats());
+		}
+	}
+	
+	/**
+	 * 태스크 작업 수행 통계 데이터 클래스
+	 * 
+	 * @author jmsohn
+	 */
+	private static class TaskStat {
+		
+		/** 호출 수 - 샘플 가중치로 보정한 값 */
+		volatile long callCount;
+		
+		/** 수행 시간 통계 데이터 - 단위: us */
+		final Parameter timeStat = new Parameter();
+		
+		/** 수행 시간 히스토그램 - 단위: ns */
+		final Histogram timeHistogram = new Histogram();
+		
+		/**
+		 * 수행 데이터 추가
+		 * 
+		 * @param weight 샘플 가중치
+		 * @param elapsed 수행 시간 - 단위: ns
+		 */
+		void add(int weight, long elapsed) {
+			
+			this.callCount += weight;
+			
+			this.timeStat.add(elapsed / NANOS_PER_MICRO);
+			this.timeHistogram.add(elapsed);
+		}
+		
+		/**
+		 * 통계 정보를 맵 형태로 반환
+		 * 
+		 * @return 통계 정보 맵 - 수행 시간 단위: us
+		 */
+		Map<String, Object> toMap() {
+			
+			Map<String, Object> map = new LinkedHashMap<>();
+			
+			map.put("callCount", this.callCount);
+			map.put("time", this.timeStat.toMap());
+			map.put("timePercentile", this.timeHistogram.toMap(NANOS_PER_MICRO));
+			
+			return map;
+		}
+	}
+}
@@ -1,105 +1,711 @@
 package com.redeye.kafexporter.acquisitor.kafka.stat;
 
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
 
-import com.redeye.kafexporter.acquisitor.kafka.model.ClientTimeDTO;
-import com.redeye.kafexporter.util.daemon.QueueDaemon;
+import com.redeye.kafexporter.acquisitor.kafka.ClientRegistry;
+import com.redeye.kafexporter.util.stat.Histogram;
 import com.redeye.kafexporter.util.stat.Parameter;
+import com.redeye.kafexporter.util.stat.Sampler;
 
 import lombok.Getter;
 
 /**
- * 시간 통계 데몬 클래스
+ * 시간 통계 데몬 클래스<br>
+ * 수집 데이터는 (클라이언트 순번, 진입 시간, 종료 시간, 레코드 수/크기) long 레코드로 스레드별 링 버퍼에 저장되며,<br>
+ * 데몬 스레드가 주기적으로 모든 링 버퍼를 수집하여 통계 데이터를 생성함(RingStatDaemon 참고)<br>
+ * 시간은 System.nanoTime 으로 수집하며, 통계 데이터의 단위는 ms 임<br>
+ * 샘플링시 호출 간격/사이 시간은 연속으로 수집된 호출 사이에서만 계산하며,<br>
+ * 호출 수 및 레코드 수 합계는 샘플 가중치로 보정함(Sampler 참고)
  * 
  * @author jmsohn
  */
-public class TimeStatDaemon {
+public class TimeStatDaemon extends RingStatDaemon {
 	
 	
-	/** 클라이언트 아이디별 최종 시간 데이터 - key: 클라이언트 아이디, value: 시간 데이터 */
-	private final Map<String, Long> clientTimeMap = new ConcurrentHashMap<>();
+	/**
+	 * 시간 통계 종류
+	 * 
+	 * @author jmsohn
+	 */
+	public enum StatType {
+		
+		/** 호출 간격 - 이전 호출 진입부터 현재 호출 진입까지의 시간(poll 의 경우 전체 루프 시간) */
+		INTERVAL("interval"),
+		
+		/** 수행 시간 - 호출 진입부터 종료까지의 시간(poll 의 경우 poll 에서 대기한 시간) */
+		DURATION("duration"),
+		
+		/** 호출 사이 시간 - 이전 호출 종료부터 현재 호출 진입까지의 시간(poll 의 경우 어플리케이션 처리 시간) */
+		GAP("gap"),
+		
+		/** 호출당 레코드 수 */
+		RECORD_COUNT("recordCount"),
+		
+		/** 호출당 레코드 크기 - 단위: byte, 샘플링된 호출만 포함 */
+		RECORD_BYTES("recordBytes"),
+		
+		/** 레코드당 평균 직렬화 크기 - 단위: byte, 샘플링된 호출만 포함 */
+		RECORD_SIZE("recordSize"),
+		
+		/** 레코드당 처리 시간 - 호출 사이 시간을 이전 호출의 레코드 수로 나눈 값 */
+		RECORD_PROCESSING("recordProcessing");
+		
+		/** 통계 명 */
+		@Getter
+		private final String statName;
+		
+		/**
+		 * 생성자
+		 * 
+		 * @param statName 통계 명
+		 */
+		StatType(String statName) {
+			this.statName = statName;
+		}
+	}
 	
-	/** 클라이언트 아이디별 시간 통계 데이터 - key: 클라이언트 아이디, value: 시간 통계 데이터 */
-	private final Map<String, Parameter> clientTimeStatMap = new ConcurrentHashMap<>();
-
-	/** 시간 수집 큐 - 클라이언트 별 시간 데이터를 수신하는 큐 */
+	
+	/** 레코드 크기 - 클라이언트 순번(및 플래그), 진입 시간, 종료 시간, 레코드 수(상위 32bit)/평균 크기(하위 32bit) */
+	private static final int RECORD_SIZE = 4;
+	
+	/** 진입 시간 포함 여부 플래그 - 레코드의 첫번째 값의 상위 비트에 설정 */
+	private static final long FLAG_ENTER = 1L << 32;
+	
+	/** 레코드 수 포함 여부 플래그 */
+	private static final long FLAG_COUNT = 1L << 33;
+	
+	/** 레코드 평균 크기 포함 여부 플래그 */
+	private static final long FLAG_SIZE = 1L << 34;
+	
+	/** 이전 호출 연속 수집 여부 플래그 */
+	private static final long FLAG_CONTIGUOUS = 1L << 35;
+	
+	/** 예외 발생 여부 플래그 */
+	private static final long FLAG_ERROR = 1L << 36;
+	
+	/** 예외 발생 수만 포함 여부 플래그 - 샘플링되지 않은 호출의 예외 */
+	private static final long FLAG_ERROR_ONLY = 1L << 37;
+	
+	/** 마지막 종료 시간 값 - 호출 중인 경우 */
+	public static final long IN_CALL = Long.MIN_VALUE;
+	
+	/** 마지막 종료 시간 값 - 호출 기록이 없는 경우 */
+	public static final long NO_CALL = 0L;
+	
+	/** 샘플 가중치 위치 - 레코드의 첫번째 값의 상위 24bit 에 저장 */
+	private static final int WEIGHT_SHIFT = 40;
+	
+	/** 하위 32bit 마스크 */
+	private static final long LOW_MASK = 0xFFFFFFFFL;
+	
+	/** ns 를 s 로 변환하기 위한 값 */
+	private static final double NANOS_PER_SECOND = 1000000000.0;
+	
+	/** ns 를 ms 로 변환하기 위한 값 */
+	private static final double NANOS_PER_MILLI = 1000000.0;
+	
+	/** ns 를 us 로 변환하기 위한 값 */
+	private static final long NANOS_PER_MICRO = 1000L;
+	
+	/** us 를 ms 로 변환하기 위한 값 */
+	private static final double MICROS_PER_MILLI = 1000.0;
+	
+	
+	/** 클라이언트 순번별 통계 데이터 - index: 클라이언트 순번, 데몬 스레드만 변경 */
+	private volatile ClientTimeStat[] clientTimeStats = new ClientTimeStat[16];
+	
+	/** 클라이언트 순번별 마지막 종료 시간 - index: 클라이언트 순번, 샘플링과 관계 없이 호출 스레드에서 직접 변경 */
+	private volatile AtomicLongArray lastExitTimes = new AtomicLongArray(16);
+	
+	/** 호출 샘플링 객체 */
 	@Getter
-	private final BlockingQueue<ClientTimeDTO> queue = new LinkedBlockingQueue<>();
-
-	/** 통계 생성 데몬 - 시간 수집 큐에서 데이터를 받아 통계 데이터를 생성하는 데몬 */
-	private QueueDaemon<ClientTimeDTO> timeStatDaemon = null;
+	private final Sampler sampler = new Sampler();
 	
 	
 	/**
 	 * 생성자
 	 */
 	public TimeStatDaemon() {
+		super(RECORD_SIZE);
+	}
+	
+	/**
+	 * 진입/종료 시간 데이터를 현재 스레드의 링 버퍼에 저장
+	 * 
+	 * @param clientOrdinal 클라이언트 순번
+	 * @param sample 샘플링 결과 - Sampler.sample 반환 값
+	 * @param enterTime 진입 시간 - System.nanoTime
+	 * @param exitTime 종료 시간 - System.nanoTime
+	 */
+	public void send(int clientOrdinal, int sample, long enterTime, long exitTime) {
+		this.getRing().offer(toKey(clientOrdinal, sample) | FLAG_ENTER, enterTime, exitTime);
+	}
+	
+	/**
+	 * 진입/종료 시간 및 반환 레코드 정보를 현재 스레드의 링 버퍼에 저장
+	 * 
+	 * @param clientOrdinal 클라이언트 순번
+	 * @param sample 샘플링 결과 - Sampler.sample 반환 값
+	 * @param enterTime 진입 시간 - System.nanoTime
+	 * @param exitTime 종료 시간 - System.nanoTime
+	 * @param recordCount 반환 레코드 수, 없을 경우 음수
+	 * @param recordSize 레코드당 평균 직렬화 크기, 샘플링하지 않은 경우 음수
+	 */
+	public void send(int clientOrdinal, int sample, long enterTime, long exitTime, int recordCount, int recordSize) {
+		this.send(clientOrdinal, sample, enterTime, exitTime, recordCount, recordSize, false);
+	}
+	
+	/**
+	 * 진입/종료 시간, 반환 레코드 정보 및 예외 발생 여부를 현재 스레드의 링 버퍼에 저장
+	 * 
+	 * @param clientOrdinal 클라이언트 순번
+	 * @param sample 샘플링 결과 - Sampler.sample 반환 값
+	 * @param enterTime 진입 시간 - System.nanoTime
+	 * @param exitTime 종료 시간 - System.nanoTime
+	 * @param recordCount 반환 레코드 수, 없을 경우 음수
+	 * @param recordSize 레코드당 평균 직렬화 크기, 샘플링하지 않은 경우 음수
+	 * @param error 예외 발생 여부
+	 */
+	public void send(int clientOrdinal, int sample, long enterTime, long exitTime, int recordCount, int recordSize, boolean error) {
 		
-		// 통계 생성 데몬 생성
-		this.timeStatDaemon = new QueueDaemon<>(
-			this.queue,
-			data -> {
-				
-				// 기존 값 저장 
-				Long prePollTime = clientTimeMap.get(data.getClientId());
-				
-				// 시간 저장
-				clientTimeMap.put(data.getClientId(), data.getTime());
+		long key = toKey(clientOrdinal, sample) | FLAG_ENTER;
+		
+		if(error == true) {
+			key |= FLAG_ERROR;
+		}
+		long value = 0;
+		
+		if(recordCount >= 0) {
+			key |= FLAG_COUNT;
+			value |= ((long)recordCount) << 32;
+		}
+		
+		if(recordSize >= 0) {
+			key |= FLAG_SIZE;
+			value |= recordSize & LOW_MASK;
+		}
+		
+		this.getRing().offer(key, enterTime, exitTime, value);
+	}
+	
+	/**
+	 * 샘플링되지 않은 호출의 예외 발생을 현재 스레드의 링 버퍼에 저장<br>
+	 * 예외 발생 수는 샘플링과 관계 없이 모두 수집하기 위함
+	 * 
+	 * @param clientOrdinal 클라이언트 순번
+	 */
+	public void sendError(int clientOrdinal) {
+		this.getRing().offer((clientOrdinal & LOW_MASK) | FLAG_ERROR_ONLY, 0, 0, 0);
+	}
+	
+	/**
+	 * 호출 진입 표시 - 링 버퍼를 거치지 않고 샘플링과 관계 없이 모든 호출에서 갱신함<br>
+	 * 호출 중인 클라이언트를 마지막 종료 이후 경과 시간 검사(PollIntervalWatchdog)에서 제외하기 위함
+	 * 
+	 * @param clientOrdinal 클라이언트 순번
+	 */
+	public void markEnter(int clientOrdinal) {
+		this.getLastExitTimes(clientOrdinal).lazySet(clientOrdinal, IN_CALL);
+	}
+	
+	/**
+	 * 호출 종료 시간 표시 - 링 버퍼를 거치지 않고 샘플링과 관계 없이 모든 호출에서 갱신함
+	 * 
+	 * @param clientOrdinal 클라이언트 순번
+	 * @param exitTime 종료 시간 - System.nanoTime
+	 */
+	public void markExit(int clientOrdinal, long exitTime) {
+		
+		// 종료 시간이 표시 값과 겹치지 않도록 보정
+		if(exitTime == IN_CALL || exitTime == NO_CALL) {
+			exitTime++;
+		}
+		
+		this.getLastExitTimes(clientOrdinal).lazySet(clientOrdinal, exitTime);
+	}
+	
+	/**
+	 * 클라이언트 순번의 마지막 종료 시간 배열 반환, 크기가 부족할 경우 확장<br>
+	 * 확장 중 다른 스레드의 표시 값은 유실될 수 있으나, 해당 클라이언트의 다음 호출에서 다시 표시됨
+	 * 
+	 * @param clientOrdinal 클라이언트 순번
+	 * @return 마지막 종료 시간 배열
+	 */
+	private AtomicLongArray getLastExitTimes(int clientOrdinal) {
+		
+		AtomicLongArray curTimes = this.lastExitTimes;
+		if(clientOrdinal < curTimes.length()) {
+			return curTimes;
+		}
+		
+		synchronized(this) {
+			
+			curTimes = this.lastExitTimes;
+			if(clientOrdinal < curTimes.length()) {
+				return curTimes;
+			}
+			
+			AtomicLongArray newTimes = new AtomicLongArray(Math.max(curTimes.length() * 2, clientOrdinal + 1));
+			for(int index = 0; index < curTimes.length(); index++) {
+				newTimes.set(index, curTimes.get(index));
+			}
+			
+			this.lastExitTimes = newTimes;
+			return newTimes;
+		}
+	}
+	
+	/**
+	 * 클라이언트 순번별 마지막 종료 시간 목록 반환 - 복사본
+	 * 
+	 * @return 마지막 종료 시간 목록 - index: 클라이언트 순번, 값: System.nanoTime 또는 IN_CALL, NO_CALL
+	 */
+	public long[] getLastExitTimes() {
+		
+		AtomicLongArray curTimes = this.lastExitTimes;
+		long[] times = new long[curTimes.length()];
+		
+		for(int index = 0; index < times.length; index++) {
+			times[index] = curTimes.get(index);
+		}
+		
+		return times;
+	}
+	
+	/**
+	 * 클라이언트 순번 및 샘플링 결과를 레코드의 첫번째 값으로 변환
+	 * 
+	 * @param clientOrdinal 클라이언트 순번
+	 * @param sample 샘플링 결과
+	 * @return 레코드의 첫번째 값
+	 */
+	private static long toKey(int clientOrdinal, int sample) {
+		
+		long key = (clientOrdinal & LOW_MASK) | (((long)Sampler.getWeight(sample)) << WEIGHT_SHIFT);
+		
+		if(Sampler.isContiguous(sample) == true) {
+			key |= FLAG_CONTIGUOUS;
+		}
+		
+		return key;
+	}
+	
+	/**
+	 * 시간 레코드로 통계 정보 생성
+	 * 
+	 * @param record 시간 레코드 - 클라이언트 순번(및 플래그, 가중치), 진입 시간, 종료 시간, 레코드 수/크기
+	 */
+	@Override
+	protected void process(long[] record) {
+		
+		int clientOrdinal = (int)(record[0] & LOW_MASK);
+		boolean hasEnter = (record[0] & FLAG_ENTER) != 0;
+		boolean hasCount = (record[0] & FLAG_COUNT) != 0;
+		boolean hasSize = (record[0] & FLAG_SIZE) != 0;
+		boolean contiguous = (record[0] & FLAG_CONTIGUOUS) != 0;
+		int weight = (int)(record[0] >>> WEIGHT_SHIFT);
+		long enterTime = record[1];
+		long exitTime = record[2];
+		int recordCount = (int)(record[3] >>> 32);
+		int recordSize = (int)(record[3] & LOW_MASK);
+		
+		// 통계 정보 저장
+		ClientTimeStat timeStat = this.getOrCreateStat(clientOrdinal);
+		
+		// 예외 발생 수
+		if((record[0] & (FLAG_ERROR | FLAG_ERROR_ONLY)) != 0) {
+			timeStat.errorCount++;
+		}
+		
+		if((record[0] & FLAG_ERROR_ONLY) != 0) {
+			return;
+		}
+		
+		timeStat.sampledCallCount++;
+		timeStat.estimatedCallCount += weight;
+		
+		if(timeStat.hasLast == false) {
+			
+			// 처리량 계산 시작 시간
+			timeStat.firstEnterTime = enterTime;
+			
+		} else if(contiguous == true) {
+			
+			// 호출 간격
+			addMillis(timeStat.intervalStat, enterTime - timeStat.lastEnterTime);
+			
+			// 호출 사이 시간 및 이전 호출 레코드당 처리 시간
+			if(hasEnter == true) {
 				
-				// 통계 정보 저장
-				Parameter timeStat = clientTimeStatMap.computeIfAbsent(
-					data.getClientId(), key -> new Parameter()
-				);
+				long gap = enterTime - timeStat.lastExitTime;
+				addMillis(timeStat.gapStat, gap);
 				
-				if(prePollTime != null) {
-					long interval = data.getTime() - prePollTime;
-					timeStat.add(interval);
+				if(timeStat.lastRecordCount > 0 && gap >= 0) {
+					timeStat.recordProcessingStat.add(gap / NANOS_PER_MILLI / timeStat.lastRecordCount);
 				}
-				
-				System.out.println("### STAT : \n" + timeStat);
 			}
-		);
+		}
+		
+		// 수행 시간
+		if(hasEnter == true) {
+			
+			addMillis(timeStat.durationStat, exitTime - enterTime);
+			
+			if(exitTime >= enterTime) {
+				timeStat.durationHistogram.add((exitTime - enterTime) / NANOS_PER_MICRO);
+			}
+		}
+		
+		// 레코드 수 및 크기
+		if(hasCount == true) {
+			
+			timeStat.recordCountStat.add(recordCount);
+			timeStat.totalRecordCount += (long)recordCount * weight;
+			
+			if(hasSize == true) {
+				timeStat.recordSizeStat.add(recordSize);
+				timeStat.recordBytesStat.add((double)recordSize * recordCount);
+			}
+		}
+		
+		// 시간 저장
+		timeStat.lastEnterTime = enterTime;
+		timeStat.lastExitTime = exitTime;
+		timeStat.lastRecordCount = (hasCount == true)?recordCount:0;
+		timeStat.hasLast = true;
+	}
+	
+	/**
+	 * ns 단위 시간을 ms 단위로 변환하여 통계에 추가<br>
+	 * 스레드간 순서가 어긋나 음수가 된 경우 무시함
+	 * 
+	 * @param stat 통계 데이터
+	 * @param nanos ns 단위 시간
+	 */
+	private static void addMillis(Parameter stat, long nanos) {
+		
+		if(nanos < 0) {
+			return;
+		}
+		
+		stat.add(nanos / NANOS_PER_MILLI);
+	}
+	
+	/**
+	 * 클라이언트 순번의 통계 데이터 반환, 없을 경우 생성<br>
+	 * 데몬 스레드에서만 호출됨
+	 * 
+	 * @param clientOrdinal 클라이언트 순번
+	 * @return 통계 데이터
+	 */
+	private ClientTimeStat getOrCreateStat(int clientOrdinal) {
+		
+		ClientTimeStat[] curStats = this.clientTimeStats;
+		
+		if(clientOrdinal >= curStats.length) {
+			curStats = Arrays.copyOf(curStats, Math.max(curStats.length * 2, clientOrdinal + 1));
+			this.clientTimeStats = curStats;
+		}
+		
+		ClientTimeStat timeStat = curStats[clientOrdinal];
+		
+		if(timeStat == null) {
+			timeStat = new ClientTimeStat();
+			curStats[clientOrdinal] = timeStat;
+			this.clientTimeStats = curStats;
+		}
+		
+		return timeStat;
+	}
+	
+	/**
+	 * 종료된 클라이언트의 통계 데이터 제거
+	 * 
+	 * @param clientOrdinal 클라이언트 순번
+	 */
+	@Override
+	protected void evictClient(int clientOrdinal) {
+		
+		ClientTimeStat[] curStats = this.clientTimeStats;
+		
+		if(clientOrdinal < curStats.length) {
+			curStats[clientOrdinal] = null;
+			this.clientTimeStats = curStats;
+		}
+		
+		// 마지막 종료 시간 초기화 - 클라이언트 종료 후에는 호출 스레드에서 다시 표시되지 않음
+		AtomicLongArray curTimes = this.lastExitTimes;
+		if(clientOrdinal < curTimes.length()) {
+			curTimes.set(clientOrdinal, NO_CALL);
+		}
+	}
+	
+	/**
+	 * 통계 데이터가 있는 클라이언트 아이디 목록 반환
+	 * 
+	 * @return 클라이언트 아이디 목록
+	 */
+	public Set<String> getClientIdSet() {
+		
+		Set<String> clientIdSet = new HashSet<>();
+		ClientTimeStat[] curStats = this.clientTimeStats;
+		
+		for(int clientOrdinal = 0; clientOrdinal < curStats.length; clientOrdinal++) {
+			
+			String clientId = ClientRegistry.getClientId(clientOrdinal);
+			
+			if(curStats[clientOrdinal] != null && clientId != null) {
+				clientIdSet.add(clientId);
+			}
+		}
+		
+		return clientIdSet;
 	}
 	
 	/**
-	 * 통계 생성 데몬 기동
+	 * 통계 종류별 통계정보 맵 반환
 	 * 
-	 * @return 현재 객체
+	 * @param statType 통계 종류
+	 * @return 통계정보 맵 - key: 클라이언트 아이디, value: 시간 통계 데이터
 	 */
-	public TimeStatDaemon start() {
-		this.timeStatDaemon.run();
-		return this;
+	public Map<String, Parameter> getStat(StatType statType) {
+		
+		Map<String, Parameter> statMap = new HashMap<>();
+		
+		for(String clientId: this.getClientIdSet()) {
+			
+			Parameter stat = this.getStat(clientId, statType);
+			
+			if(stat != null) {
+				statMap.put(clientId, stat);
+			}
+		}
+		
+		return statMap;
 	}
 	
 	/**
-	 * 통계 생성 데몬 중지
+	 * 클라이언트 아이디의 통계 종류별 통계정보 반환
 	 * 
-	 * @return 현재 객체
+	 * @param clientId 클라이언트 아이디
+	 * @param statType 통계 종류
+	 * @return 통계 정보, 없을 경우 null
 	 */
-	public TimeStatDaemon stop() {
-		this.timeStatDaemon.stop();
-		return this;
+	public Parameter getStat(String clientId, StatType statType) {
+		
+		int clientOrdinal = ClientRegistry.getOrdinal(clientId);
+		ClientTimeStat[] curStats = this.clientTimeStats;
+		
+		if(clientOrdinal == ClientRegistry.NONE || clientOrdinal >= curStats.length || curStats[clientOrdinal] == null) {
+			return null;
+		}
+		
+		return curStats[clientOrdinal].getStat(statType);
 	}
 	
 	/**
-	 * 통계정보 맵 반환
+	 * 클라이언트 아이디의 예외 발생 수 반환
 	 * 
-	 * @return 통계정보 맵
+	 * @param clientId 클라이언트 아이디
+	 * @return 예외 발생 수, 없을 경우 0
 	 */
-	public Map<String, Parameter> getStat() {
-		return this.clientTimeStatMap;
+	public long getErrorCount(String clientId) {
+		
+		int clientOrdinal = ClientRegistry.getOrdinal(clientId);
+		ClientTimeStat[] curStats = this.clientTimeStats;
+		
+		if(clientOrdinal == ClientRegistry.NONE || clientOrdinal >= curStats.length || curStats[clientOrdinal] == null) {
+			return 0;
+		}
+		
+		return curStats[clientOrdinal].errorCount;
 	}
 	
 	/**
-	 * 클라이언트 아이디의 통계정보 반환
+	 * 클라이언트 아이디의 처리량 정보 반환<br>
+	 * 호출 수 및 레코드 수는 샘플 가중치로 보정한 값이며,<br>
+	 * 초당 바이트 수는 샘플링된 레코드 평균 크기로 추정한 값임
 	 * 
 	 * @param clientId 클라이언트 아이디
-	 * @return 통계 정보
+	 * @return 처리량 정보 맵, 레코드 수 정보가 없을 경우 빈 맵
 	 */
-	public Parameter getStat(String clientId) {
-		return this.getStat().get(clientId);
+	public Map<String, Object> getThroughput(String clientId) {
+		
+		Map<String, Object> throughputMap = new LinkedHashMap<>();
+		
+		int clientOrdinal = ClientRegistry.getOrdinal(clientId);
+		ClientTimeStat[] curStats = this.clientTimeStats;
+		
+		if(clientOrdinal == ClientRegistry.NONE || clientOrdinal >= curStats.length || curStats[clientOrdinal] == null) {
+			return throughputMap;
+		}
+		
+		ClientTimeStat timeStat = curStats[clientOrdinal];
+		if(timeStat.recordCountStat.getCount() == 0) {
+			return throughputMap;
+		}
+		
+		// 처리량 계산
+		long totalRecordCount = timeStat.totalRecordCount;
+		double elapsedSecond = (timeStat.lastExitTime - timeStat.firstEnterTime) / NANOS_PER_SECOND;
+		double recordsPerSecond = (elapsedSecond > 0)?totalRecordCount / elapsedSecond:Double.NaN;
+		
+		throughputMap.put("totalRecordCount", totalRecordCount);
+		throughputMap.put("elapsedSecond", elapsedSecond);
+		throughputMap.put("callsPerSecond", (elapsedSecond > 0)?timeStat.estimatedCallCount / elapsedSecond:Double.NaN);
+		throughputMap.put("recordsPerSecond", recordsPerSecond);
+		
+		if(timeStat.recordSizeStat.getCount() > 0) {
+			throughputMap.put("bytesPerSecond", recordsPerSecond * timeStat.recordSizeStat.getMean());
+		}
+		
+		return throughputMap;
+	}
+	
+	/**
+	 * 클라이언트 아이디의 통계정보 반환<br>
+	 * 데이터가 없는 통계 종류는 제외하며, 수행 시간 백분위 수(durationPercentile) 및 샘플링 정보(sampling)를 포함함
+	 * 
+	 * @param clientId 클라이언트 아이디
+	 * @return 통계 정보 맵 - key: 통계 명, value: 통계 정보 맵
+	 */
+	public Map<String, Map<String, Object>> getStat(String clientId) {
+		
+		Map<String, Map<String, Object>> statMap = new LinkedHashMap<>();
+		
+		int clientOrdinal = ClientRegistry.getOrdinal(clientId);
+		ClientTimeStat[] curStats = this.clientTimeStats;
+		
+		if(clientOrdinal == ClientRegistry.NONE || clientOrdinal >= curStats.length || curStats[clientOrdinal] == null) {
+			return statMap;
+		}
+		
+		ClientTimeStat timeStat = curStats[clientOrdinal];
+		
+		for(StatType statType: StatType.values()) {
+			
+			Parameter stat = timeStat.getStat(statType);
+			
+			if(stat.getCount() > 0) {
+				statMap.put(statType.getStatName(), stat.toMap());
+			}
+		}
+		
+		// 수행 시간 백분위 수 - 단위: ms
+		if(timeStat.durationHistogram.getCount() > 0) {
+			statMap.put("durationPercentile", timeStat.durationHistogram.toMap(MICROS_PER_MILLI));
+		}
+		
+		// 샘플링 정보
+		Map<String, Object> samplingMap = this.sampler.toMap();
+		
+		samplingMap.put("sampledCalls", timeStat.sampledCallCount);
+		samplingMap.put("estimatedCalls", timeStat.estimatedCallCount);
+		
+		statMap.put("sampling", samplingMap);
+		
+		return statMap;
+	}
+	
+	/**
+	 * 링 버퍼 수집 후 샘플링 비율 조정
+	 */
+	@Override
+	protected void afterDrain() {
+		this.sampler.adjust();
+	}
+	
+	
+	/**
+	 * 클라이언트별 시간 통계 데이터 클래스
+	 * 
+	 * @author jmsohn
+	 */
+	private static class ClientTimeStat {
+		
+		/** 이전 데이터 존재 여부 */
+		boolean hasLast = false;
+		
+		/** 이전 진입 시간 */
+		long lastEnterTime;
+		
+		/** 이전 종료 시간 */
+		long lastExitTime;
+		
+		/** 이전 호출의 레코드 수 */
+		int lastRecordCount;
+		
+		/** 처음 진입 시간 - 처리량 계산용 */
+		long firstEnterTime;
+		
+		/** 전체 레코드 수 - 샘플 가중치로 보정한 값 */
+		long totalRecordCount;
+		
+		/** 수집된 호출 수 */
+		long sampledCallCount;
+		
+		/** 전체 호출 수 - 샘플 가중치로 보정한 값 */
+		long estimatedCallCount;
+		
+		/** 예외 발생 수 - 샘플링과 관계 없이 전체 호출의 예외 발생 수 */
+		volatile long errorCount;
+		
+		/** 호출 간격 통계 데이터 */
+		final Parameter intervalStat = new Parameter();
+		
+		/** 수행 시간 통계 데이터 */
+		final Parameter durationStat = new Parameter();
+		
+		/** 수행 시간 히스토그램 - 단위: us */
+		final Histogram durationHistogram = new Histogram();
+		
+		/** 호출 사이 시간 통계 데이터 */
+		final Parameter gapStat = new Parameter();
+		
+		/** 호출당 레코드 수 통계 데이터 */
+		final Parameter recordCountStat = new Parameter();
+		
+		/** 호출당 레코드 크기 통계 데이터 */
+		final Parameter recordBytesStat = new Parameter();
+		
+		/** 레코드당 평균 크기 통계 데이터 */
+		final Parameter recordSizeStat = new Parameter();
+		
+		/** 레코드당 처리 시간 통계 데이터 */
+		final Parameter recordProcessingStat = new Parameter();
+		
+		/**
+		 * 통계 종류에 해당하는 통계 데이터 반환
+		 * 
+		 * @param statType 통계 종류
+		 * @return 통계 데이터
+		 */
+		Parameter getStat(StatType statType) {
+			
+			switch(statType) {
+			case INTERVAL:
+				return this.intervalStat;
+			case DURATION:
+				return this.durationStat;
+			case GAP:
+				return this.gapStat;
+			case RECORD_COUNT:
+				return this.recordCountStat;
+			case RECORD_BYTES:
+				return this.recordBytesStat;
+			case RECORD_SIZE:
+				return this.recordSizeStat;
+			case RECORD_PROCESSING:
+				return this.recordProcessingStat;
+			default:
+				throw new IllegalArgumentException("unexpected stat type: " + statType);
+			}
+		}
 	}
 }
@@ -0,0 +1,161 @@
+package com.redeye.kafexporter.acquisitor.kafka.stat;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import net.bytebuddy.agent.builder.AgentBuilder;
+import net.bytebuddy.description.type.TypeDescription;
+import net.bytebuddy.dynamic.DynamicType;
+import net.bytebuddy.utility.JavaModule;
+
+/**
+ * 클래스 변환 부하 및 기동 시간 측정 클래스<br>
+ * 변환기 리스너로 등록되어, 변환기가 클래스마다 수행한 시간(대상 여부 판단 포함)을 onDiscovery ~ onComplete 구간으로 측정함<br>
+ * 변환 중 다른 클래스가 로딩되어 변환기가 중첩 호출된 경우 가장 바깥 구간만 측정하여 중복 합산을 막음<br>
+ * 기동 시간은 premain(agentmain) 진입부터 exporter 서비스 기동 완료까지의 시간임
+ * 
+ * @author jmsohn
+ */
+public class TransformMeter extends AgentBuilder.Listener.Adapter {
+	
+	
+	/** ns 를 ms 로 변환하기 위한 값 */
+	private static final double NANOS_PER_MILLI = 1000000.0;
+	
+	
+	/** 변환기 수행 시작 시간 및 중첩 깊이 - 스레드별, [0]: 시작 시간, [1]: 중첩 깊이 */
+	private final ThreadLocal<long[]> current = ThreadLocal.withInitial(() -> new long[2]);
+	
+	/** 변환기가 검사한 클래스 수 */
+	private final LongAdder discoveredCount = new LongAdder();
+	
+	/** 변환된 클래스 수 */
+	private final LongAdder transformedCount = new LongAdder();
+	
+	/** 변환 오류 수 */
+	private final LongAdder errorCount = new LongAdder();
+	
+	/** 변환기 수행 시간 합계 - 단위: ns */
+	private final LongAdder transformNanos = new LongAdder();
+	
+	/** 클래스당 최대 변환기 수행 시간 - 단위: ns */
+	private final AtomicLong maxTransformNanos = new AtomicLong();
+	
+	/** 에이전트 기동 시작 시간 - System.nanoTime, 기동 전일 경우 0 */
+	private volatile long startTime;
+	
+	/** 에이전트 기동 완료까지의 시간 - 단위: ns, 기동 중일 경우 -1 */
+	private volatile long readyNanos = -1;
+	
+	
+	/**
+	 * 에이전트 기동 시작 표시
+	 * 
+	 * @param startTime 기동 시작 시간 - System.nanoTime
+	 */
+	public void markStart(long startTime) {
+		this.startTime = startTime;
+	}
+	
+	/**
+	 * 에이전트 기동 완료 표시
+	 * 
+	 * @param readyTime 기동 완료 시간 - System.nanoTime
+	 */
+	public void markReady(long readyTime) {
+		this.readyNanos = readyTime - this.startTime;
+	}
+	
+	/**
+	 * 에이전트 기동 완료까지의 시간 반환
+	 * 
+	 * @return 기동 완료까지의 시간 - 단위: ms, 기동 중일 경우 -1
+	 */
+	public double getReadyTime() {
+		
+		long curReadyNanos = this.readyNanos;
+		return (curReadyNanos < 0)?-1:curReadyNanos / NANOS_PER_MILLI;
+	}
+	
+	/**
+	 * 변환기 수행 시간 합계 반환
+	 * 
+	 * @return 변환기 수행 시간 합계 - 단위: ms
+	 */
+	public double getTransformTime() {
+		return this.transformNanos.sum() / NANOS_PER_MILLI;
+	}
+	
+	/**
+	 * 클래스 변환 검사 시작시 - 변환기 수행 시작 시간 저장
+	 */
+	@Override
+	public void onDiscovery(String typeName, ClassLoader classLoader, JavaModule module, boolean loaded) {
+		
+		long[] state = this.current.get();
+		
+		if(state[1]++ == 0) {
+			state[0] = System.nanoTime();
+		}
+	}
+	
+	/**
+	 * 클래스 변환시 - 변환 클래스 수 증가
+	 */
+	@Override
+	public void onTransformation(TypeDescription typeDescription, ClassLoader classLoader, JavaModule module, boolean loaded, DynamicType dynamicType) {
+		this.transformedCount.increment();
+	}
+	
+	/**
+	 * 클래스 변환 오류시 - 오류 수 증가
+	 */
+	@Override
+	public void onError(String typeName, ClassLoader classLoader, JavaModule module, boolean loaded, Throwable throwable) {
+		this.errorCount.increment();
+	}
+	
+	/**
+	 * 클래스 변환 검사 완료시 - 변환기 수행 시간 합산
+	 */
+	@Override
+	public void onComplete(String typeName, ClassLoader classLoader, JavaModule module, boolean loaded) {
+		
+		long[] state = this.current.get();
+		
+		if(state[1] <= 0 || --state[1] > 0) {
+			return;
+		}
+		
+		long elapsed = System.nanoTime() - state[0];
+		
+		this.discoveredCount.increment();
+		this.transformNanos.add(elapsed);
+		this.maxTransformNanos.accumulateAndGet(elapsed, Math::max);
+	}
+	
+	/**
+	 * 측정 정보를 맵 형태로 반환<br>
+	 * JSON 변환용, 시간 단위: ms
+	 * 
+	 * @return 측정 정보 맵
+	 */
+	public Map<String, Object> toMap() {
+		
+		Map<String, Object> map = new LinkedHashMap<>();
+		
+		long count = this.discoveredCount.sum();
+		
+		map.put("readyTime", this.getReadyTime());
+		map.put("transformTime", this.getTransformTime());
+		map.put("discoveredCount", count);
+		map.put("transformedCount", this.transformedCount.sum());
+		map.put("errorCount", this.errorCount.sum());
+		map.put("transformNanosPerClass", (count > 0)?(double)this.transformNanos.sum() / count:Double.NaN);
+		map.put("maxTransformTime", this.maxTransformNanos.get() / NANOS_PER_MILLI);
+		
+		return map;
+	}
+}
@@ -0,0 +1,64 @@
+package com.redeye.kafexporter.exporter.http.kafka;
+
+import java.util.List;
+
+import com.redeye.kafexporter.acquisitor.kafka.KafkaTransformer;
+import com.redeye.kafexporter.util.JSONUtil;
+import com.redeye.kafexporter.util.http.service.HttpMethod;
+import com.redeye.kafexporter.util.http.service.annotation.Controller;
+import com.redeye.kafexporter.util.http.service.annotation.RequestHandler;
+
+/**
+ * 에이전트 관리 컨트롤러<br>
+ * 어드바이스 그룹(config, close, send, batch, serde, listener, poll, commit, rebalance, streams)을 실행 중에 활성화/비활성화함<br>
+ * 비활성화시 클래스를 재변환하여 어드바이스 코드를 제거하므로 수집 부하가 남지 않음
+ * 
+ * @author jmsohn
+ */
+@Controller(basePath = "/admin")
+public class AgentAdminController {
+	
+	/**
+	 * 어드바이스 그룹별 활성화 여부 반환
+	 * 
+	 * @return 어드바이스 그룹별 활성화 여부
+	 */
+	@RequestHandler(path = "/advice")
+	public static String getAdviceGroupStatus() {
+		return JSONUtil.toJSON(KafkaTransformer.getAdviceGroupStatus());
+	}
+	
+	/**
+	 * 어드바이스 그룹 활성화
+	 * 
+	 * @param pathParamList 패스 파라미터 목록
+	 * @return 어드바이스 그룹별 활성화 여부
+	 */
+	@RequestHandler(path = "/advice/*/enable", method = HttpMethod.POST)
+	public static String enableAdviceGroup(List<String> pathParamList) {
+		
+		KafkaTransformer.setAdviceGroupEnabled(
+			pathParamList.get(0),	// 어드바이스 그룹 명
+			true
+		);
+		
+		return getAdviceGroupStatus();
+	}
+	
+	/**
+	 * 어드바이스 그룹 비활성화
+	 * 
+	 * @param pathParamList 패스 파라미터 목록
+	 * @return 어드바이스 그룹별 활성화 여부
+	 */
+	@RequestHandler(path = "/advice/*/disable", method = HttpMethod.POST)
+	public static String disableAdviceGroup(List<String> pathParamList) {
+		
+		KafkaTransformer.setAdviceGroupEnabled(
+			pathParamList.get(0),	// 어드바이스 그룹 명
+			false
+		);
+		
+		return getAdviceGroupStatus();
+	}
+}
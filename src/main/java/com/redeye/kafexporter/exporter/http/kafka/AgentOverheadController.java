@@ -0,0 +1,44 @@
+package com.redeye.kafexporter.exporter.http.kafka;
+
+import java.util.List;
+
+import com.redeye.kafexporter.acquisitor.kafka.KafkaAcquisitor;
+import com.redeye.kafexporter.util.JSONUtil;
+import com.redeye.kafexporter.util.http.service.annotation.Controller;
+import com.redeye.kafexporter.util.http.service.annotation.RequestHandler;
+
+/**
+ * 에이전트 자체 부하 정보 컨트롤러<br>
+ * 어드바이스별 수행 시간, 할당 메모리 및 대상 메소드 대비 부하 비율을 반환함
+ * 
+ * @author jmsohn
+ */
+@Controller(basePath = "/overhead")
+public class AgentOverheadController {
+	
+	/**
+	 * 전체 어드바이스의 부하 정보 반환
+	 * 
+	 * @return 어드바이스별 부하 정보
+	 */
+	@RequestHandler
+	public static String getOverhead() {
+		return JSONUtil.toJSON(KafkaAcquisitor.getAgentOverhead());
+	}
+	
+	/**
+	 * 어드바이스의 부하 정보 반환
+	 * 
+	 * @param pathParamList 패스 파라미터 목록
+	 * @return 어드바이스의 부하 정보
+	 */
+	@RequestHandler(path = "/*")
+	public static String getOverhead(List<String> pathParamList) {
+		
+		return JSONUtil.toJSON(
+			KafkaAcquisitor.getAgentOverhead(
+				pathParamList.get(0)	// 어드바이스 명
+			)
+		);
+	}
+}
@@ -0,0 +1,120 @@
+package com.redeye.kafexporter.exporter.http.kafka;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.redeye.kafexporter.acquisitor.kafka.KafkaAcquisitor;
+import com.redeye.kafexporter.util.JSONUtil;
+import com.redeye.kafexporter.util.http.service.annotation.Controller;
+import com.redeye.kafexporter.util.http.service.annotation.RequestHandler;
+
+/**
+ * Kafka 클라이언트 수집 통계 정보 관련 컨트롤러<br>
+ * 에이전트가 직접 수집한 시간 통계 정보를 반환함
+ * 
+ * @author jmsohn
+ */
+@Controller(basePath = "/stat")
+public class KafkaStatController {
+	
+	/**
+	 * 전체 수집 통계 정보 반환
+	 * 
+	 * @return 전체 수집 통계 정보
+	 */
+	@RequestHandler
+	public static String getStat() {
+		
+		Map<String, Object> statMap = new HashMap<>();
+		
+		statMap.put("consumer", KafkaAcquisitor.getConsumerTimeStat());
+		statMap.put("producer", KafkaAcquisitor.getProducerSendStat());
+		statMap.put("serde", KafkaAcquisitor.getSerdeStat());
+		
+		return JSONUtil.toJSON(statMap);
+	}
+	
+	/**
+	 * 컨슈머 수집 통계 정보 반환
+	 * 
+	 * @return 컨슈머 수집 통계 정보
+	 */
+	@RequestHandler(path = "/consumer")
+	public static String getConsumerStat() {
+		return JSONUtil.toJSON(KafkaAcquisitor.getConsumerTimeStat());
+	}
+	
+	/**
+	 * 컨슈머 클라이언트의 수집 통계 정보 반환
+	 * 
+	 * @param pathParamList 패스 파라미터 목록
+	 * @return 컨슈머 클라이언트의 수집 통계 정보
+	 */
+	@RequestHandler(path = "/consumer/*")
+	public static String getConsumerStat(List<String> pathParamList) {
+		
+		return JSONUtil.toJSON(
+			KafkaAcquisitor.getConsumerTimeStat(
+				pathParamList.get(0)	// Client Id
+			)
+		);
+	}
+	
+	/**
+	 * poll 간격 경고 상태인 컨슈머 목록 반환<br>
+	 * 마지막 poll 이후 경과 시간이 max.poll.interval.ms 의 경고 비율을 넘은 컨슈머
+	 * 
+	 * @return poll 간격 경고 상태인 컨슈머의 감시 정보
+	 */
+	@RequestHandler(path = "/watchdog")
+	public static String getPollWatchdogWarning() {
+		return JSONUtil.toJSON(KafkaAcquisitor.getPollWatchdogWarning());
+	}
+	
+	/**
+	 * 최근 종료된 클라이언트의 최종 수집 통계 정보 반환 - 최근 종료 순
+	 * 
+	 * @return 종료된 클라이언트의 최종 수집 통계 정보
+	 */
+	@RequestHandler(path = "/closed")
+	public static String getClosedClientStat() {
+		return JSONUtil.toJSON(KafkaAcquisitor.getClosedClientStat());
+	}
+	
+	/**
+	 * Serializer/Deserializer 수집 통계 정보 반환
+	 * 
+	 * @return Serializer/Deserializer 수집 통계 정보
+	 */
+	@RequestHandler(path = "/serde")
+	public static String getSerdeStat() {
+		return JSONUtil.toJSON(KafkaAcquisitor.getSerdeStat());
+	}
+	
+	/**
+	 * 프로듀서 수집 통계 정보 반환
+	 * 
+	 * @return 프로듀서 수집 통계 정보
+	 */
+	@RequestHandler(path = "/producer")
+	public static String getProducerStat() {
+		return JSONUtil.toJSON(KafkaAcquisitor.getProducerSendStat());
+	}
+	
+	/**
+	 * 프로듀서 클라이언트의 수집 통계 정보 반환
+	 * 
+	 * @param pathParamList 패스 파라미터 목록
+	 * @return 프로듀서 클라이언트의 수집 통계 정보
+	 */
+	@RequestHandler(path = "/producer/*")
+	public static String getProducerStat(List<String> pathParamList) {
+		
+		return JSONUtil.toJSON(
+			KafkaAcquisitor.getProducerSendStat(
+				pathParamList.get(0)	// Client Id
+			)
+		);
+	}
+}
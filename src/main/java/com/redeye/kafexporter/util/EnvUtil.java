@@ -0,0 +1,81 @@
+package com.redeye.kafexporter.util;
+
+/**
+ * 환경 변수 유틸리티 클래스
+ * 
+ * @author jmsohn
+ */
+public class EnvUtil {
+	
+	/**
+	 * 환경 변수 설정 값 반환
+	 * 
+	 * @param name 환경 변수 명
+	 * @param defaultValue 환경 변수 미설정시 반환할 값
+	 * @return 환경 변수 설정 값
+	 */
+	public static String getEnv(String name, String defaultValue) {
+		
+		String value = System.getenv(name);
+		
+		if(StringUtil.isBlank(value) == true) {
+			return defaultValue;
+		} else {
+			return value.trim();
+		}
+	}
+	
+	/**
+	 * 환경 변수 설정 값을 int 로 변환하여 반환
+	 * 
+	 * @param name 환경 변수 명
+	 * @param defaultValue 환경 변수 미설정시 반환할 값
+	 * @return 환경 변수 설정 값
+	 */
+	public static int getEnvInt(String name, int defaultValue) {
+		return Integer.parseInt(getEnv(name, Integer.toString(defaultValue)));
+	}
+	
+	/**
+	 * 환경 변수 설정 값을 long 으로 변환하여 반환
+	 * 
+	 * @param name 환경 변수 명
+	 * @param defaultValue 환경 변수 미설정시 반환할 값
+	 * @return 환경 변수 설정 값
+	 */
+	public static long getEnvLong(String name, long defaultValue) {
+		return Long.parseLong(getEnv(name, Long.toString(defaultValue)));
+	}
+	
+	/**
+	 * 환경 변수 설정 값을 double 로 변환하여 반환
+	 * 
+	 * @param name 환경 변수 명
+	 * @param defaultValue 환경 변수 미설정시 반환할 값
+	 * @return 환경 변수 설정 값
+	 */
+	public static double getEnvDouble(String name, double defaultValue) {
+		return Double.parseDouble(getEnv(name, Double.toString(defaultValue)));
+	}
+	
+	/**
+	 * 환경 변수 설정 값을 enum 으로 변환하여 반환<br>
+	 * 대소문자 구분 없음
+	 * 
+	 * @param <E> enum 타입
+	 * @param name 환경 변수 명
+	 * @param type enum 클래스
+	 * @param defaultValue 환경 변수 미설정시 반환할 값
+	 * @return 환경 변수 설정 값
+	 */
+	public static <E extends Enum<E>> E getEnvEnum(String name, Class<E> type, E defaultValue) {
+		
+		String value = getEnv(name, null);
+		
+		if(value == null) {
+			return defaultValue;
+		}
+		
+		return Enum.valueOf(type, value.toUpperCase());
+	}
+}
@@ -0,0 +1,218 @@
+package com.redeye.kafexporter.util;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 이름별 순번 등록 클래스<br>
+ * 이름마다 작은 정수 순번(ordinal)을 부여하여,<br>
+ * 수집 경로에서 문자열 대신 순번을 배열 인덱스로 사용하기 위함<br>
+ * 순번은 1 부터 시작하며, 0 은 미등록을 의미함<br>
+ * 등록 해제된 순번은 재사용 대기 시간이 지난 후 새로 등록되는 이름에 다시 부여될 수 있음<br>
+ * - 대기 시간은 해제된 순번으로 수집된 데이터가 모두 정리될 때까지의 여유 시간임
+ * 
+ * @author jmsohn
+ */
+public class OrdinalRegistry {
+	
+	
+	/** 미등록 순번 */
+	public static final int NONE = 0;
+	
+	
+	/** 이름별 순번 맵 - key: 이름, value: 순번 */
+	private final Map<String, Integer> ordinalMap = new ConcurrentHashMap<>();
+	
+	/** 순번별 이름 배열 - index: 순번 */
+	private volatile String[] names = new String[16];
+	
+	/** 다음에 부여할 순번 */
+	private int nextOrdinal = 1;
+	
+	/** 순번 재사용 대기 시간 - 단위: ms, 음수일 경우 재사용하지 않음 */
+	private final long reuseDelay;
+	
+	/** 재사용 대기 중인 순번 목록 - 등록 해제 순 */
+	private final ArrayDeque<RetiredOrdinal> retiredQueue = new ArrayDeque<>();
+	
+	
+	/**
+	 * 생성자 - 등록 해제된 순번을 재사용하지 않음
+	 */
+	public OrdinalRegistry() {
+		this(-1);
+	}
+	
+	/**
+	 * 생성자
+	 * 
+	 * @param reuseDelay 순번 재사용 대기 시간 - 단위: ms, 음수일 경우 재사용하지 않음
+	 */
+	public OrdinalRegistry(long reuseDelay) {
+		this.reuseDelay = reuseDelay;
+	}
+	
+	
+	/**
+	 * 이름 등록 후 순번 반환<br>
+	 * 이미 등록된 이름일 경우 기존 순번 반환
+	 * 
+	 * @param name 이름
+	 * @return 순번
+	 */
+	public synchronized int register(String name) {
+		
+		// 입력값 검증
+		if(name == null) {
+			throw new IllegalArgumentException("'name' is null.");
+		}
+		
+		// 이미 등록된 경우 기존 순번 반환
+		Integer ordinal = this.ordinalMap.get(name);
+		if(ordinal != null) {
+			return ordinal;
+		}
+		
+		// 순번 부여 - 재사용 가능한 순번이 있을 경우 재사용
+		int newOrdinal = this.pollRetiredOrdinal();
+		if(newOrdinal == NONE) {
+			newOrdinal = this.nextOrdinal++;
+		}
+		
+		String[] curNames = this.names;
+		if(newOrdinal >= curNames.length) {
+			curNames = Arrays.copyOf(curNames, curNames.length * 2);
+		}
+		
+		curNames[newOrdinal] = name;
+		this.names = curNames;
+		
+		this.ordinalMap.put(name, newOrdinal);
+		
+		return newOrdinal;
+	}
+	
+	/**
+	 * 이름의 순번 반환, 미등록일 경우 등록 후 반환<br>
+	 * 등록된 경우 락 및 객체 생성 없이 동작함
+	 * 
+	 * @param name 이름
+	 * @return 순번, 이름이 null 일 경우 NONE(0)
+	 */
+	public int getOrRegister(String name) {
+		
+		if(name == null) {
+			return NONE;
+		}
+		
+		Integer ordinal = this.ordinalMap.get(name);
+		return (ordinal == null)?this.register(name):ordinal;
+	}
+	
+	/**
+	 * 이름의 순번 반환
+	 * 
+	 * @param name 이름
+	 * @return 순번, 미등록일 경우 NONE(0)
+	 */
+	public int getOrdinal(String name) {
+		
+		if(name == null) {
+			return NONE;
+		}
+		
+		Integer ordinal = this.ordinalMap.get(name);
+		return (ordinal == null)?NONE:ordinal;
+	}
+	
+	/**
+	 * 순번에 해당하는 이름 반환
+	 * 
+	 * @param ordinal 순번
+	 * @return 이름, 미등록일 경우 null
+	 */
+	public String getName(int ordinal) {
+		
+		String[] curNames = this.names;
+		
+		if(ordinal <= NONE || ordinal >= curNames.length) {
+			return null;
+		}
+		
+		return curNames[ordinal];
+	}
+	
+	/**
+	 * 이름 등록 해제<br>
+	 * 해제된 순번은 재사용 대기 시간이 지난 후 재사용됨
+	 * 
+	 * @param name 이름
+	 * @return 해제된 순번, 미등록일 경우 NONE(0)
+	 */
+	public synchronized int unregister(String name) {
+		
+		if(name == null) {
+			return NONE;
+		}
+		
+		Integer ordinal = this.ordinalMap.remove(name);
+		if(ordinal == null) {
+			return NONE;
+		}
+		
+		String[] curNames = this.names;
+		curNames[ordinal] = null;
+		this.names = curNames;
+		
+		if(this.reuseDelay >= 0) {
+			this.retiredQueue.add(new RetiredOrdinal(ordinal, System.nanoTime()));
+		}
+		
+		return ordinal;
+	}
+	
+	/**
+	 * 재사용 대기 시간이 지난 순번 반환 - register 에서만 호출됨
+	 * 
+	 * @return 재사용 가능한 순번, 없을 경우 NONE(0)
+	 */
+	private int pollRetiredOrdinal() {
+		
+		RetiredOrdinal retired = this.retiredQueue.peek();
+		
+		if(retired == null || System.nanoTime() - retired.retireTime < this.reuseDelay * 1000000L) {
+			return NONE;
+		}
+		
+		this.retiredQueue.poll();
+		return retired.ordinal;
+	}
+	
+	
+	/**
+	 * 재사용 대기 중인 순번 클래스
+	 * 
+	 * @author jmsohn
+	 */
+	private static class RetiredOrdinal {
+		
+		/** 순번 */
+		final int ordinal;
+		
+		/** 등록 해제 시간 - System.nanoTime */
+		final long retireTime;
+		
+		/**
+		 * 생성자
+		 * 
+		 * @param ordinal 순번
+		 * @param retireTime 등록 해제 시간 - System.nanoTime
+		 */
+		RetiredOrdinal(int ordinal, long retireTime) {
+			this.ordinal = ordinal;
+			this.retireTime = retireTime;
+		}
+	}
+}
@@ -0,0 +1,17 @@
+package com.redeye.kafexporter.util.ring;
+
+/**
+ * long 레코드 처리 핸들러 인터페이스
+ * 
+ * @author jmsohn
+ */
+@FunctionalInterface
+public interface LongRecordHandler {
+	
+	/**
+	 * 레코드 처리
+	 * 
+	 * @param record 레코드 - 재사용되는 배열이므로 보관하면 안됨
+	 */
+	void handle(long[] record);
+}
@@ -0,0 +1,237 @@
+package com.redeye.kafexporter.util.ring;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import lombok.Getter;
+
+/**
+ * 단일 생산자/단일 소비자 long 레코드 링 버퍼 클래스<br>
+ * 하나의 레코드는 고정된 개수(recordSize)의 long 값으로 구성됨<br>
+ * 생산자 스레드는 하나만 존재해야 하며, 락 및 객체 생성 없이 동작함<br>
+ * 버퍼는 생성시 미리 할당됨
+ * 
+ * @author jmsohn
+ */
+public class LongRingBuffer {
+	
+	
+	/** 데이터 버퍼 - 레코드 단위로 연속 저장 */
+	private final long[] buffer;
+	
+	/** 인덱스 마스크 - 버퍼 크기는 2의 거듭제곱 */
+	private final int mask;
+	
+	/** 버퍼 크기(레코드 수) */
+	@Getter
+	private final int capacity;
+	
+	/** 레코드 당 long 값의 개수 */
+	@Getter
+	private final int recordSize;
+	
+	/** 버퍼가 가득 찼을 경우의 처리 정책 */
+	@Getter
+	private final OverflowPolicy overflowPolicy;
+	
+	/** 읽기 위치 - 소비자가 변경, DROP_OLDEST 정책일 경우 생산자도 변경 */
+	private final AtomicLong head = new AtomicLong(0);
+	
+	/** 쓰기 위치 - 생산자만 변경 */
+	private final AtomicLong tail = new AtomicLong(0);
+	
+	/** 버퍼 초과로 버려진 레코드 수 */
+	private final AtomicLong dropCount = new AtomicLong(0);
+	
+	/** 소비자용 레코드 복사 버퍼 - 읽는 도중 덮어쓰기 되는 경우를 검출하기 위해 복사 후 처리 */
+	private final long[] record;
+	
+	
+	/**
+	 * 생성자
+	 * 
+	 * @param capacity 버퍼 크기(레코드 수) - 2의 거듭제곱으로 올림 처리됨
+	 * @param recordSize 레코드 당 long 값의 개수
+	 * @param overflowPolicy 버퍼가 가득 찼을 경우의 처리 정책
+	 */
+	public LongRingBuffer(int capacity, int recordSize, OverflowPolicy overflowPolicy) {
+		
+		// 입력값 검증
+		if(capacity <= 0) {
+			throw new IllegalArgumentException("'capacity' must be greater than 0: " + capacity);
+		}
+		
+		if(recordSize <= 0) {
+			throw new IllegalArgumentException("'recordSize' must be greater than 0: " + recordSize);
+		}
+		
+		if(overflowPolicy == null) {
+			throw new IllegalArgumentException("'overflowPolicy' is null.");
+		}
+		
+		// 2의 거듭제곱으로 버퍼 크기 설정
+		int size = 1;
+		while(size < capacity) {
+			size <<= 1;
+		}
+		
+		this.capacity = size;
+		this.mask = size - 1;
+		this.recordSize = recordSize;
+		this.buffer = new long[size * recordSize];
+		this.record = new long[recordSize];
+		this.overflowPolicy = overflowPolicy;
+	}
+	
+	/**
+	 * 레코드 추가 - 생산자 스레드에서만 호출해야 함
+	 * 
+	 * @param value0 첫번째 값
+	 * @param value1 두번째 값
+	 * @return 추가 여부 - 버퍼 초과로 버려진 경우 false
+	 */
+	public boolean offer(long value0, long value1) {
+		return this.offer(value0, value1, 0, 0);
+	}
+	
+	/**
+	 * 레코드 추가 - 생산자 스레드에서만 호출해야 함
+	 * 
+	 * @param value0 첫번째 값
+	 * @param value1 두번째 값
+	 * @param value2 세번째 값
+	 * @return 추가 여부 - 버퍼 초과로 버려진 경우 false
+	 */
+	public boolean offer(long value0, long value1, long value2) {
+		return this.offer(value0, value1, value2, 0);
+	}
+	
+	/**
+	 * 레코드 추가 - 생산자 스레드에서만 호출해야 함<br>
+	 * 레코드 크기를 넘는 값은 무시되며, 레코드 크기가 4 보다 클 경우 나머지 값은 0 으로 저장됨
+	 * 
+	 * @param value0 첫번째 값
+	 * @param value1 두번째 값
+	 * @param value2 세번째 값
+	 * @param value3 네번째 값
+	 * @return 추가 여부 - 버퍼 초과로 버려진 경우 false
+	 */
+	public boolean offer(long value0, long value1, long value2, long value3) {
+		
+		long curTail = this.claim();
+		if(curTail < 0) {
+			return false;
+		}
+		
+		int offset = this.offset(curTail);
+		
+		this.buffer[offset] = value0;
+		
+		if(this.recordSize > 1) {
+			this.buffer[offset + 1] = value1;
+		}
+		
+		if(this.recordSize > 2) {
+			this.buffer[offset + 2] = value2;
+		}
+		
+		if(this.recordSize > 3) {
+			this.buffer[offset + 3] = value3;
+		}
+		
+		for(int index = 4; index < this.recordSize; index++) {
+			this.buffer[offset + index] = 0;
+		}
+		
+		// 쓰기 위치 공개
+		this.tail.lazySet(curTail + 1);
+		
+		return true;
+	}
+	
+	/**
+	 * 레코드를 저장할 쓰기 위치를 확보하여 반환<br>
+	 * 버퍼가 가득 찼을 경우 정책에 따라 처리
+	 * 
+	 * @return 쓰기 위치, 버퍼 초과로 버려진 경우 -1
+	 */
+	private long claim() {
+		
+		long curTail = this.tail.get();
+		
+		while(true) {
+			
+			long curHead = this.head.get();
+			if(curTail - curHead < this.capacity) {
+				return curTail;
+			}
+			
+			if(this.overflowPolicy == OverflowPolicy.DROP_NEWEST) {
+				this.dropCount.incrementAndGet();
+				return -1;
+			}
+			
+			// DROP_OLDEST - 가장 오래된 레코드의 읽기 위치를 넘김
+			// 소비자가 먼저 읽어간 경우 CAS 가 실패하므로 다시 검사함
+			if(this.head.compareAndSet(curHead, curHead + 1) == true) {
+				this.dropCount.incrementAndGet();
+				return curTail;
+			}
+		}
+	}
+	
+	/**
+	 * 위치에 해당하는 버퍼 내 시작 인덱스 반환
+	 * 
+	 * @param position 읽기/쓰기 위치
+	 * @return 버퍼 내 시작 인덱스
+	 */
+	private int offset(long position) {
+		return (int)(position & this.mask) * this.recordSize;
+	}
+	
+	/**
+	 * 버퍼의 모든 레코드를 꺼내 처리 - 소비자 스레드에서만 호출해야 함<br>
+	 * 핸들러에 전달되는 배열은 재사용되므로 핸들러 밖으로 보관하면 안됨
+	 * 
+	 * @param handler 레코드 처리 핸들러
+	 * @return 처리한 레코드 수
+	 */
+	public int drain(LongRecordHandler handler) {
+		
+		int count = 0;
+		
+		while(true) {
+			
+			long curHead = this.head.get();
+			if(curHead >= this.tail.get()) {
+				return count;
+			}
+			
+			System.arraycopy(this.buffer, this.offset(curHead), this.record, 0, this.recordSize);
+			
+			// 읽는 도중 생산자가 덮어쓴 경우(DROP_OLDEST) CAS 가 실패하므로 다시 읽음
+			if(this.head.compareAndSet(curHead, curHead + 1) == true) {
+				handler.handle(this.record);
+				count++;
+			}
+		}
+	}
+	
+	/**
+	 * 버퍼가 비어 있는지 여부 반환
+	 * 
+	 * @return 버퍼가 비어 있는지 여부
+	 */
+	public boolean isEmpty() {
+		return this.head.get() >= this.tail.get();
+	}
+	
+	/**
+	 * 버퍼 초과로 버려진 레코드 수 반환
+	 * 
+	 * @return 버려진 레코드 수
+	 */
+	public long getDropCount() {
+		return this.dropCount.get();
+	}
+}
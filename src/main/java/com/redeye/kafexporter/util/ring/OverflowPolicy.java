@@ -0,0 +1,15 @@
+package com.redeye.kafexporter.util.ring;
+
+/**
+ * 링 버퍼가 가득 찼을 경우의 처리 정책
+ * 
+ * @author jmsohn
+ */
+public enum OverflowPolicy {
+	
+	/** 새로 입력되는 데이터를 버림 */
+	DROP_NEWEST,
+	
+	/** 가장 오래된 데이터를 버리고 새로운 데이터를 저장 */
+	DROP_OLDEST
+}
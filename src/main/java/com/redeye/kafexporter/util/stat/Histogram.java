@@ -0,0 +1,346 @@
+package com.redeye.kafexporter.util.stat;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 로그-선형 구간 히스토그램 클래스(HdrHistogram 방식)<br>
+ * 0 이상의 long 값을 2의 거듭제곱 구간 [2^n, 2^(n+1)) 마다 같은 폭의 하위 구간 2^precision 개로 나누어 개수를 저장하므로,<br>
+ * 값의 크기와 관계 없이 구간 폭이 값의 1/2^precision 이하임 - 기본 정밀도(5)에서 상대 오차 3.125% 이하<br>
+ * 2^(precision+1) 미만의 값은 폭 1 의 구간에 저장되어 정확한 값을 가짐<br>
+ * 구간 배열은 생성시 고정 크기로 할당하므로 값 추가시 객체 생성 없으며, 메모리는 데이터 수와 관계 없이 일정함<br>
+ * 값 추가는 원자적 증가 연산만 사용하므로 잠금이 없으며, 통계 데몬 스레드의 추가 중에도 다른 스레드에서 백분위 수를 읽을 수 있음<br>
+ * 백분위 수는 구간 배열의 복사본에서 계산하며, 구간 내 선형 보간으로 추정함
+ * 
+ * @author jmsohn
+ */
+public class Histogram {
+	
+	
+	/** 기본 정밀도 - 2의 거듭제곱 구간당 하위 구간 수의 지수 */
+	public static final int DEFAULT_PRECISION = 5;
+	
+	/** 최대 정밀도 */
+	private static final int MAX_PRECISION = 10;
+	
+	/** 기본 백분위 목록 */
+	private static final double[] DEFAULT_PERCENTILES = {50, 90, 95, 99, 99.9};
+	
+	
+	/** 정밀도 - 2의 거듭제곱 구간당 하위 구간 수의 지수 */
+	private final int precision;
+	
+	/** 2의 거듭제곱 구간당 하위 구간 수 - 2^precision */
+	private final int subBucketCount;
+	
+	/** 구간별 개수 */
+	private final AtomicLongArray buckets;
+	
+	/** 최소 값 */
+	private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+	
+	/** 최대 값 */
+	private final AtomicLong max = new AtomicLong(Long.MIN_VALUE);
+	
+	
+	/**
+	 * 생성자 - 기본 정밀도
+	 */
+	public Histogram() {
+		this(DEFAULT_PRECISION);
+	}
+	
+	/**
+	 * 생성자
+	 * 
+	 * @param precision 정밀도(1 ~ 10) - 상대 오차 1/2^precision 이하, 구간 수 (64 - precision) * 2^precision
+	 */
+	public Histogram(int precision) {
+		
+		// 입력값 검증
+		if(precision < 1 || precision > MAX_PRECISION) {
+			throw new IllegalArgumentException("'precision' must be between 1 and " + MAX_PRECISION + ": " + precision);
+		}
+		
+		this.precision = precision;
+		this.subBucketCount = 1 << precision;
+		this.buckets = new AtomicLongArray((64 - precision) * this.subBucketCount);
+	}
+	
+	/**
+	 * 값 추가 - 음수는 무시함
+	 * 
+	 * @param value 추가할 값
+	 */
+	public void add(long value) {
+		
+		if(value < 0) {
+			return;
+		}
+		
+		this.buckets.incrementAndGet(this.indexOf(value));
+		
+		// 최소/최대 값은 변경될 때만 갱신
+		long curMin = this.min.get();
+		while(value < curMin && this.min.compareAndSet(curMin, value) == false) {
+			curMin = this.min.get();
+		}
+		
+		long curMax = this.max.get();
+		while(value > curMax && this.max.compareAndSet(curMax, value) == false) {
+			curMax = this.max.get();
+		}
+	}
+	
+	/**
+	 * 초기화<br>
+	 * 초기화 중 다른 스레드에서 추가된 값은 일부 남거나 누락될 수 있음
+	 */
+	public void reset() {
+		
+		for(int index = 0; index < this.buckets.length(); index++) {
+			this.buckets.set(index, 0);
+		}
+		
+		this.min.set(Long.MAX_VALUE);
+		this.max.set(Long.MIN_VALUE);
+	}
+	
+	/**
+	 * 데이터의 개수 반환
+	 * 
+	 * @return 데이터의 개수
+	 */
+	public long getCount() {
+		
+		long count = 0;
+		
+		for(int index = 0; index < this.buckets.length(); index++) {
+			count += this.buckets.get(index);
+		}
+		
+		return count;
+	}
+	
+	/**
+	 * 백분위 수 반환
+	 * 
+	 * @param percentile 백분위(0 ~ 100)
+	 * @return 백분위 수, 데이터가 없을 경우 NaN
+	 */
+	public double getPercentile(double percentile) {
+		
+		// 입력값 검증
+		if(percentile < 0 || percentile > 100) {
+			throw new IllegalArgumentException("'percentile' must be between 0 and 100: " + percentile);
+		}
+		
+		return this.snapshot().getPercentile(percentile);
+	}
+	
+	/**
+	 * 최소 값 반환
+	 * 
+	 * @return 최소 값, 데이터가 없을 경우 0
+	 */
+	public long getMin() {
+		
+		long curMin = this.min.get();
+		return (curMin == Long.MAX_VALUE)?0:curMin;
+	}
+	
+	/**
+	 * 최대 값 반환
+	 * 
+	 * @return 최대 값, 데이터가 없을 경우 0
+	 */
+	public long getMax() {
+		
+		long curMax = this.max.get();
+		return (curMax == Long.MIN_VALUE)?0:curMax;
+	}
+	
+	/**
+	 * 값이 속한 구간 인덱스 반환<br>
+	 * 2^(precision+1) 미만의 값은 값 자체가 인덱스이며,<br>
+	 * 그 이상의 값은 최상위 비트 위치로 2의 거듭제곱 구간을, 다음 precision 개 비트로 하위 구간을 정함
+	 * 
+	 * @param value 값(0 이상)
+	 * @return 구간 인덱스
+	 */
+	private int indexOf(long value) {
+		
+		int exponent = 63 - Long.numberOfLeadingZeros(value | this.subBucketCount);
+		int shift = exponent - this.precision;
+		
+		return (shift << this.precision) + (int)(value >>> shift);
+	}
+	
+	/**
+	 * 구간의 하한 값 반환
+	 * 
+	 * @param index 구간 인덱스
+	 * @return 구간 하한 값
+	 */
+	private double lowerBound(int index) {
+		
+		int shift = (index >>> this.precision) - 1;
+		if(shift <= 0) {
+			return index;
+		}
+		
+		return (double)((index & (this.subBucketCount - 1)) + this.subBucketCount) * (1L << shift);
+	}
+	
+	/**
+	 * 구간의 폭 반환
+	 * 
+	 * @param index 구간 인덱스
+	 * @return 구간 폭
+	 */
+	private double width(int index) {
+		
+		int shift = (index >>> this.precision) - 1;
+		return (shift <= 0)?1:(double)(1L << shift);
+	}
+	
+	/**
+	 * 현재 구간별 개수의 복사본 반환 - 백분위 수 계산용
+	 * 
+	 * @return 복사본
+	 */
+	private Snapshot snapshot() {
+		
+		long[] counts = new long[this.buckets.length()];
+		long total = 0;
+		
+		for(int index = 0; index < counts.length; index++) {
+			counts[index] = this.buckets.get(index);
+			total += counts[index];
+		}
+		
+		return new Snapshot(counts, total, this.getMin(), this.getMax());
+	}
+	
+	/**
+	 * 기본 백분위 수를 맵 형태로 반환<br>
+	 * JSON 변환용, 모든 값은 같은 시점의 복사본에서 계산함
+	 * 
+	 * @param unit 단위 변환 값 - 각 값을 이 값으로 나누어 반환
+	 * @return 백분위 수 맵 - key: 백분위 명(count, min, p50, p90, p95, p99, p99.9, max), value: 백분위 수
+	 */
+	public Map<String, Object> toMap(double unit) {
+		
+		Snapshot snapshot = this.snapshot();
+		
+		Map<String, Object> map = new LinkedHashMap<>();
+		
+		map.put("count", snapshot.total);
+		map.put("min", snapshot.min / unit);
+		
+		for(double percentile: DEFAULT_PERCENTILES) {
+			map.put(toPercentileName(percentile), snapshot.getPercentile(percentile) / unit);
+		}
+		
+		map.put("max", snapshot.max / unit);
+		
+		return map;
+	}
+	
+	/**
+	 * 백분위 명 반환 - ex) 99 -> p99, 99.9 -> p99.9
+	 * 
+	 * @param percentile 백분위
+	 * @return 백분위 명
+	 */
+	private static String toPercentileName(double percentile) {
+		
+		if(percentile == Math.floor(percentile)) {
+			return "p" + (long)percentile;
+		} else {
+			return "p" + percentile;
+		}
+	}
+	
+	
+	/**
+	 * 구간별 개수 복사본 클래스
+	 * 
+	 * @author jmsohn
+	 */
+	private class Snapshot {
+		
+		/** 구간별 개수 */
+		final long[] counts;
+		
+		/** 데이터의 개수 */
+		final long total;
+		
+		/** 최소 값 */
+		final long min;
+		
+		/** 최대 값 */
+		final long max;
+		
+		/**
+		 * 생성자
+		 * 
+		 * @param counts 구간별 개수
+		 * @param total 데이터의 개수
+		 * @param min 최소 값
+		 * @param max 최대 값
+		 */
+		Snapshot(long[] counts, long total, long min, long max) {
+			this.counts = counts;
+			this.total = total;
+			this.min = min;
+			this.max = max;
+		}
+		
+		/**
+		 * 백분위 수 반환
+		 * 
+		 * @param percentile 백분위(0 ~ 100)
+		 * @return 백분위 수, 데이터가 없을 경우 NaN
+		 */
+		double getPercentile(double percentile) {
+			
+			if(this.total == 0) {
+				return Double.NaN;
+			}
+			
+			// 백분위에 해당하는 순위
+			double rank = Math.max(1, Math.ceil(this.total * percentile / 100.0));
+			
+			// 순위가 속한 구간을 찾아 구간 내 선형 보간 - 폭 1 의 구간은 정확한 값
+			long accumulated = 0;
+			
+			for(int index = 0; index < this.counts.length; index++) {
+				
+				long bucketCount = this.counts[index];
+				if(bucketCount == 0) {
+					continue;
+				}
+				
+				if(accumulated + bucketCount >= rank) {
+					
+					double lower = lowerBound(index);
+					double width = width(index);
+					
+					if(width <= 1) {
+						return lower;
+					}
+					
+					double value = lower + width * (rank - accumulated) / bucketCount;
+					return Math.max(this.min, Math.min(value, this.max));
+				}
+				
+				accumulated += bucketCount;
+			}
+			
+			return this.max;
+		}
+	}
+}
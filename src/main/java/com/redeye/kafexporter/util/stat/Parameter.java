@@ -1,6 +1,8 @@
 package com.redeye.kafexporter.util.stat;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import lombok.Getter;
 
@@ -299,6 +301,29 @@ public class Parameter {
 		return this.max;
 	}
 	
+	/**
+	 * 모수 값을 맵 형태로 반환<br>
+	 * JSON 변환용
+	 * 
+	 * @return 모수 값 맵 - key: 모수 명, value: 모수 값
+	 */
+	public synchronized Map<String, Object> toMap() {
+		
+		Map<String, Object> map = new LinkedHashMap<>();
+		
+		map.put("count", this.count);
+		map.put("sum", this.sum);
+		map.put("mean", this.getMean());
+		map.put("variance", this.getVariance());
+		map.put("std", this.getStd());
+		map.put("skewness", this.getSkewness());
+		map.put("kurtosis", this.getKurtosis());
+		map.put("min", this.getMin());
+		map.put("max", this.getMax());
+		
+		return map;
+	}
+	
 	/**
 	 * 현재 객체를 json 문자열 형태로 반환
 	 */
@@ -0,0 +1,270 @@
+package com.redeye.kafexporter.util.stat;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import lombok.Getter;
+
+/**
+ * 호출 샘플링 클래스<br>
+ * 전체 수집(ALL), 1/N 수집(RATIO), 초당 목표 수집 건수에 맞춰 N 을 자동 조정(RATE) 하는 방식을 지원함<br>
+ * 샘플링된 호출(주 샘플)은 가중치 N 을 가지며, 호출 간격 계산을 위해 키별로 바로 다음 호출(짝 샘플)도 가중치 0 으로 수집함<br>
+ * 샘플링 결과는 int 로 반환되며 SKIP 이 아닐 경우 getWeight, isContiguous 로 가중치 및 연속 여부를 확인함<br>
+ * 수집 경로에서 호출되므로 락 및 객체 생성 없이 동작함
+ * 
+ * @author jmsohn
+ */
+public class Sampler {
+	
+	
+	/**
+	 * 샘플링 방식
+	 * 
+	 * @author jmsohn
+	 */
+	public enum Mode {
+		
+		/** 전체 수집 */
+		ALL,
+		
+		/** 1/N 수집 */
+		RATIO,
+		
+		/** 초당 목표 수집 건수에 맞춰 N 을 자동 조정 */
+		RATE;
+	}
+	
+	
+	/** 수집하지 않음 */
+	public static final int SKIP = -1;
+	
+	/** 최대 샘플링 비율(N) - 가중치는 24bit 로 저장됨 */
+	public static final int MAX_RATIO = (1 << 24) - 1;
+	
+	/** 이전 호출도 수집되었음을 나타내는 비트 */
+	private static final int CONTIGUOUS = 1 << 30;
+	
+	/** 가중치 마스크 */
+	private static final int WEIGHT_MASK = MAX_RATIO;
+	
+	/** 샘플링 비율 자동 조정 주기 - 단위: ns */
+	private static final long ADJUST_INTERVAL = 1000000000L;
+	
+	
+	/** 샘플링 방식 */
+	@Getter
+	private volatile Mode mode = Mode.ALL;
+	
+	/** 현재 샘플링 비율(N) */
+	@Getter
+	private volatile int ratio = 1;
+	
+	/** 초당 목표 수집 건수 - RATE 방식에서 사용 */
+	@Getter
+	private volatile double targetRate;
+	
+	/** 마지막 조정 이후 주 샘플 수 */
+	private final LongAdder sampledCount = new LongAdder();
+	
+	/** 마지막 조정 시간 - System.nanoTime */
+	private long lastAdjustTime = System.nanoTime();
+	
+	/** 키별 짝 샘플 수집 대기 여부 - index: 키 */
+	private volatile boolean[] pendings = new boolean[16];
+	
+	
+	/**
+	 * 샘플링 방식 설정
+	 * 
+	 * @param mode 샘플링 방식
+	 * @param ratio 샘플링 비율(N) - RATIO 방식에서 사용
+	 * @param targetRate 초당 목표 수집 건수 - RATE 방식에서 사용
+	 * @return 현재 객체
+	 */
+	public synchronized Sampler setMode(Mode mode, int ratio, double targetRate) {
+		
+		// 입력값 검증
+		if(mode == null) {
+			throw new IllegalArgumentException("'mode' is null.");
+		}
+		
+		if(mode == Mode.RATIO && (ratio < 1 || ratio > MAX_RATIO)) {
+			throw new IllegalArgumentException("'ratio' must be between 1 and " + MAX_RATIO + ": " + ratio);
+		}
+		
+		if(mode == Mode.RATE && targetRate <= 0) {
+			throw new IllegalArgumentException("'targetRate' must be greater than 0: " + targetRate);
+		}
+		
+		// 샘플링 방식 설정 - RATE 방식은 전체 수집부터 시작하여 조정함
+		this.mode = mode;
+		this.ratio = (mode == Mode.RATIO)?ratio:1;
+		this.targetRate = targetRate;
+		
+		this.sampledCount.reset();
+		this.lastAdjustTime = System.nanoTime();
+		
+		return this;
+	}
+	
+	/**
+	 * 호출의 수집 여부 결정
+	 * 
+	 * @param key 샘플링 키(클라이언트 순번 등) - 호출 간격을 계산하는 단위
+	 * @return 샘플링 결과 - 수집하지 않을 경우 SKIP
+	 */
+	public int sample(int key) {
+		
+		// 전체 수집
+		if(this.mode == Mode.ALL) {
+			return 1 | CONTIGUOUS;
+		}
+		
+		int curRatio = this.ratio;
+		
+		// 이전 호출이 주 샘플인 경우 짝 샘플로 수집
+		boolean pair = this.consumePending(key);
+		
+		// 주 샘플 여부
+		boolean primary = (curRatio <= 1) || ThreadLocalRandom.current().nextInt(curRatio) == 0;
+		
+		if(primary == true) {
+			this.setPending(key);
+			this.sampledCount.increment();
+		}
+		
+		if(primary == false && pair == false) {
+			return SKIP;
+		}
+		
+		return ((primary == true)?curRatio:0) | ((pair == true)?CONTIGUOUS:0);
+	}
+	
+	/**
+	 * 샘플링 결과의 가중치 반환 - 주 샘플은 N, 짝 샘플은 0
+	 * 
+	 * @param sample 샘플링 결과
+	 * @return 가중치
+	 */
+	public static int getWeight(int sample) {
+		return sample & WEIGHT_MASK;
+	}
+	
+	/**
+	 * 샘플링 결과의 연속 여부 반환 - 이전 호출도 수집되었는지 여부
+	 * 
+	 * @param sample 샘플링 결과
+	 * @return 연속 여부
+	 */
+	public static boolean isContiguous(int sample) {
+		return (sample & CONTIGUOUS) != 0;
+	}
+	
+	/**
+	 * 키의 짝 샘플 대기 여부를 읽고 해제
+	 * 
+	 * @param key 샘플링 키
+	 * @return 짝 샘플 대기 여부
+	 */
+	private boolean consumePending(int key) {
+		
+		boolean[] curPendings = this.pendings;
+		
+		if(key < 0 || key >= curPendings.length || curPendings[key] == false) {
+			return false;
+		}
+		
+		curPendings[key] = false;
+		return true;
+	}
+	
+	/**
+	 * 키의 짝 샘플 대기 설정
+	 * 
+	 * @param key 샘플링 키
+	 */
+	private void setPending(int key) {
+		
+		if(key < 0) {
+			return;
+		}
+		
+		boolean[] curPendings = this.pendings;
+		
+		if(key >= curPendings.length) {
+			curPendings = this.growPendings(key);
+		}
+		
+		curPendings[key] = true;
+	}
+	
+	/**
+	 * 짝 샘플 대기 배열 확장
+	 * 
+	 * @param key 샘플링 키
+	 * @return 확장된 배열
+	 */
+	private synchronized boolean[] growPendings(int key) {
+		
+		boolean[] curPendings = this.pendings;
+		
+		if(key >= curPendings.length) {
+			curPendings = Arrays.copyOf(curPendings, Math.max(curPendings.length * 2, key + 1));
+			this.pendings = curPendings;
+		}
+		
+		return curPendings;
+	}
+	
+	/**
+	 * RATE 방식일 경우 샘플링 비율 자동 조정<br>
+	 * 주기적으로 호출되어야 하며, 조정 주기(1초)가 지나지 않았으면 무시함<br>
+	 * 마지막 조정 이후의 초당 주 샘플 수가 목표 건수가 되도록 N 을 조정함
+	 */
+	public synchronized void adjust() {
+		
+		if(this.mode != Mode.RATE) {
+			return;
+		}
+		
+		long now = System.nanoTime();
+		long elapsed = now - this.lastAdjustTime;
+		
+		if(elapsed < ADJUST_INTERVAL) {
+			return;
+		}
+		
+		// 초당 주 샘플 수
+		double sampledRate = this.sampledCount.sumThenReset() * 1000000000.0 / elapsed;
+		
+		// 초당 호출 수 추정 후 목표 건수에 맞는 N 계산
+		double callRate = sampledRate * this.ratio;
+		long newRatio = Math.round(callRate / this.targetRate);
+		
+		this.ratio = (int)Math.max(1, Math.min(newRatio, MAX_RATIO));
+		this.lastAdjustTime = now;
+	}
+	
+	/**
+	 * 샘플링 설정을 맵 형태로 반환<br>
+	 * JSON 변환용
+	 * 
+	 * @return 샘플링 설정 맵 - mode, ratio, targetRate(RATE 방식)
+	 */
+	public Map<String, Object> toMap() {
+		
+		Map<String, Object> map = new LinkedHashMap<>();
+		
+		map.put("mode", this.mode.name());
+		map.put("ratio", this.ratio);
+		
+		if(this.mode == Mode.RATE) {
+			map.put("targetRate", this.targetRate);
+		}
+		
+		return map;
+	}
+}